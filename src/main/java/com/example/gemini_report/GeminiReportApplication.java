@@ -1,12 +1,21 @@
 package com.example.gemini_report;
 
+import com.example.gemini_report.repository.ReactiveCleaningDataRepository;
 import com.example.gemini_report.service.CompanyInfoService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@SpringBootApplication
+// R2DBC 경로는 조회만 하므로 R2DBC 트랜잭션 매니저를 만들지 않고, @Transactional은 JPA 트랜잭션 매니저만 사용합니다.
+@SpringBootApplication(exclude = R2dbcTransactionManagerAutoConfiguration.class)
+// CleaningData는 JPA 엔티티이므로 R2DBC 리포지토리를 JPA 리포지토리 스캔에서 제외합니다.
+@EnableJpaRepositories(excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCleaningDataRepository.class))
 public class GeminiReportApplication {
 
     public static void main(String[] args) {
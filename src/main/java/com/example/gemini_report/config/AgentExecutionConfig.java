@@ -0,0 +1,46 @@
+package com.example.gemini_report.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Agent 파이프라인 전용 실행 환경을 설정하는 Configuration 클래스.
+ * Gemini API 호출과 도구 실행처럼 수 초간 블로킹되는 작업을 요청 스레드가 아닌
+ * 가상 스레드(Virtual Thread) 기반 스케줄러에서 실행하도록 {@link Scheduler} 빈을 제공합니다.
+ */
+@Configuration
+@Slf4j
+public class AgentExecutionConfig {
+
+    /**
+     * Agent 파이프라인 작업을 실행할 {@link Scheduler} 빈을 생성합니다.
+     * 작업마다 새로운 가상 스레드를 할당하므로 블로킹 호출이 플랫폼 스레드를 점유하지 않습니다.
+     * 동시 실행 수 제한은 {@link com.example.gemini_report.service.AgentExecutionGate}가 담당합니다.
+     * 애플리케이션 종료 시 Spring 컨테이너가 {@code dispose}를 호출하여 스케줄러를 정리합니다.
+     *
+     * @return 가상 스레드 기반 {@link Scheduler} 인스턴스
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler agentScheduler() {
+        log.info("Agent 파이프라인용 가상 스레드 스케줄러 생성 중...");
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "agent");
+    }
+
+    /**
+     * 한 턴에서 요청된 여러 도구를 동시에 실행하기 위한 {@link ExecutorService} 빈을 생성합니다.
+     * 도구 하나당 가상 스레드 하나를 사용하며, 애플리케이션 종료 시 {@code shutdownNow}로 정리됩니다.
+     *
+     * @return 가상 스레드 기반 {@link ExecutorService} 인스턴스
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService toolExecutorService() {
+        log.info("도구 병렬 실행용 가상 스레드 ExecutorService 생성 중...");
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.gemini_report.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC {@link DataSource}를 명시적으로 등록하는 Configuration 클래스.
+ * Spring Boot는 R2DBC {@code ConnectionFactory}가 있으면 JDBC 데이터소스 자동 설정을 생략하므로,
+ * JPA/JdbcTemplate 경로와 R2DBC 경로를 함께 사용하기 위해 {@code spring.datasource.*} 설정으로 직접 생성합니다.
+ */
+@Configuration
+@Slf4j
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    /**
+     * {@code spring.datasource.*} 설정으로 JDBC {@link DataSource} 빈을 생성합니다.
+     *
+     * @param properties 데이터소스 설정
+     * @return JDBC {@link DataSource} 인스턴스
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties) {
+        log.info("JDBC 데이터소스 생성 중: {}", properties.getUrl());
+        return properties.initializeDataSourceBuilder().build();
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.gemini_report.config;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.genai.types.*;
 import org.springframework.stereotype.Component;
 
@@ -23,8 +22,6 @@ public class GeminiConfigFactory {
 
     public GenerateContentConfig createDefaultGenerateContentConfig(List<Tool> tools) {
         GenerateContentConfig.Builder configBuilder = GenerateContentConfig.builder()
-//                .responseMimeType("application/json")
-//                .responseJsonSchema(JSON_SCHEMA)
                 .thinkingConfig(ThinkingConfig.builder().thinkingBudget(0))
                 .candidateCount(1)
                 .maxOutputTokens(1024)
@@ -37,45 +34,18 @@ public class GeminiConfigFactory {
         return configBuilder.build();
     }
 
-//    private static final Schema JSON_SCHEMA = Schema.builder()
-//            .type(Type.Known.OBJECT)
-//            .properties(
-//                    ImmutableMap.of(
-//                            "속성1", Schema.builder()
-//                                    .type(Type.Known.STRING)
-//                                    .description("설명1")
-//                                    .build(),
-//                            "속성2", Schema.builder()
-//                                    .type(Type.Known.ARRAY)
-//                                    .items(Schema.builder()
-//                                            .type(Type.Known.STRING)
-//                                            .description("설명2-1")
-//                                            .build()
-//                                    )
-//                                    .description("설명2")
-//                                    .build(),
-//                            "속성3", Schema.builder()
-//                                    .type(Type.Known.OBJECT)
-//                                    .properties(
-//                                            ImmutableMap.of(
-//                                                    "속성3-1", Schema.builder()
-//                                                            .type(Type.Known.STRING)
-//                                                            .description("설명3-1")
-//                                                            .build(),
-//                                                    "속성3-2", Schema.builder()
-//                                                            .type(Type.Known.STRING)
-//                                                            .description("설명3-2")
-//                                                            .build(),
-//                                                    "속성3-3", Schema.builder()
-//                                                            .type(Type.Known.STRING)
-//                                                            .description("설명3-3")
-//                                                            .build()
-//                                            )
-//                                    )
-//                                    .description("설명3")
-//                                    .build()
-//                    )
-//            )
-//            .description("설명")
-//            .build();
+    /**
+     * 모델이 주어진 스키마에 맞는 JSON만 출력하도록 하는 설정을 생성합니다.
+     * 구조화된 출력은 함수 호출과 함께 사용할 수 없으므로 도구 목록은 포함하지 않습니다.
+     */
+    public GenerateContentConfig createStructuredOutputConfig(Schema responseSchema) {
+        return GenerateContentConfig.builder()
+                .responseMimeType("application/json")
+                .responseSchema(responseSchema)
+                .thinkingConfig(ThinkingConfig.builder().thinkingBudget(0))
+                .candidateCount(1)
+                .maxOutputTokens(1024)
+                .safetySettings(SAFETY_SETTINGS)
+                .build();
+    }
 }
@@ -6,6 +6,7 @@ import io.milvus.param.ConnectParam;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,8 +15,10 @@ import javax.annotation.PreDestroy;
 /**
  * Milvus 클라이언트 설정을 담당하는 Configuration 클래스.
  * application.properties에서 Milvus 연결 정보를 읽어 MilvusServiceClient 빈을 생성하고 관리합니다.
+ * {@code vector.store=milvus}일 때만 사용되며, 임베디드 벡터 저장소를 쓰면 Milvus에 연결하지 않습니다.
  */
 @Configuration
+@ConditionalOnProperty(name = "vector.store", havingValue = "milvus")
 @Slf4j
 @RequiredArgsConstructor
 public class MilvusConfig {
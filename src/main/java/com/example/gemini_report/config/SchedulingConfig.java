@@ -0,0 +1,14 @@
+package com.example.gemini_report.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Scheduled} 작업을 활성화하는 Configuration 클래스.
+ * 현재는 보존 기간이 지난 원본 청소 데이터를 정리하는
+ * {@link com.example.gemini_report.service.CleaningDataRetentionJob}이 이 스케줄러로 실행됩니다.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,24 +2,79 @@ package com.example.gemini_report.controller;
 
 import com.example.gemini_report.dto.AgentRequest;
 import com.example.gemini_report.dto.AgentResponse;
+import com.example.gemini_report.service.AgentExecutionGate;
 import com.example.gemini_report.service.AgentService;
+import com.example.gemini_report.service.CleaningDataColumnStore;
+import com.example.gemini_report.service.EmbeddingCache;
+import com.example.gemini_report.service.QueryEmbeddingCache;
+import com.example.gemini_report.service.ReportCache;
+import com.example.gemini_report.service.RequestCoalescer;
+import com.example.gemini_report.tools.IntentRouter;
+import com.example.gemini_report.tools.ToolRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/agent")
 @RequiredArgsConstructor
 public class AgentController {
 
     private final AgentService agentService;
+    private final AgentExecutionGate agentExecutionGate;
+    private final ReportCache reportCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ToolRegistry toolRegistry;
+    private final IntentRouter intentRouter;
+    private final CleaningDataColumnStore cleaningDataColumnStore;
+    private final EmbeddingCache embeddingCache;
+    private final QueryEmbeddingCache queryEmbeddingCache;
 
     @PostMapping("/report")
     public Mono<AgentResponse> getReport(@RequestBody AgentRequest request) {
         return agentService.getReport(request)
                 .map(AgentResponse::new);
     }
+
+    @PostMapping(value = "/report/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamReport(@RequestBody AgentRequest request) {
+        return agentService.streamReport(request)
+                .map(event -> ServerSentEvent.builder(event.getData())
+                        .event(event.getType())
+                        .build());
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("execution", Map.of(
+                "inFlight", agentExecutionGate.getInFlight(),
+                "queued", agentExecutionGate.getQueued(),
+                "rejected", agentExecutionGate.getRejected()));
+        stats.put("coalescing", Map.of(
+                "leaders", requestCoalescer.getLeaders(),
+                "coalesced", requestCoalescer.getCoalesced()));
+        stats.put("router", Map.of(
+                "routed", intentRouter.getRouted(),
+                "fallback", intentRouter.getFallback()));
+        stats.put("responses", Map.of(
+                "direct", agentService.getDirectResponses(),
+                "followUp", agentService.getFollowUpGenerations()));
+        stats.put("cache", reportCache.getStats());
+        stats.put("toolCache", toolRegistry.getCacheStats());
+        stats.put("columnStore", cleaningDataColumnStore.getStats());
+        stats.put("embeddingCache", embeddingCache.getStats());
+        stats.put("queryEmbeddingCache", queryEmbeddingCache.getStats());
+        return stats;
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.gemini_report.controller;
+
+import com.example.gemini_report.dto.IngestResult;
+import com.example.gemini_report.service.CleaningDataIngestService;
+import com.example.gemini_report.service.CleaningDataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/cleaning-data")
+@RequiredArgsConstructor
+public class CleaningDataController {
+
+    private final CleaningDataIngestService cleaningDataIngestService;
+    private final CleaningDataService cleaningDataService;
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<IngestResult> ingest(InputStream body) {
+        return ResponseEntity.ok(cleaningDataIngestService.ingest(body));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String startDate,
+                                                        @RequestParam(required = false) String endDate) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> cleaningDataService.writeCleaningDataJson(startDate, endDate, out));
+    }
+}
@@ -1,26 +1,61 @@
 package com.example.gemini_report.controller;
 
+import com.example.gemini_report.dto.CompanyInfoIngestResult;
 import com.example.gemini_report.dto.CompanyInfoRequest;
 import com.example.gemini_report.service.CompanyInfoService;
+import com.example.gemini_report.service.VectorSearchTuner;
+import com.example.gemini_report.service.VectorStore;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/company")
 public class CompanyController {
 
     private final CompanyInfoService companyInfoService;
+    private final VectorStore vectorStore;
+    private final VectorSearchTuner vectorSearchTuner;
 
-    public CompanyController(CompanyInfoService companyInfoService) {
+    public CompanyController(CompanyInfoService companyInfoService, VectorStore vectorStore,
+                             VectorSearchTuner vectorSearchTuner) {
         this.companyInfoService = companyInfoService;
+        this.vectorStore = vectorStore;
+        this.vectorSearchTuner = vectorSearchTuner;
     }
 
     @PostMapping("/update")
-    public ResponseEntity<String> updateCompanyInfo(@RequestBody CompanyInfoRequest request) {
-        companyInfoService.updateCompanyInfo(request.getCompanyInfo());
-        return ResponseEntity.ok("Company information updated successfully.");
+    public ResponseEntity<CompanyInfoIngestResult> updateCompanyInfo(@RequestBody CompanyInfoRequest request) {
+        return ResponseEntity.ok(companyInfoService.updateCompanyInfo(request.getCompanyInfo()));
+    }
+
+    @PutMapping("/documents/{docId}")
+    public ResponseEntity<CompanyInfoIngestResult> upsertDocument(@PathVariable String docId,
+                                                                  @RequestBody CompanyInfoRequest request) {
+        return ResponseEntity.ok(companyInfoService.upsertDocument(docId, request.getCompanyInfo()));
+    }
+
+    @GetMapping("/index")
+    public Map<String, Object> getIndexStatus() {
+        return vectorStore.getIndexStatus();
+    }
+
+    @PostMapping("/index/tune")
+    public Map<String, Object> tuneSearch() {
+        return vectorSearchTuner.tune();
+    }
+
+    @DeleteMapping("/documents/{docId}")
+    public ResponseEntity<Void> deleteDocument(@PathVariable String docId) {
+        companyInfoService.deleteDocument(docId);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,18 @@
+package com.example.gemini_report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentStreamEvent {
+    public static final String TOOL_START = "tool_start";
+    public static final String TOOL_END = "tool_end";
+    public static final String CHUNK = "chunk";
+    public static final String DONE = "done";
+
+    private String type;
+    private String data;
+}
@@ -0,0 +1,26 @@
+package com.example.gemini_report.dto;
+
+import com.example.gemini_report.entity.CleaningData;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * get_cleaning_report 도구가 Gemini 모델에 전달하는 집계 결과.
+ * 원본 행 전체 대신 기간/장소/일자별 통계와 제한된 개수의 원본 행 샘플만 포함합니다.
+ * 기간 앞부분의 원본 행이 보존 기간을 지나 정리되었으면, 그 구간은 {@code compacted}에 롤업 통계로 따로 담기고
+ * 나머지 통계는 원본 행이 남아 있는 구간만 대상으로 합니다.
+ */
+@Data
+@NoArgsConstructor
+public class CleaningStatsPayload {
+    private String startDate;
+    private String endDate;
+    private GroupStats overall;
+    private List<GroupStats> byLocation;
+    private List<GroupStats> byDay;
+    private boolean byDayTruncated; // 페이로드 예산을 맞추기 위해 일자별 통계 일부를 생략했는지 여부
+    private List<CleaningData> sampleRows;
+    private CompactedStats compacted; // 원본 행이 정리된 앞부분 구간의 롤업 통계. 기간 전체의 원본 행이 남아 있으면 null
+}
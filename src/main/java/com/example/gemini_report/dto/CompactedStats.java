@@ -0,0 +1,67 @@
+package com.example.gemini_report.dto;
+
+import com.example.gemini_report.repository.CleaningStatsView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * get_cleaning_report 조회 기간 중 원본 행이 보존 기간을 지나 정리된 구간의 통계.
+ * 원본 행이 없으므로 일 롤업에서 읽은 건수와 합계/평균만 포함하고, 최소/최대/백분위수와 원본 행 샘플은 없습니다.
+ */
+@Data
+@NoArgsConstructor
+public class CompactedStats {
+    private String startDate;
+    private String endDate;
+    private String notice; // 모델에게 전달하는 안내 (원본 행이 정리되었으며 추이는 aggregate_cleaning_stats로 조회해야 함)
+    private Group overall;
+    private List<Group> byLocation;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        private String key; // 장소 이름 또는 overall
+        private long count;
+        private double totalDuration;
+        private Double avgDuration; // 값이 있는 행이 없거나 장소별 평균을 합칠 수 없는 overall이면 null
+        private double totalArea;
+        private Double avgArea;
+        private double totalWater;
+        private Double avgWater;
+        private double totalPower;
+        private Double avgPower;
+
+        public static Group from(CleaningStatsView view) {
+            return new Group(view.getGroupKey(), orZero(view.getSessionCount()),
+                    orZero(view.getTotalDuration()), view.getAvgDuration(),
+                    orZero(view.getTotalArea()), view.getAvgArea(),
+                    orZero(view.getTotalWater()), view.getAvgWater(),
+                    orZero(view.getTotalPower()), view.getAvgPower());
+        }
+
+        // 장소별 그룹을 합쳐 기간 전체 그룹을 만듭니다. 지표별 값이 있는 행 수를 알 수 없으므로 평균은 비워 둡니다.
+        public static Group overall(List<Group> groups) {
+            Group overall = new Group("overall", 0, 0, null, 0, null, 0, null, 0, null);
+            for (Group group : groups) {
+                overall.count += group.count;
+                overall.totalDuration += group.totalDuration;
+                overall.totalArea += group.totalArea;
+                overall.totalWater += group.totalWater;
+                overall.totalPower += group.totalPower;
+            }
+            return overall;
+        }
+
+        private static long orZero(Long value) {
+            return value == null ? 0 : value;
+        }
+
+        private static double orZero(Number value) {
+            return value == null ? 0 : value.doubleValue();
+        }
+    }
+}
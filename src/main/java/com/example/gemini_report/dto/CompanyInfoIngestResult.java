@@ -0,0 +1,25 @@
+package com.example.gemini_report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회사 문서 적재 파이프라인의 처리 결과와 단계별 소요 시간입니다.
+ * {@code insertMs}와 {@code insertBatches}는 upsert/삭제 또는 재색인 단계를 나타냅니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompanyInfoIngestResult {
+    private int chunks;
+    private int changedChunks;
+    private int deletedChunks;
+    private int cachedEmbeddings;
+    private int embedRequests;
+    private int insertBatches;
+    private long chunkMs;
+    private long embedMs;
+    private long insertMs;
+    private long totalMs;
+}
@@ -0,0 +1,16 @@
+package com.example.gemini_report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupStats {
+    private String key; // 장소 이름 또는 날짜(YYYY-MM-DD)
+    private long count;
+    private Map<String, MetricStats> metrics; // 지표 이름(duration, areaCleaned, waterUsage, powerUsage) → 통계
+}
@@ -0,0 +1,18 @@
+package com.example.gemini_report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 대량 적재 요청의 처리 결과입니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestResult {
+    private long rows;
+    private int batches;
+    private long elapsedMs;
+    private double rowsPerSecond;
+}
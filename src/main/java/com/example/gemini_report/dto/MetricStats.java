@@ -0,0 +1,17 @@
+package com.example.gemini_report.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricStats {
+    private double sum;
+    private double avg;
+    private double min;
+    private double max;
+    private double p50;
+    private double p90;
+}
@@ -4,11 +4,17 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "IDX_CLEANING_DATA_START_TIME", columnList = "start_time"),
+        @Index(name = "IDX_CLEANING_DATA_LOCATION_START_TIME", columnList = "location, start_time")
+})
 @Data
 public class CleaningData {
 
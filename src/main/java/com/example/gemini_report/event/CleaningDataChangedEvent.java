@@ -0,0 +1,49 @@
+package com.example.gemini_report.event;
+
+import com.example.gemini_report.entity.CleaningData;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * 청소 데이터가 추가/수정/삭제되었음을 알리는 이벤트입니다.
+ * <p>
+ * {@code added}와 {@code removed}에 변경된 행이 담겨 있으면 {@link com.example.gemini_report.service.CleaningDataColumnStore}는
+ * 데이터베이스를 다시 읽지 않고 이 행들을 그대로 반영합니다. 둘 다 {@code null}이면(대량 삭제, 보존 기간 정리 등) 변경된 행을 알 수 없으므로
+ * 해당 시간 범위를 데이터베이스에서 다시 읽습니다.
+ *
+ * @param from    변경된 데이터의 가장 이른 시작 시간
+ * @param to      변경된 데이터의 가장 늦은 시작 시간
+ * @param added   추가되었거나 수정된 뒤의 행. 이미 컬럼 저장소에 반영했으면 빈 리스트
+ * @param removed 삭제되었거나 수정되기 전의 행. 이미 컬럼 저장소에 반영했으면 빈 리스트
+ */
+public record CleaningDataChangedEvent(LocalDateTime from, LocalDateTime to,
+                                       List<CleaningData> added, List<CleaningData> removed) implements ToolDataChangedEvent {
+
+    /**
+     * 변경된 행을 알 수 없는 시간 범위 변경 이벤트를 생성합니다.
+     */
+    public CleaningDataChangedEvent(LocalDateTime from, LocalDateTime to) {
+        this(from, to, null, null);
+    }
+
+    /**
+     * @return 변경된 행이 이벤트에 담겨 있으면 true
+     */
+    public boolean hasRows() {
+        return added != null && removed != null;
+    }
+
+    /**
+     * 변경된 데이터가 주어진 조회 기간(종료일 포함)과 겹치는지 확인합니다.
+     * 변경 범위를 알 수 없으면 겹치는 것으로 간주합니다.
+     */
+    public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        if (from == null || to == null) {
+            return true;
+        }
+        return !to.isBefore(startDate.atStartOfDay()) && !from.isAfter(endDate.atTime(LocalTime.MAX));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.gemini_report.event;
+
+import com.example.gemini_report.entity.CleaningData;
+import com.example.gemini_report.service.CleaningRollupService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JPA를 통해 {@link CleaningData}가 저장/수정/삭제될 때 롤업을 갱신하고 {@link CleaningDataChangedEvent}를 발행하는 Hibernate 이벤트 리스너입니다.
+ * <p>
+ * 수정/삭제 시 롤업에서 뺄 이전 값은 Hibernate가 이벤트로 전달하는 변경 전 상태({@link PostUpdateEvent#getOldState()},
+ * {@link PostDeleteEvent#getDeletedState()})로 만듭니다. 애플리케이션 시작 시 {@link EventListenerRegistry}에 등록됩니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CleaningDataEntityListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final CleaningRollupService cleaningRollupService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof CleaningData cleaningData)) {
+            return;
+        }
+        cleaningRollupService.apply(cleaningRollupService.newDelta().add(cleaningData));
+        publish(cleaningData, null, List.of(copy(cleaningData)), List.of());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof CleaningData cleaningData)) {
+            return;
+        }
+        CleaningData previous = toCleaningData(event.getPersister(), event.getId(), event.getOldState());
+        CleaningRollupService.Delta delta = cleaningRollupService.newDelta();
+        if (previous != null) {
+            delta.subtract(previous);
+        }
+        cleaningRollupService.apply(delta.add(cleaningData));
+        publish(cleaningData, previous, List.of(copy(cleaningData)), List.of(previous != null ? previous : copy(cleaningData)));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof CleaningData cleaningData)) {
+            return;
+        }
+        CleaningData previous = toCleaningData(event.getPersister(), event.getId(), event.getDeletedState());
+        CleaningData removed = previous != null ? previous : copy(cleaningData);
+        cleaningRollupService.apply(cleaningRollupService.newDelta().subtract(removed));
+        publish(cleaningData, previous, List.of(), List.of(removed));
+    }
+
+    // 롤업은 쓰기와 같은 트랜잭션에서 갱신하므로 커밋 이후 처리가 필요하지 않습니다.
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 변경 전후의 시작 시간을 모두 포함하는 범위로, 컬럼 저장소가 그대로 반영할 변경 행과 함께 이벤트를 발행합니다.
+    // 엔티티는 커밋 전에 다시 바뀔 수 있으므로 추가된 행은 복사본을 담습니다.
+    private void publish(CleaningData current, CleaningData previous, List<CleaningData> added, List<CleaningData> removed) {
+        if (previous == null || previous.getStartTime() == null || current.getStartTime() == null) {
+            eventPublisher.publishEvent(new CleaningDataChangedEvent(current.getStartTime(), current.getStartTime(), added, removed));
+            return;
+        }
+        boolean currentFirst = current.getStartTime().isBefore(previous.getStartTime());
+        eventPublisher.publishEvent(new CleaningDataChangedEvent(
+                currentFirst ? current.getStartTime() : previous.getStartTime(),
+                currentFirst ? previous.getStartTime() : current.getStartTime(),
+                added, removed));
+    }
+
+    private static CleaningData copy(CleaningData cleaningData) {
+        CleaningData copy = new CleaningData();
+        copy.setCleaningId(cleaningData.getCleaningId());
+        copy.setStartTime(cleaningData.getStartTime());
+        copy.setEndTime(cleaningData.getEndTime());
+        copy.setLocation(cleaningData.getLocation());
+        copy.setDuration(cleaningData.getDuration());
+        copy.setAreaCleaned(cleaningData.getAreaCleaned());
+        copy.setWaterUsage(cleaningData.getWaterUsage());
+        copy.setPowerUsage(cleaningData.getPowerUsage());
+        return copy;
+    }
+
+    // Hibernate가 전달한 변경 전 상태를 엔티티로 복원합니다. 상태가 없으면(세션에 로드되지 않은 엔티티) null입니다.
+    private static CleaningData toCleaningData(EntityPersister persister, Object id, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+        String[] names = persister.getPropertyNames();
+        CleaningData previous = new CleaningData();
+        previous.setCleaningId((Long) id);
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i]) {
+                case "startTime" -> previous.setStartTime((LocalDateTime) state[i]);
+                case "endTime" -> previous.setEndTime((LocalDateTime) state[i]);
+                case "location" -> previous.setLocation((String) state[i]);
+                case "duration" -> previous.setDuration((Long) state[i]);
+                case "areaCleaned" -> previous.setAreaCleaned((Double) state[i]);
+                case "waterUsage" -> previous.setWaterUsage((Double) state[i]);
+                case "powerUsage" -> previous.setPowerUsage((Double) state[i]);
+                default -> {
+                }
+            }
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.gemini_report.event;
+
+/**
+ * 회사 정보 컬렉션이 다시 구성되었음을 알리는 이벤트입니다.
+ */
+public record CompanyInfoChangedEvent() implements ToolDataChangedEvent {
+}
@@ -0,0 +1,9 @@
+package com.example.gemini_report.event;
+
+/**
+ * 도구가 조회하는 원본 데이터가 변경되었음을 알리는 도메인 이벤트의 공통 인터페이스입니다.
+ * {@link com.example.gemini_report.tools.ToolRegistry}는 이 이벤트를 수신하여
+ * 영향을 받는 도구 결과 캐시 항목을 무효화합니다.
+ */
+public interface ToolDataChangedEvent {
+}
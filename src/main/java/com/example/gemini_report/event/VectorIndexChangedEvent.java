@@ -0,0 +1,7 @@
+package com.example.gemini_report.event;
+
+/**
+ * 회사 정보 벡터 인덱스가 새 세대로 바뀌었음(재색인 또는 인덱스 재구성)을 알리는 이벤트입니다.
+ */
+public record VectorIndexChangedEvent() {
+}
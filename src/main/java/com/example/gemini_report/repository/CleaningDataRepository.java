@@ -1,14 +1,73 @@
 package com.example.gemini_report.repository;
 
 import com.example.gemini_report.entity.CleaningData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CleaningDataRepository extends JpaRepository<CleaningData, Long> {
 
+    // 집계 대상. RollupQueryPlan에 따라 부분 일자는 원본 행에서, 나머지는 일/주/월 롤업에서 읽어 같은 컬럼 구성으로 합칩니다.
+    // 원본 행은 세션 1건, 값이 있는 지표는 1건으로 계산하므로 두 출처를 더해도 건수와 평균이 유지됩니다.
+    // 구간마다 별도의 UNION ALL 분기로 두어 각 분기가 start_time / (granularity, bucket_start) 인덱스로 범위 조회하도록 합니다.
+    // 롤업은 장소가 없는 행을 빈 문자열로 저장하므로, 두 출처 모두 빈 문자열 장소를 NULL로 읽어 같은 그룹으로 묶습니다.
+    String RAW_COLUMNS = "SELECT CAST(start_time AS DATE) AS bucket_day, NULLIF(location, '') AS location, 1 AS sessions, "
+            + "COALESCE(duration, 0) AS total_duration, CASE WHEN duration IS NULL THEN 0 ELSE 1 END AS duration_count, "
+            + "COALESCE(area_cleaned, 0) AS total_area, CASE WHEN area_cleaned IS NULL THEN 0 ELSE 1 END AS area_count, "
+            + "COALESCE(water_usage, 0) AS total_water, CASE WHEN water_usage IS NULL THEN 0 ELSE 1 END AS water_count, "
+            + "COALESCE(power_usage, 0) AS total_power, CASE WHEN power_usage IS NULL THEN 0 ELSE 1 END AS power_count ";
+    String ROLLUP_COLUMNS = "SELECT bucket_start, NULLIF(location, '') AS location, session_count, total_duration, duration_count, "
+            + "total_area, area_count, total_water, water_count, total_power, power_count FROM CLEANING_DATA_ROLLUP ";
+    String STATS_SOURCE = "(" + RAW_COLUMNS
+            + "FROM CLEANING_DATA WHERE start_time >= :#{#plan.rawFrom1()} AND start_time < :#{#plan.rawTo1()} "
+            + "UNION ALL " + RAW_COLUMNS
+            + "FROM CLEANING_DATA WHERE start_time >= :#{#plan.rawFrom2()} AND start_time < :#{#plan.rawTo2()} "
+            + "UNION ALL " + ROLLUP_COLUMNS
+            + "WHERE granularity = 'DAY' AND bucket_start >= :#{#plan.dayFrom1()} AND bucket_start < :#{#plan.dayTo1()} "
+            + "UNION ALL " + ROLLUP_COLUMNS
+            + "WHERE granularity = 'DAY' AND bucket_start >= :#{#plan.dayFrom2()} AND bucket_start < :#{#plan.dayTo2()} "
+            + "UNION ALL " + ROLLUP_COLUMNS
+            + "WHERE granularity = :#{#plan.coarseGranularity()} "
+            + "AND bucket_start >= :#{#plan.coarseFrom()} AND bucket_start < :#{#plan.coarseTo()}) stats ";
+    // 집계 쿼리 공통 컬럼. 평균은 정수 컬럼에서도 소수점을 유지하도록 DOUBLE로 변환합니다.
+    String STATS_COLUMNS = "SUM(sessions) AS sessionCount, "
+            + "SUM(total_duration) AS totalDuration, CAST(SUM(total_duration) AS DOUBLE) / NULLIF(SUM(duration_count), 0) AS avgDuration, "
+            + "SUM(total_area) AS totalArea, SUM(total_area) / NULLIF(SUM(area_count), 0) AS avgArea, "
+            + "SUM(total_water) AS totalWater, SUM(total_water) / NULLIF(SUM(water_count), 0) AS avgWater, "
+            + "SUM(total_power) AS totalPower, SUM(total_power) / NULLIF(SUM(power_count), 0) AS avgPower ";
+    // 삭제로 세션 수가 0이 된 롤업 버킷은 결과에서 제외합니다.
+    String NON_EMPTY = "HAVING SUM(sessions) > 0 ";
+
     List<CleaningData> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    // 긴 기간을 한 번에 메모리로 읽지 않도록 fetch size 단위로 커서를 이동하며 읽습니다. 호출하는 쪽은 트랜잭션 안에서 스트림을 닫아야 합니다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM CleaningData c WHERE c.startTime BETWEEN :start AND :end ORDER BY c.startTime")
+    Stream<CleaningData> streamByStartTimeBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT location AS groupKey, " + STATS_COLUMNS + "FROM " + STATS_SOURCE
+            + "GROUP BY location " + NON_EMPTY + "ORDER BY location", nativeQuery = true)
+    List<CleaningStatsView> aggregateByLocation(@Param("plan") RollupQueryPlan plan);
+
+    @Query(value = "SELECT CAST(bucket_day AS VARCHAR) AS groupKey, " + STATS_COLUMNS + "FROM " + STATS_SOURCE
+            + "GROUP BY bucket_day " + NON_EMPTY + "ORDER BY bucket_day", nativeQuery = true)
+    List<CleaningStatsView> aggregateByDay(@Param("plan") RollupQueryPlan plan);
+
+    // ISO 주의 시작일(월요일)을 파생 테이블에서 먼저 계산합니다. H2는 GROUP BY 절의 표현식 안의 컬럼을 그룹 밖의 참조로 판단합니다.
+    @Query(value = "SELECT CAST(week_start AS VARCHAR) AS groupKey, " + STATS_COLUMNS
+            + "FROM (SELECT DATEADD(DAY, 1 - ISO_DAY_OF_WEEK(bucket_day), bucket_day) AS week_start, stats.* FROM "
+            + STATS_SOURCE + ") weekly GROUP BY week_start " + NON_EMPTY + "ORDER BY week_start", nativeQuery = true)
+    List<CleaningStatsView> aggregateByWeek(@Param("plan") RollupQueryPlan plan);
 }
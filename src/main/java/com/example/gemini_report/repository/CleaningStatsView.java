@@ -0,0 +1,27 @@
+package com.example.gemini_report.repository;
+
+/**
+ * 청소 데이터 집계 쿼리의 결과 행을 읽기 위한 인터페이스 기반 프로젝션입니다.
+ * 엔티티를 생성하거나 영속성 컨텍스트에 등록하지 않고, 집계 결과 컬럼만 그대로 읽어옵니다.
+ */
+public interface CleaningStatsView {
+    String getGroupKey(); // 장소 이름, 날짜(YYYY-MM-DD) 또는 주 시작일(월요일, YYYY-MM-DD)
+
+    Long getSessionCount();
+
+    Long getTotalDuration();
+
+    Double getAvgDuration();
+
+    Double getTotalArea();
+
+    Double getAvgArea();
+
+    Double getTotalWater();
+
+    Double getAvgWater();
+
+    Double getTotalPower();
+
+    Double getAvgPower();
+}
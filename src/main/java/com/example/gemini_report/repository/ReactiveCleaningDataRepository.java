@@ -0,0 +1,20 @@
+package com.example.gemini_report.repository;
+
+import com.example.gemini_report.entity.CleaningData;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+// CleaningDataRepository와 같은 테이블과 집계 쿼리를 R2DBC로 실행하는 논블로킹 리포지토리입니다.
+// 결과는 구독자의 요청량(backpressure)에 맞춰 드라이버에서 읽어오므로 조회 결과를 기다리는 동안 스레드를 점유하지 않습니다.
+// 집계 쿼리는 ReactiveCleaningDataRepositoryImpl에서 구현합니다.
+@Repository
+public interface ReactiveCleaningDataRepository extends R2dbcRepository<CleaningData, Long>, ReactiveCleaningStatsRepository {
+
+    @Query("SELECT * FROM CLEANING_DATA WHERE start_time >= :start AND start_time < :end ORDER BY start_time")
+    Flux<CleaningData> streamByStartTime(@Param("start") LocalDateTime start, @Param("end") LocalDateTime endExclusive);
+}
@@ -0,0 +1,88 @@
+package com.example.gemini_report.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import static com.example.gemini_report.repository.CleaningDataRepository.NON_EMPTY;
+import static com.example.gemini_report.repository.CleaningDataRepository.STATS_COLUMNS;
+import static com.example.gemini_report.repository.CleaningDataRepository.STATS_SOURCE;
+
+/**
+ * {@link ReactiveCleaningStatsRepository}의 {@link DatabaseClient} 구현입니다.
+ * <p>
+ * Spring Data R2DBC의 인터페이스 프로젝션은 엔티티 속성만 읽을 수 있으므로, 집계 결과 행은 컬럼 이름으로 직접 읽습니다.
+ * SQL은 {@link CleaningDataRepository}의 집계 쿼리를 그대로 사용하되, SpEL 파라미터({@code :#{#plan.rawFrom1()}})를
+ * 같은 이름의 바인딩 파라미터({@code :rawFrom1})로 바꾸어 실행합니다.
+ */
+@RequiredArgsConstructor
+class ReactiveCleaningDataRepositoryImpl implements ReactiveCleaningStatsRepository {
+
+    private static final String SOURCE = STATS_SOURCE.replaceAll(":#\\{#plan\\.(\\w+)\\(\\)}", ":$1");
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<CleaningStatsView> aggregateByLocation(RollupQueryPlan plan) {
+        return query("SELECT location AS groupKey, " + STATS_COLUMNS + "FROM " + SOURCE
+                + "GROUP BY location " + NON_EMPTY + "ORDER BY location", plan);
+    }
+
+    @Override
+    public Flux<CleaningStatsView> aggregateByDay(RollupQueryPlan plan) {
+        return query("SELECT CAST(bucket_day AS VARCHAR) AS groupKey, " + STATS_COLUMNS + "FROM " + SOURCE
+                + "GROUP BY bucket_day " + NON_EMPTY + "ORDER BY bucket_day", plan);
+    }
+
+    // ISO 주의 시작일(월요일)을 파생 테이블에서 먼저 계산합니다. H2는 GROUP BY 절의 표현식 안의 컬럼을 그룹 밖의 참조로 판단합니다.
+    @Override
+    public Flux<CleaningStatsView> aggregateByWeek(RollupQueryPlan plan) {
+        return query("SELECT CAST(week_start AS VARCHAR) AS groupKey, " + STATS_COLUMNS
+                + "FROM (SELECT DATEADD(DAY, 1 - ISO_DAY_OF_WEEK(bucket_day), bucket_day) AS week_start, stats.* FROM "
+                + SOURCE + ") weekly GROUP BY week_start " + NON_EMPTY + "ORDER BY week_start", plan);
+    }
+
+    private Flux<CleaningStatsView> query(String sql, RollupQueryPlan plan) {
+        return databaseClient.sql(sql)
+                .bind("rawFrom1", plan.rawFrom1())
+                .bind("rawTo1", plan.rawTo1())
+                .bind("rawFrom2", plan.rawFrom2())
+                .bind("rawTo2", plan.rawTo2())
+                .bind("dayFrom1", plan.dayFrom1())
+                .bind("dayTo1", plan.dayTo1())
+                .bind("dayFrom2", plan.dayFrom2())
+                .bind("dayTo2", plan.dayTo2())
+                .bind("coarseGranularity", plan.coarseGranularity())
+                .bind("coarseFrom", plan.coarseFrom())
+                .bind("coarseTo", plan.coarseTo())
+                .map(ReactiveCleaningDataRepositoryImpl::toView)
+                .all();
+    }
+
+    // SUM 결과의 숫자 타입은 데이터베이스마다 다르므로 Number로 읽어 변환합니다.
+    private static CleaningStatsView toView(Readable row) {
+        return new RowStatsView(row.get("groupKey", String.class), toLong(row, "sessionCount"),
+                toLong(row, "totalDuration"), toDouble(row, "avgDuration"),
+                toDouble(row, "totalArea"), toDouble(row, "avgArea"),
+                toDouble(row, "totalWater"), toDouble(row, "avgWater"),
+                toDouble(row, "totalPower"), toDouble(row, "avgPower"));
+    }
+
+    private static Long toLong(Readable row, String column) {
+        Number value = row.get(column, Number.class);
+        return value == null ? null : value.longValue();
+    }
+
+    private static Double toDouble(Readable row, String column) {
+        Number value = row.get(column, Number.class);
+        return value == null ? null : value.doubleValue();
+    }
+
+    private record RowStatsView(String getGroupKey, Long getSessionCount,
+                                Long getTotalDuration, Double getAvgDuration,
+                                Double getTotalArea, Double getAvgArea,
+                                Double getTotalWater, Double getAvgWater,
+                                Double getTotalPower, Double getAvgPower) implements CleaningStatsView {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.gemini_report.repository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link CleaningDataRepository}의 집계 쿼리를 R2DBC로 실행하는 리포지토리 프래그먼트입니다.
+ * 결과는 {@link CleaningDataRepository}의 같은 이름 메서드와 같은 순서와 값으로 방출됩니다.
+ */
+public interface ReactiveCleaningStatsRepository {
+
+    Flux<CleaningStatsView> aggregateByLocation(RollupQueryPlan plan);
+
+    Flux<CleaningStatsView> aggregateByDay(RollupQueryPlan plan);
+
+    Flux<CleaningStatsView> aggregateByWeek(RollupQueryPlan plan);
+}
@@ -0,0 +1,26 @@
+package com.example.gemini_report.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 기간 집계 쿼리가 읽을 구간을 출처별로 나눈 실행 계획입니다. 모든 구간은 시작 포함, 끝 제외이며 시작과 끝이 같으면 빈 구간입니다.
+ *
+ * @param rawFrom1          앞쪽 부분 일자(원본 행) 구간 시작
+ * @param rawTo1            앞쪽 부분 일자(원본 행) 구간 끝
+ * @param rawFrom2          뒤쪽 부분 일자(원본 행) 구간 시작
+ * @param rawTo2            뒤쪽 부분 일자(원본 행) 구간 끝
+ * @param dayFrom1          앞쪽 일 롤업 구간 시작
+ * @param dayTo1            앞쪽 일 롤업 구간 끝
+ * @param dayFrom2          뒤쪽 일 롤업 구간 시작
+ * @param dayTo2            뒤쪽 일 롤업 구간 끝
+ * @param coarseGranularity 가운데 구간에 사용할 롤업 단위 ({@code WEEK} 또는 {@code MONTH})
+ * @param coarseFrom        주/월 롤업 구간 시작 (버킷 시작일 기준)
+ * @param coarseTo          주/월 롤업 구간 끝 (버킷 시작일 기준)
+ */
+public record RollupQueryPlan(LocalDateTime rawFrom1, LocalDateTime rawTo1,
+                              LocalDateTime rawFrom2, LocalDateTime rawTo2,
+                              LocalDate dayFrom1, LocalDate dayTo1,
+                              LocalDate dayFrom2, LocalDate dayTo2,
+                              String coarseGranularity, LocalDate coarseFrom, LocalDate coarseTo) {
+}
@@ -0,0 +1,180 @@
+package com.example.gemini_report.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * {@code AgentExecutionGate}는 Agent 파이프라인 작업의 실행과 승인(Admission) 제어를 담당합니다.
+ * <p>
+ * 동작 방식:
+ * <ul>
+ *     <li>모든 작업은 {@code agentScheduler}(가상 스레드)에서 실행되어 요청 스레드를 블로킹하지 않습니다.</li>
+ *     <li>동시에 실행되는 작업 수는 {@code agent.execution.max-in-flight}로 제한됩니다.</li>
+ *     <li>실행 슬롯을 기다리는 작업 수는 {@code agent.execution.max-queue}로 제한됩니다.</li>
+ *     <li>실행 중 + 대기 중인 작업이 한도에 도달하면 새 요청은 즉시 503(Service Unavailable)으로 거절됩니다.</li>
+ * </ul>
+ * 승인된 작업은 작업이 실제로 끝날 때(실행 슬롯을 반납한 뒤) 승인 수에서 빠집니다.
+ * 클라이언트 연결이 끊겨 구독이 취소되어도 이미 시작된 작업은 슬롯을 기다리거나 점유하고 있으므로 그때까지 계속 계산되며,
+ * 시작 전에 취소된 작업만 취소 시점에 빠집니다.
+ */
+@Component
+@Slf4j
+public class AgentExecutionGate {
+
+    private final Scheduler agentScheduler;
+    // 동시에 실행 가능한 작업 수를 제한하는 세마포어. 대기 중인 작업은 가상 스레드에서 블로킹됩니다.
+    private final Semaphore inFlightPermits;
+    // 실행 중 + 대기 중인 작업 수. 승인 여부 판단에 사용됩니다.
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final int maxInFlight;
+    private final int maxAdmitted;
+
+    public AgentExecutionGate(Scheduler agentScheduler,
+                              @Value("${agent.execution.max-in-flight}") int maxInFlight,
+                              @Value("${agent.execution.max-queue}") int maxQueue) {
+        this.agentScheduler = agentScheduler;
+        this.maxInFlight = maxInFlight;
+        this.maxAdmitted = maxInFlight + maxQueue;
+        this.inFlightPermits = new Semaphore(maxInFlight, true);
+    }
+
+    /**
+     * 블로킹 작업을 승인 제어를 거쳐 Agent 전용 스케줄러에서 실행합니다.
+     * 구독 시점에 한도를 확인하며, 포화 상태이면 {@link ResponseStatusException}(503)으로 즉시 실패합니다.
+     *
+     * @param task 실행할 블로킹 작업
+     * @return 작업 결과를 방출하는 {@link Mono}
+     */
+    public <T> Mono<T> submit(Callable<T> task) {
+        return Mono.defer(() -> {
+            Admission admission = tryAdmit();
+            if (admission == null) {
+                return Mono.error(rejection());
+            }
+            return Mono.fromCallable(() -> runAdmitted(admission, task))
+                    .subscribeOn(agentScheduler)
+                    .doFinally(signal -> admission.releaseIfNotStarted());
+        });
+    }
+
+    /**
+     * 결과를 여러 번에 나누어 방출하는 블로킹 작업을 승인 제어를 거쳐 Agent 전용 스케줄러에서 실행합니다.
+     * {@code producer}가 정상 반환하면 스트림을 완료하고, 예외를 던지면 스트림을 에러로 종료합니다.
+     *
+     * @param producer {@link FluxSink}에 이벤트를 방출하는 블로킹 작업
+     * @return 작업이 방출한 이벤트를 전달하는 {@link Flux}
+     */
+    public <T> Flux<T> submitStream(Consumer<FluxSink<T>> producer) {
+        return Flux.defer(() -> {
+            Admission admission = tryAdmit();
+            if (admission == null) {
+                return Flux.<T>error(rejection());
+            }
+            return Flux.<T>create(sink -> {
+                        try {
+                            runAdmitted(admission, () -> {
+                                producer.accept(sink);
+                                return null;
+                            });
+                            sink.complete();
+                        } catch (Exception e) {
+                            sink.error(e);
+                        }
+                    })
+                    .subscribeOn(agentScheduler)
+                    .doFinally(signal -> admission.releaseIfNotStarted());
+        });
+    }
+
+    private Admission tryAdmit() {
+        if (admitted.incrementAndGet() > maxAdmitted) {
+            admitted.decrementAndGet();
+            rejected.incrementAndGet();
+            log.warn("Agent 실행 한도 초과로 요청을 거절합니다. (한도: {})", maxAdmitted);
+            return null;
+        }
+        return new Admission();
+    }
+
+    private ResponseStatusException rejection() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Agent 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    // 실행 슬롯을 확보할 때까지 (가상 스레드에서) 대기한 뒤 작업을 실행하고, 슬롯을 반납한 뒤 승인 수에서 뺍니다.
+    // 시작 전에 구독이 취소되어 이미 승인 수에서 빠졌다면 실행하지 않습니다.
+    private <T> T runAdmitted(Admission admission, Callable<T> task) throws Exception {
+        if (!admission.start()) {
+            return null;
+        }
+        try {
+            inFlightPermits.acquire();
+            try {
+                return task.call();
+            } finally {
+                inFlightPermits.release();
+            }
+        } finally {
+            admission.finish();
+        }
+    }
+
+    // 승인된 작업 하나의 상태. 승인 수는 작업이 끝날 때 또는 시작 전에 취소될 때 정확히 한 번 줄어듭니다.
+    private final class Admission {
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int RELEASED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private boolean start() {
+            return state.compareAndSet(PENDING, RUNNING);
+        }
+
+        private void finish() {
+            if (state.compareAndSet(RUNNING, RELEASED)) {
+                admitted.decrementAndGet();
+            }
+        }
+
+        private void releaseIfNotStarted() {
+            if (state.compareAndSet(PENDING, RELEASED)) {
+                admitted.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return 현재 실행 중인 작업 수
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    /**
+     * @return 현재 실행 슬롯을 기다리고 있는 작업 수
+     */
+    public int getQueued() {
+        return Math.max(0, admitted.get() - getInFlight());
+    }
+
+    /**
+     * @return 애플리케이션 시작 이후 거절된 요청 수
+     */
+    public int getRejected() {
+        return rejected.get();
+    }
+}
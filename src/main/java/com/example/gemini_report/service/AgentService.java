@@ -2,18 +2,30 @@ package com.example.gemini_report.service;
 
 import com.example.gemini_report.config.GeminiConfigFactory;
 import com.example.gemini_report.dto.AgentRequest;
+import com.example.gemini_report.dto.AgentStreamEvent;
+import com.example.gemini_report.tools.ToolCallDispatcher; // 함수 호출을 도구로 병렬 전달하는 ToolCallDispatcher 임포트
+import com.example.gemini_report.tools.ToolCallResult; // 도구 실행 결과 레코드 임포트
 import com.example.gemini_report.tools.ToolExecutor; // ToolExecutor 인터페이스 임포트
+import com.example.gemini_report.tools.IntentRouter; // 로컬 빠른 경로 라우터 임포트
 import com.example.gemini_report.tools.ToolRegistry; // ToolRegistry 클래스 임포트
 import com.fasterxml.jackson.databind.ObjectMapper; // JSON 직렬화/역직렬화를 위한 ObjectMapper 임포트
 import com.google.genai.Client; // Gemini API 클라이언트 임포트
+import com.google.genai.ResponseStream; // 스트리밍 생성 응답을 순회하기 위한 ResponseStream 임포트
 import com.google.genai.types.*; // Gemini API 관련 타입들 임포트 (GenerateContentConfig, GenerateContentResponse 등)
 import lombok.RequiredArgsConstructor; // Lombok 어노테이션으로 생성자 자동 생성
+import lombok.extern.slf4j.Slf4j; // Lombok 어노테이션으로 로거 자동 생성
+import org.springframework.beans.factory.annotation.Value; // application.properties 값 주입을 위한 어노테이션
 import org.springframework.stereotype.Service; // Spring 서비스 컴포넌트임을 나타내는 어노테이션
+import reactor.core.publisher.Flux; // 스트리밍 처리를 위한 Reactor Flux 임포트
+import reactor.core.publisher.FluxSink; // 스트리밍 이벤트 방출을 위한 Reactor FluxSink 임포트
 import reactor.core.publisher.Mono; // 비동기 처리를 위한 Reactor Mono 임포트
 import com.google.common.collect.ImmutableMap; // 불변 맵 생성을 위한 Guava ImmutableMap 임포트
+import java.util.ArrayList; // ArrayList 클래스 임포트
+import java.util.LinkedHashSet; // 순서를 유지하는 Set 구현체 임포트
 import java.util.List; // List 인터페이스 임포트
-import java.util.Map; // Map 인터페이스 임포트
+import java.util.Set; // Set 인터페이스 임포트
 import java.util.Optional; // Optional 클래스 임포트
+import java.util.concurrent.atomic.AtomicLong; // 스레드 안전한 카운터 임포트
 
 /**
  * {@code AgentService}는 사용자 요청을 받아 Gemini 모델과 상호작용하여 리포트를 생성하는 핵심 서비스입니다.
@@ -23,9 +35,8 @@ import java.util.Optional; // Optional 클래스 임포트
  * 주요 기능:
  * <ul>
  *     <li>사용자 프롬프트와 등록된 도구를 기반으로 Gemini 모델에 콘텐츠 생성 요청</li>
- *     <li>Gemini 모델의 응답에서 함수 호출(Function Call)을 감지 및 처리</li>
- *     <li>감지된 함수 호출에 따라 적절한 {@link ToolExecutor}를 찾아 실행</li>
- *     <li>도구 실행 결과를 다시 Gemini 모델에 전달하여 최종 응답 생성 유도</li>
+ *     <li>Gemini 모델의 응답에서 모든 함수 호출(Function Call)을 감지하고 {@link ToolCallDispatcher}를 통해 병렬 실행</li>
+ *     <li>모든 도구 실행 결과를 한 턴에 모아 다시 Gemini 모델에 전달하고, 모델이 추가 도구를 요청하면 설정된 단계 수까지 반복</li>
  *     <li>{@link GeminiConfigFactory}를 통해 Gemini 모델 설정(안전 설정, 시스템 지침 등)을 관리</li>
  *     <li>{@link ToolRegistry}를 통해 사용 가능한 모든 도구를 중앙에서 관리 및 조회</li>
  * </ul>
@@ -34,6 +45,7 @@ import java.util.Optional; // Optional 클래스 임포트
  * {@code @RequiredArgsConstructor}를 통해 final 필드에 대한 생성자 주입을 자동으로 처리합니다.
  */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AgentService {
     // JSON 직렬화/역직렬화를 위한 ObjectMapper 인스턴스.
@@ -50,6 +62,27 @@ public class AgentService {
     // 시스템에 등록된 모든 도구(ToolExecutor)를 관리하고 조회하는 레지스트리 클래스.
     // Gemini 모델에 제공할 FunctionDeclaration 목록을 제공하고, 함수 호출 시 실행할 ToolExecutor를 찾아줍니다.
     private final ToolRegistry toolRegistry;
+    // 한 턴의 모든 함수 호출을 해당 ToolExecutor로 전달하여 제한 시간 내에 동시에 실행합니다.
+    private final ToolCallDispatcher toolCallDispatcher;
+    // Agent 파이프라인의 블로킹 작업을 전용 가상 스레드 스케줄러에서 실행하고,
+    // 동시 실행 수와 대기열 길이를 제한하여 포화 시 요청을 즉시 거절합니다.
+    private final AgentExecutionGate agentExecutionGate;
+    // 같은 프롬프트/도구 인자/도구 결과에 대해 이미 생성된 리포트를 재사용하기 위한 캐시.
+    private final ReportCache reportCache;
+    // 같은 프롬프트로 동시에 들어온 요청들이 하나의 파이프라인 실행을 공유하도록 합니다.
+    private final RequestCoalescer requestCoalescer;
+    // 명확한 도구 요청이면 첫 번째 Gemini 호출 없이 로컬에서 함수 호출을 결정하는 라우터.
+    private final IntentRouter intentRouter;
+
+    // 도구 호출 → 결과 전달 과정을 최대 몇 번 반복할지 지정합니다.
+    // 한도에 도달하면 도구 없이 마지막 생성을 요청하여 모델이 최종 답변을 작성하도록 합니다.
+    @Value("${agent.loop.max-steps}")
+    private int maxSteps;
+
+    // 도구가 직접 렌더링한 답변으로 후속 Gemini 호출을 생략한 횟수와, 후속 호출을 수행한 횟수.
+    // 두 값의 비율로 각 도구의 직접 응답 임계값을 조정할 수 있습니다.
+    private final AtomicLong directResponses = new AtomicLong();
+    private final AtomicLong followUpGenerations = new AtomicLong();
 
     // Gemini 모델 호출에 사용될 모델 이름. 현재는 "gemini-2.5-flash"로 고정되어 있습니다.
     private static final String USED_LLM_MODEL = "gemini-2.5-flash";
@@ -58,126 +91,342 @@ public class AgentService {
      * 사용자 요청을 처리하고 Gemini 모델을 사용하여 리포트를 생성합니다.
      * 이 메서드는 다음 단계를 포함합니다:
      * <ol>
-     *     <li>{@link ToolRegistry}에서 현재 시스템에 등록된 모든 도구 목록을 가져옵니다.</li>
-     *     <li>가져온 도구 목록과 기본 설정을 사용하여 {@link GeminiConfigFactory}를 통해 {@link GenerateContentConfig}를 생성합니다.</li>
-     *     <li>사용자 프롬프트와 생성된 설정을 사용하여 Gemini 모델에 첫 번째 콘텐츠 생성 요청을 보냅니다.</li>
-     *     <li>Gemini 모델의 응답을 분석하여 함수 호출(Function Call)이 있는지 확인합니다.</li>
-     *     <li>함수 호출이 감지되면:
+     *     <li>{@link ToolRegistry}에서 현재 시스템에 등록된 모든 도구 목록을 가져와 {@link GenerateContentConfig}를 생성합니다.</li>
+     *     <li>사용자 프롬프트로 대화 기록을 시작하고 Gemini 모델에 콘텐츠 생성 요청을 보냅니다.
+     *         단, {@link IntentRouter}가 호출할 도구와 인자를 확신하면 첫 번째 요청을 생략하고 곧바로 도구를 실행합니다.</li>
+     *     <li>응답에 함수 호출이 있으면:
      *         <ul>
-     *             <li>호출된 함수 이름에 해당하는 {@link ToolExecutor}를 {@link ToolRegistry}에서 찾습니다.</li>
-     *             <li>함수 호출에 포함된 인자들을 추출하여 {@link ToolExecutor}를 실행합니다.</li>
-     *             <li>{@link ToolExecutor}의 실행 결과(JSON 문자열)를 가져옵니다.</li>
-     *             <li>{@link ToolExecutor}에서 제공하는 템플릿화된 프롬프트와 함수 실행 결과를 포함하여 Gemini 모델에 두 번째 콘텐츠 생성 요청을 보냅니다.</li>
-     *             <li>두 번째 요청에 대한 Gemini 모델의 최종 응답 텍스트를 반환합니다.</li>
+     *             <li>응답에 포함된 모든 함수 호출을 {@link ToolCallDispatcher}로 동시에 실행합니다.</li>
+     *             <li>모든 도구가 {@link ToolExecutor#renderDirectResponse(String, String)}로 답변을 직접 렌더링하면 후속 호출 없이 반환합니다.</li>
+     *             <li>모든 함수 실행 결과와 각 {@link ToolExecutor}의 템플릿화된 프롬프트를 한 턴으로 묶어 대화 기록에 추가합니다.</li>
+     *             <li>응답 스키마를 제공하는 도구이면 구조화된 JSON 출력으로 최종 생성을 요청하고, 도구가 서버에서 최종 답변을 렌더링합니다.</li>
+     *             <li>사용된 도구들의 시스템 지침을 적용한 설정으로 다시 생성 요청을 보냅니다.</li>
      *         </ul>
      *     </li>
-     *     <li>함수 호출이 없거나 처리 중 문제가 발생하면, Gemini 모델의 첫 번째 응답 텍스트를 반환합니다.</li>
+     *     <li>함수 호출이 없는 응답을 받거나 최대 단계 수({@code agent.loop.max-steps})에 도달할 때까지 반복합니다.</li>
      * </ol>
+     * 첫 번째 턴의 함수 호출과 최종 리포트는 {@link ReportCache}에 저장되어, 같은 프롬프트가 같은 도구 결과를 만들면
+     * Gemini 호출 없이 캐시된 리포트를 반환합니다.
+     * 위 과정은 모두 {@link AgentExecutionGate}를 통해 요청 스레드가 아닌 전용 스케줄러에서 실행되며,
+     * 실행 한도를 초과한 요청은 503 응답으로 즉시 거절됩니다.
      *
      * @param request 사용자 요청 정보를 담고 있는 {@link AgentRequest} 객체 (주로 사용자 프롬프트 포함).
      * @return Gemini 모델로부터 생성된 리포트 텍스트를 포함하는 {@link Mono<String>} 객체.
      */
     public Mono<String> getReport(AgentRequest request) {
-        return Mono.fromCallable(() -> {
-
-            // 1. ToolRegistry에서 현재 등록된 모든 도구(Tool) 목록을 가져옵니다.
-            //    이 목록은 Gemini 모델에 어떤 함수들을 호출할 수 있는지 알려주는 역할을 합니다.
-            List<Tool> registeredTools = toolRegistry.getAllTools();
-
-            // 2. GeminiConfigFactory를 사용하여 Gemini 모델의 콘텐츠 생성 설정을 생성합니다.
-            //    이 설정에는 안전 설정, 시스템 지침, 그리고 위에서 가져온 도구 목록이 포함됩니다.
-            GenerateContentConfig config = geminiConfigFactory.createDefaultGenerateContentConfig(registeredTools);
-
-            // 3. Gemini 모델에 첫 번째 콘텐츠 생성 요청을 보냅니다.
-            //    모델은 사용자 프롬프트와 제공된 도구 목록을 기반으로 응답을 생성합니다.
-            //    이 응답에는 텍스트 응답 또는 함수 호출 제안이 포함될 수 있습니다.
-            GenerateContentResponse response = geminiClient.models.generateContent(
-                    USED_LLM_MODEL, // 사용할 LLM 모델 지정
-                    request.getPrompt(), // 사용자 원본 프롬프트
-                    config); // 생성된 설정 객체
-
-            // 4. Gemini 모델의 응답에서 함수 호출(Function Call)이 있는지 확인하고 처리합니다.
-            //    findFunctionCall 헬퍼 메서드를 사용하여 응답 내에서 첫 번째 FunctionCall을 추출합니다.
-            return findFunctionCall(response)
-                    // FunctionCall이 존재하면 다음 맵핑 로직을 실행합니다.
-                    .map(functionCall -> {
-                        // 호출된 함수의 이름을 추출합니다. 이름이 없으면 null을 반환합니다.
-                        String functionName = functionCall.name().orElse(null);
-                        if (functionName == null) {
-                            // 함수 이름이 유효하지 않으면, 첫 번째 Gemini 응답 텍스트를 반환하고 종료합니다.
-                            return response.text();
-                        }
-
-                        // ToolRegistry에서 추출된 함수 이름에 해당하는 ToolExecutor를 찾습니다.
-                        // ToolExecutor는 실제 함수 실행 로직을 캡슐화합니다.
-                        ToolExecutor executor = toolRegistry.getToolExecutor(functionName);
-                        if (executor == null) {
-                            // 해당하는 ToolExecutor를 찾을 수 없으면, 첫 번째 Gemini 응답 텍스트를 반환하고 종료합니다.
-                            System.err.println("Error: No ToolExecutor found for function: " + functionName);
-                            return response.text();
-                        }
-
-                        // 함수 호출에 포함된 인자(arguments)들을 추출합니다.
-                        // 인자가 없으면 빈 ImmutableMap을 사용합니다.
-                        Map<String, Object> args = functionCall.args().orElse(ImmutableMap.of());
-
-                        // 찾은 ToolExecutor를 사용하여 실제 함수를 실행하고 결과를 JSON 문자열로 받습니다.
-                        String jsonResult = executor.execute(args);
-
-                        // ToolExecutor에서 해당 도구에 특화된 템플릿화된 프롬프트를 가져옵니다.
-                        // 이 프롬프트는 함수 실행 결과를 모델에 다시 전달할 때 사용됩니다.
-                        String templatedPrompt = executor.getTemplatedPrompt(request.getPrompt());
-
-                        // ToolExecutor에서 해당 도구에 특화된 시스템 지침을 가져와 기존 설정에 적용합니다.
-                        // 이는 특정 도구 사용 시 모델의 행동을 미세 조정하는 데 사용될 수 있습니다.
-                        GenerateContentConfig tunedConfig = config.toBuilder()
-                                .systemInstruction(executor.getSystemInstruction())
-                                .build();
-
-                        // 5. 함수 실행 결과와 템플릿화된 프롬프트를 포함하여 Gemini 모델에 두 번째 콘텐츠 생성 요청을 보냅니다.
-                        //    이 요청은 모델이 함수 실행 결과를 바탕으로 최종 리포트를 생성하도록 유도합니다.
-                        GenerateContentResponse finalResponse = geminiClient.models.generateContent(
-                                USED_LLM_MODEL, // 사용할 LLM 모델 지정
-                                Content.fromParts(
-                                        Part.fromText(templatedPrompt), // 템플릿화된 프롬프트
-                                        Part.fromFunctionResponse(functionName, ImmutableMap.of(
-                                                "result", jsonResult // 함수 실행 결과 (JSON 문자열)
-                                        ))
-                                ),
-                                tunedConfig); // 조정된 설정 객체
-                        return finalResponse.text(); // 최종 응답 텍스트 반환
-                    })
-                    // FunctionCall이 없거나 처리 중 문제가 발생하여 Optional이 비어있으면,
-                    // Gemini 모델의 첫 번째 응답 텍스트를 그대로 반환합니다.
-                    .orElseGet(response::text);
-        }).doOnError(e -> {
-            // 비동기 처리 중 에러 발생 시 에러 메시지를 출력합니다.
-            System.err.println("Error during Gemini API call: " + e.getMessage());
-        });
+        return requestCoalescer.execute(ReportCache.normalizePrompt(request.getPrompt()),
+                        () -> agentExecutionGate.submit(() -> runAgentLoop(request, null)))
+                // 비동기 처리 중 에러 발생 시 스택 트레이스와 함께 로그를 남깁니다.
+                .doOnError(e -> log.error("Gemini API 호출 중 오류가 발생했습니다.", e));
     }
 
     /**
-     * {@link GenerateContentResponse} 객체에서 첫 번째 {@link FunctionCall}을 추출하는 헬퍼 메서드입니다.
-     * 이 메서드는 응답의 후보(candidates), 콘텐츠(content), 파트(parts)를 순차적으로 탐색하여
-     * {@link FunctionCall}이 포함된 첫 번째 파트를 찾습니다.
+     * 사용자 요청을 처리하여 리포트를 스트리밍 방식으로 생성합니다.
+     * {@link #getReport(AgentRequest)}와 동일한 도구 호출 루프를 수행하되,
+     * 각 턴의 생성은 SDK의 스트리밍 API를 사용하여 텍스트가 생성되는 즉시 청크 단위로 방출합니다.
      * <p>
-     * 이 메서드는 {@link Optional} 체인을 사용하여 null 체크 없이 안전하게 데이터를 추출하며,
-     * 가독성을 높이고 {@code getReport} 메서드의 복잡성을 줄입니다.
+     * 방출되는 이벤트:
+     * <ul>
+     *     <li>{@code tool_start}: 도구 실행 시작 (data: 함수 이름, 호출마다 한 번)</li>
+     *     <li>{@code tool_end}: 도구 실행 완료 (data: 함수 이름, 호출마다 한 번)</li>
+     *     <li>{@code chunk}: 응답 텍스트 조각 (여러 번)</li>
+     *     <li>{@code done}: 생성 완료</li>
+     * </ul>
      *
-     * @param response Gemini 모델로부터 받은 {@link GenerateContentResponse} 객체.
-     * @return 응답에서 찾은 {@link FunctionCall}을 포함하는 {@link Optional} 객체.
-     *         {@link FunctionCall}이 없으면 빈 {@link Optional}을 반환합니다.
+     * @param request 사용자 요청 정보를 담고 있는 {@link AgentRequest} 객체.
+     * @return 생성 과정의 이벤트를 방출하는 {@link Flux<AgentStreamEvent>} 객체.
+     */
+    public Flux<AgentStreamEvent> streamReport(AgentRequest request) {
+        return agentExecutionGate.<AgentStreamEvent>submitStream(sink -> {
+            runAgentLoop(request, sink);
+            if (!sink.isCancelled()) {
+                sink.next(new AgentStreamEvent(AgentStreamEvent.DONE, ""));
+            }
+        }).doOnError(e -> log.error("Gemini 스트리밍 호출 중 오류가 발생했습니다.", e));
+    }
+
+    /**
+     * 도구 호출 루프를 실행하고 최종 응답 텍스트를 반환합니다.
+     *
+     * @param request 사용자 요청
+     * @param sink    스트리밍 모드에서 이벤트를 방출할 {@link FluxSink}. {@code null}이면 일반(비스트리밍) 모드로 동작합니다.
+     * @return 최종 응답 텍스트
+     */
+    private String runAgentLoop(AgentRequest request, FluxSink<AgentStreamEvent> sink) {
+        // ToolRegistry에 등록된 모든 도구를 포함하는 기본 설정을 생성합니다.
+        GenerateContentConfig config = geminiConfigFactory.createDefaultGenerateContentConfig(toolRegistry.getAllTools());
+
+        // 대화 기록은 사용자 원본 프롬프트로 시작합니다.
+        List<Content> history = new ArrayList<>();
+        history.add(Content.builder().role("user").parts(Part.fromText(request.getPrompt())).build());
+
+        // 지금까지 실행된 도구 호출과 결과를 요약한 캐시 키. 도구 결과가 하나라도 실패하면 캐시하지 않습니다.
+        String toolChainKey = null;
+        boolean cacheable = true;
+
+        for (int step = 0; ; step++) {
+            if (step == maxSteps) {
+                // 최대 단계 수에 도달하면 도구 없이 생성하도록 하여 모델이 최종 답변을 작성하게 합니다.
+                config = config.toBuilder().clearTools().build();
+            }
+
+            // 첫 번째 턴은 로컬 라우터가 확신하는 함수 호출이나, 같은 프롬프트에 대해 오늘 이미 계획된 함수 호출이 있으면 재사용합니다.
+            Content modelContent = step == 0 ? planFirstTurn(request.getPrompt()) : null;
+            if (modelContent == null) {
+                modelContent = generateTurn(history, config, sink);
+                if (step == 0) {
+                    reportCache.putPlan(request.getPrompt(), modelContent);
+                }
+            }
+
+            List<FunctionCall> functionCalls = findFunctionCalls(modelContent);
+            if (functionCalls.isEmpty() || (sink != null && sink.isCancelled())) {
+                String text = extractText(modelContent);
+                if (toolChainKey != null && cacheable && (sink == null || !sink.isCancelled())) {
+                    reportCache.putReport(request.getPrompt(), toolChainKey, text);
+                }
+                return text;
+            }
+
+            // 모델의 함수 호출 턴을 대화 기록에 추가하고, 요청된 모든 도구를 동시에 실행합니다.
+            history.add(modelContent);
+            if (sink != null) {
+                functionCalls.forEach(call -> sink.next(
+                        new AgentStreamEvent(AgentStreamEvent.TOOL_START, call.name().orElse(""))));
+            }
+            List<ToolCallResult> results = toolCallDispatcher.dispatch(functionCalls);
+            if (sink != null) {
+                results.forEach(result -> sink.next(
+                        new AgentStreamEvent(AgentStreamEvent.TOOL_END, result.functionName())));
+            }
+
+            // 같은 프롬프트가 같은 도구 호출과 같은 결과를 만든 적이 있으면 캐시된 리포트를 바로 반환합니다.
+            cacheable &= results.stream().allMatch(ToolCallResult::success);
+            toolChainKey = reportCache.chainKey(toolChainKey, results);
+            String cachedReport = cacheable ? reportCache.getReport(request.getPrompt(), toolChainKey) : null;
+            if (cachedReport != null) {
+                if (sink != null) {
+                    sink.next(new AgentStreamEvent(AgentStreamEvent.CHUNK, cachedReport));
+                }
+                return cachedReport;
+            }
+
+            // 모든 도구가 결과만으로 답변을 렌더링할 수 있으면 후속 Gemini 호출을 생략합니다.
+            Optional<String> directResponse = renderDirectResponse(request.getPrompt(), results);
+            if (directResponse.isPresent()) {
+                directResponses.incrementAndGet();
+                if (sink != null) {
+                    sink.next(new AgentStreamEvent(AgentStreamEvent.CHUNK, directResponse.get()));
+                }
+                return directResponse.get();
+            }
+            followUpGenerations.incrementAndGet();
+
+            // 모든 함수 실행 결과를 한 턴으로 묶어 전달하고, 사용된 도구의 시스템 지침을 적용합니다.
+            history.add(buildToolResponseContent(request.getPrompt(), results));
+
+            // 응답 스키마를 제공하는 도구의 단일 결과이면 구조화된 출력으로 인사이트만 생성하고 서버에서 렌더링합니다.
+            ToolCallResult structuredResult = findStructuredOutputResult(results);
+            if (structuredResult != null) {
+                String report = generateStructuredReport(history, structuredResult);
+                if (cacheable) {
+                    reportCache.putReport(request.getPrompt(), toolChainKey, report);
+                }
+                if (sink != null) {
+                    sink.next(new AgentStreamEvent(AgentStreamEvent.CHUNK, report));
+                }
+                return report;
+            }
+            config = tuneConfig(config, results);
+        }
+    }
+
+    /**
+     * Gemini 호출 없이 첫 번째 턴의 함수 호출을 결정할 수 있으면 해당 모델 턴 {@link Content}를 반환합니다.
+     * {@link IntentRouter}의 로컬 라우팅을 먼저 시도하고, 실패하면 {@link ReportCache}의 계획 캐시를 조회합니다.
+     *
+     * @return 결정된 모델 턴. 결정할 수 없으면 {@code null}
+     */
+    private Content planFirstTurn(String prompt) {
+        return intentRouter.route(prompt)
+                .map(calls -> Content.builder()
+                        .role("model")
+                        .parts(calls.stream()
+                                .map(call -> Part.builder().functionCall(call).build())
+                                .toList())
+                        .build())
+                .orElseGet(() -> reportCache.getPlan(prompt));
+    }
+
+    /**
+     * 이번 턴의 결과가 응답 스키마를 제공하는 도구의 성공한 단일 결과이면 해당 결과를 반환합니다.
+     */
+    private ToolCallResult findStructuredOutputResult(List<ToolCallResult> results) {
+        if (results.size() != 1) {
+            return null;
+        }
+        ToolCallResult result = results.getFirst();
+        return result.success() && result.executor().getResponseSchema().isPresent() ? result : null;
+    }
+
+    /**
+     * 도구의 응답 스키마로 구조화된 JSON 출력을 요청하고, 도구가 실제 데이터와 조합해 렌더링한 최종 답변을 반환합니다.
+     * 구조화된 출력은 함수 호출과 함께 사용할 수 없으므로 이 생성이 루프의 마지막 턴이 됩니다.
+     */
+    private String generateStructuredReport(List<Content> history, ToolCallResult result) {
+        ToolExecutor executor = result.executor();
+        GenerateContentConfig structuredConfig = geminiConfigFactory
+                .createStructuredOutputConfig(executor.getResponseSchema().orElseThrow())
+                .toBuilder()
+                .systemInstruction(executor.getSystemInstruction())
+                .build();
+        GenerateContentResponse response = geminiClient.models.generateContent(USED_LLM_MODEL, history, structuredConfig);
+        String modelJson = extractText(firstCandidateContent(response));
+        return executor.renderStructuredResponse(result.args(), result.result(), modelJson);
+    }
+
+    /**
+     * 모든 도구 실행 결과가 성공했고 각 도구가 답변을 직접 렌더링할 수 있으면, 렌더링된 답변들을 이어붙여 반환합니다.
+     * 하나라도 렌더링할 수 없으면 빈 {@link Optional}을 반환하여 Gemini 모델이 최종 답변을 생성하도록 합니다.
+     */
+    private Optional<String> renderDirectResponse(String originalPrompt, List<ToolCallResult> results) {
+        List<String> rendered = new ArrayList<>();
+        for (ToolCallResult result : results) {
+            if (!result.success()) {
+                return Optional.empty();
+            }
+            Optional<String> response = result.executor().renderDirectResponse(originalPrompt, result.result());
+            if (response.isEmpty()) {
+                return Optional.empty();
+            }
+            rendered.add(response.get());
+        }
+        return Optional.of(String.join("\n\n", rendered));
+    }
+
+    /**
+     * @return 도구가 직접 렌더링한 답변으로 후속 Gemini 호출을 생략한 횟수
+     */
+    public long getDirectResponses() {
+        return directResponses.get();
+    }
+
+    /**
+     * @return 도구 실행 후 Gemini 모델에 후속 생성을 요청한 횟수
+     */
+    public long getFollowUpGenerations() {
+        return followUpGenerations.get();
+    }
+
+    /**
+     * 대화 기록을 Gemini 모델에 전달하여 한 턴을 생성하고, 모델의 응답 {@link Content}를 반환합니다.
+     * 스트리밍 모드에서는 텍스트가 생성되는 즉시 {@code chunk} 이벤트로 방출하고,
+     * 모든 청크의 파트를 모아 하나의 {@link Content}로 합칩니다.
      */
-    private Optional<FunctionCall> findFunctionCall(GenerateContentResponse response) {
+    private Content generateTurn(List<Content> history, GenerateContentConfig config, FluxSink<AgentStreamEvent> sink) {
+        if (sink == null) {
+            GenerateContentResponse response = geminiClient.models.generateContent(USED_LLM_MODEL, history, config);
+            return firstCandidateContent(response);
+        }
+
+        List<Part> parts = new ArrayList<>();
+        try (ResponseStream<GenerateContentResponse> stream =
+                     geminiClient.models.generateContentStream(USED_LLM_MODEL, history, config)) {
+            for (GenerateContentResponse chunk : stream) {
+                if (sink.isCancelled()) {
+                    // 클라이언트가 연결을 끊으면 남은 생성 결과는 읽지 않고 스트림을 닫습니다.
+                    break;
+                }
+                for (Part part : firstCandidateContent(chunk).parts().orElse(List.of())) {
+                    parts.add(part);
+                    part.text()
+                            .filter(text -> !text.isEmpty() && !part.thought().orElse(false))
+                            .ifPresent(text -> sink.next(new AgentStreamEvent(AgentStreamEvent.CHUNK, text)));
+                }
+            }
+        }
+        return Content.builder().role("model").parts(parts).build();
+    }
+
+    /**
+     * 도구 실행 결과들을 Gemini 모델에 다시 전달하기 위한 {@link Content}를 생성합니다.
+     * 모든 함수 실행 결과(JSON 문자열)와 사용된 각 도구의 템플릿화된 프롬프트를 하나의 턴으로 묶습니다.
+     */
+    private Content buildToolResponseContent(String originalPrompt, List<ToolCallResult> results) {
+        List<Part> parts = new ArrayList<>();
+        for (ToolCallResult result : results) {
+            parts.add(Part.fromFunctionResponse(result.functionName(), ImmutableMap.of(
+                    "result", result.result() // 함수 실행 결과 (JSON 문자열)
+            )));
+        }
+        for (ToolExecutor executor : distinctExecutors(results)) {
+            parts.add(Part.fromText(executor.getTemplatedPrompt(originalPrompt))); // 템플릿화된 프롬프트
+        }
+        return Content.builder().role("user").parts(parts).build();
+    }
+
+    /**
+     * 설정에 이번 턴에서 사용된 {@link ToolExecutor}들의 시스템 지침을 적용한 설정을 반환합니다.
+     * 여러 도구가 사용된 경우 각 도구의 시스템 지침 파트를 하나로 합칩니다.
+     */
+    private GenerateContentConfig tuneConfig(GenerateContentConfig config, List<ToolCallResult> results) {
+        List<Part> instructionParts = new ArrayList<>();
+        for (ToolExecutor executor : distinctExecutors(results)) {
+            instructionParts.addAll(executor.getSystemInstruction().parts().orElse(List.of()));
+        }
+        if (instructionParts.isEmpty()) {
+            return config;
+        }
+        return config.toBuilder()
+                .systemInstruction(Content.builder().parts(instructionParts).build())
+                .build();
+    }
+
+    private Set<ToolExecutor> distinctExecutors(List<ToolCallResult> results) {
+        Set<ToolExecutor> executors = new LinkedHashSet<>();
+        for (ToolCallResult result : results) {
+            if (result.executor() != null) {
+                executors.add(result.executor());
+            }
+        }
+        return executors;
+    }
+
+    /**
+     * {@link GenerateContentResponse} 객체에서 첫 번째 후보(candidate)의 {@link Content}를 추출합니다.
+     * 후보가 없으면 파트가 비어있는 {@link Content}를 반환합니다.
+     */
+    private Content firstCandidateContent(GenerateContentResponse response) {
         return Optional.ofNullable(response) // 응답 객체가 null이 아닐 경우 Optional로 래핑
                 .flatMap(GenerateContentResponse::candidates) // 응답에서 후보 목록(List<Candidate>)을 Optional로 추출
                 .filter(candidates -> !candidates.isEmpty()) // 후보 목록이 비어있지 않은 경우만 필터링
                 .flatMap(candidates -> candidates.getFirst().content()) // 첫 번째 후보의 콘텐츠(Content)를 Optional로 추출
-                .flatMap(Content::parts) // 콘텐츠에서 파트 목록(List<Part>)을 Optional로 추출
-                .flatMap(parts -> parts.stream() // 파트 목록을 스트림으로 변환
-                        .filter(part -> part.functionCall().isPresent()) // 각 파트에서 FunctionCall이 존재하는 경우만 필터링
-                        .findFirst() // FunctionCall이 있는 첫 번째 파트를 Optional로 추출
-                )
-                .flatMap(Part::functionCall); // 파트에서 FunctionCall 객체를 Optional로 추출
+                .orElseGet(() -> Content.builder().role("model").parts(List.of()).build());
+    }
+
+    /**
+     * {@link Content}에 포함된 모든 {@link FunctionCall}을 순서대로 추출하는 헬퍼 메서드입니다.
+     *
+     * @param content Gemini 모델의 응답 콘텐츠.
+     * @return 콘텐츠에 포함된 {@link FunctionCall} 목록. 함수 호출이 없으면 빈 리스트를 반환합니다.
+     */
+    private List<FunctionCall> findFunctionCalls(Content content) {
+        return content.parts().orElse(List.of()).stream() // 파트 목록을 스트림으로 변환
+                .map(Part::functionCall) // 각 파트에서 FunctionCall을 Optional로 추출
+                .flatMap(Optional::stream) // FunctionCall이 존재하는 파트만 남깁니다.
+                .toList();
+    }
+
+    /**
+     * {@link Content}에 포함된 텍스트 파트(사고 과정 파트 제외)를 이어붙여 반환합니다.
+     */
+    private String extractText(Content content) {
+        StringBuilder text = new StringBuilder();
+        for (Part part : content.parts().orElse(List.of())) {
+            if (!part.thought().orElse(false)) {
+                part.text().ifPresent(text::append);
+            }
+        }
+        return text.toString();
     }
 }
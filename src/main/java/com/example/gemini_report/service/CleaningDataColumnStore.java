@@ -0,0 +1,619 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.entity.CleaningData;
+import com.example.gemini_report.event.CleaningDataChangedEvent;
+import com.example.gemini_report.repository.CleaningStatsView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@code CleaningDataColumnStore}는 최근 {@code storage.column-store.window-days}일의 청소 데이터를 컬럼 단위 배열로 메모리에 보관합니다.
+ * <p>
+ * 구조:
+ * <ul>
+ *     <li>시작/종료 시간은 {@code long[]}(UTC 기준 epoch 초, 로컬 시간을 그대로 인코딩), 면적/물/전력은 {@code double[]},
+ *     장소는 사전(dictionary) 인코딩된 {@code int[]}로 저장합니다. 값이 없으면 {@link #NULL_LONG} 또는 {@code NaN}입니다.</li>
+ *     <li>행은 시작 시간 순으로 정렬되어 있어 기간은 이진 탐색으로 찾고, 집계는 박싱 없이 배열을 순회하여 계산합니다.</li>
+ *     <li>읽기는 불변 스냅샷을 잠금 없이 사용하고, 변경은 새 스냅샷을 만들어 교체합니다(copy-on-write).
+ *     배열에는 여유 공간을 두어, 마지막 행 이후에 추가되는 행은 배열을 복사하지 않고 여유 공간에 이어 쓴 뒤 크기만 늘린 스냅샷으로 교체합니다.</li>
+ * </ul>
+ * 대량 적재는 배치를 커밋할 때마다 적재한 행을 {@link #apply(List, List)}로 직접 반영하고, JPA 변경은 {@link CleaningDataChangedEvent}에
+ * 담긴 변경 행을 커밋 이후 반영하므로 데이터베이스를 다시 읽지 않습니다.
+ * 변경 행을 알 수 없는 변경(보존 기간 정리 등)만 커밋 이후 해당 시간 범위를 데이터베이스에서 다시 읽어 교체합니다.
+ * 저장소가 담고 있지 않은 과거 기간의 조회는 {@link CleaningDataService}가 데이터베이스로 처리합니다.
+ */
+@Component
+@Slf4j
+public class CleaningDataColumnStore {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_LOCATION = -1;
+    private static final String SELECT_SQL = "SELECT cleaning_id, start_time, end_time, location, duration, "
+            + "area_cleaned, water_usage, power_usage FROM CLEANING_DATA ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int windowDays;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // 장소 이름 → 사전 id. 사전은 늘어나기만 하며, 변경은 synchronized 메서드 안에서만 일어납니다.
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> locationNames = new ArrayList<>();
+    // 저장소가 아직 로드되지 않았으면 null
+    private volatile Columns columns;
+
+    public CleaningDataColumnStore(JdbcTemplate jdbcTemplate,
+                                   @Value("${storage.column-store.enabled}") boolean enabled,
+                                   @Value("${storage.column-store.window-days}") int windowDays,
+                                   @Value("${storage.retention.raw-days}") int retentionRawDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        // 원본 행이 정리된 기간을 저장소가 담당하면 집계 결과가 비게 되므로, 보관 기간은 원본 행 보존 기간을 넘지 않습니다.
+        if (windowDays > retentionRawDays) {
+            log.warn("storage.column-store.window-days({})가 storage.retention.raw-days({})보다 길어 보존 기간으로 줄입니다.",
+                    windowDays, retentionRawDays);
+        }
+        this.windowDays = Math.min(windowDays, retentionRawDays);
+    }
+
+    /**
+     * 애플리케이션 시작 후 최근 기간의 데이터를 읽어 저장소를 채웁니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime windowStart = LocalDate.now().minusDays(windowDays).atStartOfDay();
+        Columns loaded = read(windowStart, null).build(windowStart, locationNames);
+        columns = loaded;
+        log.info("컬럼 저장소에 {} 이후 청소 데이터 {}건을 로드했습니다.", windowStart.toLocalDate(), loaded.size);
+    }
+
+    /**
+     * 청소 데이터가 변경되면 커밋 이후 이벤트에 담긴 변경 행을 반영합니다. 변경 행이 없는 이벤트면 변경된 시간 범위를 데이터베이스에서 다시 읽어 교체합니다.
+     * 도구 결과 캐시가 무효화된 뒤 다시 계산될 때 이미 갱신된 데이터를 읽도록 다른 리스너보다 먼저 실행됩니다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDataChanged(CleaningDataChangedEvent event) {
+        if (columns == null) {
+            return;
+        }
+        if (event.hasRows()) {
+            apply(event.added(), event.removed());
+        } else if (event.from() == null || event.to() == null) {
+            load();
+        } else {
+            refresh(event.from(), event.to());
+        }
+    }
+
+    /**
+     * 시작 시간이 [{@code from}, {@code to}](초 단위)인 행을 데이터베이스의 현재 내용으로 교체하고, 보관 기간이 지난 행을 제거합니다.
+     */
+    public synchronized void refresh(LocalDateTime from, LocalDateTime to) {
+        Columns current = columns;
+        if (current == null) {
+            return;
+        }
+        LocalDateTime windowStart = LocalDate.now().minusDays(windowDays).atStartOfDay();
+        long windowStartKey = encode(windowStart);
+        long fromKey = Math.max(encode(from), windowStartKey);
+        long toKey = encode(to);
+
+        int keepFrom = current.lowerBound(windowStartKey);
+        int lo = Math.max(keepFrom, current.lowerBound(fromKey));
+        int hi = Math.max(lo, current.upperBound(toKey));
+        ColumnsBuilder builder = new ColumnsBuilder(current.size - (hi - keepFrom) + 16);
+        builder.appendRange(current, keepFrom, lo);
+        if (fromKey <= toKey) {
+            builder.appendAll(read(decode(fromKey), decode(toKey + 1)));
+        }
+        builder.appendRange(current, hi, current.size);
+        columns = builder.build(windowStart, locationNames);
+    }
+
+    /**
+     * 커밋된 변경 행을 데이터베이스를 다시 읽지 않고 반영합니다. 삭제할 행은 청소 ID로 찾고, 보관 기간 밖의 추가 행은 무시합니다.
+     * 삭제할 행이 없고 추가 행이 모두 현재 마지막 행 이후이며 배열에 여유가 있으면 배열을 복사하지 않고 이어 씁니다.
+     *
+     * @param added   추가되었거나 수정된 뒤의 행 (청소 ID 포함)
+     * @param removed 삭제되었거나 수정되기 전의 행
+     */
+    public synchronized void apply(List<CleaningData> added, List<CleaningData> removed) {
+        Columns current = columns;
+        if (current == null || (added.isEmpty() && removed.isEmpty())) {
+            return;
+        }
+        long windowStartKey = encode(current.windowStart);
+        List<CleaningData> rows = added.stream()
+                .filter(row -> row.getStartTime() != null && encode(row.getStartTime()) >= windowStartKey)
+                .sorted(Comparator.comparing(CleaningData::getStartTime))
+                .toList();
+        int[] locationIds = rows.stream().mapToInt(row -> locationId(row.getLocation())).toArray();
+        int[] dropped = removed.stream().mapToInt(current::indexOf).filter(i -> i >= 0).sorted().distinct().toArray();
+        if (rows.isEmpty() && dropped.length == 0) {
+            return;
+        }
+        String[] names = locationNames.toArray(String[]::new);
+
+        if (dropped.length == 0 && current.canAppend(encode(rows.get(0).getStartTime()), rows.size())) {
+            columns = current.append(rows, locationIds, names);
+            return;
+        }
+
+        ColumnsBuilder builder = new ColumnsBuilder(current.size - dropped.length + rows.size());
+        int next = 0;
+        int runStart = 0;
+        int d = 0;
+        for (int i = 0; i < current.size; i++) {
+            boolean drop = d < dropped.length && dropped[d] == i;
+            boolean insert = next < rows.size() && encode(rows.get(next).getStartTime()) < current.starts[i];
+            if (drop || insert) {
+                builder.appendRange(current, runStart, i);
+                while (next < rows.size() && encode(rows.get(next).getStartTime()) < current.starts[i]) {
+                    builder.append(rows.get(next), locationIds[next]);
+                    next++;
+                }
+                if (drop) {
+                    d++;
+                }
+                runStart = drop ? i + 1 : i;
+            }
+        }
+        builder.appendRange(current, runStart, current.size);
+        for (; next < rows.size(); next++) {
+            builder.append(rows.get(next), locationIds[next]);
+        }
+        columns = builder.build(current.windowStart, locationNames);
+    }
+
+    /**
+     * {@code start} 이후의 기간을 이 저장소만으로 조회할 수 있는지 확인합니다.
+     * 저장소는 보관 기간 시작 이후의 행을 모두 담고 있으므로 종료 시각과 관계없이 시작 시각만 확인합니다.
+     */
+    public boolean covers(LocalDateTime start) {
+        Columns current = columns;
+        boolean covered = current != null && !start.isBefore(current.windowStart);
+        (covered ? hits : misses).incrementAndGet();
+        return covered;
+    }
+
+    /**
+     * 기간 안의 행을 시작 시간 순으로 {@link CleaningData}로 만들어 전달합니다. 데이터베이스나 영속성 컨텍스트를 사용하지 않습니다.
+     *
+     * @return 전달한 행 수
+     */
+    public long forEach(LocalDateTime start, LocalDateTime endExclusive, Consumer<CleaningData> consumer) {
+        Columns c = columns;
+        int from = c.lowerBound(encode(start));
+        int to = c.lowerBound(encode(endExclusive));
+        for (int i = from; i < to; i++) {
+            consumer.accept(c.toEntity(i));
+        }
+        return to - from;
+    }
+
+    /**
+     * 기간 안의 행을 장소/일/주 단위로 집계합니다. 결과 형식과 정렬은 {@code aggregate_cleaning_stats}의 SQL 경로와 같습니다.
+     *
+     * @param groupBy 그룹 기준 ({@code location}, {@code day}, {@code week}). 그 외 값은 {@code location}으로 처리합니다.
+     */
+    public List<CleaningStatsView> aggregate(LocalDateTime start, LocalDateTime endExclusive, String groupBy) {
+        Columns c = columns;
+        int from = c.lowerBound(encode(start));
+        int to = c.lowerBound(encode(endExclusive));
+        if (from >= to) {
+            return List.of();
+        }
+
+        long firstDay = Math.floorDiv(c.starts[from], 86_400L);
+        int groups;
+        int[] groupOf = new int[to - from];
+        if ("day".equals(groupBy) || "week".equals(groupBy)) {
+            boolean weekly = "week".equals(groupBy);
+            long base = weekly ? weekStartDay(firstDay) : firstDay;
+            for (int i = from; i < to; i++) {
+                long day = Math.floorDiv(c.starts[i], 86_400L);
+                groupOf[i - from] = (int) (weekly ? (weekStartDay(day) - base) / 7 : day - base);
+            }
+            groups = groupOf[to - from - 1] + 1;
+        } else {
+            for (int i = from; i < to; i++) {
+                groupOf[i - from] = c.locations[i] + 1; // 0번 그룹은 장소가 없는 행
+            }
+            groups = c.locationNames.length + 1;
+        }
+
+        GroupTotals totals = new GroupTotals(groups);
+        for (int i = from; i < to; i++) {
+            totals.add(groupOf[i - from], c, i);
+        }
+
+        List<CleaningStatsView> result = new ArrayList<>();
+        if ("day".equals(groupBy) || "week".equals(groupBy)) {
+            boolean weekly = "week".equals(groupBy);
+            long base = weekly ? weekStartDay(firstDay) : firstDay;
+            for (int g = 0; g < groups; g++) {
+                if (totals.sessions[g] > 0) {
+                    result.add(totals.toView(g, LocalDate.ofEpochDay(base + (long) g * (weekly ? 7 : 1)).toString()));
+                }
+            }
+        } else {
+            for (int g = 0; g < groups; g++) {
+                if (totals.sessions[g] > 0) {
+                    result.add(totals.toView(g, g == 0 ? null : c.locationNames[g - 1]));
+                }
+            }
+            result.sort(Comparator.comparing(CleaningStatsView::getGroupKey, Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        return result;
+    }
+
+    /**
+     * @return 저장소 상태와 적중/미적중 횟수
+     */
+    public Map<String, Object> getStats() {
+        Columns current = columns;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("rows", current == null ? 0 : current.size);
+        stats.put("windowStart", current == null ? null : current.windowStart.toString());
+        stats.put("locations", current == null ? 0 : current.locationNames.length);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    // 시작 시간이 from 이상(toExclusive가 있으면 toExclusive 미만)인 행을 시작 시간 순으로 읽습니다.
+    private ColumnsBuilder read(LocalDateTime from, LocalDateTime toExclusive) {
+        ColumnsBuilder builder = new ColumnsBuilder(1024);
+        String sql = SELECT_SQL + "WHERE start_time >= ?" + (toExclusive == null ? "" : " AND start_time < ?") + " ORDER BY start_time";
+        Object[] params = toExclusive == null
+                ? new Object[]{Timestamp.valueOf(from)}
+                : new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(toExclusive)};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(1000);
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            return statement;
+        }, (ResultSet rs) -> builder.append(rs, locationId(rs.getString("location"))));
+        return builder;
+    }
+
+    // synchronized 메서드(load/refresh/apply) 안에서만 호출됩니다.
+    private int locationId(String location) {
+        if (location == null) {
+            return NULL_LOCATION;
+        }
+        return dictionary.computeIfAbsent(location, name -> {
+            locationNames.add(name);
+            return locationNames.size() - 1;
+        });
+    }
+
+    private static long weekStartDay(long epochDay) {
+        // 1970-01-01은 목요일이므로 3일을 더해 월요일 기준으로 맞춥니다.
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static long encode(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime decode(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+
+    // 컬럼 스냅샷. [0, size) 구간은 불변이며, 배열의 나머지는 다음 스냅샷이 이어 쓰는 여유 공간입니다.
+    private static final class Columns {
+        final LocalDateTime windowStart;
+        final String[] locationNames;
+        final int size;
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] durations;
+        final double[] areas;
+        final double[] waters;
+        final double[] powers;
+        final int[] locations;
+
+        Columns(LocalDateTime windowStart, String[] locationNames, int size, long[] ids, long[] starts, long[] ends,
+                long[] durations, double[] areas, double[] waters, double[] powers, int[] locations) {
+            this.windowStart = windowStart;
+            this.locationNames = locationNames;
+            this.size = size;
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.durations = durations;
+            this.areas = areas;
+            this.waters = waters;
+            this.powers = powers;
+            this.locations = locations;
+        }
+
+        // 시작 시간이 key 이상인 첫 행의 위치
+        int lowerBound(long key) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // 시작 시간이 key 초과인 첫 행의 위치
+        int upperBound(long key) {
+            return key == Long.MAX_VALUE ? size : lowerBound(key + 1);
+        }
+
+        // 청소 ID가 같은 행의 위치. 시작 시간이 같은 구간을 먼저 찾고, 없으면 전체를 찾습니다. 없으면 -1입니다.
+        int indexOf(CleaningData row) {
+            if (row.getCleaningId() == null) {
+                return -1;
+            }
+            long id = row.getCleaningId();
+            if (row.getStartTime() != null) {
+                long key = encode(row.getStartTime());
+                for (int i = lowerBound(key), end = upperBound(key); i < end; i++) {
+                    if (ids[i] == id) {
+                        return i;
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // 시작 시간이 firstKey 이상인 count개의 행을 배열 복사 없이 이어 쓸 수 있는지 확인합니다.
+        boolean canAppend(long firstKey, int count) {
+            return size + count <= starts.length && (size == 0 || starts[size - 1] <= firstKey);
+        }
+
+        // 시작 시간 순으로 정렬된 행을 여유 공간에 이어 쓰고, 같은 배열을 공유하며 크기만 늘어난 스냅샷을 반환합니다.
+        // 이 스냅샷의 [0, size) 구간은 건드리지 않으므로 이 스냅샷을 읽고 있는 쪽에는 영향이 없습니다.
+        Columns append(List<CleaningData> rows, int[] locationIds, String[] names) {
+            for (int k = 0; k < rows.size(); k++) {
+                CleaningData row = rows.get(k);
+                int i = size + k;
+                ids[i] = row.getCleaningId() == null ? NULL_LONG : row.getCleaningId();
+                starts[i] = encode(row.getStartTime());
+                ends[i] = row.getEndTime() == null ? NULL_LONG : encode(row.getEndTime());
+                durations[i] = row.getDuration() == null ? NULL_LONG : row.getDuration();
+                areas[i] = row.getAreaCleaned() == null ? Double.NaN : row.getAreaCleaned();
+                waters[i] = row.getWaterUsage() == null ? Double.NaN : row.getWaterUsage();
+                powers[i] = row.getPowerUsage() == null ? Double.NaN : row.getPowerUsage();
+                locations[i] = locationIds[k];
+            }
+            return new Columns(windowStart, names, size + rows.size(), ids, starts, ends,
+                    durations, areas, waters, powers, locations);
+        }
+
+        CleaningData toEntity(int i) {
+            CleaningData row = new CleaningData();
+            row.setCleaningId(ids[i] == NULL_LONG ? null : ids[i]);
+            row.setStartTime(decode(starts[i]));
+            row.setEndTime(ends[i] == NULL_LONG ? null : decode(ends[i]));
+            row.setLocation(locations[i] == NULL_LOCATION ? null : locationNames[locations[i]]);
+            row.setDuration(durations[i] == NULL_LONG ? null : durations[i]);
+            row.setAreaCleaned(Double.isNaN(areas[i]) ? null : areas[i]);
+            row.setWaterUsage(Double.isNaN(waters[i]) ? null : waters[i]);
+            row.setPowerUsage(Double.isNaN(powers[i]) ? null : powers[i]);
+            return row;
+        }
+    }
+
+    // 새 스냅샷을 만들기 위한 가변 버퍼
+    private static final class ColumnsBuilder {
+        private int size;
+        private long[] ids;
+        private long[] starts;
+        private long[] ends;
+        private long[] durations;
+        private double[] areas;
+        private double[] waters;
+        private double[] powers;
+        private int[] locations;
+
+        ColumnsBuilder(int capacity) {
+            capacity = Math.max(capacity, 16);
+            ids = new long[capacity];
+            starts = new long[capacity];
+            ends = new long[capacity];
+            durations = new long[capacity];
+            areas = new double[capacity];
+            waters = new double[capacity];
+            powers = new double[capacity];
+            locations = new int[capacity];
+        }
+
+        void append(ResultSet rs, int location) throws SQLException {
+            Timestamp start = rs.getTimestamp("start_time");
+            if (start == null) {
+                return;
+            }
+            ensureCapacity(size + 1);
+            long id = rs.getLong("cleaning_id");
+            ids[size] = rs.wasNull() ? NULL_LONG : id;
+            starts[size] = encode(start.toLocalDateTime());
+            Timestamp end = rs.getTimestamp("end_time");
+            ends[size] = end == null ? NULL_LONG : encode(end.toLocalDateTime());
+            long duration = rs.getLong("duration");
+            durations[size] = rs.wasNull() ? NULL_LONG : duration;
+            areas[size] = doubleOrNaN(rs, "area_cleaned");
+            waters[size] = doubleOrNaN(rs, "water_usage");
+            powers[size] = doubleOrNaN(rs, "power_usage");
+            locations[size] = location;
+            size++;
+        }
+
+        void append(CleaningData row, int location) {
+            ensureCapacity(size + 1);
+            ids[size] = row.getCleaningId() == null ? NULL_LONG : row.getCleaningId();
+            starts[size] = encode(row.getStartTime());
+            ends[size] = row.getEndTime() == null ? NULL_LONG : encode(row.getEndTime());
+            durations[size] = row.getDuration() == null ? NULL_LONG : row.getDuration();
+            areas[size] = row.getAreaCleaned() == null ? Double.NaN : row.getAreaCleaned();
+            waters[size] = row.getWaterUsage() == null ? Double.NaN : row.getWaterUsage();
+            powers[size] = row.getPowerUsage() == null ? Double.NaN : row.getPowerUsage();
+            locations[size] = location;
+            size++;
+        }
+
+        void appendRange(Columns source, int from, int to) {
+            int count = to - from;
+            if (count <= 0) {
+                return;
+            }
+            ensureCapacity(size + count);
+            System.arraycopy(source.ids, from, ids, size, count);
+            System.arraycopy(source.starts, from, starts, size, count);
+            System.arraycopy(source.ends, from, ends, size, count);
+            System.arraycopy(source.durations, from, durations, size, count);
+            System.arraycopy(source.areas, from, areas, size, count);
+            System.arraycopy(source.waters, from, waters, size, count);
+            System.arraycopy(source.powers, from, powers, size, count);
+            System.arraycopy(source.locations, from, locations, size, count);
+            size += count;
+        }
+
+        void appendAll(ColumnsBuilder source) {
+            ensureCapacity(size + source.size);
+            System.arraycopy(source.ids, 0, ids, size, source.size);
+            System.arraycopy(source.starts, 0, starts, size, source.size);
+            System.arraycopy(source.ends, 0, ends, size, source.size);
+            System.arraycopy(source.durations, 0, durations, size, source.size);
+            System.arraycopy(source.areas, 0, areas, size, source.size);
+            System.arraycopy(source.waters, 0, waters, size, source.size);
+            System.arraycopy(source.powers, 0, powers, size, source.size);
+            System.arraycopy(source.locations, 0, locations, size, source.size);
+            size += source.size;
+        }
+
+        // 이후 추가되는 행을 이어 쓸 수 있도록 크기의 1/8(최소 16행)만큼 여유 공간을 남깁니다.
+        Columns build(LocalDateTime windowStart, List<String> locationNames) {
+            int capacity = size + Math.max(16, size / 8);
+            return new Columns(windowStart, locationNames.toArray(String[]::new), size,
+                    Arrays.copyOf(ids, capacity), Arrays.copyOf(starts, capacity), Arrays.copyOf(ends, capacity),
+                    Arrays.copyOf(durations, capacity), Arrays.copyOf(areas, capacity), Arrays.copyOf(waters, capacity),
+                    Arrays.copyOf(powers, capacity), Arrays.copyOf(locations, capacity));
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= starts.length) {
+                return;
+            }
+            int capacity = Math.max(required, starts.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            areas = Arrays.copyOf(areas, capacity);
+            waters = Arrays.copyOf(waters, capacity);
+            powers = Arrays.copyOf(powers, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+        }
+
+        private static double doubleOrNaN(ResultSet rs, String column) throws SQLException {
+            double value = rs.getDouble(column);
+            return rs.wasNull() ? Double.NaN : value;
+        }
+    }
+
+    // 그룹별 세션 수와 지표별 합계/값이 있는 행 수
+    private static final class GroupTotals {
+        final long[] sessions;
+        final long[] duration;
+        final long[] durationCount;
+        final double[] area;
+        final long[] areaCount;
+        final double[] water;
+        final long[] waterCount;
+        final double[] power;
+        final long[] powerCount;
+
+        GroupTotals(int groups) {
+            sessions = new long[groups];
+            duration = new long[groups];
+            durationCount = new long[groups];
+            area = new double[groups];
+            areaCount = new long[groups];
+            water = new double[groups];
+            waterCount = new long[groups];
+            power = new double[groups];
+            powerCount = new long[groups];
+        }
+
+        void add(int g, Columns c, int i) {
+            sessions[g]++;
+            if (c.durations[i] != NULL_LONG) {
+                duration[g] += c.durations[i];
+                durationCount[g]++;
+            }
+            if (!Double.isNaN(c.areas[i])) {
+                area[g] += c.areas[i];
+                areaCount[g]++;
+            }
+            if (!Double.isNaN(c.waters[i])) {
+                water[g] += c.waters[i];
+                waterCount[g]++;
+            }
+            if (!Double.isNaN(c.powers[i])) {
+                power[g] += c.powers[i];
+                powerCount[g]++;
+            }
+        }
+
+        CleaningStatsView toView(int g, String key) {
+            return new ColumnStatsView(key, sessions[g],
+                    duration[g], durationCount[g] == 0 ? null : (double) duration[g] / durationCount[g],
+                    area[g], areaCount[g] == 0 ? null : area[g] / areaCount[g],
+                    water[g], waterCount[g] == 0 ? null : water[g] / waterCount[g],
+                    power[g], powerCount[g] == 0 ? null : power[g] / powerCount[g]);
+        }
+    }
+
+    private record ColumnStatsView(String getGroupKey, Long getSessionCount,
+                                   Long getTotalDuration, Double getAvgDuration,
+                                   Double getTotalArea, Double getAvgArea,
+                                   Double getTotalWater, Double getAvgWater,
+                                   Double getTotalPower, Double getAvgPower) implements CleaningStatsView {
+    }
+}
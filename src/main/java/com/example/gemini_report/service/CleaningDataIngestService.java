@@ -0,0 +1,185 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.dto.IngestResult;
+import com.example.gemini_report.entity.CleaningData;
+import com.example.gemini_report.event.CleaningDataChangedEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code CleaningDataIngestService}는 로봇이 보고하는 청소 기록을 대량으로 적재합니다.
+ * <p>
+ * 동작 방식:
+ * <ul>
+ *     <li>요청 본문(JSON 배열 또는 NDJSON)을 {@link MappingIterator}로 한 건씩 읽으므로 전체 목록을 메모리에 만들지 않습니다.</li>
+ *     <li>{@code cleaning_id}는 IDENTITY 컬럼이라 Hibernate의 insert 배치가 비활성화되므로,
+ *     JPA를 거치지 않고 {@link JdbcTemplate#batchUpdate(String, List, int[])}로 {@code ingest.cleaning-data.batch-size}건씩 전송합니다.</li>
+ *     <li>각 배치는 해당 배치의 {@link CleaningRollupService} 롤업 변경분과 함께 하나의 트랜잭션으로 커밋됩니다.
+ *     배치마다 커밋되므로 적재 도중 실패해도 이미 전송된 배치는 유지되며, 응답에 처리 건수와 초당 처리량이 포함됩니다.</li>
+ *     <li>커밋된 배치는 생성된 {@code cleaning_id}와 함께 {@link CleaningDataColumnStore}에 바로 반영하므로, 컬럼 저장소가 데이터베이스를 다시 읽지 않습니다.</li>
+ *     <li>적재가 끝나면 적재된 데이터의 시간 범위로 {@link CleaningDataChangedEvent}를 한 번 발행하여 도구 캐시를 무효화합니다.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class CleaningDataIngestService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO CLEANING_DATA (start_time, end_time, location, duration, area_cleaned, water_usage, power_usage)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+    private static final int[] INSERT_TYPES = {
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.VARCHAR, Types.BIGINT, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CleaningRollupService cleaningRollupService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CleaningDataColumnStore columnStore;
+    private final int batchSize;
+
+    public CleaningDataIngestService(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     CleaningRollupService cleaningRollupService,
+                                     ObjectMapper objectMapper,
+                                     ApplicationEventPublisher eventPublisher,
+                                     CleaningDataColumnStore columnStore,
+                                     @Value("${ingest.cleaning-data.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cleaningRollupService = cleaningRollupService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.columnStore = columnStore;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 입력 스트림의 청소 기록을 배치 단위로 적재합니다.
+     * 최상위 값이 배열이면 배열의 각 요소를, 그렇지 않으면 줄 단위(NDJSON)로 이어진 각 객체를 한 건으로 읽습니다.
+     *
+     * @param body 요청 본문 스트림
+     * @return 적재 건수, 배치 수, 소요 시간, 초당 처리량
+     */
+    public IngestResult ingest(InputStream body) {
+        long started = System.nanoTime();
+        List<CleaningData> batch = new ArrayList<>(batchSize);
+        CleaningRollupService.Delta rollupDelta = cleaningRollupService.newDelta();
+        long rows = 0;
+        int batches = 0;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+
+        try (MappingIterator<CleaningData> records = objectMapper.readerFor(CleaningData.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                CleaningData record = records.nextValue();
+                if (record.getStartTime() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "startTime이 없는 청소 기록은 적재할 수 없습니다. (" + (rows + batch.size() + 1) + "번째 레코드)");
+                }
+                batch.add(record);
+                rollupDelta.add(record);
+                from = from == null || record.getStartTime().isBefore(from) ? record.getStartTime() : from;
+                to = to == null || record.getStartTime().isAfter(to) ? record.getStartTime() : to;
+
+                if (batch.size() == batchSize) {
+                    rows += flush(batch, rollupDelta);
+                    rollupDelta = cleaningRollupService.newDelta();
+                    batches++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                rows += flush(batch, rollupDelta);
+                batches++;
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "청소 기록을 읽는 중 오류가 발생했습니다. (" + rows + "건 적재 완료): " + e.getMessage(), e);
+        } finally {
+            if (from != null && rows > 0) {
+                // 적재한 행은 배치마다 컬럼 저장소에 이미 반영했으므로 변경 행 없이 범위만 알립니다.
+                eventPublisher.publishEvent(new CleaningDataChangedEvent(from, to, List.of(), List.of()));
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : rows / (elapsedNanos / 1_000_000_000.0);
+        log.info("청소 데이터 {}건 적재 완료 ({}개 배치, {}ms, {} rows/sec)",
+                rows, batches, Duration.ofNanos(elapsedNanos).toMillis(), Math.round(rowsPerSecond));
+        return new IngestResult(rows, batches, Duration.ofNanos(elapsedNanos).toMillis(), rowsPerSecond);
+    }
+
+    // 원본 행 배치와 해당 배치의 롤업 변경분을 같은 트랜잭션으로 반영하고, 커밋된 행을 컬럼 저장소에 반영합니다.
+    private int flush(List<CleaningData> batch, CleaningRollupService.Delta rollupDelta) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(batch);
+            cleaningRollupService.apply(rollupDelta);
+        });
+        columnStore.apply(List.copyOf(batch), List.of());
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    // 배치를 전송하고, 생성된 cleaning_id를 각 레코드에 채웁니다.
+    private void insert(List<CleaningData> batch) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"cleaning_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Object[] parameters = toParameters(batch.get(i));
+                        for (int p = 0; p < parameters.length; p++) {
+                            StatementCreatorUtils.setParameterValue(statement, p + 1, INSERT_TYPES[p], parameters[p]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < generated.size() && i < batch.size(); i++) {
+            Object id = generated.get(i).values().iterator().next();
+            batch.get(i).setCleaningId(((Number) id).longValue());
+        }
+    }
+
+    private Object[] toParameters(CleaningData record) {
+        return new Object[]{
+                Timestamp.valueOf(record.getStartTime()),
+                record.getEndTime() == null ? null : Timestamp.valueOf(record.getEndTime()),
+                record.getLocation(),
+                record.getDuration(),
+                record.getAreaCleaned(),
+                record.getWaterUsage(),
+                record.getPowerUsage()
+        };
+    }
+}
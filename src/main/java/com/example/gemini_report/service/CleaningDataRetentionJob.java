@@ -0,0 +1,112 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.event.CleaningDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * {@code CleaningDataRetentionJob}은 보존 기간이 지난 원본 청소 데이터를 월 단위로 정리합니다.
+ * <p>
+ * H2에는 선언적 파티셔닝이 없으므로 {@code CLEANING_DATA}는 {@code start_time} 인덱스로 기간 조회 범위를 좁히고,
+ * 테이블이 무한히 커지지 않도록 이 작업이 월(버킷) 단위로 오래된 행을 정리합니다.
+ * 원본 행의 값은 적재 시점에 이미 {@link CleaningRollupService}의 일/주/월 롤업에 반영되어 있으므로, 이 작업은 원본 행만 삭제하며
+ * {@code aggregate_cleaning_stats}의 집계 결과는 정리 전후로 같습니다. 원본 행 단위의 조회(샘플, 백분위수, 내보내기)는
+ * 보존 기간({@code storage.retention.raw-days}) 이내의 데이터만 대상으로 하며, 그 시작일은 {@link #rawDataAvailableFrom(LocalDate)}로 조회합니다.
+ */
+@Component
+@Slf4j
+public class CleaningDataRetentionJob {
+
+    private static final String DELETE_SQL = "DELETE FROM CLEANING_DATA WHERE start_time >= ? AND start_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int rawDays;
+
+    public CleaningDataRetentionJob(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${storage.retention.enabled}") boolean enabled,
+                                    @Value("${storage.retention.raw-days}") int rawDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.rawDays = rawDays;
+    }
+
+    /**
+     * {@code storage.retention.cron} 일정에 따라 정리를 실행합니다.
+     */
+    @Scheduled(cron = "${storage.retention.cron}")
+    public void run() {
+        if (enabled) {
+            purgeExpired(LocalDate.now());
+        }
+    }
+
+    /**
+     * 기준일로부터 보존 기간 이전에 끝난 월의 원본 행을 오래된 월부터 차례로 삭제합니다.
+     * 보존 기간 경계가 걸쳐 있는 월은 다음 실행으로 미룹니다.
+     *
+     * @param today 기준일
+     * @return 삭제된 원본 행 수
+     */
+    public long purgeExpired(LocalDate today) {
+        YearMonth firstRetainedMonth = firstRetainedMonth(today);
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(start_time) FROM CLEANING_DATA WHERE start_time < ?", Timestamp.class,
+                Timestamp.valueOf(firstRetainedMonth.atDay(1).atStartOfDay()));
+        if (oldest == null) {
+            return 0;
+        }
+
+        long purged = 0;
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(firstRetainedMonth); month = month.plusMonths(1)) {
+            purged += purgeMonth(month);
+        }
+        log.info("보존 기간({}일)이 지난 원본 청소 데이터 {}건을 정리했습니다. ({} 이전, 롤업은 유지)", rawDays, purged, firstRetainedMonth);
+        return purged;
+    }
+
+    /**
+     * 원본 행 단위로 조회할 수 있는 첫 날짜를 반환합니다.
+     * 이보다 앞선 원본 행은 이미 정리되었거나 다음 실행에서 정리되므로, 그 구간은 롤업에서 읽어야 합니다.
+     *
+     * @param today 기준일
+     * @return 보존 기간 안의 첫 날짜. 정리가 꺼져 있으면 {@code null}
+     */
+    public LocalDate rawDataAvailableFrom(LocalDate today) {
+        return enabled ? firstRetainedMonth(today).atDay(1) : null;
+    }
+
+    private YearMonth firstRetainedMonth(LocalDate today) {
+        return YearMonth.from(today.minusDays(rawDays));
+    }
+
+    // 한 달 분량의 원본 행을 삭제합니다. 롤업은 갱신하지 않습니다.
+    private int purgeMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        Integer deleted = transactionTemplate.execute(status ->
+                jdbcTemplate.update(DELETE_SQL, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (deleted != null && deleted > 0) {
+            log.debug("{} 원본 청소 데이터 {}건 정리 완료", month, deleted);
+            eventPublisher.publishEvent(new CleaningDataChangedEvent(from, to.minusNanos(1)));
+            return deleted;
+        }
+        return 0;
+    }
+}
@@ -1,14 +1,28 @@
 package com.example.gemini_report.service;
 
+import com.example.gemini_report.dto.CompactedStats; // 원본 행이 정리된 구간의 롤업 통계
 import com.example.gemini_report.entity.CleaningData; // CleaningData 엔티티 클래스 임포트
 import com.example.gemini_report.repository.CleaningDataRepository; // CleaningDataRepository 인터페이스 임포트
+import com.example.gemini_report.repository.CleaningStatsView; // 집계 쿼리 결과 프로젝션 임포트
+import com.example.gemini_report.repository.RollupQueryPlan; // 롤업/원본 행 구간 실행 계획 임포트
+import com.fasterxml.jackson.core.JsonGenerator; // 행 단위 JSON 직렬화를 위한 스트리밍 생성기
+import com.fasterxml.jackson.databind.ObjectMapper; // JSON 직렬화 설정을 제공하는 ObjectMapper
+import jakarta.persistence.EntityManager; // 영속성 컨텍스트 관리를 위한 EntityManager
 import lombok.RequiredArgsConstructor; // Lombok 어노테이션으로 생성자 자동 생성
+import lombok.extern.slf4j.Slf4j; // 로깅을 위한 Lombok 어노테이션
 import org.springframework.stereotype.Service; // Spring 서비스 컴포넌트임을 나타내는 어노테이션
+import org.springframework.transaction.annotation.Transactional; // 트랜잭션 설정 어노테이션
 
+import java.io.IOException; // 입출력 예외
+import java.io.OutputStream; // JSON을 기록할 출력 스트림
+import java.io.UncheckedIOException; // 람다 안에서 입출력 예외를 전달하기 위한 비검사 예외
 import java.time.LocalDate; // 날짜 정보만 다루는 LocalDate 클래스 임포트
 import java.time.LocalDateTime; // 날짜와 시간 정보를 다루는 LocalDateTime 클래스 임포트
 import java.time.LocalTime; // 시간 정보만 다루는 LocalTime 클래스 임포트
+import java.util.Iterator; // 스트림을 순차적으로 순회하기 위한 Iterator
 import java.util.List; // List 인터페이스 임포트
+import java.util.function.Consumer; // 행 단위 처리를 위한 콜백
+import java.util.stream.Stream; // 커서 기반 조회 결과 스트림
 
 /**
  * {@code CleaningDataService}는 청소 데이터와 관련된 비즈니스 로직을 처리하는 서비스 클래스입니다.
@@ -23,10 +37,18 @@ import java.util.List; // List 인터페이스 임포트
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CleaningDataService {
     // 청소 데이터에 대한 데이터베이스 접근을 담당하는 JpaRepository 인터페이스.
     // Spring Data JPA에 의해 자동으로 구현체가 생성되어 주입됩니다.
     private final CleaningDataRepository repository;
+    // 스트리밍 조회 중 처리가 끝난 엔티티를 영속성 컨텍스트에서 분리하는 데 사용합니다.
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    // 최근 기간의 청소 데이터를 메모리에 보관하는 컬럼 저장소. 보관 기간 밖의 조회만 데이터베이스로 처리합니다.
+    private final CleaningDataColumnStore columnStore;
+    // 원본 행의 보존 기간. 보존 기간 이전 구간은 원본 행 대신 롤업에서 읽습니다.
+    private final CleaningDataRetentionJob retentionJob;
 
     /**
      * 지정된 시작일과 종료일 사이의 청소 데이터를 조회합니다.
@@ -42,21 +64,251 @@ public class CleaningDataService {
      * @return 지정된 기간 내에 발생한 {@link CleaningData} 객체들의 리스트.
      */
     public List<CleaningData> get_cleaning_report(String startDate, String endDate) {
-        // 시작일이 null이거나 비어있는 경우, 현재 날짜로부터 1주일 전으로 기본값을 설정합니다.
-        if (startDate == null || startDate.isEmpty()) {
-            startDate = LocalDate.now().minusWeeks(1).toString();
-        }
-        // 종료일이 null이거나 비어있는 경우, 현재 날짜로 기본값을 설정합니다.
-        if (endDate == null || endDate.isEmpty()) {
-            endDate = LocalDate.now().toString();
-        }
-
         // 문자열 형태의 시작일을 LocalDate 객체로 파싱하고, 해당 날짜의 시작 시간(00:00:00)으로 LocalDateTime을 생성합니다.
-        LocalDateTime startDateTime = LocalDate.parse(startDate).atStartOfDay();
+        LocalDateTime startDateTime = resolveStartDate(startDate).atStartOfDay();
         // 문자열 형태의 종료일을 LocalDate 객체로 파싱하고, 해당 날짜의 마지막 시간(23:59:59.999999999)으로 LocalDateTime을 생성합니다.
-        LocalDateTime endDateTime = LocalDate.parse(endDate).atTime(LocalTime.MAX);
+        LocalDateTime endDateTime = resolveEndDate(endDate).atTime(LocalTime.MAX);
 
         // CleaningDataRepository를 사용하여 시작 시간과 종료 시간 사이에 있는 모든 청소 데이터를 조회하여 반환합니다.
         return repository.findByStartTimeBetween(startDateTime, endDateTime);
     }
+
+    /**
+     * 지정된 기간의 청소 데이터를 시작 시간 순으로 한 건씩 {@code consumer}에 전달합니다.
+     * <p>
+     * {@link #get_cleaning_report(String, String)}와 달리 결과를 리스트로 만들지 않고 커서로 읽으며,
+     * 전달이 끝난 엔티티는 영속성 컨텍스트에서 분리(detach)하므로 기간이 길어도 메모리 사용량이 일정하게 유지됩니다.
+     * 기간이 {@link CleaningDataColumnStore}의 보관 기간 안이면 데이터베이스 대신 컬럼 저장소에서 읽습니다.
+     * 원본 행의 보존 기간 이전 구간은 건너뛰므로, 그 구간의 통계는 {@link #compactedStats(String, String)}로 따로 조회해야 합니다.
+     * {@code consumer}는 전달받은 엔티티를 보관해도 되지만, 지연 로딩이나 변경 감지는 기대할 수 없습니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param consumer  각 청소 데이터를 처리할 콜백
+     * @return 전달한 행 수
+     */
+    @Transactional(readOnly = true)
+    public long forEachCleaningData(String startDate, String endDate, Consumer<CleaningData> consumer) {
+        LocalDateTime startDateTime = rawDataStart(resolveStartDate(startDate)).atStartOfDay();
+        LocalDateTime endDateTime = resolveEndDate(endDate).atTime(LocalTime.MAX);
+
+        if (columnStore.covers(startDateTime)) {
+            return columnStore.forEach(startDateTime, resolveEndDate(endDate).plusDays(1).atStartOfDay(), consumer);
+        }
+
+        long count = 0;
+        try (Stream<CleaningData> rows = repository.streamByStartTimeBetween(startDateTime, endDateTime)) {
+            Iterator<CleaningData> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                CleaningData row = iterator.next();
+                consumer.accept(row);
+                entityManager.detach(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 지정된 기간 중 원본 행이 보존 기간을 지나 정리된 앞부분 구간의 통계를 일 롤업에서 읽어 반환합니다.
+     * {@link #forEachCleaningData(String, String, Consumer)}는 이 구간을 건너뛰므로, 두 결과를 합치면 기간 전체를 중복 없이 다룹니다.
+     * 정리 작업이 아직 실행되지 않아 원본 행이 남아 있더라도 보존 기간 이전이면 같은 기준으로 롤업에서 읽습니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @return 정리된 구간의 롤업 통계. 기간 전체의 원본 행이 보존 기간 안이면 {@code null}
+     */
+    @Transactional(readOnly = true)
+    public CompactedStats compactedStats(String startDate, String endDate) {
+        LocalDate start = resolveStartDate(startDate);
+        LocalDate compactedEnd = compactedRangeEnd(start, resolveEndDate(endDate));
+        if (compactedEnd == null) {
+            return null;
+        }
+        List<CleaningStatsView> byLocation = repository.aggregateByLocation(
+                planRollupQuery(start.atStartOfDay(), compactedEnd.plusDays(1).atStartOfDay(), "location"));
+        return toCompactedStats(start, compactedEnd, byLocation);
+    }
+
+    /**
+     * 원본 행을 읽을 시작일을 반환합니다. 보존 기간 이전이면 보존 기간의 첫 날짜로 당깁니다.
+     *
+     * @param start 조회 시작일
+     * @return 원본 행 조회 시작일
+     */
+    public LocalDate rawDataStart(LocalDate start) {
+        LocalDate availableFrom = retentionJob.rawDataAvailableFrom(LocalDate.now());
+        return availableFrom != null && start.isBefore(availableFrom) ? availableFrom : start;
+    }
+
+    /**
+     * 기간 [{@code start}, {@code end}] 중 원본 행이 정리된 앞부분 구간의 마지막 날짜를 반환합니다.
+     *
+     * @return 정리된 구간의 종료일 (포함). 정리된 구간이 없으면 {@code null}
+     */
+    public LocalDate compactedRangeEnd(LocalDate start, LocalDate end) {
+        LocalDate availableFrom = retentionJob.rawDataAvailableFrom(LocalDate.now());
+        if (availableFrom == null || !start.isBefore(availableFrom)) {
+            return null;
+        }
+        return end.isBefore(availableFrom) ? end : availableFrom.minusDays(1);
+    }
+
+    /**
+     * 정리된 구간의 장소별 롤업 집계를 {@link CompactedStats}로 변환합니다.
+     */
+    public static CompactedStats toCompactedStats(LocalDate start, LocalDate end, List<CleaningStatsView> byLocation) {
+        CompactedStats stats = new CompactedStats();
+        stats.setStartDate(start.toString());
+        stats.setEndDate(end.toString());
+        stats.setNotice(String.format("%s ~ %s 구간의 원본 청소 기록은 보존 기간이 지나 정리되었습니다. "
+                + "이 구간은 롤업의 건수/합계/평균만 제공되며 최소/최대/백분위수와 원본 기록 샘플은 없습니다. "
+                + "일자별/주별 추이는 aggregate_cleaning_stats 도구로 조회하세요.", start, end));
+        List<CompactedStats.Group> groups = byLocation.stream().map(CompactedStats.Group::from).toList();
+        stats.setByLocation(groups);
+        stats.setOverall(CompactedStats.Group.overall(groups));
+        return stats;
+    }
+
+    /**
+     * 지정된 기간의 청소 데이터를 JSON 배열로 {@code out}에 기록합니다.
+     * 행은 {@link JsonGenerator}를 통해 한 건씩 직렬화되며, 생성기 내부 버퍼가 찰 때마다 {@code out}으로 내보내지므로
+     * 전체 결과를 문자열로 만들지 않습니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param out       JSON을 기록할 출력 스트림 (이 메서드는 스트림을 닫지 않습니다)
+     * @return 기록한 행 수
+     */
+    @Transactional(readOnly = true)
+    public long writeCleaningDataJson(String startDate, String endDate, OutputStream out) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            long count = forEachCleaningData(startDate, endDate, row -> {
+                try {
+                    generator.writeObject(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing cleaning data as JSON", e);
+        }
+    }
+
+    /**
+     * 지정된 기간의 청소 데이터를 데이터베이스에서 그룹별로 집계합니다.
+     * <p>
+     * 그룹핑과 합계/평균 계산은 모두 SQL에서 수행되고, 결과는 {@link CleaningStatsView} 프로젝션으로 반환되므로
+     * 엔티티를 생성하거나 변경 감지 대상으로 등록하지 않습니다.
+     * 기간은 {@link #planRollupQuery(LocalDateTime, LocalDateTime, String)}의 계획에 따라 롤업과 원본 행에서 나누어 읽으므로,
+     * 여러 달에 걸친 조회도 원본 행 수가 아니라 롤업 버킷 수만큼만 읽습니다.
+     * 기간이 {@link CleaningDataColumnStore}의 보관 기간 안이면 데이터베이스를 거치지 않고 메모리에서 집계합니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param groupBy   그룹 기준 ({@code location}, {@code day}, {@code week}). 그 외 값은 {@code location}으로 처리합니다.
+     * @return 그룹별 집계 결과 리스트.
+     */
+    @Transactional(readOnly = true)
+    public List<CleaningStatsView> aggregate_cleaning_stats(String startDate, String endDate, String groupBy) {
+        LocalDateTime start = resolveStartDate(startDate).atStartOfDay();
+        LocalDateTime endExclusive = resolveEndDate(endDate).plusDays(1).atStartOfDay();
+
+        if (columnStore.covers(start)) {
+            return columnStore.aggregate(start, endExclusive, groupBy);
+        }
+        return switch (groupBy == null ? "" : groupBy) {
+            case "day" -> repository.aggregateByDay(planRollupQuery(start, endExclusive, "day"));
+            case "week" -> repository.aggregateByWeek(planRollupQuery(start, endExclusive, "week"));
+            default -> repository.aggregateByLocation(planRollupQuery(start, endExclusive, "location"));
+        };
+    }
+
+    /**
+     * 집계 기간 [{@code start}, {@code endExclusive})를 읽을 출처별 구간으로 나눕니다.
+     * <ul>
+     *     <li>하루 전체가 포함되지 않는 앞뒤의 부분 일자는 원본 행에서 읽습니다.</li>
+     *     <li>하루 전체가 포함되는 일자 중 가운데의 완전한 주(주별 집계) 또는 월(그 외)은 주/월 롤업에서 읽습니다.
+     *     일별 집계는 주/월 롤업으로 나눌 수 없으므로 사용하지 않습니다.</li>
+     *     <li>남은 앞뒤 일자는 일 롤업에서 읽습니다.</li>
+     * </ul>
+     *
+     * @param start        집계 시작 시각 (포함)
+     * @param endExclusive 집계 종료 시각 (제외)
+     * @param groupBy      그룹 기준 ({@code location}, {@code day}, {@code week})
+     * @return 구간별 실행 계획
+     */
+    public RollupQueryPlan planRollupQuery(LocalDateTime start, LocalDateTime endExclusive, String groupBy) {
+        LocalDate firstFullDay = start.toLocalDate().atStartOfDay().equals(start)
+                ? start.toLocalDate() : start.toLocalDate().plusDays(1);
+        LocalDate fullDaysEnd = endExclusive.toLocalDate();
+        if (!firstFullDay.isBefore(fullDaysEnd)) {
+            // 하루 전체가 포함되는 일자가 없으면 전부 원본 행에서 읽습니다.
+            LocalDate none = start.toLocalDate();
+            return new RollupQueryPlan(start, endExclusive, endExclusive, endExclusive,
+                    none, none, none, none, CleaningRollupService.DAY, none, none);
+        }
+
+        String coarseGranularity;
+        LocalDate coarseFrom;
+        LocalDate coarseTo;
+        if ("week".equals(groupBy)) {
+            coarseGranularity = CleaningRollupService.WEEK;
+            coarseFrom = CleaningRollupService.weekStart(firstFullDay.plusDays(6));
+            coarseTo = CleaningRollupService.weekStart(fullDaysEnd);
+        } else if ("day".equals(groupBy)) {
+            coarseGranularity = CleaningRollupService.DAY;
+            coarseFrom = firstFullDay;
+            coarseTo = firstFullDay;
+        } else {
+            coarseGranularity = CleaningRollupService.MONTH;
+            coarseFrom = firstFullDay.getDayOfMonth() == 1 ? firstFullDay : firstFullDay.plusMonths(1).withDayOfMonth(1);
+            coarseTo = fullDaysEnd.withDayOfMonth(1);
+        }
+        if (!coarseFrom.isBefore(coarseTo)) {
+            coarseFrom = firstFullDay;
+            coarseTo = firstFullDay;
+        }
+
+        RollupQueryPlan plan = new RollupQueryPlan(
+                start, firstFullDay.atStartOfDay(),
+                fullDaysEnd.atStartOfDay(), endExclusive,
+                firstFullDay, coarseFrom,
+                coarseTo, fullDaysEnd,
+                coarseGranularity, coarseFrom, coarseTo);
+        log.debug("집계 계획: {}", plan);
+        return plan;
+    }
+
+    /**
+     * 조회 시작일 문자열을 {@link LocalDate}로 변환합니다.
+     * {@code null}이거나 비어있는 경우, 현재 날짜로부터 1주일 전으로 기본값을 설정합니다.
+     *
+     * @param startDate 시작일 (YYYY-MM-DD 형식의 문자열)
+     * @return 조회 시작일
+     */
+    public LocalDate resolveStartDate(String startDate) {
+        if (startDate == null || startDate.isEmpty()) {
+            return LocalDate.now().minusWeeks(1);
+        }
+        return LocalDate.parse(startDate);
+    }
+
+    /**
+     * 조회 종료일 문자열을 {@link LocalDate}로 변환합니다.
+     * {@code null}이거나 비어있는 경우, 현재 날짜로 기본값을 설정합니다.
+     *
+     * @param endDate 종료일 (YYYY-MM-DD 형식의 문자열)
+     * @return 조회 종료일
+     */
+    public LocalDate resolveEndDate(String endDate) {
+        if (endDate == null || endDate.isEmpty()) {
+            return LocalDate.now();
+        }
+        return LocalDate.parse(endDate);
+    }
 }
@@ -0,0 +1,223 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.entity.CleaningData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.BatchUpdateException;
+import java.sql.Date;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code CleaningRollupService}는 {@code CLEANING_DATA_ROLLUP}(일/주/월 x 장소) 롤업을 증분 갱신합니다.
+ * <p>
+ * 원본 행이 추가되면 해당 행이 속한 일/주/월 버킷에 값을 더하고, 삭제되면 뺍니다.
+ * 변경분은 {@link Delta}에 버킷별로 모은 뒤 한 번의 JDBC 배치 MERGE로 반영하므로, 대량 적재에서도 배치당 버킷 수만큼만 갱신합니다.
+ * 보존 기간이 지나 원본 행이 정리되어도 롤업은 유지되므로, 롤업은 원본 행보다 긴 기간의 이력을 가집니다.
+ * <p>
+ * 롤업 테이블은 (granularity, bucket_start, location)을 기본 키로 가지므로 버킷마다 한 행만 있습니다.
+ * 장소가 없는 행은 키가 성립하도록 {@link #NO_LOCATION}으로 저장합니다.
+ * 두 트랜잭션이 아직 없는 같은 버킷을 동시에 MERGE하면 나중에 커밋하는 쪽이 키 중복으로 실패하는데,
+ * 이때 실패한 버킷만 다시 MERGE하면 먼저 커밋된 행에 더해집니다.
+ */
+@Service
+@Slf4j
+public class CleaningRollupService {
+
+    public static final String DAY = "DAY";
+    public static final String WEEK = "WEEK";
+    public static final String MONTH = "MONTH";
+    // 장소가 없는 원본 행의 롤업 장소 값. 집계 쿼리는 이 값을 다시 NULL로 읽습니다.
+    public static final String NO_LOCATION = "";
+
+    private static final String MERGE_SQL = """
+            MERGE INTO CLEANING_DATA_ROLLUP t
+            USING (VALUES (CAST(? AS VARCHAR(5)), CAST(? AS DATE), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT),
+                CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DOUBLE), CAST(? AS BIGINT),
+                CAST(? AS DOUBLE), CAST(? AS BIGINT), CAST(? AS DOUBLE), CAST(? AS BIGINT)))
+                s (granularity, bucket_start, location, session_count, total_duration, duration_count,
+                   total_area, area_count, total_water, water_count, total_power, power_count)
+            ON t.granularity = s.granularity AND t.bucket_start = s.bucket_start AND t.location = s.location
+            WHEN MATCHED THEN UPDATE SET
+                session_count = t.session_count + s.session_count,
+                total_duration = t.total_duration + s.total_duration, duration_count = t.duration_count + s.duration_count,
+                total_area = t.total_area + s.total_area, area_count = t.area_count + s.area_count,
+                total_water = t.total_water + s.total_water, water_count = t.water_count + s.water_count,
+                total_power = t.total_power + s.total_power, power_count = t.power_count + s.power_count
+            WHEN NOT MATCHED THEN INSERT VALUES (s.granularity, s.bucket_start, s.location, s.session_count,
+                s.total_duration, s.duration_count, s.total_area, s.area_count, s.total_water, s.water_count,
+                s.total_power, s.power_count)""";
+
+    // 원본 행 전체로 롤업을 다시 만드는 쿼리. %s에는 버킷 시작일 표현식이 들어갑니다.
+    // H2는 GROUP BY 절의 표현식 안의 컬럼을 그룹 밖의 참조로 판단하므로 버킷 시작일을 파생 테이블에서 먼저 계산합니다.
+    private static final String REBUILD_SQL = """
+            INSERT INTO CLEANING_DATA_ROLLUP
+            SELECT ?, bucket_start, location, COUNT(*), COALESCE(SUM(duration), 0), COUNT(duration),
+                COALESCE(SUM(area_cleaned), 0), COUNT(area_cleaned), COALESCE(SUM(water_usage), 0), COUNT(water_usage),
+                COALESCE(SUM(power_usage), 0), COUNT(power_usage)
+            FROM (SELECT %s AS bucket_start, COALESCE(location, '') AS location, duration, area_cleaned, water_usage, power_usage
+                  FROM CLEANING_DATA WHERE start_time IS NOT NULL) raw
+            GROUP BY bucket_start, location""";
+    private static final Map<String, String> BUCKET_EXPRESSIONS = Map.of(
+            DAY, "CAST(start_time AS DATE)",
+            WEEK, "DATEADD(DAY, 1 - ISO_DAY_OF_WEEK(start_time), CAST(start_time AS DATE))",
+            MONTH, "CAST(DATE_TRUNC('MONTH', start_time) AS DATE)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CleaningRollupService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 롤업에 반영할 변경분을 모으는 비어있는 {@link Delta}를 생성합니다.
+     */
+    public Delta newDelta() {
+        return new Delta();
+    }
+
+    /**
+     * 모아둔 변경분을 롤업에 반영합니다. 호출하는 쪽의 트랜잭션이 있으면 원본 행 변경과 함께 커밋됩니다.
+     * 다른 트랜잭션이 같은 새 버킷을 먼저 만들어 키가 중복된 버킷은 한 번 더 MERGE하여 그 행에 더합니다.
+     *
+     * @param delta 반영할 변경분
+     */
+    public void apply(Delta delta) {
+        if (delta.buckets.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(delta.buckets.size());
+        delta.buckets.forEach((key, totals) -> rows.add(new Object[]{
+                key.granularity(), Date.valueOf(key.bucketStart()), key.location() == null ? NO_LOCATION : key.location(),
+                totals.sessions, totals.duration, totals.durationCount, totals.area, totals.areaCount,
+                totals.water, totals.waterCount, totals.power, totals.powerCount
+        }));
+        try {
+            jdbcTemplate.batchUpdate(MERGE_SQL, rows);
+        } catch (DuplicateKeyException e) {
+            List<Object[]> failed = failedRows(rows, e);
+            log.debug("동시에 생성된 롤업 버킷 {}개를 다시 반영합니다.", failed.size());
+            for (Object[] row : failed) {
+                jdbcTemplate.update(MERGE_SQL, row);
+            }
+        }
+    }
+
+    // 배치에서 실패했거나 실행되지 않은 행. 드라이버가 실패 후에도 배치를 계속 실행하면 실패한 행만,
+    // 중간에 멈추면 멈춘 위치부터의 행을 반환합니다. 어떤 행이 실패했는지 알 수 없으면 예외를 그대로 던집니다.
+    private static List<Object[]> failedRows(List<Object[]> rows, DuplicateKeyException e) {
+        if (!(e.getCause() instanceof BatchUpdateException batchFailure)) {
+            throw e;
+        }
+        int[] counts = batchFailure.getUpdateCounts();
+        List<Object[]> failed = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i >= counts.length || counts[i] == Statement.EXECUTE_FAILED) {
+                failed.add(rows.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 롤업이 비어있으면 원본 행 전체로 롤업을 만듭니다.
+     * {@code data.sql}처럼 애플리케이션을 거치지 않고 적재된 초기 데이터를 롤업에 반영하기 위해 시작 시 한 번 실행됩니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        Long rollupRows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CLEANING_DATA_ROLLUP", Long.class);
+        if (rollupRows != null && rollupRows > 0) {
+            return;
+        }
+        BUCKET_EXPRESSIONS.forEach((granularity, expression) ->
+                jdbcTemplate.update(REBUILD_SQL.formatted(expression), granularity));
+        log.info("원본 청소 데이터로 롤업을 생성했습니다.");
+    }
+
+    /**
+     * 날짜가 속한 주의 시작일(월요일)을 반환합니다.
+     */
+    public static LocalDate weekStart(LocalDate day) {
+        return day.with(DayOfWeek.MONDAY);
+    }
+
+    /**
+     * 롤업 버킷별 변경분입니다. 스레드 안전하지 않으며 한 번의 반영에만 사용합니다.
+     */
+    public static class Delta {
+        private final Map<BucketKey, Totals> buckets = new HashMap<>();
+
+        /**
+         * 추가된 행의 값을 해당 행이 속한 일/주/월 버킷에 더합니다. 시작 시간이 없는 행은 무시합니다.
+         */
+        public Delta add(CleaningData row) {
+            return accumulate(row, 1);
+        }
+
+        /**
+         * 삭제된 행의 값을 해당 행이 속한 일/주/월 버킷에서 뺍니다. 시작 시간이 없는 행은 무시합니다.
+         */
+        public Delta subtract(CleaningData row) {
+            return accumulate(row, -1);
+        }
+
+        private Delta accumulate(CleaningData row, int sign) {
+            if (row.getStartTime() == null) {
+                return this;
+            }
+            LocalDate day = row.getStartTime().toLocalDate();
+            buckets.computeIfAbsent(new BucketKey(DAY, day, row.getLocation()), k -> new Totals()).add(row, sign);
+            buckets.computeIfAbsent(new BucketKey(WEEK, weekStart(day), row.getLocation()), k -> new Totals()).add(row, sign);
+            buckets.computeIfAbsent(new BucketKey(MONTH, day.withDayOfMonth(1), row.getLocation()), k -> new Totals()).add(row, sign);
+            return this;
+        }
+    }
+
+    private record BucketKey(String granularity, LocalDate bucketStart, String location) {
+    }
+
+    // 한 버킷의 세션 수와 지표별 합계/값이 있는 행 수
+    private static class Totals {
+        private long sessions;
+        private long duration;
+        private long durationCount;
+        private double area;
+        private long areaCount;
+        private double water;
+        private long waterCount;
+        private double power;
+        private long powerCount;
+
+        void add(CleaningData row, int sign) {
+            sessions += sign;
+            if (row.getDuration() != null) {
+                duration += sign * row.getDuration();
+                durationCount += sign;
+            }
+            if (row.getAreaCleaned() != null) {
+                area += sign * row.getAreaCleaned();
+                areaCount += sign;
+            }
+            if (row.getWaterUsage() != null) {
+                water += sign * row.getWaterUsage();
+                waterCount += sign;
+            }
+            if (row.getPowerUsage() != null) {
+                power += sign * row.getPowerUsage();
+                powerCount += sign;
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.dto.CleaningStatsPayload;
+import com.example.gemini_report.dto.GroupStats;
+import com.example.gemini_report.dto.MetricStats;
+import com.example.gemini_report.entity.CleaningData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@code CleaningStatsAggregator}는 조회된 청소 데이터를 Gemini 모델에 전달하기 전에 통계로 요약하는 집계 단계입니다.
+ * <p>
+ * 한 달, 한 분기처럼 긴 기간의 원본 행을 그대로 직렬화하면 프롬프트 토큰과 지연 시간이 급증하고
+ * 결국 컨텍스트 한도를 넘기게 됩니다. 이 클래스는 다음만 남깁니다:
+ * <ul>
+ *     <li>기간 전체, 장소별, 일자별 건수와 지표별 합계/평균/최소/최대/p50/p90</li>
+ *     <li>기간 전체에 고르게 분포된 원본 행 샘플 ({@code tools.cleaning-report.sample-rows}개 이하)</li>
+ * </ul>
+ * 직렬화된 결과가 {@code tools.cleaning-report.max-payload-chars}를 넘으면 샘플과 일자별 통계를 줄여 예산에 맞춥니다.
+ * <p>
+ * 행은 {@link Accumulator}에 한 건씩 누적되므로 조회 결과 전체를 리스트로 보관하지 않습니다.
+ * 건수/합계/최소/최대는 정확히 계산하고, 백분위수는 그룹·지표별 최대 {@value #PERCENTILE_RESERVOIR_SIZE}개의
+ * 저장소 샘플(reservoir sample)로 계산하므로 그룹 크기가 이보다 작으면 정확한 값, 크면 근사값입니다.
+ */
+@Component
+public class CleaningStatsAggregator {
+
+    // 지표 이름 → 값 추출 함수. 값이 null인 행은 해당 지표 통계에서 제외됩니다.
+    private static final Map<String, Function<CleaningData, Number>> METRICS = new LinkedHashMap<>();
+
+    static {
+        METRICS.put("duration", CleaningData::getDuration);
+        METRICS.put("areaCleaned", CleaningData::getAreaCleaned);
+        METRICS.put("waterUsage", CleaningData::getWaterUsage);
+        METRICS.put("powerUsage", CleaningData::getPowerUsage);
+    }
+
+    // 그룹·지표별로 백분위수 계산을 위해 보관하는 최대 값 개수
+    private static final int PERCENTILE_RESERVOIR_SIZE = 2048;
+    // 같은 입력이면 항상 같은 샘플이 나오도록 고정된 시드를 사용합니다.
+    private static final long SAMPLING_SEED = 0x5EEDL;
+
+    private final ObjectMapper objectMapper;
+    private final int sampleRows;
+    private final int maxPayloadChars;
+
+    public CleaningStatsAggregator(ObjectMapper objectMapper,
+                                   @Value("${tools.cleaning-report.sample-rows}") int sampleRows,
+                                   @Value("${tools.cleaning-report.max-payload-chars}") int maxPayloadChars) {
+        this.objectMapper = objectMapper;
+        this.sampleRows = sampleRows;
+        this.maxPayloadChars = maxPayloadChars;
+    }
+
+    /**
+     * 청소 데이터를 한 건씩 받아 기간/장소/일자별 통계와 원본 행 샘플로 집계하는 {@link Accumulator}를 생성합니다.
+     *
+     * @return 비어있는 누적기
+     */
+    public Accumulator newAccumulator() {
+        return new Accumulator(sampleRows);
+    }
+
+    /**
+     * 집계 결과를 JSON으로 직렬화하되, 페이로드 예산을 넘으면 원본 행 샘플을 먼저 줄이고
+     * 그래도 넘으면 일자별 통계를 줄여 예산에 맞춥니다. 기간 전체와 장소별 통계는 항상 유지합니다.
+     *
+     * @param payload 집계 결과 (예산에 맞게 수정될 수 있습니다)
+     * @return 예산 이내의 JSON 문자열 (장소별 통계만으로도 예산을 넘으면 그대로 반환)
+     */
+    public String toBudgetedJson(CleaningStatsPayload payload) {
+        String json = toJson(payload);
+        while (json.length() > maxPayloadChars && !payload.getSampleRows().isEmpty()) {
+            payload.setSampleRows(sample(payload.getSampleRows(), payload.getSampleRows().size() / 2));
+            json = toJson(payload);
+        }
+        while (json.length() > maxPayloadChars && !payload.getByDay().isEmpty()) {
+            List<GroupStats> byDay = payload.getByDay();
+            payload.setByDay(sample(byDay, byDay.size() / 2));
+            payload.setByDayTruncated(true);
+            json = toJson(payload);
+        }
+        return json;
+    }
+
+    // 정렬된 배열에서 nearest-rank 방식으로 백분위수를 구합니다.
+    private static double percentile(double[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    // 전체 구간에 고르게 분포하도록 최대 limit개의 항목을 선택합니다. 같은 입력이면 항상 같은 샘플을 반환합니다.
+    private static <T> List<T> sample(List<T> items, int limit) {
+        if (items.size() <= limit) {
+            return items;
+        }
+        List<T> sampled = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            sampled.add(items.get((int) ((long) i * items.size() / limit)));
+        }
+        return sampled;
+    }
+
+    /**
+     * 청소 데이터를 시작 시간 순으로 한 건씩 누적하는 집계기입니다. 스레드 안전하지 않으며 한 번의 조회에만 사용합니다.
+     */
+    public static class Accumulator implements Consumer<CleaningData> {
+        private final GroupAccumulator overall = new GroupAccumulator();
+        private final Map<String, GroupAccumulator> byLocation = new TreeMap<>();
+        private final Map<String, GroupAccumulator> byDay = new TreeMap<>();
+        private final List<CleaningData> sample;
+        private final int sampleLimit;
+        private final Random random = new Random(SAMPLING_SEED);
+        private long seen;
+
+        private Accumulator(int sampleLimit) {
+            this.sampleLimit = sampleLimit;
+            this.sample = new ArrayList<>(sampleLimit);
+        }
+
+        @Override
+        public void accept(CleaningData row) {
+            overall.add(row);
+            byLocation.computeIfAbsent(String.valueOf(row.getLocation()), k -> new GroupAccumulator()).add(row);
+            String day = row.getStartTime() == null ? "unknown" : row.getStartTime().toLocalDate().toString();
+            byDay.computeIfAbsent(day, k -> new GroupAccumulator()).add(row);
+
+            // 알고리즘 R: 지금까지 본 행 중 sampleLimit개를 균등한 확률로 유지합니다.
+            seen++;
+            if (sample.size() < sampleLimit) {
+                sample.add(row);
+            } else if (sampleLimit > 0) {
+                long slot = (long) (random.nextDouble() * seen);
+                if (slot < sampleLimit) {
+                    sample.set((int) slot, row);
+                }
+            }
+        }
+
+        /**
+         * 누적된 행으로 집계 결과를 만듭니다.
+         *
+         * @param startDate 조회 시작일
+         * @param endDate   조회 종료일
+         * @return 집계 결과 (원본 행 샘플은 시작 시간 순)
+         */
+        public CleaningStatsPayload toPayload(LocalDate startDate, LocalDate endDate) {
+            CleaningStatsPayload payload = new CleaningStatsPayload();
+            payload.setStartDate(startDate.toString());
+            payload.setEndDate(endDate.toString());
+            payload.setOverall(overall.toGroupStats("overall"));
+            payload.setByLocation(byLocation.entrySet().stream().map(e -> e.getValue().toGroupStats(e.getKey())).toList());
+            payload.setByDay(byDay.entrySet().stream().map(e -> e.getValue().toGroupStats(e.getKey())).toList());
+            List<CleaningData> sortedSample = new ArrayList<>(sample);
+            sortedSample.sort(Comparator.comparing(CleaningData::getStartTime, Comparator.nullsLast(Comparator.naturalOrder())));
+            payload.setSampleRows(sortedSample);
+            return payload;
+        }
+    }
+
+    // 한 그룹의 건수와 지표별 누적값
+    private static class GroupAccumulator {
+        private final Map<String, MetricAccumulator> metrics = new LinkedHashMap<>();
+        private long count;
+
+        GroupAccumulator() {
+            METRICS.keySet().forEach(name -> metrics.put(name, new MetricAccumulator()));
+        }
+
+        void add(CleaningData row) {
+            count++;
+            METRICS.forEach((name, extractor) -> {
+                Number value = extractor.apply(row);
+                if (value != null) {
+                    metrics.get(name).add(value.doubleValue());
+                }
+            });
+        }
+
+        GroupStats toGroupStats(String key) {
+            Map<String, MetricStats> stats = new LinkedHashMap<>();
+            metrics.forEach((name, metric) -> stats.put(name, metric.toMetricStats()));
+            return new GroupStats(key, count, stats);
+        }
+    }
+
+    // 한 지표의 합계/최소/최대와 백분위수 계산용 저장소 샘플
+    private static class MetricAccumulator {
+        private final Random random = new Random(SAMPLING_SEED);
+        private double[] reservoir = new double[16];
+        private int size;
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (size < PERCENTILE_RESERVOIR_SIZE) {
+                if (size == reservoir.length) {
+                    reservoir = Arrays.copyOf(reservoir, Math.min(reservoir.length * 2, PERCENTILE_RESERVOIR_SIZE));
+                }
+                reservoir[size++] = value;
+            } else {
+                long slot = (long) (random.nextDouble() * count);
+                if (slot < PERCENTILE_RESERVOIR_SIZE) {
+                    reservoir[(int) slot] = value;
+                }
+            }
+        }
+
+        MetricStats toMetricStats() {
+            if (count == 0) {
+                return new MetricStats(0, 0, 0, 0, 0, 0);
+            }
+            double[] sorted = Arrays.copyOf(reservoir, size);
+            Arrays.sort(sorted);
+            return new MetricStats(round(sum), round(sum / count), min, max,
+                    percentile(sorted, 50), percentile(sorted, 90));
+        }
+    }
+
+    private String toJson(CleaningStatsPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error converting cleaning statistics to JSON", e);
+        }
+    }
+}
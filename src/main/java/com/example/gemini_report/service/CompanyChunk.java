@@ -0,0 +1,13 @@
+package com.example.gemini_report.service;
+
+/**
+ * 벡터 저장소에 저장되는 회사 문서 청크 한 행입니다.
+ *
+ * @param chunkId     청크 ID. 문서 ID와 내용 해시로 만들므로 같은 문서의 같은 내용은 항상 같은 ID를 가집니다.
+ * @param docId       청크가 속한 문서 ID
+ * @param contentHash 청크 텍스트의 SHA-256 (16진수)
+ * @param text        청크 텍스트
+ * @param embedding   청크 임베딩 벡터 (단위 길이로 정규화됨)
+ */
+public record CompanyChunk(String chunkId, String docId, String contentHash, String text, float[] embedding) {
+}
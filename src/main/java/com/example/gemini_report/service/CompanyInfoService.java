@@ -1,19 +1,39 @@
 package com.example.gemini_report.service;
 
-import com.google.genai.Client;
-import com.google.genai.types.EmbedContentResponse;
+import com.example.gemini_report.dto.CompanyInfoIngestResult;
+import com.example.gemini_report.event.CompanyInfoChangedEvent;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import com.google.common.hash.Hashing;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import javax.annotation.PostConstruct;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CompanyInfoService {
-    private final Client client;
-    private final MilvusService milvusService; // MilvusService 주입
+
+    /**
+     * 회사 정보 전체 텍스트를 갱신하는 {@link #updateCompanyInfo(String)}가 사용하는 문서 ID입니다.
+     */
+    public static final String DEFAULT_DOC_ID = "company-info";
+    private static final Pattern DOC_ID_PATTERN = Pattern.compile("[A-Za-z0-9_.-]{1," + VectorStore.DOC_ID_MAX_LENGTH + "}");
+
+    private final EmbeddingService embeddingService;
+    private final TextChunker textChunker;
+    private final VectorStore vectorStore; // vector.store 속성으로 선택된 벡터 저장소 주입
+    private final ApplicationEventPublisher eventPublisher;
 
 
+    /**
+     * 사용자 질문과 가장 유사한 회사 정보 청크를 검색합니다. 질문 임베딩은 {@link QueryEmbeddingCache}와 {@link EmbeddingCache}를 거칩니다.
+     */
     public Map<String, Object> getCompanyInfo(String userQuery) {
         Map<String, Object> result = new HashMap<>();
 
@@ -22,30 +42,23 @@ public class CompanyInfoService {
             return result;
         }
 
-        List<Float> userQueryEmbedding;
+        float[] userQueryEmbedding;
         try {
             // 사용자 쿼리를 임베딩합니다.
-            EmbedContentResponse userVecResp = this.client.models.embedContent("gemini-embedding-001", userQuery, null);
-            float[] userVecArray = extractEmbedding(userVecResp);
-            
-            // float[]를 List<Float>으로 변환
-            userQueryEmbedding = new ArrayList<>();
-            for (float f : userVecArray) {
-                userQueryEmbedding.add(f);
-            }
+            userQueryEmbedding = embeddingService.embedQuery(userQuery);
         } catch (Exception e) {
             result.put("errorMessage", "{\"error\": \"Failed to process user query.\"}");
             return result;
         }
 
-        if (userQueryEmbedding.isEmpty()) {
+        if (userQueryEmbedding.length == 0) {
             result.put("errorMessage", "{\"error\": \"Could not generate embedding for the user query.\"}");
             return result;
         }
 
-        // Milvus에서 사용자 쿼리 임베딩과 가장 유사한 회사 정보를 검색합니다.
+        // 벡터 저장소에서 사용자 쿼리 임베딩과 가장 유사한 회사 정보를 검색합니다.
         // topK는 가장 유사한 결과를 몇 개 가져올지 지정합니다. 여기서는 1개만 가져옵니다.
-        List<Map<String, Object>> searchResults = milvusService.search(userQueryEmbedding, 1);
+        List<Map<String, Object>> searchResults = vectorStore.search(userQueryEmbedding, 1);
 
         String bestMatch = "관련 정보를 찾을 수 없습니다.";
         float bestScore = 0.0f; // 유사도 점수는 0.0으로 초기화
@@ -53,7 +66,7 @@ public class CompanyInfoService {
         if (!searchResults.isEmpty()) {
             // 검색 결과가 있다면 가장 유사한 정보를 추출합니다.
             Map<String, Object> topResult = searchResults.get(0);
-            bestMatch = (String) topResult.get("original_text"); // MilvusService에서 정의한 필드 이름
+            bestMatch = (String) topResult.get("original_text"); // VectorStore 검색 결과의 원본 텍스트 키
             bestScore = (float) topResult.get("score");
         }
 
@@ -64,56 +77,113 @@ public class CompanyInfoService {
     }
 
 
+    /**
+     * 회사 정보 전체 텍스트를 {@value #DEFAULT_DOC_ID} 문서로 갱신합니다.
+     *
+     * @param companyInfo 회사 정보 텍스트
+     * @return 청크 수, 변경/삭제된 청크 수, 캐시 적중 수, 요청/배치 수와 단계별 소요 시간
+     * @see #upsertDocument(String, String)
+     */
+    public CompanyInfoIngestResult updateCompanyInfo(String companyInfo) {
+        return upsertDocument(DEFAULT_DOC_ID, companyInfo);
+    }
 
+    /**
+     * 문서를 청크로 나누어 저장된 청크와 비교한 뒤, 바뀐 청크만 임베딩하여 벡터 저장소에 반영합니다.
+     * <p>
+     * 파이프라인 단계:
+     * <ol>
+     *     <li>청크 분할: {@link TextChunker#splitSections(String)}가 빈 줄로 구분된 섹션마다 문장 경계 기준의 겹치는 청크로 나눕니다.</li>
+     *     <li>비교: 청크 ID는 문서 ID와 내용 해시로 만들므로, 저장된 청크 ID에 없는 청크만 새로 쓰고 새 청크 목록에 없는 저장된 청크는 삭제합니다.</li>
+     *     <li>임베딩: {@link EmbeddingService#embedAll(List)}가 새로 쓸 청크 중 캐시에 없는 것만 배치 요청으로 보냅니다.</li>
+     *     <li>반영: {@link VectorStore#upsert(List)}와 {@link VectorStore#delete(java.util.Collection)}로 바뀐 청크만 기록합니다.</li>
+     * </ol>
+     * 따라서 한 섹션을 고치면 그 섹션의 청크만 다시 임베딩되고 기록되어, 갱신 비용이 전체 문서 크기가 아니라 변경 크기에 비례합니다.
+     * 저장소가 문서 ID가 없거나 벡터 저장 방식/차원이 다른 이전 스키마이면 {@link VectorStore#reindex(List)}로 새 스키마의 세대를 만들며, 이때 이전 데이터는 이 문서로 대체됩니다.
+     *
+     * @param docId 문서 ID (영문자, 숫자, {@code _ . -}로 된 {@value VectorStore#DOC_ID_MAX_LENGTH}자 이하)
+     * @param text  문서 텍스트. 비어있으면 문서의 모든 청크가 삭제됩니다.
+     * @return 청크 수, 변경/삭제된 청크 수, 캐시 적중 수, 요청/배치 수와 단계별 소요 시간
+     */
+    public CompanyInfoIngestResult upsertDocument(String docId, String text) {
+        validateDocId(docId);
+        log.info("회사 문서 '{}' 갱신 중...", docId);
+        long started = System.nanoTime();
+
+        // 같은 내용의 청크는 같은 ID를 가지므로 한 번만 저장합니다.
+        Map<String, CompanyChunk> chunks = new LinkedHashMap<>();
+        for (String chunk : textChunker.splitSections(text)) {
+            String contentHash = Hashing.sha256().hashString(chunk, StandardCharsets.UTF_8).toString();
+            String chunkId = docId + "#" + contentHash;
+            chunks.putIfAbsent(chunkId, new CompanyChunk(chunkId, docId, contentHash, chunk, null));
+        }
+        boolean incremental = vectorStore.hasCurrentSchema();
+        Map<String, String> stored = incremental ? vectorStore.findChunkHashes(docId) : Map.of();
+        List<CompanyChunk> changed = chunks.values().stream()
+                .filter(chunk -> !chunk.contentHash().equals(stored.get(chunk.chunkId())))
+                .toList();
+        List<String> removed = stored.keySet().stream()
+                .filter(chunkId -> !chunks.containsKey(chunkId))
+                .toList();
+        long chunked = System.nanoTime();
+
+        EmbeddingService.EmbedResult embedResult = embeddingService.embedAll(changed.stream().map(CompanyChunk::text).toList());
+        List<CompanyChunk> rows = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            CompanyChunk chunk = changed.get(i);
+            rows.add(new CompanyChunk(chunk.chunkId(), docId, chunk.contentHash(), chunk.text(), embedResult.vectors().get(i)));
+        }
+        long embedded = System.nanoTime();
+
+        int writeBatches;
+        if (incremental) {
+            writeBatches = rows.isEmpty() ? 0 : vectorStore.upsert(rows);
+            vectorStore.delete(removed);
+            // 행 수가 인덱스 프로필의 기준을 넘었으면 인덱스를 새 세대로 다시 만듭니다.
+            vectorStore.rebuildIndexIfNeeded();
+        } else {
+            log.warn("벡터 저장소가 이전 스키마(문서 ID 없음 또는 다른 벡터 설정)여서 문서 '{}'로 전체 재색인합니다.", docId);
+            writeBatches = vectorStore.reindex(rows);
+        }
+        long written = System.nanoTime();
 
-    public void updateCompanyInfo(String companyInfo) {
-        System.out.println("회사 정보 업데이트 및 Milvus에 삽입 중...");
-        // 기존 컬렉션 삭제 후 재생성하여 이전 데이터를 모두 지웁니다.
-        milvusService.recreateCollection();
+        if (!incremental || !rows.isEmpty() || !removed.isEmpty()) {
+            // 검색 대상 청크가 바뀌었으므로 get_company_info 결과 캐시를 무효화합니다.
+            eventPublisher.publishEvent(new CompanyInfoChangedEvent());
+        }
 
-        List<List<Float>> embeddingsToInsert = new ArrayList<>();
-        List<String> textsToInsert = new ArrayList<>();
+        CompanyInfoIngestResult result = new CompanyInfoIngestResult(chunks.size(), rows.size(), removed.size(),
+                embedResult.cached(), embedResult.requests(), writeBatches,
+                toMillis(chunked - started), toMillis(embedded - chunked), toMillis(written - embedded),
+                toMillis(written - started));
+        log.info("회사 문서 '{}' 갱신 완료: {}", docId, result);
+        return result;
+    }
 
-        try {
-            // Gemini 모델을 사용하여 회사 정보 텍스트를 임베딩합니다.
-            EmbedContentResponse resp = this.client.models.embedContent("gemini-embedding-001", companyInfo, null);
-            float[] embeddingArray = extractEmbedding(resp);
-
-            // float[]를 List<Float>으로 변환
-            List<Float> embeddingList = new ArrayList<>();
-            for (float f : embeddingArray) {
-                embeddingList.add(f);
-            }
-            embeddingsToInsert.add(embeddingList);
-            textsToInsert.add(companyInfo);
-        } catch (Exception e) {
-            System.err.println("임베딩 생성 실패: " + companyInfo);
-            e.printStackTrace();
+    /**
+     * 문서의 모든 청크를 삭제합니다.
+     *
+     * @param docId 문서 ID
+     */
+    public void deleteDocument(String docId) {
+        validateDocId(docId);
+        if (!vectorStore.hasCurrentSchema()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "현재 회사 정보 컬렉션은 이전 스키마입니다. 문서를 먼저 다시 적재하세요.");
         }
+        vectorStore.deleteDocument(docId);
+        vectorStore.rebuildIndexIfNeeded();
+        eventPublisher.publishEvent(new CompanyInfoChangedEvent());
+    }
 
-        // 생성된 모든 임베딩과 원본 텍스트를 Milvus에 한 번에 삽입합니다.
-        if (!embeddingsToInsert.isEmpty()) {
-            milvusService.insert(embeddingsToInsert, textsToInsert);
-            System.out.println("회사 정보 임베딩이 Milvus에 성공적으로 삽입되었습니다.");
-        } else {
-            System.out.println("삽입할 회사 정보 임베딩이 없습니다.");
+    private static void validateDocId(String docId) {
+        if (docId == null || !DOC_ID_PATTERN.matcher(docId).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "문서 ID는 영문자, 숫자, '_', '.', '-'로 된 " + VectorStore.DOC_ID_MAX_LENGTH + "자 이하여야 합니다: " + docId);
         }
     }
 
-    private static float[] extractEmbedding(EmbedContentResponse response) {
-        return Optional.ofNullable(response)
-                .flatMap(EmbedContentResponse::embeddings)
-                .flatMap(embeddings -> embeddings.stream().findFirst())
-                .flatMap(embedding -> embedding.values().map(list -> {
-                    float[] temp = new float[list.size()];
-                    for (int i = 0; i < list.size(); i++) {
-                        temp[i] = list.get(i);
-                    }
-                    return temp;
-                }))
-                .orElse(new float[0]);
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
     }
-
-
-
 }
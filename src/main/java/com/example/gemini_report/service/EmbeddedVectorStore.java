@@ -0,0 +1,464 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.event.VectorIndexChangedEvent;
+import io.milvus.param.IndexType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@code EmbeddedVectorStore}는 외부 서비스 없이 애플리케이션 프로세스 안에서 동작하는 {@link VectorStore}입니다 ({@code vector.store=embedded}).
+ * <p>
+ * 구조:
+ * <ul>
+ *     <li>벡터는 {@code vectors-<생성 시각>.bin}에 저장하고 메모리 매핑하며, {@link HnswIndex}가 그 위에 HNSW 그래프를 만듭니다.</li>
+ *     <li>{@code index.dat}은 인덱스 설정, 벡터 파일 이름, 그래프, 노드별 청크 정보(청크 ID, 문서 ID, 내용 해시, 텍스트)의 스냅숏입니다.
+ *     쓰기마다 임시 파일에 기록한 뒤 원자적으로 교체하므로, 기록 도중 프로세스가 종료되어도 직전 스냅숏이 남습니다.
+ *     벡터 파일에서 스냅숏의 노드 수를 넘는 레코드는 무시됩니다.</li>
+ *     <li>재색인과 압축은 새 벡터 파일에 새 인덱스를 만든 뒤 교체하므로, 그동안에도 이전 인덱스로 검색할 수 있습니다.
+ *     삭제된 노드가 살아있는 노드의 {@code vector.embedded.compaction.deleted-ratio}배를 넘으면 {@link #rebuildIndexIfNeeded()}가 압축합니다.</li>
+ * </ul>
+ * 검색은 읽기 잠금으로 동시에 실행되고, 노드 추가/삭제는 노드마다 짧게 쓰기 잠금을 잡습니다. 쓰기 작업끼리는 직렬화됩니다.
+ * 스냅숏의 차원이 설정과 다르면 빈 인덱스로 시작하며, 다음 적재 때 채워집니다.
+ * 스냅숏은 쓰기마다 전체를 다시 기록하므로 수 MB 정도의 작은 코퍼스에 적합합니다.
+ */
+@Service
+@ConditionalOnProperty(name = "vector.store", havingValue = "embedded")
+@Slf4j
+public class EmbeddedVectorStore implements VectorStore {
+
+    private static final int MAGIC = 0x484E5357; // "HNSW"
+    private static final int VERSION = 1;
+    private static final String SNAPSHOT_FILE = "index.dat";
+    private static final String VECTOR_FILE_PREFIX = "vectors-";
+    private static final String TEXT_KEY = "original_text";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final int dimension;
+    private final int m;
+    private final int efConstruction;
+    private final int defaultEf;
+    private final int maxEf;
+    private final double compactionRatio;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Generation current;
+    private volatile int ef;
+
+    public EmbeddedVectorStore(ApplicationEventPublisher eventPublisher,
+                               @Value("${vector.embedded.dir}") String directory,
+                               @Value("${embedding.output-dimensionality}") int dimension,
+                               @Value("${vector.embedded.hnsw.m}") int m,
+                               @Value("${vector.embedded.hnsw.ef-construction}") int efConstruction,
+                               @Value("${vector.embedded.search.ef}") int defaultEf,
+                               @Value("${vector.embedded.search.max-ef}") int maxEf,
+                               @Value("${vector.embedded.compaction.deleted-ratio}") double compactionRatio) {
+        this.eventPublisher = eventPublisher;
+        this.directory = Path.of(directory);
+        this.dimension = dimension;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.defaultEf = defaultEf;
+        this.maxEf = maxEf;
+        this.compactionRatio = compactionRatio;
+        this.ef = defaultEf;
+        open();
+    }
+
+    /**
+     * 임베디드 저장소는 로드할 때 차원이 다른 스냅숏을 버리므로 항상 현재 스키마입니다.
+     */
+    @Override
+    public boolean hasCurrentSchema() {
+        return true;
+    }
+
+    @Override
+    public Map<String, String> findChunkHashes(String docId) {
+        lock.readLock().lock();
+        try {
+            Map<String, String> hashes = new HashMap<>();
+            current.nodes.values().forEach(node -> {
+                CompanyChunk chunk = current.chunks.get(node);
+                if (chunk.docId().equals(docId)) {
+                    hashes.put(chunk.chunkId(), chunk.contentHash());
+                }
+            });
+            return hashes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 청크를 인덱스에 추가하고 스냅숏을 저장합니다. 같은 청크 ID가 있으면 이전 노드를 삭제 표시합니다.
+     *
+     * @return 반영했으면 1, 청크가 없으면 0
+     */
+    @Override
+    public synchronized int upsert(List<CompanyChunk> chunks) {
+        for (CompanyChunk chunk : chunks) {
+            lock.writeLock().lock();
+            try {
+                current.add(chunk);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return persistIfChanged(!chunks.isEmpty());
+    }
+
+    /**
+     * @return 반영했으면 1, 삭제할 청크가 없으면 0
+     */
+    @Override
+    public synchronized int delete(Collection<String> chunkIds) {
+        boolean changed = false;
+        lock.writeLock().lock();
+        try {
+            for (String chunkId : chunkIds) {
+                changed |= current.remove(chunkId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return persistIfChanged(changed);
+    }
+
+    @Override
+    public synchronized void deleteDocument(String docId) {
+        int deleted = delete(findChunkHashes(docId).keySet());
+        log.info("임베디드 벡터 저장소에서 문서 '{}' 삭제 ({}).", docId, deleted > 0 ? "반영됨" : "청크 없음");
+    }
+
+    /**
+     * 새 벡터 파일에 전체 청크로 인덱스를 만든 뒤 현재 인덱스와 교체합니다.
+     *
+     * @return 1
+     */
+    @Override
+    public synchronized int reindex(List<CompanyChunk> chunks) {
+        replace(chunks);
+        return 1;
+    }
+
+    /**
+     * 삭제된 노드가 살아있는 노드의 {@code vector.embedded.compaction.deleted-ratio}배를 넘으면 살아있는 노드만으로 인덱스를 다시 만듭니다.
+     */
+    @Override
+    public synchronized boolean rebuildIndexIfNeeded() {
+        int deleted = current.index.deletedCount();
+        int live = current.nodes.size();
+        if (deleted == 0 || deleted <= live * compactionRatio) {
+            return false;
+        }
+        log.info("임베디드 벡터 인덱스를 압축합니다. (살아있는 노드 {}개, 삭제된 노드 {}개)", live, deleted);
+        List<CompanyChunk> chunks = new ArrayList<>(live);
+        current.nodes.values().stream().sorted().forEach(node -> {
+            CompanyChunk chunk = current.chunks.get(node);
+            chunks.add(new CompanyChunk(chunk.chunkId(), chunk.docId(), chunk.contentHash(), chunk.text(),
+                    current.index.vector(node)));
+        });
+        replace(chunks);
+        return true;
+    }
+
+    @Override
+    public List<Map<String, Object>> search(float[] queryVector, int topK) {
+        return search(queryVector, topK, ef);
+    }
+
+    @Override
+    public List<Map<String, Object>> search(float[] queryVector, int topK, int searchValue) {
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (HnswIndex.Candidate candidate : current.index.search(queryVector, topK, searchValue)) {
+                CompanyChunk chunk = current.chunks.get(candidate.node());
+                Map<String, Object> record = new HashMap<>();
+                record.put("id", chunk.chunkId());
+                record.put("score", Math.max(0, Math.min(1, 1 - candidate.distance())));
+                record.put(TEXT_KEY, chunk.text());
+                results.add(record);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public VectorIndexPlan getIndexPlan() {
+        return new VectorIndexPlan(IndexType.HNSW, Map.of("M", m, "efConstruction", efConstruction), "ef", defaultEf, maxEf);
+    }
+
+    @Override
+    public void applySearchParam(int value) {
+        ef = value;
+        log.info("임베디드 벡터 검색의 ef를 {}(으)로 변경했습니다.", value);
+    }
+
+    @Override
+    public Map<String, float[]> sampleVectors(int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, float[]> samples = new LinkedHashMap<>();
+            current.nodes.entrySet().stream().limit(limit)
+                    .forEach(entry -> samples.put(entry.getKey(), current.index.vector(entry.getValue())));
+            return samples;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getIndexStatus() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("store", "embedded");
+            status.put("indexType", IndexType.HNSW.name());
+            status.put("buildParams", getIndexPlan().buildParams());
+            status.put("searchParams", getIndexPlan().searchParams(ef));
+            status.put("rows", current.nodes.size());
+            status.put("deletedNodes", current.index.deletedCount());
+            status.put("vectorFile", directory.resolve(current.vectorFile).toString());
+            return status;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 벡터 파일을 디스크에 기록하고 닫습니다.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            current.index.close();
+        } catch (IOException e) {
+            log.warn("임베디드 벡터 파일을 닫지 못했습니다: {}", e.getMessage());
+        }
+    }
+
+    private void open() {
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("임베디드 벡터 저장소 디렉터리를 만들 수 없습니다: " + directory, e);
+        }
+        current = load();
+        if (current == null) {
+            current = newGeneration();
+            persist(current);
+        }
+        deleteStaleVectorFiles();
+        log.info("임베디드 벡터 저장소 로드 완료: {} (청크 {}개, 삭제된 노드 {}개, {}ms)", directory,
+                current.nodes.size(), current.index.deletedCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 스냅숏을 읽습니다. 없거나 차원이 다르거나 읽을 수 없으면 null을 반환합니다.
+    private Generation load() {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+        Generation generation = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != dimension) {
+                log.info("임베디드 벡터 저장소의 형식이나 차원이 설정과 달라 빈 인덱스로 시작합니다.");
+                return null;
+            }
+            // 연결 수와 생성 탐색 폭은 기존 그래프의 값을 유지하고, 설정 변경은 다음 재색인이나 압축 때 반영됩니다.
+            int storedM = in.readInt();
+            int storedEfConstruction = in.readInt();
+            String vectorFile = in.readUTF();
+            generation = new Generation(vectorFile, new HnswIndex(directory.resolve(vectorFile), dimension, storedM, storedEfConstruction));
+            generation.index.readGraph(in);
+            for (int node = 0; node < generation.index.size(); node++) {
+                CompanyChunk chunk = new CompanyChunk(in.readUTF(), in.readUTF(), in.readUTF(), readText(in), null);
+                generation.chunks.add(chunk);
+                if (!generation.index.isDeleted(node)) {
+                    generation.nodes.put(chunk.chunkId(), node);
+                }
+            }
+            return generation;
+        } catch (IOException | RuntimeException e) {
+            log.warn("임베디드 벡터 저장소 스냅숏을 읽지 못해 빈 인덱스로 시작합니다: {}", e.getMessage());
+            if (generation != null) {
+                closeQuietly(generation);
+            }
+            return null;
+        }
+    }
+
+    // 같은 밀리초에 세대를 다시 만들어도 현재 세대의 벡터 파일을 덮어쓰지 않도록 없는 이름을 고릅니다.
+    private Generation newGeneration() {
+        long stamp = System.currentTimeMillis();
+        while (Files.exists(directory.resolve(VECTOR_FILE_PREFIX + stamp + ".bin"))) {
+            stamp++;
+        }
+        String vectorFile = VECTOR_FILE_PREFIX + stamp + ".bin";
+        return new Generation(vectorFile, new HnswIndex(directory.resolve(vectorFile), dimension, m, efConstruction));
+    }
+
+    // 새 인덱스를 만들고 스냅숏을 저장한 뒤 현재 인덱스와 교체합니다. 실패하면 만들던 벡터 파일을 삭제하고 현재 인덱스를 유지합니다.
+    private void replace(List<CompanyChunk> chunks) {
+        long started = System.nanoTime();
+        Generation generation = newGeneration();
+        try {
+            chunks.forEach(generation::add);
+            persist(generation);
+        } catch (RuntimeException e) {
+            closeQuietly(generation);
+            deleteQuietly(generation.vectorFile);
+            throw new RuntimeException("임베디드 벡터 재색인 중 오류 발생: " + e.getMessage(), e);
+        }
+        Generation previous;
+        lock.writeLock().lock();
+        try {
+            previous = current;
+            current = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        closeQuietly(previous);
+        deleteQuietly(previous.vectorFile);
+        log.info("임베디드 벡터 재색인 완료: 청크 {}개, {}ms", chunks.size(), (System.nanoTime() - started) / 1_000_000);
+        eventPublisher.publishEvent(new VectorIndexChangedEvent());
+    }
+
+    private int persistIfChanged(boolean changed) {
+        if (!changed) {
+            return 0;
+        }
+        persist(current);
+        return 1;
+    }
+
+    // 벡터를 디스크에 기록한 뒤 스냅숏을 임시 파일에 쓰고 원자적으로 교체합니다. 쓰기 작업 스레드만 호출하므로 잠금 없이 읽습니다.
+    private void persist(Generation generation) {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            generation.index.force();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(dimension);
+                out.writeInt(generation.m);
+                out.writeInt(generation.efConstruction);
+                out.writeUTF(generation.vectorFile);
+                generation.index.writeGraph(out);
+                for (CompanyChunk chunk : generation.chunks) {
+                    out.writeUTF(chunk.chunkId());
+                    out.writeUTF(chunk.docId());
+                    out.writeUTF(chunk.contentHash());
+                    writeText(out, chunk.text());
+                }
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("임베디드 벡터 저장소를 저장할 수 없습니다: " + directory, e);
+        }
+    }
+
+    // writeUTF는 64KB로 제한되므로 텍스트는 길이와 UTF-8 바이트로 기록합니다.
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    // 현재 스냅숏이 가리키지 않는 벡터 파일(중단된 재색인 등)을 삭제합니다.
+    private void deleteStaleVectorFiles() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, VECTOR_FILE_PREFIX + "*.bin")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(current.vectorFile)) {
+                    deleteQuietly(file.getFileName().toString());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("이전 임베디드 벡터 파일을 정리하지 못했습니다: {}", e.getMessage());
+        }
+    }
+
+    private void closeQuietly(Generation generation) {
+        try {
+            generation.index.close();
+        } catch (IOException e) {
+            log.warn("임베디드 벡터 파일 '{}'을(를) 닫지 못했습니다: {}", generation.vectorFile, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(String vectorFile) {
+        try {
+            Files.deleteIfExists(directory.resolve(vectorFile));
+        } catch (IOException e) {
+            log.warn("임베디드 벡터 파일 '{}'을(를) 삭제하지 못했습니다: {}", vectorFile, e.getMessage());
+        }
+    }
+
+    // 벡터 파일 하나와 그 위의 인덱스, 노드 번호별 청크 정보, 살아있는 청크 ID -> 노드 번호.
+    private static final class Generation {
+        private final String vectorFile;
+        private final HnswIndex index;
+        private final int m;
+        private final int efConstruction;
+        private final List<CompanyChunk> chunks = new ArrayList<>();
+        private final Map<String, Integer> nodes = new LinkedHashMap<>();
+
+        private Generation(String vectorFile, HnswIndex index) {
+            this.vectorFile = vectorFile;
+            this.index = index;
+            this.m = index.m();
+            this.efConstruction = index.efConstruction();
+        }
+
+        // 벡터는 인덱스 파일에 있으므로 청크 정보는 임베딩 없이 보관합니다. 새 노드를 추가한 뒤에 이전 노드를 삭제 표시합니다.
+        private void add(CompanyChunk chunk) {
+            int node = index.add(chunk.embedding());
+            remove(chunk.chunkId());
+            chunks.add(new CompanyChunk(chunk.chunkId(), chunk.docId(), chunk.contentHash(), chunk.text(), null));
+            nodes.put(chunk.chunkId(), node);
+        }
+
+        private boolean remove(String chunkId) {
+            Integer node = nodes.remove(chunkId);
+            if (node == null) {
+                return false;
+            }
+            index.remove(node);
+            return true;
+        }
+    }
+}
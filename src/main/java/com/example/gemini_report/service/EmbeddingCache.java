@@ -0,0 +1,282 @@
+package com.example.gemini_report.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code EmbeddingCache}는 임베딩 벡터를 내용 주소(content-addressed) 방식으로 디스크에 보관하는 영구 캐시입니다.
+ * <p>
+ * 구조:
+ * <ul>
+ *     <li>키는 (모델, 차원, 텍스트)의 SHA-256 해시입니다. 모델이나 차원이 바뀌면 자연히 다른 키가 됩니다.</li>
+ *     <li>{@code index.bin}은 헤더와 개방 주소법(선형 탐사) 해시 테이블입니다.
+ *     슬롯은 32바이트 해시와 레코드 번호(0은 빈 슬롯)로 구성되며, 파일 전체를 메모리 매핑하므로 인덱스가 힙을 차지하지 않습니다.</li>
+ *     <li>{@code vectors.bin}은 차원 x 4바이트 고정 폭 float 레코드를 추가 순서대로 저장합니다.
+ *     매핑 하나의 크기 제한(2GB)을 넘지 않도록 레코드 단위로 나눈 구간별로 매핑합니다.</li>
+ *     <li>시작 시 파일을 매핑하기만 하므로 항목 수와 무관하게 즉시 사용할 수 있습니다.
+ *     헤더의 차원이나 용량이 설정과 다르면 파일을 새로 만듭니다.</li>
+ * </ul>
+ * 레코드를 먼저 쓰고 헤더의 항목 수를 늘린 뒤 슬롯을 채우므로, 기록 도중 프로세스가 종료되어도 슬롯이 잘못된 벡터를 가리키지 않습니다.
+ * {@code embedding.cache.max-entries}에 도달하면 더 이상 항목을 추가하지 않습니다.
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private static final int MAGIC = 0x454D4243; // "EMBC"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int HASH_BYTES = 32;
+    private static final int SLOT_BYTES = HASH_BYTES + Integer.BYTES;
+    private static final int COUNT_OFFSET = 20;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int dimension;
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private int capacity;
+    private int recordBytes;
+    private int recordsPerSegment;
+    private FileChannel indexChannel;
+    private FileChannel vectorChannel;
+    private MappedByteBuffer index;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private boolean fullLogged;
+
+    public EmbeddingCache(@Value("${embedding.cache.enabled}") boolean enabled,
+                          @Value("${embedding.cache.dir}") String directory,
+                          @Value("${milvus.embedding.dimension}") int dimension,
+                          @Value("${embedding.cache.max-entries}") int maxEntries) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.dimension = dimension;
+        this.maxEntries = maxEntries;
+        if (enabled) {
+            open();
+        }
+    }
+
+    /**
+     * (모델, 차원, 텍스트)에 대한 캐시 키를 계산합니다.
+     */
+    public byte[] key(String model, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((model + '\0' + dimension + '\0').getBytes(StandardCharsets.UTF_8));
+            return digest.digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 캐시된 임베딩을 조회합니다.
+     *
+     * @param key {@link #key(String, String)}로 계산한 키
+     * @return 캐시된 벡터. 없으면 빈 {@link Optional}
+     */
+    public synchronized Optional<float[]> get(byte[] key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        int slot = findSlot(key);
+        int record = index.getInt(slotOffset(slot) + HASH_BYTES);
+        if (record == 0) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        ByteBuffer buffer = recordBuffer(record - 1);
+        float[] vector = new float[dimension];
+        buffer.asFloatBuffer().get(vector);
+        return Optional.of(vector);
+    }
+
+    /**
+     * 임베딩을 캐시에 저장합니다. 이미 있는 키이거나 캐시가 가득 찼거나 차원이 다르면 저장하지 않습니다.
+     *
+     * @param key    {@link #key(String, String)}로 계산한 키
+     * @param vector 저장할 벡터
+     */
+    public synchronized void put(byte[] key, float[] vector) {
+        if (!enabled) {
+            return;
+        }
+        if (vector.length != dimension) {
+            log.warn("임베딩 차원({})이 캐시 차원({})과 달라 캐시하지 않습니다.", vector.length, dimension);
+            return;
+        }
+        int slot = findSlot(key);
+        int slotOffset = slotOffset(slot);
+        if (index.getInt(slotOffset + HASH_BYTES) != 0) {
+            return;
+        }
+        int count = index.getInt(COUNT_OFFSET);
+        if (count >= maxEntries) {
+            if (!fullLogged) {
+                log.warn("임베딩 캐시가 최대 항목 수({})에 도달하여 더 이상 추가하지 않습니다.", maxEntries);
+                fullLogged = true;
+            }
+            return;
+        }
+        recordBuffer(count).asFloatBuffer().put(vector);
+        index.putInt(COUNT_OFFSET, count + 1);
+        index.put(slotOffset, key);
+        index.putInt(slotOffset + HASH_BYTES, count + 1);
+    }
+
+    /**
+     * @return 캐시 항목 수와 적중/미스 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (enabled) {
+            long hitCount = hits.get();
+            long total = hitCount + misses.get();
+            synchronized (this) {
+                stats.put("entries", index.getInt(COUNT_OFFSET));
+            }
+            stats.put("maxEntries", maxEntries);
+            stats.put("hits", hitCount);
+            stats.put("misses", total - hitCount);
+            stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        }
+        return stats;
+    }
+
+    /**
+     * 매핑된 내용을 디스크에 기록하고 파일을 닫습니다.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (!enabled || index == null) {
+            return;
+        }
+        index.force();
+        segments.forEach(MappedByteBuffer::force);
+        try {
+            indexChannel.close();
+            vectorChannel.close();
+        } catch (IOException e) {
+            log.warn("임베딩 캐시 파일을 닫지 못했습니다: {}", e.getMessage());
+        }
+        index = null;
+    }
+
+    private void open() {
+        long started = System.nanoTime();
+        // 적재율이 50%를 넘지 않도록 최대 항목 수의 두 배 이상인 2의 거듭제곱으로 슬롯 수를 정합니다.
+        capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        recordBytes = dimension * Float.BYTES;
+        recordsPerSegment = (int) Math.max(1, Math.min(maxEntries, MAX_SEGMENT_BYTES / recordBytes));
+        try {
+            Files.createDirectories(directory);
+            Path indexPath = directory.resolve("index.bin");
+            Path vectorPath = directory.resolve("vectors.bin");
+            long indexBytes = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+            boolean reset = !matchesHeader(indexPath, indexBytes);
+            if (reset) {
+                Files.deleteIfExists(indexPath);
+                Files.deleteIfExists(vectorPath);
+            }
+            indexChannel = FileChannel.open(indexPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            vectorChannel = FileChannel.open(vectorPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexBytes);
+            if (reset) {
+                index.putInt(0, MAGIC);
+                index.putInt(4, VERSION);
+                index.putInt(8, dimension);
+                index.putInt(12, capacity);
+                index.putInt(16, maxEntries);
+                index.putInt(COUNT_OFFSET, 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("임베딩 캐시 파일을 열 수 없습니다: " + directory, e);
+        }
+        log.info("임베딩 캐시 로드 완료: {} (항목 {}개, {}ms)", directory, index.getInt(COUNT_OFFSET),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 기존 인덱스 파일의 헤더가 현재 설정(차원, 용량)과 같은지 확인합니다.
+    private boolean matchesHeader(Path indexPath, long indexBytes) throws IOException {
+        if (!Files.exists(indexPath) || Files.size(indexPath) != indexBytes) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            boolean matches = header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                    && header.getInt(8) == dimension && header.getInt(12) == capacity;
+            if (!matches) {
+                log.info("임베딩 캐시 설정이 바뀌어 캐시 파일을 새로 만듭니다.");
+            }
+            return matches;
+        }
+    }
+
+    // 키가 있는 슬롯 또는 키를 넣을 빈 슬롯을 찾습니다.
+    private int findSlot(byte[] key) {
+        int mask = capacity - 1;
+        int slot = (int) (ByteBuffer.wrap(key).getLong() & mask);
+        byte[] stored = new byte[HASH_BYTES];
+        while (true) {
+            int offset = slotOffset(slot);
+            if (index.getInt(offset + HASH_BYTES) == 0) {
+                return slot;
+            }
+            index.get(offset, stored);
+            if (Arrays.equals(stored, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    // 레코드가 속한 구간을 필요할 때 매핑하고, 레코드 위치로 이동한 버퍼를 반환합니다.
+    private ByteBuffer recordBuffer(int record) {
+        int segment = record / recordsPerSegment;
+        try {
+            while (segments.size() <= segment) {
+                long position = (long) segments.size() * recordsPerSegment * recordBytes;
+                segments.add(vectorChannel.map(FileChannel.MapMode.READ_WRITE, position,
+                        (long) recordsPerSegment * recordBytes));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("임베딩 캐시 파일을 매핑할 수 없습니다.", e);
+        }
+        return segments.get(segment).slice((record % recordsPerSegment) * recordBytes, recordBytes);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.gemini_report.service;
+
+import com.google.common.collect.Lists;
+import com.google.genai.Client;
+import com.google.genai.types.ContentEmbedding;
+import com.google.genai.types.EmbedContentConfig;
+import com.google.genai.types.EmbedContentResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code EmbeddingService}는 Gemini 임베딩 모델({@code embedding.model}) 호출을 담당합니다.
+ * <p>
+ * 여러 텍스트를 임베딩할 때는 {@code embedding.batch-size}개씩 묶어 한 번의 {@code embedContent} 요청으로 보내고,
+ * 동시에 진행되는 요청 수를 {@code embedding.max-concurrency}로 제한하여 API 할당량을 넘지 않도록 합니다.
+ * 임베딩은 {@code embedding.output-dimensionality} 차원으로 요청하고, 단위 길이로 정규화한 {@code float[]}로 반환합니다.
+ * 모든 임베딩은 먼저 {@link EmbeddingCache}에서 찾고, 캐시에 없는 텍스트만 모델에 요청한 뒤 결과를 캐시에 저장합니다.
+ * 검색 질문은 그 앞에서 {@link QueryEmbeddingCache}를 먼저 확인하므로, 반복되는 질문은 해시 계산이나 파일 조회도 하지 않습니다.
+ */
+@Service
+@Slf4j
+public class EmbeddingService {
+
+    private final Client client;
+    private final EmbeddingCache embeddingCache;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final String model;
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final int dimension;
+    private final EmbedContentConfig embedConfig;
+
+    public EmbeddingService(Client client,
+                            EmbeddingCache embeddingCache,
+                            QueryEmbeddingCache queryEmbeddingCache,
+                            @Value("${embedding.model}") String model,
+                            @Value("${embedding.batch-size}") int batchSize,
+                            @Value("${embedding.max-concurrency}") int maxConcurrency,
+                            @Value("${embedding.output-dimensionality}") int dimension) {
+        this.client = client;
+        this.embeddingCache = embeddingCache;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.model = model;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.dimension = dimension;
+        this.embedConfig = EmbedContentConfig.builder()
+                .outputDimensionality(dimension)
+                .build();
+    }
+
+    /**
+     * 텍스트 하나를 임베딩합니다.
+     *
+     * @param text 임베딩할 텍스트
+     * @return 임베딩 벡터
+     */
+    public float[] embed(String text) {
+        byte[] key = embeddingCache.key(model, text);
+        return embeddingCache.get(key).orElseGet(() -> {
+            float[] vector = embedBatch(List.of(text)).get(0);
+            embeddingCache.put(key, vector);
+            return vector;
+        });
+    }
+
+    /**
+     * 검색 질문을 임베딩합니다. 정규화된 질문이 {@link QueryEmbeddingCache}에 있으면 임베딩 요청을 생략합니다.
+     *
+     * @param query 사용자 질문
+     * @return 질문 임베딩 벡터
+     */
+    public float[] embedQuery(String query) {
+        return queryEmbeddingCache.get(query, this::embed);
+    }
+
+    /**
+     * 여러 텍스트를 배치 요청으로 임베딩합니다. 결과는 입력과 같은 순서입니다.
+     * 캐시에 있는 텍스트와 중복된 텍스트는 요청하지 않습니다.
+     *
+     * @param texts 임베딩할 텍스트 목록
+     * @return 텍스트별 임베딩 벡터 목록과 캐시 적중 수, 모델 요청 수
+     */
+    public EmbedResult embedAll(List<String> texts) {
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        Map<String, byte[]> missingKeys = new LinkedHashMap<>();
+        for (String text : texts) {
+            if (vectors.containsKey(text) || missingKeys.containsKey(text)) {
+                continue;
+            }
+            byte[] key = embeddingCache.key(model, text);
+            embeddingCache.get(key).ifPresentOrElse(vector -> vectors.put(text, vector), () -> missingKeys.put(text, key));
+        }
+
+        List<String> missing = new ArrayList<>(missingKeys.keySet());
+        if (!missing.isEmpty()) {
+            List<float[]> embedded = Flux.fromIterable(Lists.partition(missing, batchSize))
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> embedBatch(batch))
+                            .subscribeOn(Schedulers.boundedElastic()), maxConcurrency)
+                    .flatMapIterable(batchVectors -> batchVectors)
+                    .collectList()
+                    .block();
+            for (int i = 0; i < missing.size(); i++) {
+                String text = missing.get(i);
+                vectors.put(text, embedded.get(i));
+                embeddingCache.put(missingKeys.get(text), embedded.get(i));
+            }
+        }
+        log.debug("임베딩 {}건 중 {}건을 모델에 요청했습니다.", texts.size(), missing.size());
+        return new EmbedResult(texts.stream().map(vectors::get).toList(),
+                texts.size() - missing.size(), (missing.size() + batchSize - 1) / batchSize);
+    }
+
+    /**
+     * {@link #embedAll(List)}의 결과입니다.
+     *
+     * @param vectors  입력 텍스트와 같은 순서의 임베딩 벡터
+     * @param cached   모델에 요청하지 않은 (캐시 적중 또는 중복) 텍스트 수
+     * @param requests 모델에 보낸 배치 요청 수
+     */
+    public record EmbedResult(List<float[]> vectors, int cached, int requests) {
+    }
+
+    // 한 번의 embedContent 요청으로 여러 텍스트를 임베딩합니다.
+    private List<float[]> embedBatch(List<String> texts) {
+        EmbedContentResponse response = client.models.embedContent(model, texts, embedConfig);
+        List<ContentEmbedding> embeddings = response.embeddings().orElse(List.of());
+        if (embeddings.size() != texts.size()) {
+            throw new RuntimeException("임베딩 응답 수(" + embeddings.size() + ")가 요청한 텍스트 수(" + texts.size() + ")와 다릅니다.");
+        }
+        return embeddings.stream().map(this::toArray).toList();
+    }
+
+    // SDK의 List<Float>를 한 번만 풀어 float[]로 만들고 단위 길이로 정규화합니다.
+    // 모델의 기본 차원(3072)보다 작게 요청한 임베딩은 정규화되어 있지 않으므로, 내적 기반 거리와 이진 양자화가 일관되도록 항상 정규화합니다.
+    private float[] toArray(ContentEmbedding embedding) {
+        List<Float> values = embedding.values().orElse(List.of());
+        if (values.size() != dimension) {
+            throw new RuntimeException("임베딩 차원(" + values.size() + ")이 설정한 차원(" + dimension + ")과 다릅니다.");
+        }
+        float[] vector = new float[dimension];
+        double norm = 0;
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = values.get(i);
+            norm += vector[i] * vector[i];
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimension; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.gemini_report.service;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * 메모리 매핑된 float 벡터 파일 위의 HNSW(Hierarchical Navigable Small World) 그래프 인덱스입니다.
+ * <p>
+ * 구조:
+ * <ul>
+ *     <li>벡터는 노드 번호 순서대로 차원 x 4바이트 고정 폭 레코드로 파일에 저장하고 매핑하므로 힙을 차지하지 않습니다.
+ *     용량이 부족하면 두 배로 다시 매핑하며, 매핑 하나의 크기 제한(2GB)까지 저장할 수 있습니다.</li>
+ *     <li>그래프는 노드마다 층별 이웃 배열을 힙에 둡니다. 층 0은 최대 {@code 2M}개, 그 위 층은 최대 {@code M}개의 이웃을 가지며,
+ *     이웃은 가까운 후보부터 이미 고른 이웃보다 새 노드에 더 가까운 것만 고르는 휴리스틱으로 선택합니다.</li>
+ *     <li>삭제는 노드를 삭제 표시만 하고 그래프 탐색에는 계속 사용합니다. 삭제된 노드가 쌓이면 저장소가 새 인덱스로 압축합니다.</li>
+ * </ul>
+ * 벡터는 단위 길이로 정규화되어 있다고 가정하므로 내적이 코사인 유사도이며, 거리는 {@code 1 - 내적}입니다.
+ * 이웃 배열은 수정할 때 새 배열로 교체합니다. 스레드 안전하지 않으므로 {@link EmbeddedVectorStore}가 읽기/쓰기 잠금으로 보호합니다.
+ */
+final class HnswIndex implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int[] NO_NEIGHBORS = new int[0];
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom();
+    private final FileChannel channel;
+
+    private MappedByteBuffer mapped;
+    private FloatBuffer vectors;
+    private int capacity;
+    private final List<int[][]> links = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * 벡터 파일을 열거나 만듭니다. 기존 그래프는 {@link #readGraph(DataInput)}로 읽습니다.
+     *
+     * @param vectorPath     벡터 파일 경로
+     * @param dimension      벡터 차원
+     * @param m              층 1 이상에서 노드당 최대 이웃 수 (층 0은 두 배)
+     * @param efConstruction 노드를 추가할 때 이웃 후보를 찾는 탐색 폭
+     */
+    HnswIndex(Path vectorPath, int dimension, int m, int efConstruction) {
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        try {
+            channel = FileChannel.open(vectorPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            map((int) Math.max(INITIAL_CAPACITY, channel.size() / recordBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("벡터 파일을 열 수 없습니다: " + vectorPath, e);
+        }
+    }
+
+    /**
+     * @return 삭제된 노드를 포함한 노드 수
+     */
+    int size() {
+        return links.size();
+    }
+
+    int m() {
+        return m;
+    }
+
+    int efConstruction() {
+        return efConstruction;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    boolean isDeleted(int node) {
+        return deleted.get(node);
+    }
+
+    /**
+     * 벡터를 새 노드로 추가하고 그래프에 연결합니다.
+     *
+     * @param vector 단위 길이로 정규화된 벡터
+     * @return 노드 번호
+     */
+    int add(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("벡터 차원(" + vector.length + ")이 인덱스 차원(" + dimension + ")과 다릅니다.");
+        }
+        int node = links.size();
+        if (node == capacity) {
+            map(capacity * 2);
+        }
+        vectors.put(node * dimension, vector);
+
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int[][] nodeLinks = new int[level + 1][];
+        Arrays.fill(nodeLinks, NO_NEIGHBORS);
+        links.add(nodeLinks);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return node;
+        }
+
+        int nearest = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            nearest = greedyClosest(vector, nearest, layer);
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> candidates = searchLayer(vector, nearest, efConstruction, layer);
+            int[] neighbors = selectNeighbors(candidates, m);
+            nodeLinks[layer] = neighbors;
+            for (int neighbor : neighbors) {
+                connect(neighbor, node, layer);
+            }
+            nearest = candidates.get(0).node();
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+        return node;
+    }
+
+    /**
+     * 노드를 삭제 표시합니다. 검색 결과에서는 빠지지만 그래프 탐색 경로로는 계속 사용됩니다.
+     */
+    void remove(int node) {
+        if (!deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * @return 노드의 벡터 복사본
+     */
+    float[] vector(int node) {
+        float[] vector = new float[dimension];
+        vectors.get(node * dimension, vector);
+        return vector;
+    }
+
+    /**
+     * 쿼리 벡터와 가장 유사한 삭제되지 않은 노드를 찾습니다.
+     *
+     * @param query 단위 길이로 정규화된 쿼리 벡터
+     * @param topK  반환할 노드 수
+     * @param ef    층 0의 탐색 폭. {@code topK}보다 작으면 {@code topK}를 사용합니다.
+     * @return 유사도가 높은 순서의 (노드, 거리)
+     */
+    List<Candidate> search(float[] query, int topK, int ef) {
+        if (entryPoint < 0) {
+            return List.of();
+        }
+        int nearest = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            nearest = greedyClosest(query, nearest, layer);
+        }
+        return searchLayer(query, nearest, Math.max(ef, topK), 0).stream()
+                .filter(candidate -> !deleted.get(candidate.node()))
+                .limit(topK)
+                .toList();
+    }
+
+    /**
+     * 그래프(노드별 삭제 여부와 층별 이웃, 진입점)를 기록합니다. 벡터는 매핑된 파일에 이미 있으므로 {@link #force()}만 하면 됩니다.
+     */
+    void writeGraph(DataOutput out) throws IOException {
+        out.writeInt(links.size());
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < links.size(); node++) {
+            int[][] nodeLinks = links.get(node);
+            out.writeBoolean(deleted.get(node));
+            out.writeInt(nodeLinks.length);
+            for (int[] neighbors : nodeLinks) {
+                out.writeInt(neighbors.length);
+                for (int neighbor : neighbors) {
+                    out.writeInt(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link #writeGraph(DataOutput)}로 기록한 그래프를 읽습니다. 벡터 파일에 그래프의 노드 수만큼 레코드가 없으면 예외가 발생합니다.
+     */
+    void readGraph(DataInput in) throws IOException {
+        int nodes = in.readInt();
+        if ((long) nodes * recordBytes() > channel.size()) {
+            throw new IOException("벡터 파일이 그래프보다 짧습니다.");
+        }
+        entryPoint = in.readInt();
+        maxLevel = in.readInt();
+        links.clear();
+        deleted.clear();
+        deletedCount = 0;
+        for (int node = 0; node < nodes; node++) {
+            if (in.readBoolean()) {
+                deleted.set(node);
+                deletedCount++;
+            }
+            int[][] nodeLinks = new int[in.readInt()][];
+            for (int layer = 0; layer < nodeLinks.length; layer++) {
+                int[] neighbors = new int[in.readInt()];
+                for (int i = 0; i < neighbors.length; i++) {
+                    neighbors[i] = in.readInt();
+                }
+                nodeLinks[layer] = neighbors;
+            }
+            links.add(nodeLinks);
+        }
+    }
+
+    /**
+     * 매핑된 벡터를 디스크에 기록합니다.
+     */
+    void force() {
+        mapped.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    // 용량을 늘려 파일을 다시 매핑합니다. READ_WRITE 매핑은 파일을 매핑 크기까지 늘립니다.
+    private void map(int newCapacity) {
+        long bytes = (long) newCapacity * recordBytes();
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("임베디드 벡터 저장소 용량을 초과했습니다: 최대 "
+                    + Integer.MAX_VALUE / recordBytes() + "개");
+        }
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("벡터 파일을 매핑할 수 없습니다.", e);
+        }
+        vectors = mapped.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        capacity = newCapacity;
+    }
+
+    private int recordBytes() {
+        return dimension * Float.BYTES;
+    }
+
+    // 한 층에서 이웃을 따라 쿼리에 더 가까워지지 않을 때까지 이동합니다.
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : links.get(current)[layer]) {
+                float neighborDistance = distance(query, neighbor);
+                if (neighborDistance < currentDistance) {
+                    current = neighbor;
+                    currentDistance = neighborDistance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // 한 층에서 가까운 후보부터 넓혀가며 쿼리에 가장 가까운 ef개의 노드를 찾아 가까운 순서로 반환합니다.
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(links.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(NEAREST_FIRST.reversed());
+        Candidate first = new Candidate(start, distance(query, start));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (closest.distance() > results.peek().distance()) {
+                break;
+            }
+            for (int neighbor : links.get(closest.node())[layer]) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float neighborDistance = distance(query, neighbor);
+                if (results.size() < ef || neighborDistance < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbor, neighborDistance);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        List<Candidate> nearest = new ArrayList<>(results);
+        nearest.sort(NEAREST_FIRST);
+        return nearest;
+    }
+
+    // 가까운 후보부터, 이미 고른 이웃보다 기준 노드에 더 가까운 후보만 고릅니다. 모자라면 제외한 후보로 채웁니다.
+    private int[] selectNeighbors(List<Candidate> nearestFirst, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : nearestFirst) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (distance(candidate.node(), chosen.node()) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : pruned).add(candidate);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected.stream().mapToInt(Candidate::node).toArray();
+    }
+
+    // 이웃 노드에 새 노드로의 연결을 추가하고, 최대 이웃 수를 넘으면 같은 휴리스틱으로 다시 고릅니다.
+    private void connect(int node, int neighbor, int layer) {
+        int[][] nodeLinks = links.get(node);
+        int[] current = nodeLinks[layer];
+        int limit = layer == 0 ? maxM0 : m;
+        if (current.length < limit) {
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = neighbor;
+            nodeLinks[layer] = extended;
+            return;
+        }
+        List<Candidate> candidates = new ArrayList<>(current.length + 1);
+        for (int existing : current) {
+            candidates.add(new Candidate(existing, distance(node, existing)));
+        }
+        candidates.add(new Candidate(neighbor, distance(node, neighbor)));
+        candidates.sort(NEAREST_FIRST);
+        nodeLinks[layer] = selectNeighbors(candidates, limit);
+    }
+
+    // 누적 변수 4개로 나누어 덧셈 의존성을 줄입니다.
+    private float distance(float[] query, int node) {
+        int offset = node * dimension;
+        float dot0 = 0, dot1 = 0, dot2 = 0, dot3 = 0;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            dot0 += query[i] * vectors.get(offset + i);
+            dot1 += query[i + 1] * vectors.get(offset + i + 1);
+            dot2 += query[i + 2] * vectors.get(offset + i + 2);
+            dot3 += query[i + 3] * vectors.get(offset + i + 3);
+        }
+        for (; i < dimension; i++) {
+            dot0 += query[i] * vectors.get(offset + i);
+        }
+        return 1 - (dot0 + dot1 + dot2 + dot3);
+    }
+
+    private float distance(int a, int b) {
+        int offsetA = a * dimension;
+        int offsetB = b * dimension;
+        float dot0 = 0, dot1 = 0, dot2 = 0, dot3 = 0;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            dot0 += vectors.get(offsetA + i) * vectors.get(offsetB + i);
+            dot1 += vectors.get(offsetA + i + 1) * vectors.get(offsetB + i + 1);
+            dot2 += vectors.get(offsetA + i + 2) * vectors.get(offsetB + i + 2);
+            dot3 += vectors.get(offsetA + i + 3) * vectors.get(offsetB + i + 3);
+        }
+        for (; i < dimension; i++) {
+            dot0 += vectors.get(offsetA + i) * vectors.get(offsetB + i);
+        }
+        return 1 - (dot0 + dot1 + dot2 + dot3);
+    }
+
+    /**
+     * 검색 후보 노드와 쿼리까지의 거리({@code 1 - 코사인 유사도})입니다.
+     */
+    record Candidate(int node, float distance) {
+    }
+}
@@ -1,40 +1,71 @@
 package com.example.gemini_report.service;
 
+import com.example.gemini_report.event.VectorIndexChangedEvent;
 import io.milvus.client.MilvusServiceClient;
+import io.milvus.common.clientenum.ConsistencyLevelEnum;
 import io.milvus.grpc.*;
 import io.milvus.param.R;
 import io.milvus.param.RpcStatus;
+import io.milvus.param.alias.AlterAliasParam;
+import io.milvus.param.alias.CreateAliasParam;
 import io.milvus.param.collection.*;
 import io.milvus.param.MetricType;
+import io.milvus.orm.iterator.QueryIterator;
 import io.milvus.param.index.CreateIndexParam;
+import io.milvus.param.index.DescribeIndexParam;
 import io.milvus.param.IndexType;
+import io.milvus.param.dml.DeleteParam;
 import io.milvus.param.dml.InsertParam;
+import io.milvus.param.dml.QueryIteratorParam;
+import io.milvus.param.dml.QueryParam;
 import io.milvus.param.dml.SearchParam;
+import io.milvus.param.dml.UpsertParam;
 import io.milvus.param.highlevel.dml.response.SearchResponse;
+import io.milvus.response.GetCollStatResponseWrapper;
+import io.milvus.response.QueryResultsWrapper;
 import io.milvus.response.SearchResultsWrapper;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 /**
  * Milvus 벡터 데이터베이스와의 상호작용을 관리하는 서비스 클래스.
  * 컬렉션 생성, 데이터 삽입, 벡터 검색 등의 기능을 제공합니다.
+ * <p>
+ * {@code milvus.collection.name}은 컬렉션이 아니라 별칭이며, 실제 데이터는 {@code <이름>_v<생성 시각>} 세대 컬렉션에 있습니다.
+ * 문서 단위 변경은 {@link #upsert(List)}와 {@link #delete(Collection)}로 필요한 청크만 반영하고, 전체 재색인은 {@link #reindex(List)}가 새 세대를 만든 뒤 별칭을 전환합니다.
+ * <p>
+ * 인덱스 구성은 {@link VectorIndexPlanner}가 행 수로 정하며, 증분 변경으로 행 수가 기준을 넘으면
+ * {@link #rebuildIndexIfNeeded()}가 현재 세대의 행을 새 인덱스의 세대로 복사한 뒤 별칭을 전환합니다.
+ * 쓰기(upsert/삭제/재색인/재구성)는 직렬화되어 복사 중의 변경이 유실되지 않으며, 검색은 잠금 없이 계속됩니다.
+ * <p>
+ * {@code vector.store=milvus}일 때 사용되는 {@link VectorStore} 구현입니다.
  */
 @Service
+@ConditionalOnProperty(name = "vector.store", havingValue = "milvus")
 @RequiredArgsConstructor
 @Slf4j
-public class MilvusService {
+public class MilvusService implements VectorStore {
 
     private final MilvusServiceClient milvusServiceClient;
+    private final VectorIndexPlanner indexPlanner;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${milvus.collection.name}")
     private String COLLECTION_NAME;
@@ -52,95 +83,56 @@ public class MilvusService {
     private int SHARDS_NUM;
     @Value("${milvus.search.metric-type}")
     private String METRIC_TYPE;
-    @Value("${milvus.search.params}")
-    private String SEARCH_PARAMS;
+    @Value("${milvus.insert.batch-size}")
+    private int INSERT_BATCH_SIZE;
+
+    @Value("${milvus.field.doc-id}")
+    private String FIELD_NAME_DOC_ID;
+    @Value("${milvus.field.content-hash}")
+    private String FIELD_NAME_CONTENT_HASH;
+    @Value("${milvus.vector.storage}")
+    private VectorStorage VECTOR_STORAGE;
+
+    // 세대 컬렉션 이름은 별칭 이름 뒤에 이 접미사와 생성 시각(ms)을 붙입니다.
+    private static final String GENERATION_SUFFIX = "_v";
+    private static final int CONTENT_HASH_LENGTH = 64;
+    private static final int CHUNK_ID_MAX_LENGTH = DOC_ID_MAX_LENGTH + 1 + CONTENT_HASH_LENGTH;
+
+    // 현재 세대의 인덱스 구성과 검색 파라미터 값(nprobe 또는 ef). 검색 스레드가 읽으므로 volatile입니다.
+    private volatile VectorIndexPlan indexPlan;
+    private volatile int searchParamValue;
 
     /**
-     * Milvus 컬렉션이 존재하는지 확인하고, 없으면 생성합니다.
-     * 컬렉션 스키마는 ID, 임베딩 벡터, 원본 텍스트 필드를 포함합니다.
+     * 검색 대상 별칭({@code milvus.collection.name})이 가리키는 세대 컬렉션을 확인하고 메모리에 로드합니다.
+     * 별칭이 없으면 첫 세대 컬렉션을 만들고 별칭을 연결합니다.
+     * 별칭 도입 전에 만들어진 같은 이름의 컬렉션이 있으면 그대로 로드하고, 다음 재색인 때 별칭으로 교체합니다.
      */
     @PostConstruct
     public void createCollectionIfNotExists() {
-        log.info("Milvus 컬렉션 '{}' 존재 여부 확인 및 생성...", COLLECTION_NAME);
+        log.info("Milvus 별칭 '{}' 존재 여부 확인 및 생성...", COLLECTION_NAME);
         try {
-            R<Boolean> hasCollectionResp = milvusServiceClient.hasCollection(
-                    HasCollectionParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
-                            .build()
-            );
-
-            if (hasCollectionResp.getStatus() != R.Status.Success.getCode()) {
-                log.error("컬렉션 '{}' 존재 여부 확인 실패: {}", COLLECTION_NAME, hasCollectionResp.getMessage());
-                throw new RuntimeException("Milvus 컬렉션 존재 여부 확인 실패: " + hasCollectionResp.getMessage());
-            }
-
-            if (hasCollectionResp.getData() == null || !hasCollectionResp.getData()) {
-                log.info("컬렉션 '{}'이(가) 존재하지 않습니다. 새로 생성합니다.", COLLECTION_NAME);
-
-                // ID 필드 정의 (Primary Key, Auto ID)
-                FieldType idField = FieldType.newBuilder()
-                        .withName(FIELD_NAME_ID)
-                        .withDataType(DataType.Int64)
-                        .withPrimaryKey(true)
-                        .withAutoID(true)
-                        .build();
-
-                // 임베딩 벡터 필드 정의
-                FieldType vectorField = FieldType.newBuilder()
-                        .withName(FIELD_NAME_VECTOR)
-                        .withDataType(DataType.FloatVector)
-                        .withDimension(EMBEDDING_DIMENSION)
-                        .build();
-
-                // 원본 텍스트 필드 정의
-                FieldType textField = FieldType.newBuilder()
-                        .withName(FIELD_NAME_TEXT)
-                        .withDataType(DataType.VarChar)
-                        .withMaxLength(MAX_TEXT_LENGTH) // 텍스트 길이 제한
-                        .build();
-
-                // 컬렉션 생성 파라미터 설정
-                CreateCollectionParam createCollectionParam = CreateCollectionParam.newBuilder()
-                        .withCollectionName(COLLECTION_NAME)
-                        .withDescription("회사 정보 임베딩을 저장하는 컬렉션")
-                        .withShardsNum(SHARDS_NUM) // 샤드 수 설정
-                        .addFieldType(idField)
-                        .addFieldType(vectorField)
-                        .addFieldType(textField)
-                        .build();
-
-                // 컬렉션 생성
-                R<RpcStatus> createCollectionResp = milvusServiceClient.createCollection(createCollectionParam);
-                if (createCollectionResp.getStatus() == R.Status.Success.getCode()) {
-                    log.info("컬렉션 '{}' 생성 성공.", COLLECTION_NAME);
-
-                    // 벡터 필드에 대한 인덱스 생성
-                    log.info("벡터 필드 '{}'에 대한 인덱스 생성 중...", FIELD_NAME_VECTOR);
-                    CreateIndexParam createIndexParam = CreateIndexParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
-                            .withFieldName(FIELD_NAME_VECTOR)
-                            .withIndexType(IndexType.IVF_FLAT)
-                            .withMetricType(MetricType.valueOf(METRIC_TYPE))
-                            .withExtraParam("{\"nlist\":1024}")
-                            .build();
-                    
-                    R<RpcStatus> createIndexResp = milvusServiceClient.createIndex(createIndexParam);
-                    if (createIndexResp.getStatus() != R.Status.Success.getCode()) {
-                        log.error("인덱스 생성 실패: {}", createIndexResp.getMessage());
-                        throw new RuntimeException("Milvus 인덱스 생성 실패: " + createIndexResp.getMessage());
-                    }
-                    log.info("인덱스 생성 성공.");
-
-                    // 생성 후 즉시 로드
-                    loadCollection();
+            String current = resolveCollection();
+            if (current == null) {
+                log.info("별칭 '{}'이(가) 존재하지 않습니다. 첫 세대 컬렉션을 생성합니다.", COLLECTION_NAME);
+                String generation = newGenerationName();
+                VectorIndexPlan plan = indexPlanner.plan(0);
+                createGeneration(generation, plan);
+                loadCollection(generation);
+                switchAlias(generation, null);
+                useIndexPlan(plan);
+            } else {
+                if (current.equals(COLLECTION_NAME)) {
+                    log.info("별칭 도입 전의 컬렉션 '{}'을(를) 사용합니다. 다음 재색인 때 별칭으로 교체됩니다.", COLLECTION_NAME);
                 } else {
-                    log.error("컬렉션 '{}' 생성 실패: {}", COLLECTION_NAME, createCollectionResp.getMessage());
-                    throw new RuntimeException("Milvus 컬렉션 생성 실패: " + createCollectionResp.getMessage());
+                    log.info("별칭 '{}'이(가) 컬렉션 '{}'을(를) 가리킵니다.", COLLECTION_NAME, current);
                 }
-            } else {
-                log.info("컬렉션 '{}'이(가) 이미 존재합니다.", COLLECTION_NAME);
                 // 기존 컬렉션 로드
-                loadCollection();
+                loadCollection(current);
+                useIndexPlan(describeIndexPlan(current));
+                if (!hasCurrentSchema()) {
+                    log.warn("컬렉션 '{}'의 스키마가 현재 설정(문서 ID, 벡터 저장 방식 {}, 차원 {})과 다릅니다. 다음 적재 때 새 세대로 재색인됩니다.",
+                            current, VECTOR_STORAGE, EMBEDDING_DIMENSION);
+                }
             }
         } catch (Exception e) {
             log.error("Milvus 컬렉션 '{}' 생성 또는 확인 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
@@ -149,24 +141,291 @@ public class MilvusService {
     }
 
     /**
-     * 컬렉션을 메모리에 로드하여 검색을 가능하게 합니다.
+     * 새 세대 컬렉션에 전체 데이터를 색인한 뒤 별칭을 원자적으로 전환합니다 (블루/그린 재색인).
+     * <p>
+     * 검색은 항상 별칭으로 요청되므로, 새 세대를 만들고 삽입하고 로드하는 동안에도 이전 세대가 그대로 검색을 처리합니다.
+     * 별칭을 전환한 뒤에 이전 세대를 해제하고 삭제합니다. 새 세대 구성 중 실패하면 만들던 컬렉션을 삭제하고 별칭은 바꾸지 않습니다.
+     * 동시에 여러 재색인이 진행되지 않도록 직렬화합니다.
+     *
+     * @param chunks 새 세대에 적재할 전체 청크
+     * @return 보낸 insert 요청 수
+     */
+    @Override
+    public synchronized int reindex(List<CompanyChunk> chunks) {
+        return buildGeneration(indexPlanner.plan(chunks.size()), generation -> write(generation, chunks, false));
+    }
+
+    /**
+     * 현재 행 수에 맞는 인덱스 구성이 현재 인덱스와 다르면(예: {@code AUTO}에서 FLAT 기준을 넘음) 인덱스를 다시 만듭니다.
+     * Milvus는 로드된 컬렉션의 인덱스를 바꿀 수 없으므로, 현재 세대의 행을 새 인덱스를 가진 세대로 복사한 뒤 별칭을 전환합니다.
+     * 이전 스키마의 세대는 다음 적재 때 재색인되므로 대상에서 제외합니다.
+     *
+     * @return 인덱스를 다시 만들었으면 true
+     */
+    @Override
+    public synchronized boolean rebuildIndexIfNeeded() {
+        if (!hasCurrentSchema()) {
+            return false;
+        }
+        long rows = rowCount();
+        VectorIndexPlan planned = indexPlanner.plan(rows);
+        if (!indexPlanner.needsRebuild(indexPlan, planned)) {
+            return false;
+        }
+        log.info("행 수 {}에 맞게 인덱스를 다시 만듭니다: {} -> {}", rows, indexPlan, planned);
+        buildGeneration(planned, this::copyCurrentRows);
+        return true;
+    }
+
+    /**
+     * @return 현재 인덱스 구성, 검색 파라미터 값, 행 수
+     */
+    @Override
+    public Map<String, Object> getIndexStatus() {
+        VectorIndexPlan plan = indexPlan;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("store", "milvus");
+        status.put("indexType", plan.indexType().name());
+        status.put("buildParams", plan.buildParams());
+        status.put("searchParams", plan.searchParams(searchParamValue));
+        status.put("rows", rowCount());
+        return status;
+    }
+
+    /**
+     * @return 현재 세대의 인덱스 구성
+     */
+    @Override
+    public VectorIndexPlan getIndexPlan() {
+        return indexPlan;
+    }
+
+    /**
+     * 이후 검색에 사용할 검색 파라미터 값(nprobe 또는 ef)을 지정합니다. {@link VectorSearchTuner}가 튜닝 결과를 반영할 때 사용합니다.
      */
-    private void loadCollection() {
-        log.info("컬렉션 '{}'을(를) 메모리에 로드 중...", COLLECTION_NAME);
+    @Override
+    public void applySearchParam(int value) {
+        searchParamValue = value;
+        log.info("검색 파라미터를 {}(으)로 변경했습니다.", indexPlan.searchParams(value));
+    }
+
+    // 새 세대를 만들고 populate로 채운 뒤 로드하고 별칭을 전환합니다. 실패하면 만들던 세대를 삭제하고 별칭은 그대로 둡니다.
+    private int buildGeneration(VectorIndexPlan plan, ToIntFunction<String> populate) {
+        String previous = resolveCollection();
+        String generation = newGenerationName();
+        log.info("Milvus 세대 컬렉션 '{}'에 재색인합니다. (현재: {}, 인덱스: {})", generation, previous, plan.indexType());
+        int batches;
+        try {
+            createGeneration(generation, plan);
+            batches = populate.applyAsInt(generation);
+            flush(generation);
+            loadCollection(generation);
+        } catch (Exception e) {
+            log.error("세대 컬렉션 '{}' 구성 실패. 별칭 '{}'은(는) 그대로 유지됩니다: {}", generation, COLLECTION_NAME, e.getMessage());
+            dropQuietly(generation);
+            throw new RuntimeException("Milvus 재색인 중 오류 발생: " + e.getMessage(), e);
+        }
+        switchAlias(generation, previous);
+        useIndexPlan(plan);
+        dropStaleGenerations(generation);
+        log.info("Milvus 재색인 완료. 별칭 '{}' -> '{}'", COLLECTION_NAME, generation);
+        eventPublisher.publishEvent(new VectorIndexChangedEvent());
+        return batches;
+    }
+
+    // 현재 세대의 모든 행을 저장된 형식 그대로 새 세대에 복사합니다. 벡터를 다시 임베딩하거나 변환하지 않습니다.
+    private int copyCurrentRows(String generation) {
+        R<QueryIterator> iteratorResp = milvusServiceClient.queryIterator(
+                QueryIteratorParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .withExpr(FIELD_NAME_ID + " != \"\"")
+                        .withOutFields(List.of(FIELD_NAME_ID, FIELD_NAME_DOC_ID, FIELD_NAME_CONTENT_HASH, FIELD_NAME_VECTOR, FIELD_NAME_TEXT))
+                        .withBatchSize((long) INSERT_BATCH_SIZE)
+                        .withConsistencyLevel(ConsistencyLevelEnum.STRONG)
+                        .build()
+        );
+        requireSuccess(iteratorResp, "Milvus 행 조회 실패");
+        QueryIterator iterator = iteratorResp.getData();
+        int batches = 0;
+        try {
+            for (List<QueryResultsWrapper.RowRecord> rows = iterator.next(); !rows.isEmpty(); rows = iterator.next()) {
+                writeFields(generation, rows.size(),
+                        rows.stream().map(row -> row.get(FIELD_NAME_ID)).toList(),
+                        rows.stream().map(row -> row.get(FIELD_NAME_DOC_ID)).toList(),
+                        rows.stream().map(row -> row.get(FIELD_NAME_CONTENT_HASH)).toList(),
+                        rows.stream().map(row -> row.get(FIELD_NAME_VECTOR)).toList(),
+                        rows.stream().map(row -> row.get(FIELD_NAME_TEXT)).toList(),
+                        false);
+                batches++;
+            }
+        } finally {
+            iterator.close();
+        }
+        return batches;
+    }
+
+    private void useIndexPlan(VectorIndexPlan plan) {
+        indexPlan = plan;
+        searchParamValue = plan.defaultSearchValue();
+    }
+
+    // 컬렉션의 벡터 필드 인덱스 설명을 읽어 인덱스 구성을 복원합니다.
+    private VectorIndexPlan describeIndexPlan(String collectionName) {
+        R<DescribeIndexResponse> describeResp = milvusServiceClient.describeIndex(
+                DescribeIndexParam.newBuilder()
+                        .withCollectionName(collectionName)
+                        .build()
+        );
+        requireSuccess(describeResp, "Milvus 인덱스 조회 실패");
+        for (IndexDescription description : describeResp.getData().getIndexDescriptionsList()) {
+            if (description.getFieldName().equals(FIELD_NAME_VECTOR)) {
+                Map<String, String> params = new HashMap<>();
+                description.getParamsList().forEach(param -> params.put(param.getKey(), param.getValue()));
+                VectorIndexPlan plan = indexPlanner.fromDescription(params.get("index_type"), params);
+                log.info("컬렉션 '{}'의 인덱스: {} {}", collectionName, plan.indexType(), plan.buildParams());
+                return plan;
+            }
+        }
+        throw new RuntimeException("컬렉션 '" + collectionName + "'에 벡터 인덱스가 없습니다.");
+    }
+
+    private long rowCount() {
+        R<GetCollectionStatisticsResponse> statsResp = milvusServiceClient.getCollectionStatistics(
+                GetCollectionStatisticsParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .withFlush(false)
+                        .build()
+        );
+        requireSuccess(statsResp, "Milvus 컬렉션 통계 조회 실패");
+        return new GetCollStatResponseWrapper(statsResp.getData()).getRowCount();
+    }
+
+    // 별칭이 가리키는 실제 컬렉션 이름을 반환합니다. 별칭 도입 전의 컬렉션이면 같은 이름을, 없으면 null을 반환합니다.
+    private String resolveCollection() {
+        R<Boolean> hasCollectionResp = milvusServiceClient.hasCollection(
+                HasCollectionParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .build()
+        );
+        if (hasCollectionResp.getStatus() != R.Status.Success.getCode()) {
+            log.error("컬렉션 '{}' 존재 여부 확인 실패: {}", COLLECTION_NAME, hasCollectionResp.getMessage());
+            throw new RuntimeException("Milvus 컬렉션 존재 여부 확인 실패: " + hasCollectionResp.getMessage());
+        }
+        if (hasCollectionResp.getData() == null || !hasCollectionResp.getData()) {
+            return null;
+        }
+        R<DescribeCollectionResponse> describeResp = milvusServiceClient.describeCollection(
+                DescribeCollectionParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .build()
+        );
+        requireSuccess(describeResp, "Milvus 컬렉션 조회 실패");
+        return describeResp.getData().getCollectionName();
+    }
+
+    private String newGenerationName() {
+        return COLLECTION_NAME + GENERATION_SUFFIX + System.currentTimeMillis();
+    }
+
+    /**
+     * 세대 컬렉션을 생성하고 벡터 필드 인덱스를 만듭니다.
+     * 컬렉션 스키마는 청크 ID, 문서 ID, 내용 해시, 임베딩 벡터, 원본 텍스트 필드를 포함합니다.
+     */
+    private void createGeneration(String collectionName, VectorIndexPlan plan) {
+        // 청크 ID 필드 정의 (Primary Key). 문서 ID와 내용 해시로 만들므로 upsert와 삭제의 기준이 됩니다.
+        FieldType idField = FieldType.newBuilder()
+                .withName(FIELD_NAME_ID)
+                .withDataType(DataType.VarChar)
+                .withMaxLength(CHUNK_ID_MAX_LENGTH)
+                .withPrimaryKey(true)
+                .withAutoID(false)
+                .build();
+
+        // 문서 ID 필드 정의
+        FieldType docIdField = FieldType.newBuilder()
+                .withName(FIELD_NAME_DOC_ID)
+                .withDataType(DataType.VarChar)
+                .withMaxLength(DOC_ID_MAX_LENGTH)
+                .build();
+
+        // 내용 해시 필드 정의 (SHA-256 16진수)
+        FieldType contentHashField = FieldType.newBuilder()
+                .withName(FIELD_NAME_CONTENT_HASH)
+                .withDataType(DataType.VarChar)
+                .withMaxLength(CONTENT_HASH_LENGTH)
+                .build();
+
+        // 임베딩 벡터 필드 정의
+        FieldType vectorField = FieldType.newBuilder()
+                .withName(FIELD_NAME_VECTOR)
+                .withDataType(VECTOR_STORAGE.dataType())
+                .withDimension(EMBEDDING_DIMENSION)
+                .build();
+
+        // 원본 텍스트 필드 정의
+        FieldType textField = FieldType.newBuilder()
+                .withName(FIELD_NAME_TEXT)
+                .withDataType(DataType.VarChar)
+                .withMaxLength(MAX_TEXT_LENGTH) // 텍스트 길이 제한
+                .build();
+
+        // 컬렉션 생성 파라미터 설정
+        CreateCollectionParam createCollectionParam = CreateCollectionParam.newBuilder()
+                .withCollectionName(collectionName)
+                .withDescription("회사 정보 임베딩을 저장하는 컬렉션")
+                .withShardsNum(SHARDS_NUM) // 샤드 수 설정
+                .addFieldType(idField)
+                .addFieldType(docIdField)
+                .addFieldType(contentHashField)
+                .addFieldType(vectorField)
+                .addFieldType(textField)
+                .build();
+
+        // 컬렉션 생성
+        R<RpcStatus> createCollectionResp = milvusServiceClient.createCollection(createCollectionParam);
+        if (createCollectionResp.getStatus() != R.Status.Success.getCode()) {
+            log.error("컬렉션 '{}' 생성 실패: {}", collectionName, createCollectionResp.getMessage());
+            throw new RuntimeException("Milvus 컬렉션 생성 실패: " + createCollectionResp.getMessage());
+        }
+        log.info("컬렉션 '{}' 생성 성공.", collectionName);
+
+        // 벡터 필드에 대한 인덱스 생성
+        log.info("벡터 필드 '{}'에 대한 {} 인덱스 생성 중... {}", FIELD_NAME_VECTOR, plan.indexType(), plan.extraParam());
+        CreateIndexParam createIndexParam = CreateIndexParam.newBuilder()
+                .withCollectionName(collectionName)
+                .withFieldName(FIELD_NAME_VECTOR)
+                .withIndexType(plan.indexType())
+                .withMetricType(metricType())
+                .withExtraParam(plan.extraParam())
+                .build();
+
+        R<RpcStatus> createIndexResp = milvusServiceClient.createIndex(createIndexParam);
+        if (createIndexResp.getStatus() != R.Status.Success.getCode()) {
+            log.error("인덱스 생성 실패: {}", createIndexResp.getMessage());
+            throw new RuntimeException("Milvus 인덱스 생성 실패: " + createIndexResp.getMessage());
+        }
+        log.info("인덱스 생성 성공.");
+    }
+
+    /**
+     * 컬렉션을 메모리에 로드하여 검색을 가능하게 합니다. 로드가 끝날 때까지 기다립니다.
+     */
+    private void loadCollection(String collectionName) {
+        log.info("컬렉션 '{}'을(를) 메모리에 로드 중...", collectionName);
         try {
             R<RpcStatus> loadCollectionResp = milvusServiceClient.loadCollection(
                     LoadCollectionParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
+                            .withCollectionName(collectionName)
                             .build()
             );
             if (loadCollectionResp.getStatus() == R.Status.Success.getCode()) {
-                log.info("컬렉션 '{}' 로드 성공.", COLLECTION_NAME);
+                log.info("컬렉션 '{}' 로드 성공.", collectionName);
             } else {
-                log.error("컬렉션 '{}' 로드 실패: {}", COLLECTION_NAME, loadCollectionResp.getMessage());
+                log.error("컬렉션 '{}' 로드 실패: {}", collectionName, loadCollectionResp.getMessage());
                 throw new RuntimeException("Milvus 컬렉션 로드 실패: " + loadCollectionResp.getMessage());
             }
         } catch (Exception e) {
-            log.error("Milvus 컬렉션 '{}' 로드 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
+            log.error("Milvus 컬렉션 '{}' 로드 중 예외 발생: {}", collectionName, e.getMessage(), e);
             throw new RuntimeException("Milvus 컬렉션 로드 중 오류 발생: " + e.getMessage(), e);
         }
     }
@@ -174,79 +433,326 @@ public class MilvusService {
     /**
      * 컬렉션을 메모리에서 해제합니다.
      */
-    private void releaseCollection() {
-        log.info("컬렉션 '{}'을(를) 메모리에서 해제 중...", COLLECTION_NAME);
+    private void releaseCollection(String collectionName) {
+        log.info("컬렉션 '{}'을(를) 메모리에서 해제 중...", collectionName);
         try {
             R<RpcStatus> releaseCollectionResp = milvusServiceClient.releaseCollection(
                     ReleaseCollectionParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
+                            .withCollectionName(collectionName)
                             .build()
             );
             if (releaseCollectionResp.getStatus() == R.Status.Success.getCode()) {
-                log.info("컬렉션 '{}' 해제 성공.", COLLECTION_NAME);
+                log.info("컬렉션 '{}' 해제 성공.", collectionName);
             } else {
-                log.error("컬렉션 '{}' 해제 실패: {}", COLLECTION_NAME, releaseCollectionResp.getMessage());
+                log.error("컬렉션 '{}' 해제 실패: {}", collectionName, releaseCollectionResp.getMessage());
                 // 컬렉션 해제 실패는 애플리케이션 동작에 치명적이지 않을 수 있으므로 RuntimeException을 던지지 않고 로깅만 합니다.
             }
         } catch (Exception e) {
-            log.error("Milvus 컬렉션 '{}' 해제 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
+            log.error("Milvus 컬렉션 '{}' 해제 중 예외 발생: {}", collectionName, e.getMessage(), e);
             // 컬렉션 해제 실패는 애플리케이션 동작에 치명적이지 않을 수 있으므로 RuntimeException을 던지지 않고 로깅만 합니다.
         }
     }
 
+    // 삽입한 데이터를 세그먼트로 봉인하여 로드 시 인덱스가 적용되도록 합니다.
+    private void flush(String collectionName) {
+        R<FlushResponse> flushResp = milvusServiceClient.flush(
+                FlushParam.newBuilder()
+                        .addCollectionName(collectionName)
+                        .withSyncFlush(true)
+                        .build()
+        );
+        requireSuccess(flushResp, "Milvus 컬렉션 flush 실패");
+    }
+
+    /**
+     * 별칭을 새 세대로 전환합니다. Milvus의 alterAlias는 원자적으로 적용되므로 검색이 중단되지 않습니다.
+     * 이전 컬렉션이 별칭 도입 전의 같은 이름 컬렉션이면, 그 이름을 별칭으로 쓰기 위해 먼저 삭제해야 하므로 전환 중 잠시 검색이 실패할 수 있습니다.
+     */
+    private void switchAlias(String generation, String previous) {
+        R<RpcStatus> aliasResp;
+        if (previous != null && !previous.equals(COLLECTION_NAME)) {
+            aliasResp = milvusServiceClient.alterAlias(
+                    AlterAliasParam.newBuilder()
+                            .withCollectionName(generation)
+                            .withAlias(COLLECTION_NAME)
+                            .build()
+            );
+        } else {
+            if (previous != null) {
+                log.warn("별칭 도입 전의 컬렉션 '{}'을(를) 삭제하고 별칭으로 교체합니다.", COLLECTION_NAME);
+                dropCollection(COLLECTION_NAME);
+            }
+            aliasResp = milvusServiceClient.createAlias(
+                    CreateAliasParam.newBuilder()
+                            .withCollectionName(generation)
+                            .withAlias(COLLECTION_NAME)
+                            .build()
+            );
+        }
+        requireSuccess(aliasResp, "Milvus 별칭 전환 실패");
+        log.info("별칭 '{}'이(가) 컬렉션 '{}'을(를) 가리키도록 전환했습니다.", COLLECTION_NAME, generation);
+    }
+
+    // 현재 세대를 제외한 세대 컬렉션(이전 세대와 실패한 재색인의 잔여 컬렉션)을 해제하고 삭제합니다.
+    private void dropStaleGenerations(String current) {
+        R<ShowCollectionsResponse> showResp = milvusServiceClient.showCollections(
+                ShowCollectionsParam.newBuilder().build()
+        );
+        if (showResp.getStatus() != R.Status.Success.getCode()) {
+            log.warn("이전 세대 컬렉션 목록을 조회하지 못했습니다: {}", showResp.getMessage());
+            return;
+        }
+        for (String name : showResp.getData().getCollectionNamesList()) {
+            if (name.startsWith(COLLECTION_NAME + GENERATION_SUFFIX) && !name.equals(current)) {
+                releaseCollection(name);
+                dropQuietly(name);
+            }
+        }
+    }
+
+    // 정리 작업 중의 삭제 실패는 재색인 결과에 영향을 주지 않으므로 로깅만 합니다.
+    private void dropQuietly(String collectionName) {
+        try {
+            dropCollection(collectionName);
+        } catch (Exception e) {
+            log.warn("컬렉션 '{}' 삭제 실패: {}", collectionName, e.getMessage());
+        }
+    }
+
+    private static void requireSuccess(R<?> response, String message) {
+        if (response.getStatus() != R.Status.Success.getCode()) {
+            log.error("{}: {}", message, response.getMessage());
+            throw new RuntimeException(message + ": " + response.getMessage());
+        }
+    }
+
+    /**
+     * 현재 세대 컬렉션이 지금 설정의 스키마(문서 ID와 내용 해시 필드, 벡터 저장 방식과 차원)인지 확인합니다.
+     * 이전 스키마나 다른 벡터 설정으로 만들어진 세대라면 {@link #reindex(List)}로 새 세대를 만들어야 합니다.
+     */
+    @Override
+    public boolean hasCurrentSchema() {
+        R<DescribeCollectionResponse> describeResp = milvusServiceClient.describeCollection(
+                DescribeCollectionParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .build()
+        );
+        requireSuccess(describeResp, "Milvus 컬렉션 조회 실패");
+        List<FieldSchema> fields = describeResp.getData().getSchema().getFieldsList();
+        boolean hasContentHash = fields.stream().anyMatch(field -> field.getName().equals(FIELD_NAME_CONTENT_HASH));
+        boolean vectorMatches = fields.stream().anyMatch(field -> field.getName().equals(FIELD_NAME_VECTOR)
+                && field.getDataType() == VECTOR_STORAGE.dataType()
+                && field.getTypeParamsList().stream().anyMatch(param -> param.getKey().equals("dim")
+                && param.getValue().equals(String.valueOf(EMBEDDING_DIMENSION))));
+        return hasContentHash && vectorMatches;
+    }
+
+    // Milvus가 돌려준 점수를 0~1 유사도(1이 가장 유사)로 바꿉니다. 거리 지표는 거리가 작을수록 유사하므로 뒤집습니다.
+    // 벡터는 단위 길이로 정규화되어 있으므로 L2(제곱 거리)는 2 - 2 * 코사인이고, 해밍 거리는 다른 비트 수이므로 차원으로 나눕니다.
+    private float similarity(float score) {
+        float similarity = switch (metricType()) {
+            case COSINE, IP -> score;
+            case L2 -> 1 - score / 2;
+            case HAMMING -> 1 - score / EMBEDDING_DIMENSION;
+            default -> 1 - score;
+        };
+        return Math.max(0, Math.min(1, similarity));
+    }
+
+    // 이진 벡터는 해밍 거리로만 비교할 수 있으므로 milvus.search.metric-type 대신 HAMMING을 사용합니다.
+    private MetricType metricType() {
+        return VECTOR_STORAGE == VectorStorage.BINARY ? MetricType.HAMMING : MetricType.valueOf(METRIC_TYPE);
+    }
+
+    /**
+     * 문서에 저장된 청크의 ID와 내용 해시를 조회합니다.
+     *
+     * @param docId 문서 ID
+     * @return 청크 ID -> 내용 해시
+     */
+    @Override
+    public Map<String, String> findChunkHashes(String docId) {
+        R<QueryResults> queryResp = milvusServiceClient.query(
+                QueryParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .withExpr(FIELD_NAME_DOC_ID + " == " + quote(docId))
+                        .withOutFields(List.of(FIELD_NAME_ID, FIELD_NAME_CONTENT_HASH))
+                        // 직전 upsert/삭제가 반영된 상태를 보고 비교해야 하므로 강한 일관성으로 조회합니다.
+                        .withConsistencyLevel(ConsistencyLevelEnum.STRONG)
+                        .build()
+        );
+        requireSuccess(queryResp, "Milvus 문서 청크 조회 실패");
+        Map<String, String> hashes = new HashMap<>();
+        for (QueryResultsWrapper.RowRecord row : new QueryResultsWrapper(queryResp.getData()).getRowRecords()) {
+            hashes.put((String) row.get(FIELD_NAME_ID), (String) row.get(FIELD_NAME_CONTENT_HASH));
+        }
+        return hashes;
+    }
+
+    /**
+     * 청크를 별칭이 가리키는 현재 세대 컬렉션에 upsert합니다. 같은 청크 ID가 있으면 교체됩니다.
+     * 행 수가 {@code milvus.insert.batch-size}를 넘으면 그 크기씩 나누어 여러 번 요청합니다.
+     *
+     * @param chunks upsert할 청크
+     * @return 보낸 upsert 요청 수
+     */
+    @Override
+    public synchronized int upsert(List<CompanyChunk> chunks) {
+        return write(COLLECTION_NAME, chunks, true);
+    }
+
     /**
-     * 임베딩 벡터와 원본 텍스트를 Milvus 컬렉션에 삽입합니다.
+     * 청크 ID로 청크를 삭제합니다.
      *
-     * @param embeddings 삽입할 임베딩 벡터 리스트
-     * @param texts      해당 임베딩 벡터에 매핑되는 원본 텍스트 리스트
+     * @param chunkIds 삭제할 청크 ID
+     * @return 보낸 delete 요청 수
      */
-    public void insert(List<List<Float>> embeddings, List<String> texts) {
-        log.info("Milvus 컬렉션 '{}'에 데이터 삽입 중...", COLLECTION_NAME);
+    @Override
+    public synchronized int delete(Collection<String> chunkIds) {
+        List<String> ids = new ArrayList<>(chunkIds);
+        int batches = 0;
+        for (int from = 0; from < ids.size(); from += INSERT_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + INSERT_BATCH_SIZE, ids.size()));
+            deleteWhere(FIELD_NAME_ID + " in [" + batch.stream().map(MilvusService::quote).collect(Collectors.joining(", ")) + "]");
+            batches++;
+        }
+        return batches;
+    }
+
+    /**
+     * 문서의 모든 청크를 삭제합니다.
+     *
+     * @param docId 문서 ID
+     */
+    @Override
+    public synchronized void deleteDocument(String docId) {
+        deleteWhere(FIELD_NAME_DOC_ID + " == " + quote(docId));
+    }
+
+    private void deleteWhere(String expr) {
+        R<MutationResult> deleteResp = milvusServiceClient.delete(
+                DeleteParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .withExpr(expr)
+                        .build()
+        );
+        requireSuccess(deleteResp, "Milvus 데이터 삭제 실패");
+        log.info("Milvus 컬렉션 '{}'에서 {}건 삭제 ({}).", COLLECTION_NAME, deleteResp.getData().getDeleteCnt(), expr);
+    }
+
+    // Milvus 불리언 표현식의 문자열 리터럴. 문서 ID는 호출하는 쪽에서 허용 문자를 검증하지만, 따옴표와 역슬래시는 이스케이프합니다.
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private int write(String collectionName, List<CompanyChunk> chunks, boolean upsert) {
+        log.info("Milvus 컬렉션 '{}'에 데이터 {}건 {} 중...", collectionName, chunks.size(), upsert ? "upsert" : "삽입");
+        int batches = 0;
+        for (int from = 0; from < chunks.size(); from += INSERT_BATCH_SIZE) {
+            writeBatch(collectionName, chunks.subList(from, Math.min(from + INSERT_BATCH_SIZE, chunks.size())), upsert);
+            batches++;
+        }
+        return batches;
+    }
+
+    private void writeBatch(String collectionName, List<CompanyChunk> chunks, boolean upsert) {
+        writeFields(collectionName, chunks.size(),
+                chunks.stream().map(CompanyChunk::chunkId).toList(),
+                chunks.stream().map(CompanyChunk::docId).toList(),
+                chunks.stream().map(CompanyChunk::contentHash).toList(),
+                chunks.stream().map(chunk -> VECTOR_STORAGE.encode(chunk.embedding())).toList(), // 저장 방식으로 인코딩한 임베딩 벡터 리스트
+                chunks.stream().map(CompanyChunk::text).toList(),
+                upsert);
+    }
+
+    private void writeFields(String collectionName, int rows, List<?> chunkIds, List<?> docIds, List<?> contentHashes,
+                             List<?> vectors, List<?> texts, boolean upsert) {
         try {
             // 각 필드에 대한 데이터 리스트 생성
             List<InsertParam.Field> fields = new ArrayList<>();
-            fields.add(new InsertParam.Field(FIELD_NAME_VECTOR, embeddings)); // 임베딩 벡터 리스트
+            fields.add(new InsertParam.Field(FIELD_NAME_ID, chunkIds));
+            fields.add(new InsertParam.Field(FIELD_NAME_DOC_ID, docIds));
+            fields.add(new InsertParam.Field(FIELD_NAME_CONTENT_HASH, contentHashes));
+            fields.add(new InsertParam.Field(FIELD_NAME_VECTOR, vectors));
             fields.add(new InsertParam.Field(FIELD_NAME_TEXT, texts));      // 원본 텍스트 리스트
 
-            // 삽입 파라미터 설정
-            InsertParam insertParam = InsertParam.newBuilder()
-                    .withCollectionName(COLLECTION_NAME)
-                    .withFields(fields) // 데이터 행 추가
-                    .build();
-
             // 데이터 삽입
-            R<io.milvus.grpc.MutationResult> insertResp = milvusServiceClient.insert(insertParam);
-            if (insertResp.getStatus() == R.Status.Success.getCode()) {
-                log.info("Milvus 컬렉션 '{}'에 {}개 데이터 삽입 성공.", COLLECTION_NAME, embeddings.size());
+            R<MutationResult> writeResp = upsert
+                    ? milvusServiceClient.upsert(UpsertParam.newBuilder()
+                            .withCollectionName(collectionName)
+                            .withFields(fields)
+                            .build())
+                    : milvusServiceClient.insert(InsertParam.newBuilder()
+                            .withCollectionName(collectionName)
+                            .withFields(fields)
+                            .build());
+            if (writeResp.getStatus() == R.Status.Success.getCode()) {
+                log.info("Milvus 컬렉션 '{}'에 {}개 데이터 기록 성공.", collectionName, rows);
             } else {
-                log.error("Milvus 컬렉션 '{}'에 데이터 삽입 실패: {}", COLLECTION_NAME, insertResp.getMessage());
-                throw new RuntimeException("Milvus 데이터 삽입 실패: " + insertResp.getMessage());
+                log.error("Milvus 컬렉션 '{}'에 데이터 기록 실패: {}", collectionName, writeResp.getMessage());
+                throw new RuntimeException("Milvus 데이터 삽입 실패: " + writeResp.getMessage());
             }
         } catch (Exception e) {
-            log.error("Milvus 컬렉션 '{}'에 데이터 삽입 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
+            log.error("Milvus 컬렉션 '{}'에 데이터 삽입 중 예외 발생: {}", collectionName, e.getMessage(), e);
             throw new RuntimeException("Milvus 데이터 삽입 중 오류 발생: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 저장된 청크 벡터를 최대 {@code limit}개 읽어 {@code float[]}로 복원합니다. 검색 파라미터 튜닝의 쿼리 표본으로 사용합니다.
+     */
+    @Override
+    public Map<String, float[]> sampleVectors(int limit) {
+        R<QueryResults> queryResp = milvusServiceClient.query(
+                QueryParam.newBuilder()
+                        .withCollectionName(COLLECTION_NAME)
+                        .withExpr(FIELD_NAME_ID + " != \"\"")
+                        .withOutFields(List.of(FIELD_NAME_ID, FIELD_NAME_VECTOR))
+                        .withLimit((long) limit)
+                        .build()
+        );
+        requireSuccess(queryResp, "Milvus 벡터 표본 조회 실패");
+        Map<String, float[]> samples = new LinkedHashMap<>();
+        new QueryResultsWrapper(queryResp.getData()).getRowRecords().forEach(row ->
+                samples.put(String.valueOf(row.get(FIELD_NAME_ID)), VECTOR_STORAGE.decode(row.get(FIELD_NAME_VECTOR))));
+        return samples;
+    }
+
     /**
      * 주어진 쿼리 벡터와 가장 유사한 벡터를 Milvus 컬렉션에서 검색합니다.
+     * 별칭으로 검색하므로 재색인 중에도 이전 세대가 끝까지 검색을 처리합니다.
      *
      * @param queryVector 검색할 쿼리 임베딩 벡터
      * @param topK        가장 유사한 상위 K개의 결과를 반환
      * @return 검색 결과 리스트 (원본 텍스트와 유사도 점수 포함)
      */
-    public List<Map<String, Object>> search(List<Float> queryVector, int topK) {
+    @Override
+    public List<Map<String, Object>> search(float[] queryVector, int topK) {
+        return search(queryVector, topK, searchParamValue);
+    }
+
+    /**
+     * 검색 파라미터 값(nprobe 또는 ef)을 지정하여 검색합니다. {@link VectorSearchTuner}가 파라미터별 재현율과 지연 시간을 잴 때 사용합니다.
+     */
+    @Override
+    public List<Map<String, Object>> search(float[] queryVector, int topK, int searchValue) {
         log.info("Milvus 컬렉션 '{}'에서 유사 벡터 검색 중...", COLLECTION_NAME);
         try {
-            SearchParam searchParam = SearchParam.newBuilder()
+            SearchParam.Builder searchBuilder = SearchParam.newBuilder()
                     .withCollectionName(COLLECTION_NAME)
                     .withVectorFieldName(FIELD_NAME_VECTOR) // 검색할 벡터 필드 이름 지정
-                    .withVectors(Collections.singletonList(queryVector))
                     .withOutFields(Collections.singletonList(FIELD_NAME_TEXT))  // 원본 텍스트 필드명
                     .withTopK(topK)
-                    .withMetricType(MetricType.valueOf(METRIC_TYPE))
-                    .withParams(SEARCH_PARAMS)
-                    .build();
+                    .withMetricType(metricType())
+                    .withParams(indexPlan.searchParams(searchValue));
+            // float16과 이진 벡터는 모두 ByteBuffer이므로 저장 방식에 맞는 메서드로 쿼리 벡터의 타입을 지정합니다.
+            Object encoded = VECTOR_STORAGE.encode(queryVector);
+            switch (VECTOR_STORAGE) {
+                case FLOAT16 -> searchBuilder.withFloat16Vectors(List.of((ByteBuffer) encoded));
+                case BINARY -> searchBuilder.withBinaryVectors(List.of((ByteBuffer) encoded));
+                default -> searchBuilder.withVectors(List.of(encoded));
+            }
+            SearchParam searchParam = searchBuilder.build();
 
             // 검색 실행
             R<SearchResults> searchResp = milvusServiceClient.search(searchParam);
@@ -259,7 +765,10 @@ public class MilvusService {
             SearchResultData queryResult = searchResponse.getResults();
 
             List<Map<String, Object>> results = new ArrayList<>();
-            List<Long> idList = queryResult.getIds().getIntId().getDataList();
+            // 문서 단위 스키마 이전의 세대는 자동 생성된 정수 ID를 사용합니다.
+            List<?> idList = queryResult.getIds().hasStrId()
+                    ? queryResult.getIds().getStrId().getDataList()
+                    : queryResult.getIds().getIntId().getDataList();
             List<Float> scoreList = queryResult.getScoresList();
             List<FieldData> fieldDataList = queryResult.getFieldsDataList();
 
@@ -269,7 +778,7 @@ public class MilvusService {
             for (int i = 0; i < idList.size(); i++) {
                 Map<String, Object> record = new HashMap<>();
                 record.put("id", idList.get(i));
-                record.put("score", scoreList.get(i));
+                record.put("score", similarity(scoreList.get(i)));
                 if (texts != null && i < texts.size()) {
                     record.put(FIELD_NAME_TEXT, texts.get(i));
                 }
@@ -304,50 +813,23 @@ public class MilvusService {
     /**
      * Milvus 컬렉션을 삭제합니다. (주의: 모든 데이터가 삭제됩니다.)
      */
-    public void dropCollection() {
-        log.warn("Milvus 컬렉션 '{}'을(를) 삭제합니다. 이 작업은 되돌릴 수 없습니다!", COLLECTION_NAME);
+    private void dropCollection(String collectionName) {
+        log.warn("Milvus 컬렉션 '{}'을(를) 삭제합니다. 이 작업은 되돌릴 수 없습니다!", collectionName);
         try {
             R<RpcStatus> dropCollectionResp = milvusServiceClient.dropCollection(
                     DropCollectionParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
+                            .withCollectionName(collectionName)
                             .build()
             );
             if (dropCollectionResp.getStatus() == R.Status.Success.getCode()) {
-                log.info("컬렉션 '{}' 삭제 성공.", COLLECTION_NAME);
+                log.info("컬렉션 '{}' 삭제 성공.", collectionName);
             } else {
-                log.error("컬렉션 '{}' 삭제 실패: {}", COLLECTION_NAME, dropCollectionResp.getMessage());
+                log.error("컬렉션 '{}' 삭제 실패: {}", collectionName, dropCollectionResp.getMessage());
                 throw new RuntimeException("Milvus 컬렉션 삭제 실패: " + dropCollectionResp.getMessage());
             }
         } catch (Exception e) {
-            log.error("Milvus 컬렉션 '{}' 삭제 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
+            log.error("Milvus 컬렉션 '{}' 삭제 중 예외 발생: {}", collectionName, e.getMessage(), e);
             throw new RuntimeException("Milvus 컬렉션 삭제 중 오류 발생: " + e.getMessage(), e);
         }
     }
-
-    /**
-     * Milvus 컬렉션을 삭제하고 새로 생성합니다.
-     * 이 메서드는 기존 데이터를 모두 지우고 새로운 데이터로 채울 때 사용됩니다.
-     */
-    public void recreateCollection() {
-        log.info("Milvus 컬렉션 '{}'을(를) 재생성합니다. 기존 데이터는 모두 삭제됩니다.", COLLECTION_NAME);
-        try {
-            // 기존 컬렉션 삭제
-            R<Boolean> hasCollectionResp = milvusServiceClient.hasCollection(
-                    HasCollectionParam.newBuilder()
-                            .withCollectionName(COLLECTION_NAME)
-                            .build()
-            );
-
-            if (hasCollectionResp.getData() != null && hasCollectionResp.getData()) {
-                dropCollection();
-            }
-
-            // 새 컬렉션 생성
-            createCollectionIfNotExists();
-            log.info("Milvus 컬렉션 '{}' 재생성 완료.", COLLECTION_NAME);
-        } catch (Exception e) {
-            log.error("Milvus 컬렉션 '{}' 재생성 중 예외 발생: {}", COLLECTION_NAME, e.getMessage(), e);
-            throw new RuntimeException("Milvus 컬렉션 재생성 중 오류 발생: " + e.getMessage(), e);
-        }
-    }
-}
\ No newline at end of file
+}
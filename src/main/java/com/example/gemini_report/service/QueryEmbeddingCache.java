@@ -0,0 +1,81 @@
+package com.example.gemini_report.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * {@code QueryEmbeddingCache}는 회사 정보 검색에 쓰이는 질문 임베딩을 메모리에 보관하는 LRU 캐시입니다.
+ * <p>
+ * "회사 설립 연도가 언제인가요?"와 "회사 설립 연도가 언제인가요"처럼 공백, 대소문자, 문장부호만 다른 질문은
+ * 같은 키로 정규화되어 임베딩 요청 없이 같은 벡터를 사용합니다. 벡터는 {@code float[]}로 저장하며,
+ * {@code embedding.query-cache.max-entries}를 넘으면 가장 오래 사용되지 않은 항목부터 제거합니다.
+ */
+@Component
+public class QueryEmbeddingCache {
+
+    private final Cache<String, float[]> cache;
+
+    public QueryEmbeddingCache(@Value("${embedding.query-cache.max-entries}") long maxEntries) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 유니코드 호환 정규화(NFKC) 후 문장부호를 제거하고, 연속된 공백을 하나로 줄이고, 소문자로 변환합니다.
+     */
+    public static String normalizeQuery(String query) {
+        String normalized = Normalizer.normalize(query == null ? "" : query, Normalizer.Form.NFKC)
+                .replaceAll("\\p{P}+", " ");
+        return ReportCache.normalizePrompt(normalized);
+    }
+
+    /**
+     * 정규화된 질문에 대한 캐시된 벡터를 반환하고, 없으면 {@code embedder}로 임베딩하여 저장합니다.
+     * 같은 질문이 동시에 들어오면 임베딩은 한 번만 요청됩니다.
+     *
+     * @param query    사용자 질문
+     * @param embedder 캐시 미스일 때 질문을 임베딩하는 함수
+     * @return 질문 임베딩 벡터
+     */
+    public float[] get(String query, Function<String, float[]> embedder) {
+        try {
+            return cache.get(normalizeQuery(query), () -> embedder.apply(query));
+        } catch (ExecutionException e) {
+            throw new RuntimeException("질문 임베딩에 실패했습니다.", e.getCause());
+        }
+    }
+
+    /**
+     * 캐시에 있는 질문 벡터를 최대 {@code limit}개 반환합니다. 적중/미스 통계와 LRU 순서에는 영향을 주지 않습니다.
+     * 실제 사용자 질문이므로 검색 파라미터 튜닝의 쿼리 표본으로 사용합니다.
+     */
+    public List<float[]> vectors(int limit) {
+        return cache.asMap().values().stream().limit(limit).toList();
+    }
+
+    /**
+     * @return 캐시 크기와 적중/미스 통계
+     */
+    public Map<String, Object> getStats() {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.dto.CompactedStats;
+import com.example.gemini_report.entity.CleaningData;
+import com.example.gemini_report.repository.CleaningStatsView;
+import com.example.gemini_report.repository.ReactiveCleaningDataRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * {@code ReactiveCleaningDataService}는 {@link CleaningDataService}의 조회와 집계를 논블로킹으로 제공합니다.
+ * <p>
+ * 데이터베이스 조회는 {@link ReactiveCleaningDataRepository}(R2DBC)로 수행하므로 결과를 기다리는 동안 스레드를 점유하지 않습니다.
+ * 기간이 {@link CleaningDataColumnStore}의 보관 기간 안이면 블로킹 경로와 마찬가지로 메모리에서 바로 읽고,
+ * 날짜 기본값과 롤업 구간 계획은 {@link CleaningDataService}의 것을 그대로 사용하므로 두 경로의 결과는 같습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveCleaningDataService {
+
+    private final ReactiveCleaningDataRepository repository;
+    private final CleaningDataService cleaningDataService;
+    private final CleaningDataColumnStore columnStore;
+
+    /**
+     * 지정된 기간의 청소 데이터를 시작 시간 순으로 방출합니다.
+     * 원본 행의 보존 기간 이전 구간은 건너뛰므로, 그 구간의 통계는 {@link #compactedStats(String, String)}로 따로 조회해야 합니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @return 청소 데이터 스트림
+     */
+    public Flux<CleaningData> streamCleaningData(String startDate, String endDate) {
+        return Flux.defer(() -> {
+            LocalDateTime start = cleaningDataService.rawDataStart(cleaningDataService.resolveStartDate(startDate)).atStartOfDay();
+            LocalDateTime endExclusive = cleaningDataService.resolveEndDate(endDate).plusDays(1).atStartOfDay();
+            if (columnStore.covers(start)) {
+                return Flux.<CleaningData>create(sink -> {
+                    columnStore.forEach(start, endExclusive, sink::next);
+                    sink.complete();
+                });
+            }
+            return repository.streamByStartTime(start, endExclusive);
+        });
+    }
+
+    /**
+     * {@link CleaningDataService#compactedStats(String, String)}와 같은 결과를 논블로킹으로 방출합니다.
+     *
+     * @return 정리된 구간의 롤업 통계. 기간 전체의 원본 행이 보존 기간 안이면 빈 {@link Mono}
+     */
+    public Mono<CompactedStats> compactedStats(String startDate, String endDate) {
+        return Mono.defer(() -> {
+            LocalDate start = cleaningDataService.resolveStartDate(startDate);
+            LocalDate compactedEnd = cleaningDataService.compactedRangeEnd(start, cleaningDataService.resolveEndDate(endDate));
+            if (compactedEnd == null) {
+                return Mono.empty();
+            }
+            return repository.aggregateByLocation(cleaningDataService.planRollupQuery(
+                            start.atStartOfDay(), compactedEnd.plusDays(1).atStartOfDay(), "location"))
+                    .collectList()
+                    .map(byLocation -> CleaningDataService.toCompactedStats(start, compactedEnd, byLocation));
+        });
+    }
+
+    /**
+     * 지정된 기간의 청소 데이터를 그룹별로 집계합니다.
+     * {@link CleaningDataService#aggregate_cleaning_stats(String, String, String)}와 같은 결과를 논블로킹으로 방출합니다.
+     *
+     * @param startDate 조회할 기간의 시작일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param endDate   조회할 기간의 종료일 (YYYY-MM-DD 형식의 문자열). {@code null} 또는 빈 문자열일 경우 기본값 사용.
+     * @param groupBy   그룹 기준 ({@code location}, {@code day}, {@code week}). 그 외 값은 {@code location}으로 처리합니다.
+     * @return 그룹별 집계 결과 스트림
+     */
+    public Flux<CleaningStatsView> aggregateCleaningStats(String startDate, String endDate, String groupBy) {
+        return Flux.defer(() -> {
+            LocalDateTime start = cleaningDataService.resolveStartDate(startDate).atStartOfDay();
+            LocalDateTime endExclusive = cleaningDataService.resolveEndDate(endDate).plusDays(1).atStartOfDay();
+            if (columnStore.covers(start)) {
+                return Flux.fromIterable(columnStore.aggregate(start, endExclusive, groupBy));
+            }
+            return switch (groupBy == null ? "" : groupBy) {
+                case "day" -> repository.aggregateByDay(cleaningDataService.planRollupQuery(start, endExclusive, "day"));
+                case "week" -> repository.aggregateByWeek(cleaningDataService.planRollupQuery(start, endExclusive, "week"));
+                default -> repository.aggregateByLocation(cleaningDataService.planRollupQuery(start, endExclusive, "location"));
+            };
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.tools.ToolArguments;
+import com.example.gemini_report.tools.ToolCallResult;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.google.genai.types.Content;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ReportCache}는 {@link AgentService}가 생성한 리포트를 정확히 일치하는 요청에 대해 재사용하기 위한 캐시입니다.
+ * <p>
+ * 두 단계의 캐시로 구성됩니다:
+ * <ul>
+ *     <li><b>계획(plan) 캐시</b>: 정규화된 프롬프트 + 오늘 날짜 → 첫 번째 턴에서 모델이 요청한 함수 호출.
+ *         "지난주"처럼 상대적인 날짜 표현이 날짜가 바뀌면 다른 인자로 해석되어야 하므로 날짜를 키에 포함합니다.</li>
+ *     <li><b>리포트 캐시</b>: 정규화된 프롬프트 + 각 턴의 함수 이름/인자 + 도구 실행 결과의 SHA-256 다이제스트 → 최종 리포트 텍스트.
+ *         기반 데이터가 바뀌면 도구 결과 다이제스트가 달라지므로 자동으로 캐시 미스가 발생합니다.</li>
+ * </ul>
+ * 두 캐시 모두 최대 크기와 TTL로 제한되며, 적중/미스 통계를 기록합니다.
+ */
+@Component
+public class ReportCache {
+
+    private final Cache<String, Content> planCache;
+    private final Cache<String, String> reportCache;
+
+    public ReportCache(@Value("${agent.cache.max-size}") long maxSize,
+                       @Value("${agent.cache.ttl-minutes}") long ttlMinutes) {
+        this.planCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.reportCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 프롬프트의 앞뒤 공백을 제거하고, 연속된 공백을 하나로 줄이고, 소문자로 변환합니다.
+     */
+    public static String normalizePrompt(String prompt) {
+        return prompt == null ? "" : prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 같은 프롬프트에 대해 오늘 캐시된 첫 번째 턴(함수 호출)을 반환합니다.
+     *
+     * @return 캐시된 모델 응답 {@link Content}. 없으면 {@code null}
+     */
+    public Content getPlan(String prompt) {
+        return planCache.getIfPresent(planKey(prompt));
+    }
+
+    /**
+     * 첫 번째 턴의 모델 응답을 저장합니다. 함수 호출이 포함된 응답만 저장합니다.
+     */
+    public void putPlan(String prompt, Content modelContent) {
+        boolean hasFunctionCall = modelContent.parts().orElse(List.of()).stream()
+                .anyMatch(part -> part.functionCall().isPresent());
+        if (hasFunctionCall) {
+            planCache.put(planKey(prompt), modelContent);
+        }
+    }
+
+    /**
+     * 이전 턴까지의 키에 이번 턴의 함수 호출과 도구 결과 다이제스트를 이어붙인 새 키를 반환합니다.
+     *
+     * @param previousKey 이전 턴까지의 키. 첫 번째 도구 턴이면 {@code null}
+     * @param results     이번 턴의 도구 실행 결과
+     * @return 이번 턴까지를 반영한 키
+     */
+    public String chainKey(String previousKey, List<ToolCallResult> results) {
+        StringBuilder key = new StringBuilder(previousKey == null ? "" : previousKey);
+        for (ToolCallResult result : results) {
+            key.append('|').append(result.functionName())
+                    .append(ToolArguments.canonicalize(result.args()))
+                    .append('#').append(sha256(result.result()));
+        }
+        return sha256(key.toString());
+    }
+
+    /**
+     * 같은 프롬프트와 같은 도구 호출/결과 체인으로 생성된 리포트를 반환합니다.
+     *
+     * @return 캐시된 리포트 텍스트. 없으면 {@code null}
+     */
+    public String getReport(String prompt, String toolChainKey) {
+        return reportCache.getIfPresent(reportKey(prompt, toolChainKey));
+    }
+
+    public void putReport(String prompt, String toolChainKey, String report) {
+        if (report != null && !report.isEmpty()) {
+            reportCache.put(reportKey(prompt, toolChainKey), report);
+        }
+    }
+
+    /**
+     * @return 계획/리포트 캐시의 크기와 적중/미스 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("plan", toStats(planCache));
+        stats.put("report", toStats(reportCache));
+        return stats;
+    }
+
+    private Map<String, Object> toStats(Cache<?, ?> cache) {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        return stats;
+    }
+
+    private String planKey(String prompt) {
+        return normalizePrompt(prompt) + "|" + LocalDate.now();
+    }
+
+    private String reportKey(String prompt, String toolChainKey) {
+        return normalizePrompt(prompt) + "|" + toolChainKey;
+    }
+
+    private static String sha256(String value) {
+        return Hashing.sha256().hashString(value == null ? "" : value, StandardCharsets.UTF_8).toString();
+    }
+}
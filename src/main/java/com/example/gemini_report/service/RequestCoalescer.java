@@ -0,0 +1,65 @@
+package com.example.gemini_report.service;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@code RequestCoalescer}는 같은 키를 가진 동시 요청들이 하나의 실행을 공유하도록 하는 단일 비행(Single-flight) 구현입니다.
+ * <p>
+ * 처음 도착한 요청(리더)만 실제 작업을 구독하고, 작업이 끝나기 전에 같은 키로 들어온 요청들은
+ * 리더의 {@link Mono}를 함께 구독하여 같은 결과(또는 같은 에러)를 받습니다.
+ * 작업이 끝나면 키가 제거되므로 이후 요청은 새로운 실행을 시작합니다.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * 같은 키로 진행 중인 실행이 있으면 그 결과를 공유하고, 없으면 {@code supplier}로 새 실행을 시작합니다.
+     *
+     * @param key      요청을 식별하는 키
+     * @param supplier 실제 작업을 생성하는 함수 (리더 요청에서만 호출됩니다)
+     * @return 공유된 작업 결과를 방출하는 {@link Mono}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> supplier) {
+        return Mono.defer(() -> {
+            Mono<?>[] created = new Mono<?>[1];
+            Mono<?> shared = inFlight.computeIfAbsent(key, k -> {
+                Mono<T> mono = supplier.get()
+                        .doFinally(signal -> inFlight.remove(k, created[0]))
+                        .cache();
+                created[0] = mono;
+                return mono;
+            });
+            if (shared == created[0]) {
+                leaders.incrementAndGet();
+            } else {
+                coalesced.incrementAndGet();
+            }
+            return (Mono<T>) shared;
+        });
+    }
+
+    /**
+     * @return 실제 실행을 시작한 리더 요청 수
+     */
+    public long getLeaders() {
+        return leaders.get();
+    }
+
+    /**
+     * @return 진행 중인 실행에 합류하여 결과를 공유한 요청 수
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.gemini_report.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.BreakIterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code TextChunker}는 긴 텍스트를 임베딩과 Milvus 저장에 알맞은 크기의 청크로 나눕니다.
+ * <p>
+ * 분할 규칙:
+ * <ul>
+ *     <li>텍스트를 줄바꿈과 문장 경계({@link BreakIterator})로 나눈 문장 단위로 청크를 채웁니다.</li>
+ *     <li>한 문장이 청크 크기를 넘으면 공백(토큰) 경계로, 한 토큰이 넘으면 문자 경계로 나눕니다.</li>
+ *     <li>청크 크기는 UTF-8 바이트 기준이며 Milvus VARCHAR 필드의 최대 길이({@code milvus.text.max-length})를 넘지 않아야 합니다.</li>
+ *     <li>다음 청크는 이전 청크의 마지막 문장들({@code ingest.company-info.chunk-overlap-bytes} 이내)로 시작하여,
+ *     청크 경계에 걸친 내용도 검색될 수 있도록 합니다.</li>
+ * </ul>
+ * 문서 단위 증분 갱신에는 빈 줄로 구분된 섹션마다 따로 나누는 {@link #splitSections(String)}를 사용하여,
+ * 한 섹션을 고쳐도 다른 섹션의 청크 경계가 바뀌지 않도록 합니다.
+ */
+@Component
+public class TextChunker {
+
+    private final int maxBytes;
+    private final int overlapBytes;
+
+    public TextChunker(@Value("${ingest.company-info.chunk-max-bytes}") int maxBytes,
+                       @Value("${ingest.company-info.chunk-overlap-bytes}") int overlapBytes,
+                       @Value("${milvus.text.max-length}") int maxTextLength) {
+        if (maxBytes > maxTextLength) {
+            throw new IllegalArgumentException("청크 최대 크기(" + maxBytes + ")가 milvus.text.max-length(" + maxTextLength + ")보다 큽니다.");
+        }
+        if (overlapBytes < 0 || overlapBytes >= maxBytes) {
+            throw new IllegalArgumentException("청크 겹침 크기(" + overlapBytes + ")는 0 이상, 청크 최대 크기 미만이어야 합니다.");
+        }
+        this.maxBytes = maxBytes;
+        this.overlapBytes = overlapBytes;
+    }
+
+    /**
+     * 텍스트를 겹치는 청크로 나눕니다.
+     *
+     * @param text 나눌 텍스트
+     * @return 청크 목록 (입력이 비어있으면 빈 목록)
+     */
+    public List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+        Deque<String> current = new ArrayDeque<>();
+        int currentBytes = 0;
+        for (String unit : units(text)) {
+            int unitBytes = bytes(unit);
+            if (!current.isEmpty() && currentBytes + 1 + unitBytes > maxBytes) {
+                chunks.add(String.join(" ", current));
+                // 이전 청크의 마지막 문장들 중 겹침 크기 이내이면서 다음 문장과 함께 청크에 들어가는 만큼을 남깁니다.
+                Deque<String> overlap = new ArrayDeque<>();
+                int overlapSize = 0;
+                for (Iterator<String> it = current.descendingIterator(); it.hasNext(); ) {
+                    String previous = it.next();
+                    int size = overlapSize + bytes(previous) + (overlap.isEmpty() ? 0 : 1);
+                    if (size > overlapBytes || size + 1 + unitBytes > maxBytes) {
+                        break;
+                    }
+                    overlap.addFirst(previous);
+                    overlapSize = size;
+                }
+                current = overlap;
+                currentBytes = overlapSize;
+            }
+            currentBytes += (current.isEmpty() ? 0 : 1) + unitBytes;
+            current.addLast(unit);
+        }
+        if (!current.isEmpty()) {
+            chunks.add(String.join(" ", current));
+        }
+        return chunks;
+    }
+
+    /**
+     * 텍스트를 빈 줄로 구분된 섹션으로 나눈 뒤 섹션마다 {@link #split(String)}으로 청크를 만듭니다.
+     * 청크와 겹침은 섹션을 넘지 않으므로, 한 섹션의 변경은 그 섹션의 청크에만 영향을 줍니다.
+     *
+     * @param text 나눌 텍스트
+     * @return 청크 목록 (입력이 비어있으면 빈 목록)
+     */
+    public List<String> splitSections(String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+        for (String section : text.split("\\R\\s*\\R")) {
+            chunks.addAll(split(section));
+        }
+        return chunks;
+    }
+
+    // 텍스트를 청크 크기 이하의 문장 단위로 나눕니다.
+    private List<String> units(String text) {
+        List<String> units = new ArrayList<>();
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.KOREAN);
+        for (String paragraph : text.split("\\R+")) {
+            sentences.setText(paragraph);
+            int start = sentences.first();
+            for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+                String sentence = paragraph.substring(start, end).strip();
+                if (sentence.isEmpty()) {
+                    continue;
+                }
+                if (bytes(sentence) <= maxBytes) {
+                    units.add(sentence);
+                } else {
+                    splitLongSentence(sentence, units);
+                }
+            }
+        }
+        return units;
+    }
+
+    // 청크 크기를 넘는 문장을 공백 경계로, 공백 없이 긴 토큰은 문자 경계로 나눕니다.
+    private void splitLongSentence(String sentence, List<String> units) {
+        StringBuilder piece = new StringBuilder();
+        for (String token : sentence.split("\\s+")) {
+            if (bytes(token) > maxBytes) {
+                if (!piece.isEmpty()) {
+                    units.add(piece.toString());
+                    piece.setLength(0);
+                }
+                splitLongToken(token, units);
+                continue;
+            }
+            if (!piece.isEmpty() && bytes(piece.toString()) + 1 + bytes(token) > maxBytes) {
+                units.add(piece.toString());
+                piece.setLength(0);
+            }
+            if (!piece.isEmpty()) {
+                piece.append(' ');
+            }
+            piece.append(token);
+        }
+        if (!piece.isEmpty()) {
+            units.add(piece.toString());
+        }
+    }
+
+    private void splitLongToken(String token, List<String> units) {
+        StringBuilder piece = new StringBuilder();
+        int pieceBytes = 0;
+        for (int i = 0; i < token.length(); ) {
+            int codePoint = token.codePointAt(i);
+            int codePointBytes = bytes(new String(Character.toChars(codePoint)));
+            if (pieceBytes + codePointBytes > maxBytes) {
+                units.add(piece.toString());
+                piece.setLength(0);
+                pieceBytes = 0;
+            }
+            piece.appendCodePoint(codePoint);
+            pieceBytes += codePointBytes;
+            i += Character.charCount(codePoint);
+        }
+        if (!piece.isEmpty()) {
+            units.add(piece.toString());
+        }
+    }
+
+    private static int bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
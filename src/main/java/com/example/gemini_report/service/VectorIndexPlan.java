@@ -0,0 +1,40 @@
+package com.example.gemini_report.service;
+
+import io.milvus.param.IndexType;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Milvus 벡터 인덱스 구성과 그 인덱스의 검색 파라미터입니다.
+ *
+ * @param indexType          인덱스 타입
+ * @param buildParams        인덱스 생성 파라미터 (예: {@code nlist}, {@code M}, {@code efConstruction})
+ * @param searchParam        검색 정확도를 조절하는 파라미터 이름 ({@code nprobe} 또는 {@code ef}). FLAT 계열이면 null
+ * @param defaultSearchValue 튜닝 전에 사용할 검색 파라미터 값
+ * @param maxSearchValue     검색 파라미터의 최대값. 튜닝 시 기준 결과를 만드는 데 사용합니다.
+ */
+public record VectorIndexPlan(IndexType indexType, Map<String, Integer> buildParams, String searchParam,
+                              int defaultSearchValue, int maxSearchValue) {
+
+    /**
+     * @return 인덱스 생성 요청의 extra param JSON
+     */
+    public String extraParam() {
+        return toJson(buildParams);
+    }
+
+    /**
+     * @param value 검색 파라미터 값. 검색 파라미터가 없는 인덱스면 무시됩니다.
+     * @return 검색 요청의 params JSON
+     */
+    public String searchParams(int value) {
+        return searchParam == null ? "{}" : toJson(Map.of(searchParam, value));
+    }
+
+    private static String toJson(Map<String, Integer> params) {
+        return params.entrySet().stream()
+                .map(entry -> "\"" + entry.getKey() + "\":" + entry.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+}
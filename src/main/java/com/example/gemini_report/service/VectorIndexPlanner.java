@@ -0,0 +1,134 @@
+package com.example.gemini_report.service;
+
+import io.milvus.param.IndexType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@code VectorIndexPlanner}는 컬렉션의 행 수와 인덱스 프로필({@code milvus.index.profile})로 Milvus 벡터 인덱스 구성을 정합니다.
+ * <p>
+ * 프로필:
+ * <ul>
+ *     <li>{@code FLAT}: 완전 탐색. 정확하며 작은 컬렉션에서는 가장 빠릅니다.</li>
+ *     <li>{@code IVF_FLAT}, {@code IVF_SQ8}: 클러스터({@code nlist})로 나누어 {@code nprobe}개만 탐색합니다. SQ8은 벡터를 8비트로 양자화하여 메모리를 1/4로 줄입니다.
+ *     {@code nlist}는 행 수의 제곱근의 4배이며 행 수를 넘지 않습니다.</li>
+ *     <li>{@code HNSW}: 그래프 인덱스({@code milvus.index.hnsw.m}, {@code milvus.index.hnsw.ef-construction}). 큰 컬렉션에서 지연 시간이 가장 짧습니다.</li>
+ *     <li>{@code AUTO}: 행 수가 {@code milvus.index.auto.flat-max-rows} 이하이면 FLAT, {@code milvus.index.auto.ivf-max-rows} 이하이면 IVF_FLAT, 그 이상이면 HNSW.</li>
+ * </ul>
+ * 이진 벡터({@link VectorStorage#BINARY})는 FLAT이면 BIN_FLAT, 그 외에는 BIN_IVF_FLAT을 사용합니다.
+ */
+@Component
+public class VectorIndexPlanner {
+
+    public static final String AUTO = "AUTO";
+    private static final int MAX_NLIST = 65536;
+    private static final Pattern PARAM_PATTERN = Pattern.compile("\"?(\\w+)\"?\\s*:\\s*\"?(\\d+)\"?");
+
+    private final String profile;
+    private final long flatMaxRows;
+    private final long ivfMaxRows;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int defaultNprobe;
+    private final int defaultEf;
+    private final int maxEf;
+    private final VectorStorage storage;
+
+    public VectorIndexPlanner(@Value("${milvus.index.profile}") String profile,
+                              @Value("${milvus.index.auto.flat-max-rows}") long flatMaxRows,
+                              @Value("${milvus.index.auto.ivf-max-rows}") long ivfMaxRows,
+                              @Value("${milvus.index.hnsw.m}") int hnswM,
+                              @Value("${milvus.index.hnsw.ef-construction}") int hnswEfConstruction,
+                              @Value("${milvus.search.nprobe}") int defaultNprobe,
+                              @Value("${milvus.search.ef}") int defaultEf,
+                              @Value("${milvus.search.tuning.max-ef}") int maxEf,
+                              @Value("${milvus.vector.storage}") VectorStorage storage) {
+        if (!profile.equals(AUTO) && !profile.equals(IndexType.FLAT.name()) && !profile.equals(IndexType.IVF_FLAT.name())
+                && !profile.equals(IndexType.IVF_SQ8.name()) && !profile.equals(IndexType.HNSW.name())) {
+            throw new IllegalArgumentException("지원하지 않는 인덱스 프로필입니다: " + profile);
+        }
+        this.profile = profile;
+        this.flatMaxRows = flatMaxRows;
+        this.ivfMaxRows = ivfMaxRows;
+        this.hnswM = hnswM;
+        this.hnswEfConstruction = hnswEfConstruction;
+        this.defaultNprobe = defaultNprobe;
+        this.defaultEf = defaultEf;
+        this.maxEf = maxEf;
+        this.storage = storage;
+    }
+
+    /**
+     * 행 수에 맞는 인덱스 구성을 정합니다.
+     *
+     * @param rows 컬렉션의 (예상) 행 수
+     */
+    public VectorIndexPlan plan(long rows) {
+        IndexType indexType = switch (profile) {
+            case AUTO -> rows <= flatMaxRows ? IndexType.FLAT : rows <= ivfMaxRows ? IndexType.IVF_FLAT : IndexType.HNSW;
+            default -> IndexType.valueOf(profile);
+        };
+        if (storage == VectorStorage.BINARY) {
+            indexType = indexType == IndexType.FLAT ? IndexType.BIN_FLAT : IndexType.BIN_IVF_FLAT;
+        }
+        return switch (indexType) {
+            case IVF_FLAT, IVF_SQ8, BIN_IVF_FLAT -> ivf(indexType, nlist(rows));
+            case HNSW -> new VectorIndexPlan(indexType, Map.of("M", hnswM, "efConstruction", hnswEfConstruction), "ef", defaultEf, maxEf);
+            default -> new VectorIndexPlan(indexType, Map.of(), null, 0, 0);
+        };
+    }
+
+    /**
+     * 현재 인덱스를 새 구성으로 다시 만들어야 하는지 판단합니다.
+     * 인덱스 타입이 바뀌었거나, IVF 계열에서 {@code nlist}가 두 배 이상 차이 나면 다시 만듭니다.
+     */
+    public boolean needsRebuild(VectorIndexPlan current, VectorIndexPlan planned) {
+        if (current == null || current.indexType() != planned.indexType()) {
+            return true;
+        }
+        Integer currentNlist = current.buildParams().get("nlist");
+        Integer plannedNlist = planned.buildParams().get("nlist");
+        if (currentNlist == null || plannedNlist == null) {
+            return false;
+        }
+        return Math.max(currentNlist, plannedNlist) >= 2 * Math.min(currentNlist, plannedNlist);
+    }
+
+    /**
+     * Milvus에서 조회한 인덱스 설명(인덱스 타입과 파라미터)으로 인덱스 구성을 복원합니다.
+     *
+     * @param indexType Milvus 인덱스 타입 이름
+     * @param params    인덱스 파라미터 키-값. {@code params} 키의 JSON도 풀어서 읽습니다.
+     */
+    public VectorIndexPlan fromDescription(String indexType, Map<String, String> params) {
+        Map<String, Integer> values = new HashMap<>();
+        params.forEach((key, value) -> {
+            Matcher matcher = PARAM_PATTERN.matcher(key.equals("params") ? value : "\"" + key + "\":" + value);
+            while (matcher.find()) {
+                values.put(matcher.group(1), Integer.parseInt(matcher.group(2)));
+            }
+        });
+        IndexType type = IndexType.valueOf(indexType);
+        return switch (type) {
+            case IVF_FLAT, IVF_SQ8, BIN_IVF_FLAT -> ivf(type, values.getOrDefault("nlist", 1));
+            case HNSW -> new VectorIndexPlan(type, Map.of("M", values.getOrDefault("M", hnswM),
+                    "efConstruction", values.getOrDefault("efConstruction", hnswEfConstruction)), "ef", defaultEf, maxEf);
+            default -> new VectorIndexPlan(type, Map.of(), null, 0, 0);
+        };
+    }
+
+    private VectorIndexPlan ivf(IndexType indexType, int nlist) {
+        return new VectorIndexPlan(indexType, Map.of("nlist", nlist), "nprobe", Math.min(defaultNprobe, nlist), nlist);
+    }
+
+    // 행 수의 제곱근의 4배. 비어있거나 작은 컬렉션에서 nlist가 행 수를 넘지 않도록 합니다.
+    private static int nlist(long rows) {
+        long nlist = Math.min(Math.round(4 * Math.sqrt(rows)), rows);
+        return (int) Math.max(1, Math.min(MAX_NLIST, nlist));
+    }
+}
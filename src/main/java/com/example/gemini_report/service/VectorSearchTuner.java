@@ -0,0 +1,167 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.event.VectorIndexChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code VectorSearchTuner}는 {@link VectorStore}의 현재 인덱스의 검색 파라미터(IVF 계열의 {@code nprobe}, HNSW의 {@code ef})를
+ * 목표 재현율({@code milvus.search.tuning.target-recall})을 만족하는 가장 작은 값으로 정합니다.
+ * <p>
+ * 절차:
+ * <ol>
+ *     <li>쿼리 표본: {@link QueryEmbeddingCache}의 실제 사용자 질문 벡터를 우선 사용하고, 부족하면 저장된 청크 벡터로 채웁니다.
+ *     저장된 청크 벡터는 인덱스 안에 있어 자기 자신을 항상 찾으므로, 기준 결과와 후보 결과 모두에서 자기 청크 ID를 제외하고 top-k를 비교합니다.</li>
+ *     <li>기준 결과: 파라미터 최대값(IVF는 {@code nprobe = nlist}, HNSW는 {@code milvus.search.tuning.max-ef} 또는 {@code vector.embedded.search.max-ef})으로 검색한 top-k.
+ *     IVF_FLAT에서는 완전 탐색과 같고, 양자화 인덱스에서는 그 인덱스가 낼 수 있는 최선의 결과입니다.</li>
+ *     <li>후보 값을 두 배씩 늘려가며 쿼리별 재현율 평균과 지연 시간 중앙값을 측정하고,
+ *     목표 재현율을 만족하는 가장 작은 후보 값을 {@link VectorStore#applySearchParam(int)}로 적용합니다.
+ *     지연 시간은 측정 잡음이 커서 선택에 쓰지 않고 결과에만 포함합니다.</li>
+ * </ol>
+ * {@code milvus.search.tuning.on-rebuild=true}이면 재색인이나 인덱스 재구성 뒤에 백그라운드에서 자동으로 실행됩니다.
+ * 임베디드 저장소에서는 HNSW의 {@code ef}를 같은 방식으로 튜닝합니다.
+ */
+@Service
+@Slf4j
+public class VectorSearchTuner {
+
+    private final VectorStore vectorStore;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final double targetRecall;
+    private final int sampleSize;
+    private final int topK;
+    private final boolean onRebuild;
+
+    public VectorSearchTuner(VectorStore vectorStore,
+                             QueryEmbeddingCache queryEmbeddingCache,
+                             @Value("${milvus.search.tuning.target-recall}") double targetRecall,
+                             @Value("${milvus.search.tuning.sample-size}") int sampleSize,
+                             @Value("${milvus.search.tuning.top-k}") int topK,
+                             @Value("${milvus.search.tuning.on-rebuild}") boolean onRebuild) {
+        this.vectorStore = vectorStore;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.targetRecall = targetRecall;
+        this.sampleSize = sampleSize;
+        this.topK = topK;
+        this.onRebuild = onRebuild;
+    }
+
+    @EventListener(VectorIndexChangedEvent.class)
+    public void onIndexChanged() {
+        if (onRebuild) {
+            Schedulers.boundedElastic().schedule(() -> {
+                try {
+                    tune();
+                } catch (Exception e) {
+                    log.warn("인덱스 변경 후 검색 파라미터 튜닝 실패: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 검색 파라미터를 튜닝하고 적용합니다.
+     *
+     * @return 인덱스 정보, 후보별 재현율/지연 시간, 선택된 값
+     */
+    public synchronized Map<String, Object> tune() {
+        VectorIndexPlan plan = vectorStore.getIndexPlan();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("indexType", plan.indexType().name());
+        result.put("targetRecall", targetRecall);
+        if (plan.searchParam() == null) {
+            result.put("message", "완전 탐색 인덱스이므로 튜닝할 검색 파라미터가 없습니다.");
+            return result;
+        }
+
+        List<Query> queries = new ArrayList<>();
+        queryEmbeddingCache.vectors(sampleSize).forEach(vector -> queries.add(new Query(vector, null)));
+        if (queries.size() < sampleSize) {
+            vectorStore.sampleVectors(sampleSize - queries.size()).forEach((id, vector) -> queries.add(new Query(vector, id)));
+        }
+        if (queries.isEmpty()) {
+            result.put("message", "튜닝에 사용할 쿼리 표본이 없습니다.");
+            return result;
+        }
+
+        int max = plan.maxSearchValue();
+        List<Set<Object>> reference = new ArrayList<>(queries.size());
+        for (Query query : queries) {
+            reference.add(query.ids(vectorStore, topK, max));
+        }
+
+        List<Map<String, Object>> sweep = new ArrayList<>();
+        Integer chosen = null;
+        for (int value : candidates(plan, max)) {
+            double recallSum = 0;
+            double[] latencies = new double[queries.size()];
+            for (int q = 0; q < queries.size(); q++) {
+                long started = System.nanoTime();
+                Set<Object> found = queries.get(q).ids(vectorStore, topK, value);
+                latencies[q] = (System.nanoTime() - started) / 1_000_000.0;
+                Set<Object> expected = reference.get(q);
+                found.retainAll(expected);
+                recallSum += expected.isEmpty() ? 1.0 : (double) found.size() / expected.size();
+            }
+            Arrays.sort(latencies);
+            double recall = recallSum / queries.size();
+            double latency = latencies[latencies.length / 2];
+            sweep.add(Map.of(plan.searchParam(), value, "recall", recall, "p50Ms", latency));
+            // 후보는 오름차순이므로 목표를 처음 만족하는 값이 가장 작은 값입니다.
+            if (chosen == null && recall >= targetRecall) {
+                chosen = value;
+            }
+        }
+        if (chosen == null) {
+            chosen = max;
+        }
+
+        vectorStore.applySearchParam(chosen);
+        result.put("searchParam", plan.searchParam());
+        result.put("queries", queries.size());
+        result.put("sweep", sweep);
+        result.put("chosen", chosen);
+        log.info("검색 파라미터 튜닝 완료: {} {}={} (쿼리 {}개, 목표 재현율 {})",
+                plan.indexType(), plan.searchParam(), chosen, queries.size(), targetRecall);
+        return result;
+    }
+
+    // 1(HNSW는 top-k + 1)부터 두 배씩 늘린 값과 최대값. Milvus의 HNSW는 ef가 검색 개수보다 작으면 거절하므로,
+    // 자기 자신을 제외하려고 하나 더 검색하는 쿼리까지 고려해 top-k + 1부터 시작합니다.
+    private List<Integer> candidates(VectorIndexPlan plan, int max) {
+        List<Integer> values = new ArrayList<>();
+        for (int value = plan.searchParam().equals("ef") ? topK + 1 : 1; value < max; value *= 2) {
+            values.add(value);
+        }
+        values.add(max);
+        return values;
+    }
+
+    // 튜닝 쿼리. 저장된 청크 벡터이면 selfId는 그 청크의 ID이고, 실제 질문 벡터이면 null입니다.
+    private record Query(float[] vector, Object selfId) {
+
+        // 자기 자신을 제외한 상위 topK개의 ID. 자기 자신이 결과에 포함될 것을 고려해 하나 더 검색합니다.
+        Set<Object> ids(VectorStore vectorStore, int topK, int searchValue) {
+            List<Map<String, Object>> results = vectorStore.search(vector, selfId == null ? topK : topK + 1, searchValue);
+            Set<Object> ids = new HashSet<>();
+            for (Map<String, Object> result : results) {
+                Object id = result.get("id");
+                if (ids.size() < topK && (selfId == null || !selfId.equals(String.valueOf(id)))) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        }
+    }
+}
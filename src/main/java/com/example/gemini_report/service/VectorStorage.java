@@ -0,0 +1,138 @@
+package com.example.gemini_report.service;
+
+import io.milvus.grpc.DataType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Milvus 벡터 필드의 저장 방식({@code milvus.vector.storage})과 {@code float[]} 임베딩을 그 형식으로 인코딩하는 방법입니다.
+ * <ul>
+ *     <li>{@link #FLOAT}: 32비트 float. SDK가 요구하는 {@code List<Float>}는 배열을 복사하지 않는 읽기 전용 뷰로 전달합니다.</li>
+ *     <li>{@link #FLOAT16}: 16비트 반정밀도. 저장 공간과 전송량이 절반이며, 박싱 없이 {@link ByteBuffer}로 전달합니다.</li>
+ *     <li>{@link #BINARY}: 차원마다 부호 1비트만 저장하는 이진 양자화. 저장 공간이 1/32이며 해밍 거리로 검색합니다.</li>
+ * </ul>
+ */
+public enum VectorStorage {
+
+    FLOAT(DataType.FloatVector) {
+        @Override
+        public Object encode(float[] vector) {
+            return asList(vector);
+        }
+
+        @Override
+        public float[] decode(Object stored) {
+            List<?> values = (List<?>) stored;
+            float[] vector = new float[values.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = ((Number) values.get(i)).floatValue();
+            }
+            return vector;
+        }
+    },
+    FLOAT16(DataType.Float16Vector) {
+        @Override
+        public Object encode(float[] vector) {
+            // Milvus는 float16 벡터를 리틀 엔디언 바이트열로 받습니다.
+            ByteBuffer buffer = ByteBuffer.allocate(vector.length * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (float value : vector) {
+                buffer.putShort(Float.floatToFloat16(value));
+            }
+            return buffer.rewind();
+        }
+
+        @Override
+        public float[] decode(Object stored) {
+            ByteBuffer buffer = ((ByteBuffer) stored).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            float[] vector = new float[buffer.remaining() / Short.BYTES];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = Float.float16ToFloat(buffer.getShort());
+            }
+            return vector;
+        }
+    },
+    BINARY(DataType.BinaryVector) {
+        @Override
+        public Object encode(float[] vector) {
+            return ByteBuffer.wrap(signBits(vector));
+        }
+
+        // 부호만 남아있으므로 각 차원을 ±1/sqrt(차원)으로 복원합니다. 다시 인코딩하면 같은 비트가 됩니다.
+        @Override
+        public float[] decode(Object stored) {
+            ByteBuffer buffer = ((ByteBuffer) stored).duplicate();
+            float[] vector = new float[buffer.remaining() * 8];
+            float magnitude = (float) (1 / Math.sqrt(vector.length));
+            for (int i = 0; i < vector.length; i++) {
+                boolean positive = (buffer.get(buffer.position() + (i >> 3)) & (0x80 >>> (i & 7))) != 0;
+                vector[i] = positive ? magnitude : -magnitude;
+            }
+            return vector;
+        }
+    };
+
+    private final DataType dataType;
+
+    VectorStorage(DataType dataType) {
+        this.dataType = dataType;
+    }
+
+    /**
+     * @return Milvus 벡터 필드 타입
+     */
+    public DataType dataType() {
+        return dataType;
+    }
+
+    /**
+     * 임베딩을 이 저장 방식의 Milvus SDK 입력 형식({@code List<Float>} 또는 {@link ByteBuffer})으로 변환합니다.
+     */
+    public abstract Object encode(float[] vector);
+
+    /**
+     * Milvus에서 읽은 벡터 값을 {@code float[]}로 복원합니다. 양자화된 저장 방식은 근사값입니다.
+     */
+    public abstract float[] decode(Object stored);
+
+    /**
+     * 배열을 복사하지 않는 읽기 전용 {@code List<Float>} 뷰를 반환합니다. 원소는 읽을 때 박싱됩니다.
+     */
+    public static List<Float> asList(float[] vector) {
+        return new FloatArrayList(vector);
+    }
+
+    /**
+     * 각 차원의 부호(0 초과이면 1)를 차원 순서대로 바이트의 최상위 비트부터 채웁니다.
+     */
+    public static byte[] signBits(float[] vector) {
+        byte[] bits = new byte[(vector.length + 7) / 8];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0) {
+                bits[i >> 3] |= (byte) (0x80 >>> (i & 7));
+            }
+        }
+        return bits;
+    }
+
+    private static final class FloatArrayList extends AbstractList<Float> implements RandomAccess {
+        private final float[] values;
+
+        private FloatArrayList(float[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Float get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gemini_report.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회사 문서 청크를 저장하고 유사 벡터를 검색하는 벡터 저장소입니다.
+ * <p>
+ * 구현은 {@code vector.store} 속성으로 선택합니다.
+ * <ul>
+ *     <li>{@code milvus}: {@link MilvusService}. 외부 Milvus 서버(etcd, MinIO 포함)에 세대 컬렉션과 별칭으로 저장합니다.</li>
+ *     <li>{@code embedded}: {@link EmbeddedVectorStore}. 메모리 매핑된 파일 위의 프로세스 내 HNSW 인덱스로, 외부 서비스 없이 동작합니다.</li>
+ * </ul>
+ * 검색 결과는 {@code id}(청크 ID), {@code score}(유사도, {@link Float}), {@code original_text}(청크 텍스트) 키를 가진 맵입니다.
+ * {@code score}는 구현과 거리 지표(코사인, L2, 해밍 등)에 관계없이 항상 0~1 범위의 유사도(1이 가장 유사)이므로,
+ * 호출하는 쪽은 하나의 임계값으로 결과를 비교할 수 있습니다.
+ */
+public interface VectorStore {
+
+    /**
+     * 문서 ID의 최대 길이입니다.
+     */
+    int DOC_ID_MAX_LENGTH = 128;
+
+    /**
+     * 저장소가 현재 설정의 스키마인지 확인합니다. false이면 증분 반영 대신 {@link #reindex(List)}로 다시 적재해야 합니다.
+     */
+    boolean hasCurrentSchema();
+
+    /**
+     * 문서에 저장된 청크의 ID와 내용 해시를 조회합니다.
+     *
+     * @param docId 문서 ID
+     * @return 청크 ID -> 내용 해시
+     */
+    Map<String, String> findChunkHashes(String docId);
+
+    /**
+     * 청크를 저장합니다. 같은 청크 ID가 있으면 교체됩니다.
+     *
+     * @param chunks 저장할 청크
+     * @return 보낸 쓰기 요청 수
+     */
+    int upsert(List<CompanyChunk> chunks);
+
+    /**
+     * 청크 ID로 청크를 삭제합니다.
+     *
+     * @param chunkIds 삭제할 청크 ID
+     * @return 보낸 삭제 요청 수
+     */
+    int delete(Collection<String> chunkIds);
+
+    /**
+     * 문서의 모든 청크를 삭제합니다.
+     *
+     * @param docId 문서 ID
+     */
+    void deleteDocument(String docId);
+
+    /**
+     * 저장된 모든 청크를 주어진 청크로 교체합니다. 새 인덱스를 다 만든 뒤 전환하므로 그동안에도 이전 데이터로 검색할 수 있습니다.
+     *
+     * @param chunks 적재할 전체 청크
+     * @return 보낸 쓰기 요청 수
+     */
+    int reindex(List<CompanyChunk> chunks);
+
+    /**
+     * 증분 변경 뒤 현재 인덱스가 데이터에 맞지 않으면(행 수 기준 초과, 삭제 누적 등) 인덱스를 다시 만듭니다.
+     *
+     * @return 인덱스를 다시 만들었으면 true
+     */
+    boolean rebuildIndexIfNeeded();
+
+    /**
+     * 주어진 쿼리 벡터와 가장 유사한 청크를 검색합니다.
+     *
+     * @param queryVector 검색할 쿼리 임베딩 벡터
+     * @param topK        가장 유사한 상위 K개의 결과를 반환
+     * @return 검색 결과 리스트 (청크 ID, 원본 텍스트와 유사도 점수 포함)
+     */
+    List<Map<String, Object>> search(float[] queryVector, int topK);
+
+    /**
+     * 검색 파라미터 값(nprobe 또는 ef)을 지정하여 검색합니다. {@link VectorSearchTuner}가 파라미터별 재현율과 지연 시간을 잴 때 사용합니다.
+     */
+    List<Map<String, Object>> search(float[] queryVector, int topK, int searchValue);
+
+    /**
+     * @return 현재 인덱스 구성
+     */
+    VectorIndexPlan getIndexPlan();
+
+    /**
+     * 이후 검색에 사용할 검색 파라미터 값(nprobe 또는 ef)을 지정합니다. {@link VectorSearchTuner}가 튜닝 결과를 반영할 때 사용합니다.
+     */
+    void applySearchParam(int value);
+
+    /**
+     * 저장된 청크 벡터를 최대 {@code limit}개 읽어 {@code float[]}로 반환합니다. 검색 파라미터 튜닝의 쿼리 표본으로 사용합니다.
+     * 이 벡터로 검색하면 자기 자신이 항상 먼저 찾아지므로, 튜닝은 청크 ID로 자기 자신을 결과에서 제외합니다.
+     *
+     * @return 청크 ID -> 벡터
+     */
+    Map<String, float[]> sampleVectors(int limit);
+
+    /**
+     * @return 현재 인덱스 구성, 검색 파라미터 값, 행 수
+     */
+    Map<String, Object> getIndexStatus();
+}
@@ -0,0 +1,97 @@
+package com.example.gemini_report.tools;
+
+import com.example.gemini_report.dto.CleaningStatsPayload;
+import com.example.gemini_report.dto.CompactedStats;
+import com.example.gemini_report.dto.GroupStats;
+import com.example.gemini_report.dto.MetricStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 집계된 청소 통계와 모델이 생성한 구조화된 인사이트(JSON)를 조합하여 마크다운 리포트를 렌더링합니다.
+ * <p>
+ * 표와 수치는 실제 데이터로부터 서버에서 직접 계산하고, 모델은 요약/주요 사항/장소별 코멘트만 작성합니다.
+ * 따라서 모델 출력 토큰이 줄어들고, 긴 리포트가 {@code maxOutputTokens}에 의해 잘리는 문제가 없습니다.
+ */
+@Component
+public class CleaningReportMarkdownRenderer {
+
+    /**
+     * 마크다운 리포트를 렌더링합니다.
+     *
+     * @param payload  집계된 청소 통계
+     * @param insights 모델이 생성한 인사이트 JSON ({@code summary}, {@code highlights}, {@code locationNotes}).
+     *                 파싱에 실패했으면 {@code null}
+     * @param rawText  인사이트 JSON 파싱에 실패했을 때 요약 대신 보여줄 모델 원문
+     * @return 마크다운 리포트
+     */
+    public String render(CleaningStatsPayload payload, JsonNode insights, String rawText) {
+        Map<String, String> notes = new TreeMap<>();
+        if (insights != null) {
+            for (JsonNode note : insights.path("locationNotes")) {
+                notes.put(note.path("location").asText(), note.path("note").asText());
+            }
+        }
+
+        StringBuilder md = new StringBuilder();
+        md.append("# 청소 리포트 (").append(payload.getStartDate()).append(" ~ ").append(payload.getEndDate()).append(")\n\n");
+
+        md.append("## 요약\n\n");
+        md.append(insights != null ? insights.path("summary").asText() : rawText).append("\n\n");
+
+        md.append("## 전체 현황\n\n");
+        md.append("| 청소 횟수 | 총 청소 시간(분) | 총 청소 면적(㎡) | 총 물 사용량(L) | 총 전력 사용량(kWh) |\n");
+        md.append("|---:|---:|---:|---:|---:|\n");
+        GroupStats overall = payload.getOverall();
+        md.append(String.format(Locale.ROOT, "| %d | %.0f | %.1f | %.1f | %.2f |%n%n",
+                overall.getCount(), sum(overall, "duration"), sum(overall, "areaCleaned"),
+                sum(overall, "waterUsage"), sum(overall, "powerUsage")));
+
+        md.append("## 장소별 현황\n\n");
+        md.append("| 장소 | 청소 횟수 | 청소 시간(분) | 청소 면적(㎡) | 물 사용량(L) | 전력 사용량(kWh) | 비고 |\n");
+        md.append("|---|---:|---:|---:|---:|---:|---|\n");
+        for (GroupStats location : payload.getByLocation()) {
+            md.append(String.format(Locale.ROOT, "| %s | %d | %.0f | %.1f | %.1f | %.2f | %s |%n",
+                    location.getKey(), location.getCount(), sum(location, "duration"), sum(location, "areaCleaned"),
+                    sum(location, "waterUsage"), sum(location, "powerUsage"),
+                    notes.getOrDefault(location.getKey(), "")));
+        }
+        md.append("\n");
+
+        CompactedStats compacted = payload.getCompacted();
+        if (compacted != null) {
+            md.append("## 보존 기간 이전 현황 (").append(compacted.getStartDate()).append(" ~ ").append(compacted.getEndDate()).append(")\n\n");
+            md.append("원본 기록이 정리된 구간으로, 롤업에 남아 있는 합계만 표시합니다.\n\n");
+            md.append("| 장소 | 청소 횟수 | 청소 시간(분) | 청소 면적(㎡) | 물 사용량(L) | 전력 사용량(kWh) |\n");
+            md.append("|---|---:|---:|---:|---:|---:|\n");
+            for (CompactedStats.Group group : compacted.getByLocation()) {
+                appendCompactedRow(md, group.getKey(), group);
+            }
+            appendCompactedRow(md, "합계", compacted.getOverall());
+            md.append("\n");
+        }
+
+        if (insights != null && insights.path("highlights").size() > 0) {
+            md.append("## 주요 사항\n\n");
+            for (JsonNode highlight : insights.path("highlights")) {
+                md.append("- ").append(highlight.asText()).append("\n");
+            }
+        }
+        return md.toString();
+    }
+
+    private static void appendCompactedRow(StringBuilder md, String label, CompactedStats.Group group) {
+        md.append(String.format(Locale.ROOT, "| %s | %d | %.0f | %.1f | %.1f | %.2f |%n",
+                label, group.getCount(), group.getTotalDuration(), group.getTotalArea(),
+                group.getTotalWater(), group.getTotalPower()));
+    }
+
+    private static double sum(GroupStats group, String metric) {
+        MetricStats stats = group.getMetrics().get(metric);
+        return stats == null ? 0 : stats.getSum();
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.gemini_report.tools;
 
-import com.example.gemini_report.entity.CleaningData; // CleaningData 엔티티 클래스 임포트
+import com.example.gemini_report.dto.CleaningStatsPayload; // 집계 결과 DTO 임포트
+import com.example.gemini_report.dto.CompactedStats; // 원본 행이 정리된 구간의 롤업 통계 DTO 임포트
+import com.example.gemini_report.event.CleaningDataChangedEvent; // 청소 데이터 변경 이벤트 임포트
+import com.example.gemini_report.event.ToolDataChangedEvent; // 원본 데이터 변경 이벤트 인터페이스 임포트
 import com.example.gemini_report.service.CleaningDataService; // CleaningDataService 서비스 임포트
+import com.example.gemini_report.service.CleaningStatsAggregator; // 청소 데이터 집계 단계 임포트
+import com.example.gemini_report.service.ReactiveCleaningDataService; // 논블로킹 청소 데이터 조회 서비스 임포트
 import com.fasterxml.jackson.core.JsonProcessingException; // JSON 처리 중 발생할 수 있는 예외 임포트
+import com.fasterxml.jackson.databind.JsonNode; // JSON 트리 노드 임포트
 import com.fasterxml.jackson.databind.ObjectMapper; // JSON 직렬화/역직렬화를 위한 ObjectMapper 임포트
 import com.google.common.collect.ImmutableList; // 불변 리스트 생성을 위한 Guava ImmutableList 임포트
 import com.google.common.collect.ImmutableMap; // 불변 맵 생성을 위한 Guava ImmutableMap 임포트
 import com.google.genai.types.*; // Gemini API 관련 타입들 임포트 (FunctionDeclaration, Schema, Type 등)
 import lombok.RequiredArgsConstructor; // Lombok 어노테이션으로 생성자 자동 생성
+import org.springframework.beans.factory.annotation.Value; // application.properties 값 주입을 위한 어노테이션
 import org.springframework.stereotype.Component; // Spring 컴포넌트임을 나타내는 어노테이션
+import reactor.core.publisher.Mono; // 논블로킹 실행 결과를 나타내는 Mono 임포트
 
+import java.time.Duration; // 캐시 TTL 지정을 위한 Duration 임포트
+import java.time.LocalDate; // 날짜 정보만 다루는 LocalDate 클래스 임포트
+import java.time.format.DateTimeParseException; // 날짜 파싱 실패 예외 임포트
 import java.util.List; // List 인터페이스 임포트
 import java.util.Map; // Map 인터페이스 임포트
+import java.util.Optional; // Optional 클래스 임포트
 
 /**
  * {@code CleaningReportToolExecutor}는 청소 데이터 리포트 생성 기능을 담당하는 {@link ToolExecutor} 구현체입니다.
@@ -26,16 +38,57 @@ import java.util.Map; // Map 인터페이스 임포트
  */
 @Component
 @RequiredArgsConstructor
-public class CleaningReportToolExecutor implements ToolExecutor {
+public class CleaningReportToolExecutor implements ReactiveToolExecutor {
     // 이 도구의 고유한 이름. Gemini 모델이 함수 호출을 제안할 때 이 이름을 사용합니다.
     // 다른 도구와 충돌하지 않도록 유일해야 합니다.
     public static final String GET_CLEANING_REPORT = "get_cleaning_report";
+    // 같은 기간에 대한 조회 결과를 메모이제이션하는 정책. 데이터 변경 시에는 이벤트로 즉시 무효화됩니다.
+    private static final ToolCachePolicy CACHE_POLICY = ToolCachePolicy.of(Duration.ofMinutes(10), 200);
 
     // 청소 데이터 관련 비즈니스 로직을 처리하는 서비스. 실제 데이터 조회는 이 서비스에 위임합니다.
     private final CleaningDataService cleaningDataService;
+    // 같은 조회를 R2DBC로 수행하는 논블로킹 서비스. executeReactive에서 사용합니다.
+    private final ReactiveCleaningDataService reactiveCleaningDataService;
+    // 조회된 원본 행을 기간/장소/일자별 통계와 제한된 샘플로 요약하는 집계 단계.
+    private final CleaningStatsAggregator cleaningStatsAggregator;
     // 자바 객체를 JSON 문자열로 변환하거나 그 반대로 변환하는 데 사용됩니다.
     // 도구 실행 결과를 Gemini 모델에 전달하기 위해 JSON 직렬화가 필요합니다.
     private final ObjectMapper objectMapper;
+    // 구조화된 출력 모드에서 실제 데이터와 모델 인사이트를 조합해 마크다운 리포트를 만드는 렌더러.
+    private final CleaningReportMarkdownRenderer markdownRenderer;
+
+    // true이면 모델은 인사이트만 JSON으로 생성하고, 표와 수치는 서버에서 렌더링합니다.
+    @Value("${tools.cleaning-report.structured-output}")
+    private boolean structuredOutput;
+
+    // 구조화된 출력 모드에서 모델이 생성할 인사이트 JSON 스키마.
+    private static final Schema INSIGHTS_SCHEMA = Schema.builder()
+            .type(Type.Known.OBJECT)
+            .properties(ImmutableMap.of(
+                    "summary", Schema.builder()
+                            .type(Type.Known.STRING)
+                            .description("기간 전체의 청소 현황을 2~3문장으로 요약")
+                            .build(),
+                    "highlights", Schema.builder()
+                            .type(Type.Known.ARRAY)
+                            .items(Schema.builder().type(Type.Known.STRING).build())
+                            .description("눈에 띄는 특이사항이나 개선 제안 (최대 5개)")
+                            .build(),
+                    "locationNotes", Schema.builder()
+                            .type(Type.Known.ARRAY)
+                            .items(Schema.builder()
+                                    .type(Type.Known.OBJECT)
+                                    .properties(ImmutableMap.of(
+                                            "location", Schema.builder().type(Type.Known.STRING).description("장소 이름").build(),
+                                            "note", Schema.builder().type(Type.Known.STRING).description("해당 장소에 대한 한 문장 코멘트").build()
+                                    ))
+                                    .required(ImmutableList.of("location", "note"))
+                                    .build())
+                            .description("장소별 한 문장 코멘트")
+                            .build()
+            ))
+            .required(ImmutableList.of("summary", "highlights", "locationNotes"))
+            .build();
 
     /**
      * 이 도구의 이름을 반환합니다.
@@ -72,12 +125,13 @@ public class CleaningReportToolExecutor implements ToolExecutor {
     }
 
     /**
-     * Gemini 모델로부터 받은 인자들을 사용하여 청소 데이터를 조회하고 결과를 JSON 문자열로 반환합니다.
+     * Gemini 모델로부터 받은 인자들을 사용하여 청소 데이터를 조회하고, 통계로 집계한 결과를 JSON 문자열로 반환합니다.
+     * 원본 행 전체 대신 {@link CleaningStatsAggregator}가 만든 기간/장소/일자별 통계와 원본 행 샘플을 전달하여
+     * 긴 기간을 조회해도 프롬프트 크기가 페이로드 예산 이내로 유지됩니다.
      * {@inheritDoc}
      *
      * @param args Gemini 모델이 함수 호출 시 제공한 인자들의 맵. "startDate"와 "endDate"를 포함합니다.
-     * @return 조회된 청소 데이터 목록의 JSON 문자열 표현.
-     * @throws RuntimeException JSON 변환 중 오류가 발생할 경우.
+     * @return 집계된 청소 통계({@link CleaningStatsPayload})의 JSON 문자열 표현.
      */
     @Override
     public String execute(Map<String, Object> args) {
@@ -85,20 +139,95 @@ public class CleaningReportToolExecutor implements ToolExecutor {
         String startDate = (String) args.get("startDate");
         String endDate = (String) args.get("endDate");
 
-        // CleaningDataService를 통해 실제 청소 데이터를 조회합니다.
-        List<CleaningData> result = cleaningDataService.get_cleaning_report(startDate, endDate);
+        // CleaningDataService를 통해 청소 데이터를 한 건씩 읽으면서 통계로 집계합니다. 조회 결과 전체를 리스트로 보관하지 않습니다.
+        CleaningStatsAggregator.Accumulator accumulator = cleaningStatsAggregator.newAccumulator();
+        cleaningDataService.forEachCleaningData(startDate, endDate, accumulator);
+        CleaningStatsPayload payload = accumulator.toPayload(
+                cleaningDataService.resolveStartDate(startDate), cleaningDataService.resolveEndDate(endDate));
+        // 원본 행이 보존 기간을 지나 정리된 구간은 빈 통계 대신 롤업 통계와 안내를 함께 전달합니다.
+        payload.setCompacted(cleaningDataService.compactedStats(startDate, endDate));
+        return cleaningStatsAggregator.toBudgetedJson(payload);
+    }
+
+    /**
+     * {@link #execute(Map)}와 같은 통계를 R2DBC 스트림을 구독하며 집계합니다.
+     * 행은 도착하는 대로 누적기에 전달되므로 조회 결과 전체를 리스트로 보관하지 않습니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<String> executeReactive(Map<String, Object> args) {
+        String startDate = (String) args.get("startDate");
+        String endDate = (String) args.get("endDate");
+
+        Mono<Optional<CompactedStats>> compacted = reactiveCleaningDataService.compactedStats(startDate, endDate)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+        return reactiveCleaningDataService.streamCleaningData(startDate, endDate)
+                .collect(cleaningStatsAggregator::newAccumulator, CleaningStatsAggregator.Accumulator::accept)
+                .zipWith(compacted, (accumulator, compactedStats) -> {
+                    CleaningStatsPayload payload = accumulator.toPayload(
+                            cleaningDataService.resolveStartDate(startDate), cleaningDataService.resolveEndDate(endDate));
+                    payload.setCompacted(compactedStats.orElse(null));
+                    return cleaningStatsAggregator.toBudgetedJson(payload);
+                });
+    }
+
+    /**
+     * 조회 결과를 기간(startDate, endDate) 기준으로 메모이제이션합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public ToolCachePolicy getCachePolicy() {
+        return CACHE_POLICY;
+    }
+
+    /**
+     * 변경된 청소 데이터의 시작 시간이 캐시된 조회 기간과 겹치면 무효화합니다.
+     * 기간이 생략된 호출은 현재 날짜를 기준으로 기본 기간이 정해지므로 항상 무효화합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInvalidatedBy(ToolDataChangedEvent event, Map<String, Object> args) {
+        if (!(event instanceof CleaningDataChangedEvent changed)) {
+            return false;
+        }
+        String startDate = (String) args.get("startDate");
+        String endDate = (String) args.get("endDate");
+        if (startDate == null || startDate.isEmpty() || endDate == null || endDate.isEmpty()) {
+            return true;
+        }
         try {
-            // 조회된 List<CleaningData> 객체를 JSON 문자열로 변환하여 반환합니다.
-            return objectMapper.writeValueAsString(result);
-        } catch (JsonProcessingException e) {
-            // JSON 변환 중 오류 발생 시 RuntimeException을 발생시킵니다.
-            throw new RuntimeException("Error converting cleaning data to JSON", e);
+            return changed.overlaps(LocalDate.parse(startDate), LocalDate.parse(endDate));
+        } catch (DateTimeParseException e) {
+            return true;
         }
     }
 
+    /**
+     * 청소 리포트 요청을 나타내는 키워드 목록을 반환합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> getRoutingKeywords() {
+        return List.of("청소", "리포트", "보고서", "cleaning", "report");
+    }
+
+    /**
+     * 프롬프트에서 ISO 날짜 또는 "지난주" 같은 상대 표현을 해석하여 startDate, endDate를 추출합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Map<String, Object>> extractArguments(String prompt) {
+        return DateRangeExtractor.extract(prompt, LocalDate.now())
+                .map(range -> Map.of(
+                        "startDate", range[0].toString(),
+                        "endDate", range[1].toString()));
+    }
+
     /**
      * 도구 실행 후 Gemini 모델에 다시 전달할 템플릿화된 프롬프트를 반환합니다.
      * 이 프롬프트는 모델이 함수 실행 결과를 바탕으로 최종 리포트를 생성하도록 유도합니다.
+     * 구조화된 출력 모드에서는 표와 수치를 제외한 인사이트만 JSON으로 작성하도록 지시합니다.
      * {@inheritDoc}
      *
      * @param originalPrompt 사용자가 처음에 Gemini 모델에 보낸 원본 프롬프트.
@@ -106,17 +235,62 @@ public class CleaningReportToolExecutor implements ToolExecutor {
      */
     @Override
     public String getTemplatedPrompt(String originalPrompt) {
+        if (structuredOutput) {
+            return String.format("""
+                    다음 요청에 대해 제공된 청소 데이터를 분석해 주세요.
+                    작성 규칙:
+                    1. 응답 스키마에 맞는 JSON만 작성합니다.
+                    2. 표나 수치 목록은 서버에서 작성하므로 포함하지 말고, 요약과 해석에 집중합니다.
+                    3. compacted 항목이 있으면 그 구간은 원본 기록이 정리된 구간의 롤업 통계이므로, 청소가 없었다고 판단하지 말고 함께 요약합니다.
+
+                    원본 요청:
+                    %s
+                    """, originalPrompt);
+        }
         return String.format("""
                 다음 요청에 따라 리포트를 생성해 주세요.
                 리포트 작성 규칙:
                 1. 리포트 형식은 마크다운 문법을 사용해서 줄바꿈이나 단을 들여 쓰고 보기 좋게 구성합니다.
                 2. 제공된 데이터를 기준으로 청소 요약을 작성합니다.
+                3. 제공된 데이터는 기간 전체/장소별/일자별 통계(합계, 평균, 최소, 최대, p50, p90)와 일부 원본 기록 샘플입니다.
+                4. compacted 항목이 있으면 그 구간은 원본 기록이 정리된 구간의 롤업 통계이므로, 청소가 없었다고 판단하지 말고 함께 요약합니다.
             
                 원본 요청:
                 %s
                 """, originalPrompt);
     }
 
+    /**
+     * 구조화된 출력 모드이면 인사이트 JSON 스키마를 반환합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Schema> getResponseSchema() {
+        return structuredOutput ? Optional.of(INSIGHTS_SCHEMA) : Optional.empty();
+    }
+
+    /**
+     * 집계된 청소 통계로 표를 만들고, 모델이 생성한 인사이트를 더해 마크다운 리포트를 렌더링합니다.
+     * {@inheritDoc}
+     */
+    @Override
+    public String renderStructuredResponse(Map<String, Object> args, String jsonResult, String modelJson) {
+        CleaningStatsPayload payload;
+        try {
+            payload = objectMapper.readValue(jsonResult, CleaningStatsPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error parsing cleaning statistics JSON", e);
+        }
+        JsonNode insights;
+        try {
+            insights = objectMapper.readTree(modelJson);
+        } catch (JsonProcessingException e) {
+            // 모델 출력이 JSON이 아니면 원문을 요약 자리에 그대로 보여줍니다.
+            insights = null;
+        }
+        return markdownRenderer.render(payload, insights, modelJson);
+    }
+
     /**
      * 이 도구에 특화된 시스템 지침(System Instruction)을 반환합니다.
      * 이 지침은 Gemini 모델이 청소 리포트와 관련된 작업을 수행할 때
@@ -0,0 +1,183 @@
+package com.example.gemini_report.tools;
+
+import com.example.gemini_report.event.CleaningDataChangedEvent;
+import com.example.gemini_report.event.ToolDataChangedEvent;
+import com.example.gemini_report.repository.CleaningStatsView;
+import com.example.gemini_report.service.CleaningDataService;
+import com.example.gemini_report.service.ReactiveCleaningDataService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.genai.types.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@code CleaningStatsToolExecutor}는 청소 데이터를 데이터베이스에서 장소/일/주 단위로 집계하는 {@link ToolExecutor} 구현체입니다.
+ * <p>
+ * {@link CleaningReportToolExecutor}와 달리 원본 행을 애플리케이션으로 가져오지 않고
+ * {@link CleaningDataService#aggregate_cleaning_stats(String, String, String)}를 통해 SQL에서 그룹핑과 합계를 계산하므로,
+ * 몇 달 이상의 긴 기간에 대한 질문도 그룹 수만큼의 작은 결과로 답할 수 있습니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CleaningStatsToolExecutor implements ReactiveToolExecutor {
+    public static final String AGGREGATE_CLEANING_STATS = "aggregate_cleaning_stats";
+    private static final ToolCachePolicy CACHE_POLICY = ToolCachePolicy.of(Duration.ofMinutes(10), 200);
+
+    private final CleaningDataService cleaningDataService;
+    private final ReactiveCleaningDataService reactiveCleaningDataService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getToolName() {
+        return AGGREGATE_CLEANING_STATS;
+    }
+
+    @Override
+    public FunctionDeclaration getFunctionDeclaration() {
+        return FunctionDeclaration.builder()
+                .name(AGGREGATE_CLEANING_STATS)
+                .description("지정된 기간의 청소 데이터를 장소별, 일별 또는 주별로 집계한 통계(횟수, 합계, 평균)를 가져옵니다. "
+                        + "긴 기간의 추이나 비교가 필요할 때 사용합니다.")
+                .parameters(
+                        Schema.builder()
+                                .type(Type.Known.OBJECT)
+                                .properties(ImmutableMap.of(
+                                        "startDate", Schema.builder().type(Type.Known.STRING).description("시작일 (YYYY-MM-DD 형식)").build(),
+                                        "endDate", Schema.builder().type(Type.Known.STRING).description("종료일 (YYYY-MM-DD 형식)").build(),
+                                        "groupBy", Schema.builder()
+                                                .type(Type.Known.STRING)
+                                                .enum_(ImmutableList.of("location", "day", "week"))
+                                                .description("집계 기준 (location: 장소별, day: 일별, week: 주별)")
+                                                .build()
+                                ))
+                                .required(ImmutableList.of("startDate", "endDate", "groupBy"))
+                                .build()
+                )
+                .build();
+    }
+
+    @Override
+    public String execute(Map<String, Object> args) {
+        String startDate = (String) args.get("startDate");
+        String endDate = (String) args.get("endDate");
+        String groupBy = (String) args.get("groupBy");
+
+        return toJson(startDate, endDate, groupBy,
+                cleaningDataService.aggregate_cleaning_stats(startDate, endDate, groupBy));
+    }
+
+    @Override
+    public Mono<String> executeReactive(Map<String, Object> args) {
+        String startDate = (String) args.get("startDate");
+        String endDate = (String) args.get("endDate");
+        String groupBy = (String) args.get("groupBy");
+
+        return reactiveCleaningDataService.aggregateCleaningStats(startDate, endDate, groupBy)
+                .collectList()
+                .map(groups -> toJson(startDate, endDate, groupBy, groups));
+    }
+
+    private String toJson(String startDate, String endDate, String groupBy, List<CleaningStatsView> groups) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startDate", cleaningDataService.resolveStartDate(startDate).toString());
+        result.put("endDate", cleaningDataService.resolveEndDate(endDate).toString());
+        result.put("groupBy", groupBy);
+        result.put("groups", groups.stream().map(this::toMap).toList());
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error converting cleaning statistics to JSON", e);
+        }
+    }
+
+    @Override
+    public ToolCachePolicy getCachePolicy() {
+        return CACHE_POLICY;
+    }
+
+    @Override
+    public boolean isInvalidatedBy(ToolDataChangedEvent event, Map<String, Object> args) {
+        if (!(event instanceof CleaningDataChangedEvent changed)) {
+            return false;
+        }
+        String startDate = (String) args.get("startDate");
+        String endDate = (String) args.get("endDate");
+        if (startDate == null || startDate.isEmpty() || endDate == null || endDate.isEmpty()) {
+            return true;
+        }
+        try {
+            return changed.overlaps(LocalDate.parse(startDate), LocalDate.parse(endDate));
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public List<String> getRoutingKeywords() {
+        return List.of("통계", "집계", "statistics", "stats");
+    }
+
+    @Override
+    public Optional<Map<String, Object>> extractArguments(String prompt) {
+        String text = prompt.toLowerCase(Locale.ROOT);
+        String groupBy;
+        if (text.contains("주별") || text.contains("주간") || text.contains("weekly")) {
+            groupBy = "week";
+        } else if (text.contains("일별") || text.contains("일자별") || text.contains("daily")) {
+            groupBy = "day";
+        } else {
+            groupBy = "location";
+        }
+        return DateRangeExtractor.extract(prompt, LocalDate.now())
+                .map(range -> Map.of(
+                        "startDate", range[0].toString(),
+                        "endDate", range[1].toString(),
+                        "groupBy", groupBy));
+    }
+
+    @Override
+    public String getTemplatedPrompt(String originalPrompt) {
+        return String.format("""
+                다음 요청에 따라 제공된 집계 통계를 바탕으로 답변해 주세요.
+                답변 규칙:
+                1. 마크다운 문법을 사용하고, 비교가 필요하면 표로 정리합니다.
+                2. 제공된 수치만 사용하고 추정한 수치를 만들지 않습니다.
+
+                원본 요청:
+                %s
+                """, originalPrompt);
+    }
+
+    @Override
+    public Content getSystemInstruction() {
+        return Content.fromParts(Part.fromText("너는 데이터 분석과 리포팅 전문가야."));
+    }
+
+    private Map<String, Object> toMap(CleaningStatsView view) {
+        Map<String, Object> group = new LinkedHashMap<>();
+        group.put("group", view.getGroupKey());
+        group.put("count", view.getSessionCount());
+        group.put("totalDuration", view.getTotalDuration());
+        group.put("avgDuration", view.getAvgDuration());
+        group.put("totalArea", view.getTotalArea());
+        group.put("avgArea", view.getAvgArea());
+        group.put("totalWater", view.getTotalWater());
+        group.put("avgWater", view.getAvgWater());
+        group.put("totalPower", view.getTotalPower());
+        group.put("avgPower", view.getAvgPower());
+        return group;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.gemini_report.tools;
 
+import com.example.gemini_report.event.CompanyInfoChangedEvent;
+import com.example.gemini_report.event.ToolDataChangedEvent;
 import com.example.gemini_report.service.CompanyInfoService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,16 +9,25 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.genai.types.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class CompanyInfoToolExecutor implements ToolExecutor {
     public static final String GET_COMPANY_INFO = "get_company_info";
+    private static final ToolCachePolicy CACHE_POLICY = ToolCachePolicy.of(Duration.ofMinutes(30), 500);
     private final CompanyInfoService companyInfoService;
     private final ObjectMapper objectMapper;
 
+    // 검색 결과의 유사도 점수가 이 값 이상이면 후속 Gemini 호출 없이 검색된 정보를 그대로 답변합니다.
+    @Value("${tools.company-info.direct-response-min-score}")
+    private double directResponseMinScore;
+
     @Override
     public String getToolName() {
         return GET_COMPANY_INFO;
@@ -54,6 +65,41 @@ public class CompanyInfoToolExecutor implements ToolExecutor {
         }
     }
 
+    @Override
+    public ToolCachePolicy getCachePolicy() {
+        return CACHE_POLICY;
+    }
+
+    @Override
+    public boolean isInvalidatedBy(ToolDataChangedEvent event, Map<String, Object> args) {
+        return event instanceof CompanyInfoChangedEvent;
+    }
+
+    @Override
+    public List<String> getRoutingKeywords() {
+        return List.of("회사", "설립", "company");
+    }
+
+    @Override
+    public Optional<Map<String, Object>> extractArguments(String prompt) {
+        return Optional.of(Map.of("userQuery", prompt.trim()));
+    }
+
+    @Override
+    public Optional<String> renderDirectResponse(String originalPrompt, String jsonResult) {
+        try {
+            Map<?, ?> result = objectMapper.readValue(jsonResult, Map.class);
+            if (result.containsKey("errorMessage")
+                    || !(result.get("유사도_점수") instanceof Number score)
+                    || score.doubleValue() < directResponseMinScore) {
+                return Optional.empty();
+            }
+            return Optional.of(String.valueOf(result.get("가장_유사한_정보")));
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
     @Override
     public String getTemplatedPrompt(String originalPrompt) {
         return String.format("""
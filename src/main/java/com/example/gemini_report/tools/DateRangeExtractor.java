@@ -0,0 +1,110 @@
+package com.example.gemini_report.tools;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 사용자 프롬프트에서 조회 기간(시작일, 종료일)을 규칙 기반으로 추출하는 유틸리티 클래스입니다.
+ * <p>
+ * 지원하는 표현:
+ * <ul>
+ *     <li>ISO 날짜: "2025-11-01 ~ 2025-11-07", "2025-11-03"</li>
+ *     <li>상대 표현: 오늘, 어제, 이번 주, 지난주, 이번 달, 지난달, 최근 N일 (영문 표현 포함)</li>
+ * </ul>
+ * 해석할 수 없거나 기간 표현이 둘 이상이면(예: "지난주와 이번주 비교", ISO 날짜와 상대 표현을 함께 사용)
+ * 빈 {@link Optional}을 반환하여 호출자가 LLM 경로로 되돌아가도록 합니다.
+ */
+public final class DateRangeExtractor {
+
+    private static final Pattern ISO_DATE = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern RECENT_DAYS = Pattern.compile("(?:최근|지난)\\s*(\\d{1,3})\\s*일|last\\s+(\\d{1,3})\\s+days");
+
+    private DateRangeExtractor() {
+    }
+
+    /**
+     * 프롬프트에서 조회 기간을 추출합니다.
+     *
+     * @param prompt 사용자 프롬프트
+     * @param today  상대 표현의 기준이 되는 날짜
+     * @return [시작일, 종료일] 배열. 해석할 수 없거나 기간 표현이 둘 이상이면 빈 {@link Optional}
+     */
+    public static Optional<LocalDate[]> extract(String prompt, LocalDate today) {
+        if (prompt == null) {
+            return Optional.empty();
+        }
+        String text = prompt.toLowerCase(Locale.ROOT);
+
+        // 프롬프트에 들어 있는 기간 표현을 모두 모은 뒤 정확히 하나일 때만 사용합니다.
+        // "지난주와 이번주 비교"처럼 여러 기간을 말하는 프롬프트를 한쪽 기간만으로 확신하지 않기 위해서입니다.
+        List<LocalDate[]> periods = new ArrayList<>();
+
+        List<LocalDate> dates = new ArrayList<>();
+        Matcher matcher = ISO_DATE.matcher(text);
+        while (matcher.find()) {
+            try {
+                dates.add(LocalDate.parse(matcher.group(1)));
+            } catch (DateTimeParseException e) {
+                return Optional.empty();
+            }
+        }
+        if (dates.size() == 1) {
+            periods.add(new LocalDate[]{dates.get(0), dates.get(0)});
+        } else if (dates.size() == 2) {
+            LocalDate first = dates.get(0);
+            LocalDate second = dates.get(1);
+            periods.add(first.isAfter(second) ? new LocalDate[]{second, first} : new LocalDate[]{first, second});
+        } else if (dates.size() > 2) {
+            // 날짜가 여러 개이면 의도를 확신할 수 없으므로 LLM에 맡깁니다.
+            return Optional.empty();
+        }
+
+        Matcher recent = RECENT_DAYS.matcher(text);
+        while (recent.find()) {
+            int days = Integer.parseInt(recent.group(1) != null ? recent.group(1) : recent.group(2));
+            if (days < 1) {
+                return Optional.empty();
+            }
+            periods.add(new LocalDate[]{today.minusDays(days - 1L), today});
+        }
+
+        LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        if (containsAny(text, "지난주", "지난 주", "저번주", "저번 주", "last week")) {
+            periods.add(new LocalDate[]{monday.minusWeeks(1), monday.minusDays(1)});
+        }
+        if (containsAny(text, "이번주", "이번 주", "금주", "this week")) {
+            periods.add(new LocalDate[]{monday, today});
+        }
+        if (containsAny(text, "지난달", "지난 달", "저번달", "저번 달", "last month")) {
+            LocalDate firstOfLastMonth = today.minusMonths(1).withDayOfMonth(1);
+            periods.add(new LocalDate[]{firstOfLastMonth, firstOfLastMonth.with(TemporalAdjusters.lastDayOfMonth())});
+        }
+        if (containsAny(text, "이번달", "이번 달", "this month")) {
+            periods.add(new LocalDate[]{today.withDayOfMonth(1), today});
+        }
+        if (containsAny(text, "어제", "yesterday")) {
+            periods.add(new LocalDate[]{today.minusDays(1), today.minusDays(1)});
+        }
+        if (containsAny(text, "오늘", "today")) {
+            periods.add(new LocalDate[]{today, today});
+        }
+        return periods.size() == 1 ? Optional.of(periods.get(0)) : Optional.empty();
+    }
+
+    private static boolean containsAny(String text, String... keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
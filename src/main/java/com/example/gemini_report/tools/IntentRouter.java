@@ -0,0 +1,133 @@
+package com.example.gemini_report.tools;
+
+import com.google.genai.types.FunctionCall;
+import com.google.genai.types.FunctionDeclaration;
+import com.google.genai.types.Schema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code IntentRouter}는 첫 번째 Gemini 호출 전에 프롬프트를 로컬에서 분석하여,
+ * 어떤 도구를 어떤 인자로 호출해야 하는지 확실한 경우 LLM 없이 함수 호출을 만들어내는 빠른 경로입니다.
+ * <p>
+ * 판단 기준:
+ * <ul>
+ *     <li>각 {@link ToolExecutor}가 선언한 {@link ToolExecutor#getRoutingKeywords()}만 프롬프트와 비교하여
+ *         일치하는 키워드 수를 점수로 계산합니다. 함수 이름 토큰(예: cleaning, info)은 여러 도구에 걸치거나
+ *         다른 단어(information)에 포함되어 후보를 흐리므로 점수에 넣지 않습니다.</li>
+ *     <li>점수가 {@code agent.router.min-score} 이상인 도구가 정확히 하나일 때만 라우팅합니다.
+ *         여러 도구가 후보이면 의도 조합을 LLM이 판단하도록 넘깁니다.</li>
+ *     <li>{@link ToolExecutor#extractArguments(String)}로 추출한 인자가 {@link FunctionDeclaration}의
+ *         필수 매개변수를 모두 채워야 합니다.</li>
+ * </ul>
+ * 위 조건을 만족하지 못하면 빈 결과를 반환하여 기존처럼 Gemini가 함수 호출을 결정하도록 합니다.
+ */
+@Component
+@Slf4j
+public class IntentRouter {
+
+    private final ToolRegistry toolRegistry;
+    private final boolean enabled;
+    private final int minScore;
+
+    private final AtomicLong routed = new AtomicLong();
+    private final AtomicLong fallback = new AtomicLong();
+
+    public IntentRouter(ToolRegistry toolRegistry,
+                        @Value("${agent.router.enabled}") boolean enabled,
+                        @Value("${agent.router.min-score}") int minScore) {
+        this.toolRegistry = toolRegistry;
+        this.enabled = enabled;
+        this.minScore = minScore;
+    }
+
+    /**
+     * 프롬프트를 로컬 규칙으로 라우팅합니다.
+     *
+     * @param prompt 사용자 프롬프트
+     * @return 확신할 수 있으면 실행할 함수 호출 목록, 아니면 빈 {@link Optional}
+     */
+    public Optional<List<FunctionCall>> route(String prompt) {
+        if (!enabled || prompt == null || prompt.isBlank()) {
+            return Optional.empty();
+        }
+        String text = prompt.toLowerCase(Locale.ROOT);
+
+        List<ToolExecutor> candidates = new ArrayList<>();
+        for (ToolExecutor executor : toolRegistry.getToolExecutorMap().values()) {
+            if (score(executor, text) >= minScore) {
+                candidates.add(executor);
+            }
+        }
+        if (candidates.size() != 1) {
+            fallback.incrementAndGet();
+            return Optional.empty();
+        }
+
+        ToolExecutor executor = candidates.getFirst();
+        Optional<Map<String, Object>> args = executor.extractArguments(prompt)
+                .filter(extracted -> hasRequiredParameters(executor.getFunctionDeclaration(), extracted));
+        if (args.isEmpty()) {
+            fallback.incrementAndGet();
+            return Optional.empty();
+        }
+
+        routed.incrementAndGet();
+        log.info("로컬 라우터가 도구 '{}'를 인자 {}로 선택했습니다.", executor.getToolName(), args.get());
+        return Optional.of(List.of(FunctionCall.builder()
+                .name(executor.getToolName())
+                .args(args.get())
+                .build()));
+    }
+
+    // 도구가 선언한 키워드 중 프롬프트에 포함된 개수
+    private int score(ToolExecutor executor, String text) {
+        List<String> keywords = executor.getRoutingKeywords();
+        if (keywords.isEmpty()) {
+            // 키워드를 선언하지 않은 도구는 로컬 라우팅 대상에서 제외합니다.
+            return 0;
+        }
+        int score = 0;
+        for (String keyword : keywords) {
+            if (text.contains(keyword.toLowerCase(Locale.ROOT))) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private boolean hasRequiredParameters(FunctionDeclaration declaration, Map<String, Object> args) {
+        List<String> required = declaration.parameters()
+                .flatMap(Schema::required)
+                .orElse(List.of());
+        for (String name : required) {
+            Object value = args.get(name);
+            if (value == null || value.toString().isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return 로컬 라우터가 함수 호출을 직접 결정한 요청 수
+     */
+    public long getRouted() {
+        return routed.get();
+    }
+
+    /**
+     * @return 확신할 수 없어 Gemini에 판단을 넘긴 요청 수
+     */
+    public long getFallback() {
+        return fallback.get();
+    }
+}
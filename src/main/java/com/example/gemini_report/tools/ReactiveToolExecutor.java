@@ -0,0 +1,24 @@
+package com.example.gemini_report.tools;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * {@code ReactiveToolExecutor}는 실행 결과를 스레드를 블로킹하지 않고 {@link Mono}로 돌려주는 {@link ToolExecutor}입니다.
+ * <p>
+ * {@code agent.tools.data-access}가 {@code r2dbc}이면 {@link ToolCallDispatcher}는 {@link #execute(Map)} 대신
+ * {@link #executeReactive(Map)}를 구독하므로, 도구가 데이터베이스 응답을 기다리는 동안 스레드를 점유하지 않습니다.
+ * {@code jpa}이면 기존과 같이 {@link #execute(Map)}를 가상 스레드에서 실행합니다.
+ * 두 메서드는 같은 인자에 대해 같은 결과를 반환해야 합니다.
+ */
+public interface ReactiveToolExecutor extends ToolExecutor {
+
+    /**
+     * {@link #execute(Map)}와 같은 결과를 논블로킹으로 계산합니다. 구독하기 전에는 아무 작업도 수행하지 않아야 합니다.
+     *
+     * @param args Gemini 모델이 함수 호출 시 제공한 인자들의 맵.
+     * @return 도구 실행 결과의 JSON 문자열을 방출하는 {@link Mono}.
+     */
+    Mono<String> executeReactive(Map<String, Object> args);
+}
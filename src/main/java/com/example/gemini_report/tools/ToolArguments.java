@@ -0,0 +1,35 @@
+package com.example.gemini_report.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.Map;
+
+/**
+ * 함수 호출 인자 맵을 캐시 키로 사용할 수 있도록 정규화하는 유틸리티 클래스입니다.
+ * 키 순서와 무관하게 같은 인자는 항상 같은 문자열로 변환됩니다.
+ */
+public final class ToolArguments {
+
+    // 맵의 키를 정렬하여 직렬화하므로 중첩된 맵까지 순서가 고정됩니다.
+    private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private ToolArguments() {
+    }
+
+    /**
+     * 인자 맵을 키가 정렬된 JSON 문자열로 변환합니다.
+     *
+     * @param args 함수 호출 인자 맵
+     * @return 정규화된 JSON 문자열
+     */
+    public static String canonicalize(Map<String, Object> args) {
+        try {
+            return CANONICAL_MAPPER.writeValueAsString(args == null ? Map.of() : args);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error canonicalizing tool arguments", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.gemini_report.tools;
+
+import java.time.Duration;
+
+/**
+ * {@link ToolExecutor}의 실행 결과를 {@link ToolRegistry}에서 메모이제이션할지 여부와 방법을 정의합니다.
+ *
+ * @param cacheable 결과를 캐시할지 여부
+ * @param ttl       캐시 항목 유지 시간
+ * @param maxSize   도구별 최대 캐시 항목 수
+ */
+public record ToolCachePolicy(boolean cacheable, Duration ttl, long maxSize) {
+
+    // 캐시를 사용하지 않는 기본 정책
+    public static final ToolCachePolicy DISABLED = new ToolCachePolicy(false, Duration.ZERO, 0);
+
+    public static ToolCachePolicy of(Duration ttl, long maxSize) {
+        return new ToolCachePolicy(true, ttl, maxSize);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.gemini_report.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.genai.types.FunctionCall;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@code ToolCallDispatcher}는 Gemini 모델이 한 턴에서 요청한 모든 함수 호출을
+ * {@link ToolRegistry}에 등록된 {@link ToolExecutor}로 전달하여 동시에 실행합니다.
+ * <p>
+ * 모든 호출은 턴 단위 제한 시간({@code agent.tools.turn-timeout-ms}) 안에 완료되어야 하며,
+ * 제한 시간을 넘기거나 실패한 호출은 예외 대신 {@code {"error": ...}} 형태의 결과로 변환되어
+ * 모델이 오류 상황을 인지하고 응답을 이어갈 수 있도록 합니다.
+ * <p>
+ * {@code agent.tools.data-access}가 {@code r2dbc}이면 {@link ReactiveToolExecutor}는 스레드 없이 R2DBC 결과를 기다리고,
+ * 그 외 도구와 {@code jpa} 설정에서는 모든 도구가 가상 스레드에서 블로킹 {@link ToolExecutor#execute(Map)}로 실행됩니다.
+ */
+@Component
+@Slf4j
+public class ToolCallDispatcher {
+
+    private final ToolRegistry toolRegistry;
+    private final Scheduler toolScheduler;
+    private final ObjectMapper objectMapper;
+    private final Duration turnTimeout;
+    private final boolean reactiveDataAccess;
+
+    public ToolCallDispatcher(ToolRegistry toolRegistry,
+                              ExecutorService toolExecutorService,
+                              ObjectMapper objectMapper,
+                              @Value("${agent.tools.turn-timeout-ms}") long turnTimeoutMs,
+                              @Value("${agent.tools.data-access}") String dataAccess) {
+        this.toolRegistry = toolRegistry;
+        this.toolScheduler = Schedulers.fromExecutorService(toolExecutorService, "tools");
+        this.objectMapper = objectMapper;
+        this.turnTimeout = Duration.ofMillis(turnTimeoutMs);
+        this.reactiveDataAccess = "r2dbc".equalsIgnoreCase(dataAccess);
+        log.info("도구 데이터 접근 방식: {}", reactiveDataAccess ? "r2dbc" : "jpa");
+    }
+
+    /**
+     * 주어진 함수 호출들을 동시에 실행하고, 호출 순서와 동일한 순서로 결과를 반환합니다.
+     * 호출한 스레드는 모든 결과가 모이거나 제한 시간이 지날 때까지 대기합니다.
+     *
+     * @param functionCalls 한 턴에서 Gemini 모델이 요청한 함수 호출 목록
+     * @return 각 함수 호출에 대한 {@link ToolCallResult} 목록
+     */
+    public List<ToolCallResult> dispatch(List<FunctionCall> functionCalls) {
+        List<Mono<ToolCallResult>> calls = new ArrayList<>();
+        for (FunctionCall functionCall : functionCalls) {
+            String functionName = functionCall.name().orElse("");
+            Map<String, Object> args = functionCall.args().orElse(ImmutableMap.of());
+            ToolExecutor executor = functionCall.name().map(toolRegistry::getToolExecutor).orElse(null);
+            if (executor == null) {
+                log.error("No ToolExecutor found for function: {}", functionName);
+                calls.add(Mono.just(new ToolCallResult(functionName, args, null,
+                        errorJson("No tool registered for function: " + functionName), false)));
+                continue;
+            }
+            calls.add(execute(executor, args)
+                    .switchIfEmpty(Mono.error(new IllegalStateException("Tool returned no result.")))
+                    .map(result -> new ToolCallResult(functionName, args, executor, result, true))
+                    .timeout(turnTimeout)
+                    .onErrorResume(TimeoutException.class, e -> {
+                        log.warn("도구 '{}' 실행이 제한 시간({}ms)을 초과했습니다.", functionName, turnTimeout.toMillis());
+                        return Mono.just(new ToolCallResult(functionName, args, executor,
+                                errorJson("Tool execution timed out."), false));
+                    })
+                    .onErrorResume(e -> {
+                        log.error("도구 '{}' 실행 실패: {}", functionName, e.getMessage(), e);
+                        return Mono.just(new ToolCallResult(functionName, args, executor,
+                                errorJson(String.valueOf(e.getMessage())), false));
+                    }));
+        }
+        // 모든 호출을 동시에 구독하고, 결과는 호출 순서대로 모읍니다.
+        return Flux.mergeSequential(calls).collectList().block();
+    }
+
+    // 설정과 도구 종류에 따라 논블로킹 실행 또는 가상 스레드에서의 블로킹 실행을 선택합니다.
+    private Mono<String> execute(ToolExecutor executor, Map<String, Object> args) {
+        if (reactiveDataAccess && executor instanceof ReactiveToolExecutor reactiveExecutor) {
+            return toolRegistry.executeReactive(reactiveExecutor, args);
+        }
+        return Mono.fromCallable(() -> toolRegistry.execute(executor, args)).subscribeOn(toolScheduler);
+    }
+
+    private String errorJson(String message) {
+        try {
+            return objectMapper.writeValueAsString(ImmutableMap.of("error", message));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error converting error message to JSON", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.gemini_report.tools;
+
+import java.util.Map;
+
+/**
+ * 하나의 함수 호출(Function Call)에 대한 도구 실행 결과입니다.
+ *
+ * @param functionName Gemini 모델이 호출한 함수 이름
+ * @param args         함수 호출 인자
+ * @param executor     호출을 처리한 {@link ToolExecutor}. 등록되지 않은 함수이면 {@code null}
+ * @param result       모델에 전달할 JSON 문자열 (실패 시 {@code {"error": ...}} 형태)
+ * @param success      도구가 정상적으로 실행되었는지 여부
+ */
+public record ToolCallResult(String functionName,
+                             Map<String, Object> args,
+                             ToolExecutor executor,
+                             String result,
+                             boolean success) {
+}
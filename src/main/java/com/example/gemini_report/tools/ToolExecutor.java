@@ -1,8 +1,12 @@
 package com.example.gemini_report.tools;
 
+import com.example.gemini_report.event.ToolDataChangedEvent; // 원본 데이터 변경 이벤트 인터페이스 임포트
 import com.google.genai.types.Content; // Gemini 모델의 콘텐츠(텍스트, 이미지, 시스템 지침 등)를 나타내는 클래스 임포트
 import com.google.genai.types.FunctionDeclaration; // Gemini 모델에 함수를 선언하기 위한 클래스 임포트
+import com.google.genai.types.Schema; // 구조화된 출력 스키마를 정의하기 위한 클래스 임포트
+import java.util.List; // List 인터페이스 임포트
 import java.util.Map; // Map 인터페이스 임포트
+import java.util.Optional; // Optional 클래스 임포트
 
 /**
  * {@code ToolExecutor} 인터페이스는 Gemini 모델의 함수 호출(Function Calling) 기능을 통해
@@ -61,4 +65,84 @@ public interface ToolExecutor {
      * @return 이 도구에 대한 {@link Content} 형태의 시스템 지침.
      */
     Content getSystemInstruction();
+
+    /**
+     * 이 도구의 실행 결과를 {@link ToolRegistry}에서 메모이제이션할지 여부와 TTL, 최대 항목 수를 반환합니다.
+     * 기본값은 캐시를 사용하지 않는 {@link ToolCachePolicy#DISABLED}입니다.
+     *
+     * @return 이 도구의 {@link ToolCachePolicy}.
+     */
+    default ToolCachePolicy getCachePolicy() {
+        return ToolCachePolicy.DISABLED;
+    }
+
+    /**
+     * 원본 데이터 변경 이벤트가 주어진 인자로 캐시된 실행 결과를 무효화해야 하는지 판단합니다.
+     * 캐시를 사용하는 도구는 자신이 조회하는 데이터와 관련된 이벤트에 대해 {@code true}를 반환해야 합니다.
+     *
+     * @param event 원본 데이터 변경 이벤트.
+     * @param args  캐시된 실행 결과를 만든 함수 호출 인자.
+     * @return 캐시 항목을 무효화해야 하면 {@code true}.
+     */
+    default boolean isInvalidatedBy(ToolDataChangedEvent event, Map<String, Object> args) {
+        return false;
+    }
+
+    /**
+     * {@link IntentRouter}가 프롬프트를 이 도구로 라우팅할지 판단할 때 사용할 키워드 목록을 반환합니다.
+     * 빈 목록을 반환하는 도구(기본값)는 로컬 라우팅 대상에서 제외되어 항상 Gemini가 호출 여부를 결정합니다.
+     *
+     * @return 라우팅 키워드 목록.
+     */
+    default List<String> getRoutingKeywords() {
+        return List.of();
+    }
+
+    /**
+     * 사용자 프롬프트에서 이 도구의 함수 호출 인자를 규칙 기반으로 추출합니다.
+     * 인자를 확실히 추출할 수 없으면 빈 {@link Optional}을 반환해야 하며, 이 경우 Gemini가 인자를 결정합니다.
+     *
+     * @param prompt 사용자가 보낸 원본 프롬프트.
+     * @return 추출된 인자 맵. 추출할 수 없으면 빈 {@link Optional}.
+     */
+    default Optional<Map<String, Object>> extractArguments(String prompt) {
+        return Optional.empty();
+    }
+
+    /**
+     * 도구 실행 결과만으로 최종 답변을 만들 수 있으면 로컬에서 렌더링한 답변을 반환합니다.
+     * 답변이 반환되면 {@code AgentService}는 결과를 Gemini 모델에 다시 전달하는 후속 호출을 생략합니다.
+     * 예를 들어 유사도 점수가 충분히 높은 검색 결과를 템플릿으로 그대로 보여줄 수 있습니다.
+     *
+     * @param originalPrompt 사용자가 보낸 원본 프롬프트.
+     * @param jsonResult     {@link #execute(Map)}의 실행 결과 JSON 문자열.
+     * @return 로컬에서 렌더링한 최종 답변. 모델의 후속 생성이 필요하면 빈 {@link Optional}(기본값).
+     */
+    default Optional<String> renderDirectResponse(String originalPrompt, String jsonResult) {
+        return Optional.empty();
+    }
+
+    /**
+     * 도구 실행 후 최종 생성을 구조화된 JSON 출력으로 받으려면 모델이 따라야 할 응답 스키마를 반환합니다.
+     * 스키마가 있으면 모델은 스키마에 맞는 JSON만 생성하고,
+     * 최종 답변은 {@link #renderStructuredResponse(Map, String, String)}가 서버에서 렌더링합니다.
+     *
+     * @return 응답 스키마. 일반 텍스트 생성을 사용하면 빈 {@link Optional}(기본값).
+     */
+    default Optional<Schema> getResponseSchema() {
+        return Optional.empty();
+    }
+
+    /**
+     * 모델이 생성한 구조화된 JSON과 도구 실행 결과를 조합하여 최종 답변을 렌더링합니다.
+     * {@link #getResponseSchema()}가 스키마를 반환하는 도구에서만 호출됩니다.
+     *
+     * @param args       함수 호출 인자.
+     * @param jsonResult {@link #execute(Map)}의 실행 결과 JSON 문자열.
+     * @param modelJson  모델이 응답 스키마에 맞춰 생성한 JSON 문자열.
+     * @return 최종 답변 텍스트.
+     */
+    default String renderStructuredResponse(Map<String, Object> args, String jsonResult, String modelJson) {
+        return modelJson;
+    }
 }
@@ -1,14 +1,25 @@
 package com.example.gemini_report.tools;
 
+import com.example.gemini_report.event.ToolDataChangedEvent; // 원본 데이터 변경 이벤트 인터페이스 임포트
+import com.google.common.cache.Cache; // 도구 결과 메모이제이션을 위한 Guava Cache 임포트
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.genai.types.FunctionDeclaration;
 import com.google.genai.types.Tool; // Gemini 모델에 전달할 도구(Tool) 객체 임포트
 import jakarta.annotation.PostConstruct; // Spring의 초기화 콜백 어노테이션 임포트
 import lombok.Getter; // Lombok 어노테이션으로 Getter 자동 생성
 import lombok.RequiredArgsConstructor; // Lombok 어노테이션으로 생성자 자동 생성
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component; // Spring 컴포넌트임을 나타내는 어노테이션
+import org.springframework.transaction.event.TransactionalEventListener; // 트랜잭션 커밋 이후 이벤트 수신을 위한 어노테이션
+import reactor.core.publisher.Mono; // 논블로킹 도구 실행 결과를 나타내는 Mono 임포트
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List; // List 인터페이스 임포트
 import java.util.Map; // Map 인터페이스 임포트
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function; // 함수형 인터페이스 임포트
 import java.util.stream.Collectors; // 스트림 API의 컬렉터 임포트
 
@@ -22,6 +33,8 @@ import java.util.stream.Collectors; // 스트림 API의 컬렉터 임포트
  *     <li>등록된 모든 {@link ToolExecutor}들을 이름(getToolName())을 키로 하는 맵 형태로 저장하여 빠른 조회를 가능하게 합니다.</li>
  *     <li>Gemini 모델에 제공할 {@link Tool} 객체 목록을 생성하여 반환합니다.</li>
  *     <li>특정 도구 이름에 해당하는 {@link ToolExecutor} 인스턴스를 조회하는 기능을 제공합니다.</li>
+ *     <li>{@link ToolExecutor#getCachePolicy()}로 캐시를 선언한 도구의 실행 결과를 정규화된 인자 기준으로 메모이제이션하고,
+ *         {@link ToolDataChangedEvent} 수신 시 영향을 받는 항목을 무효화합니다.</li>
  * </ul>
  * <p>
  * 새로운 도구를 시스템에 추가하려면 {@link ToolExecutor} 인터페이스를 구현하고
@@ -29,6 +42,7 @@ import java.util.stream.Collectors; // 스트림 API의 컬렉터 임포트
  * {@code ToolRegistry}가 자동으로 해당 도구를 감지하고 관리 목록에 추가합니다.
  */
 @Component
+@Slf4j
 @RequiredArgsConstructor // final 필드인 toolExecutors에 대한 생성자를 자동으로 생성합니다.
 public class ToolRegistry {
 
@@ -41,6 +55,17 @@ public class ToolRegistry {
     @Getter // Lombok 어노테이션으로 toolExecutorMap에 대한 public getter 메서드를 자동으로 생성합니다.
     private Map<String, ToolExecutor> toolExecutorMap;
 
+    // 캐시를 사용하는 도구 이름을 키로 하는 결과 캐시. 캐시 키는 정규화된 인자 문자열입니다.
+    private final Map<String, Cache<String, CachedResult>> resultCaches = new HashMap<>();
+
+    // 캐시를 사용하는 도구 이름을 키로 하는 무효화 세대. 무효화 이벤트를 받을 때마다 증가합니다.
+    // 실행 전에 읽은 세대가 실행 후에 바뀌었으면 실행 도중 데이터가 바뀐 것이므로 결과를 캐시에 넣지 않습니다.
+    private final Map<String, AtomicLong> generations = new HashMap<>();
+
+    // 캐시 항목. 이벤트 기반 무효화 판단을 위해 원래 인자를 함께 보관합니다.
+    private record CachedResult(Map<String, Object> args, String result) {
+    }
+
     /**
      * Spring 빈 초기화 시 호출되는 메서드입니다.
      * {@link #toolExecutors} 리스트에 있는 모든 {@link ToolExecutor}들을
@@ -53,6 +78,123 @@ public class ToolRegistry {
     public void init() {
         toolExecutorMap = toolExecutors.stream()
                 .collect(Collectors.toMap(ToolExecutor::getToolName, Function.identity()));
+
+        for (ToolExecutor executor : toolExecutors) {
+            ToolCachePolicy policy = executor.getCachePolicy();
+            if (policy.cacheable()) {
+                resultCaches.put(executor.getToolName(), CacheBuilder.newBuilder()
+                        .maximumSize(policy.maxSize())
+                        .expireAfterWrite(policy.ttl().toMillis(), TimeUnit.MILLISECONDS)
+                        .recordStats()
+                        .build());
+                generations.put(executor.getToolName(), new AtomicLong());
+            }
+        }
+    }
+
+    /**
+     * 주어진 {@link ToolExecutor}를 실행합니다.
+     * 캐시를 사용하는 도구이면 같은 (정규화된) 인자로 캐시된 결과를 반환하고, 없을 때만 실제로 실행합니다.
+     * 실행 도중 무효화 이벤트가 처리되었으면 결과는 반환하되 캐시에는 넣지 않습니다.
+     * 같은 프롬프트의 중복 요청은 {@link com.example.gemini_report.service.RequestCoalescer}가 합치므로, 여기서는 동시 실행을 합치지 않습니다.
+     *
+     * @param executor 실행할 도구
+     * @param args     함수 호출 인자
+     * @return 도구 실행 결과의 JSON 문자열
+     */
+    public String execute(ToolExecutor executor, Map<String, Object> args) {
+        Cache<String, CachedResult> cache = resultCaches.get(executor.getToolName());
+        if (cache == null) {
+            return executor.execute(args);
+        }
+        String key = ToolArguments.canonicalize(args);
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.result();
+        }
+        AtomicLong generation = generations.get(executor.getToolName());
+        long startGeneration = generation.get();
+        String result = executor.execute(args);
+        putIfNotInvalidated(cache, generation, startGeneration, key, new CachedResult(args, result));
+        return result;
+    }
+
+    /**
+     * 주어진 {@link ReactiveToolExecutor}를 논블로킹으로 실행합니다.
+     * 캐시 정책과 무효화 세대 확인은 {@link #execute(ToolExecutor, Map)}와 같으며, 캐시에 없을 때만 {@link ReactiveToolExecutor#executeReactive(Map)}를 구독합니다.
+     *
+     * @param executor 실행할 도구
+     * @param args     함수 호출 인자
+     * @return 도구 실행 결과의 JSON 문자열을 방출하는 {@link Mono}
+     */
+    public Mono<String> executeReactive(ReactiveToolExecutor executor, Map<String, Object> args) {
+        Cache<String, CachedResult> cache = resultCaches.get(executor.getToolName());
+        if (cache == null) {
+            return executor.executeReactive(args);
+        }
+        AtomicLong generation = generations.get(executor.getToolName());
+        return Mono.defer(() -> {
+            String key = ToolArguments.canonicalize(args);
+            CachedResult cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.result());
+            }
+            long startGeneration = generation.get();
+            return executor.executeReactive(args)
+                    .doOnNext(result -> putIfNotInvalidated(cache, generation, startGeneration, key, new CachedResult(args, result)));
+        });
+    }
+
+    // 실행을 시작한 뒤 무효화 이벤트가 없었을 때만 결과를 캐시에 넣습니다.
+    // 무효화는 세대를 먼저 올린 뒤 항목을 지우므로, 여기서 넣은 항목이 그 뒤의 무효화에 걸리지 않고 남는 일은 없습니다.
+    private void putIfNotInvalidated(Cache<String, CachedResult> cache, AtomicLong generation, long startGeneration,
+                                     String key, CachedResult value) {
+        synchronized (generation) {
+            if (generation.get() == startGeneration) {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * 원본 데이터 변경 이벤트를 수신하여 영향을 받는 도구 결과 캐시 항목을 무효화합니다.
+     * 트랜잭션 안에서 발행된 이벤트는 커밋 이후에 처리하여, 커밋 전의 데이터가 다시 캐시되지 않도록 합니다.
+     * 이미 캐시된 항목뿐 아니라 지금 실행 중인 호출의 결과도 캐시되지 않도록 도구의 무효화 세대를 올립니다.
+     *
+     * @param event 원본 데이터 변경 이벤트
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChanged(ToolDataChangedEvent event) {
+        resultCaches.forEach((toolName, cache) -> {
+            ToolExecutor executor = toolExecutorMap.get(toolName);
+            AtomicLong generation = generations.get(toolName);
+            synchronized (generation) {
+                generation.incrementAndGet();
+            }
+            long before = cache.size();
+            cache.asMap().values().removeIf(cached -> executor.isInvalidatedBy(event, cached.args()));
+            long removed = before - cache.size();
+            if (removed > 0) {
+                log.info("{} 이벤트로 도구 '{}'의 캐시 항목 {}개를 무효화했습니다.",
+                        event.getClass().getSimpleName(), toolName, removed);
+            }
+        });
+    }
+
+    /**
+     * @return 도구별 결과 캐시의 크기와 적중/미스 통계
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        resultCaches.forEach((toolName, cache) -> {
+            CacheStats cacheStats = cache.stats();
+            stats.put(toolName, Map.of(
+                    "size", cache.size(),
+                    "hits", cacheStats.hitCount(),
+                    "misses", cacheStats.missCount(),
+                    "hitRate", cacheStats.hitRate()));
+        });
+        return stats;
     }
 
     /**
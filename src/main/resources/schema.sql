@@ -8,3 +8,26 @@ CREATE TABLE IF NOT EXISTS CLEANING_DATA (
     water_usage DOUBLE,
     power_usage DOUBLE
 );
+
+-- 기간 조회(start_time BETWEEN ...)와 장소별 기간 조회가 전체 테이블을 스캔하지 않도록 하는 인덱스
+CREATE INDEX IF NOT EXISTS IDX_CLEANING_DATA_START_TIME ON CLEANING_DATA (start_time);
+CREATE INDEX IF NOT EXISTS IDX_CLEANING_DATA_LOCATION_START_TIME ON CLEANING_DATA (location, start_time);
+
+-- 청소 데이터 롤업. 원본 행이 추가/수정/삭제될 때마다 일(DAY), 주(WEEK, 월요일 시작), 월(MONTH) x 장소 단위로 증분 갱신됩니다.
+-- 합계는 값이 있는 행만 더하고, 평균은 지표별 합계 / 값이 있는 행 수로 계산합니다.
+-- 버킷마다 한 행만 있도록 (granularity, bucket_start, location)을 기본 키로 두며, 장소가 없는 행은 빈 문자열('')로 저장합니다.
+CREATE TABLE IF NOT EXISTS CLEANING_DATA_ROLLUP (
+    granularity VARCHAR(5) NOT NULL,
+    bucket_start DATE NOT NULL,
+    location VARCHAR(255) NOT NULL,
+    session_count BIGINT NOT NULL,
+    total_duration BIGINT NOT NULL,
+    duration_count BIGINT NOT NULL,
+    total_area DOUBLE NOT NULL,
+    area_count BIGINT NOT NULL,
+    total_water DOUBLE NOT NULL,
+    water_count BIGINT NOT NULL,
+    total_power DOUBLE NOT NULL,
+    power_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, location)
+);
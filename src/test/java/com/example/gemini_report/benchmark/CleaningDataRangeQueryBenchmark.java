@@ -0,0 +1,134 @@
+package com.example.gemini_report.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 테이블 크기에 따른 기간 조회 지연 시간을 인덱스 유무별로 측정하는 벤치마크입니다.
+ * <p>
+ * 애플리케이션 데이터베이스와 분리된 메모리 H2 데이터베이스에 {@code CLEANING_DATA}와 같은 구조의
+ * {@code CLEANING_DATA_BENCH} 테이블을 만들고, {@link #SIZES}에 지정된 행 수만큼 합성 데이터를 넣어
+ * 1주일 범위 조회의 중앙값 지연 시간을 기록합니다.
+ * {@code benchmark} 태그가 붙어 있어 기본 테스트에서는 제외되며, 다음과 같이 실행합니다.
+ * <pre>
+ * ./gradlew test -Pbenchmark --tests '*CleaningDataRangeQueryBenchmark'
+ * </pre>
+ */
+@Tag("benchmark")
+class CleaningDataRangeQueryBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CleaningDataRangeQueryBenchmark.class);
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+
+    private static final int LOCATIONS = 200;
+    private static final int DAYS = 3 * 365;
+    private static final int QUERY_RUNS = 21;
+    private static final String RANGE_QUERY =
+            "SELECT COUNT(*), SUM(duration) FROM CLEANING_DATA_BENCH WHERE start_time BETWEEN ? AND ?";
+    private static final String LOCATION_RANGE_QUERY =
+            "SELECT COUNT(*), SUM(duration) FROM CLEANING_DATA_BENCH WHERE location = ? AND start_time BETWEEN ? AND ?";
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE CLEANING_DATA_BENCH (
+                cleaning_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                start_time TIMESTAMP,
+                end_time TIMESTAMP,
+                location VARCHAR(255),
+                duration BIGINT,
+                area_cleaned DOUBLE,
+                water_usage DOUBLE,
+                power_usage DOUBLE
+            )""";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rangeQueryLatencyBySize() {
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:range-query-benchmark", "sa", "", true);
+        try {
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            measure();
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private void measure() {
+        LocalDateTime base = LocalDateTime.now().minusDays(DAYS);
+        LocalDateTime rangeStart = base.plusDays(DAYS / 2);
+        LocalDateTime rangeEnd = rangeStart.plusWeeks(1);
+
+        log.info("기간 조회 벤치마크 시작 (조회 범위: 1주일, 장소 {}개, 기간 {}일)", LOCATIONS, DAYS);
+        log.info(String.format("%12s | %16s | %16s | %20s | %20s", "rows", "range (no index)", "range (index)",
+                "location (no index)", "location (index)"));
+        for (int size : SIZES) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS CLEANING_DATA_BENCH");
+            jdbcTemplate.execute(CREATE_TABLE);
+            populate(size, base);
+
+            double rangeScan = medianMillis(null, rangeStart, rangeEnd);
+            double locationScan = medianMillis("Site-7", rangeStart, rangeEnd);
+
+            jdbcTemplate.execute("CREATE INDEX IDX_BENCH_START_TIME ON CLEANING_DATA_BENCH (start_time)");
+            jdbcTemplate.execute("CREATE INDEX IDX_BENCH_LOCATION_START_TIME ON CLEANING_DATA_BENCH (location, start_time)");
+            double rangeIndexed = medianMillis(null, rangeStart, rangeEnd);
+            double locationIndexed = medianMillis("Site-7", rangeStart, rangeEnd);
+
+            log.info(String.format("%12d | %13.3f ms | %13.3f ms | %17.3f ms | %17.3f ms",
+                    size, rangeScan, rangeIndexed, locationScan, locationIndexed));
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS CLEANING_DATA_BENCH");
+        log.info("기간 조회 벤치마크 완료");
+    }
+
+    // 기간 전체에 고르게 분포된 합성 청소 기록을 배치로 삽입합니다. 같은 크기면 항상 같은 데이터가 생성됩니다.
+    private void populate(int size, LocalDateTime base) {
+        Random random = new Random(size);
+        long spanMinutes = DAYS * 24L * 60;
+        List<Object[]> batch = new ArrayList<>(5_000);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = base.plusMinutes((long) (random.nextDouble() * spanMinutes));
+            long duration = 15 + random.nextInt(120);
+            batch.add(new Object[]{
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(duration)),
+                    "Site-" + random.nextInt(LOCATIONS), duration,
+                    20 + random.nextDouble() * 300, 10 + random.nextDouble() * 150, 0.5 + random.nextDouble() * 4
+            });
+            if (batch.size() == 5_000 || i == size - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO CLEANING_DATA_BENCH (start_time, end_time, location, duration, "
+                        + "area_cleaned, water_usage, power_usage) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // 같은 쿼리를 반복하면 H2가 이전 결과를 재사용하므로, 실행마다 조회 범위를 한 시간씩 옮겨 측정합니다.
+    private double medianMillis(String location, LocalDateTime rangeStart, LocalDateTime rangeEnd) {
+        double[] samples = new double[QUERY_RUNS];
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            Timestamp from = Timestamp.valueOf(rangeStart.plusHours(i));
+            Timestamp to = Timestamp.valueOf(rangeEnd.plusHours(i));
+            long started = System.nanoTime();
+            if (location == null) {
+                jdbcTemplate.queryForList(RANGE_QUERY, from, to);
+            } else {
+                jdbcTemplate.queryForList(LOCATION_RANGE_QUERY, location, from, to);
+            }
+            samples[i] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[QUERY_RUNS / 2];
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.gemini_report.benchmark;
+
+import com.example.gemini_report.service.VectorStorage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * 임베딩 벡터 경로를 박싱된 {@code List<Float>} 방식(기존)과 {@code float[]} 방식, 저장 방식({@link VectorStorage})별로 비교하는 벤치마크입니다.
+ * <p>
+ * {@link #DIMENSIONS}의 차원마다 군집 형태의 합성 단위 벡터 {@link #CORPUS_SIZE}개를 만들어 다음을 측정합니다.
+ * <ul>
+ *     <li>변환 할당량: SDK 응답({@code List<Float>})을 Milvus 입력으로 바꾸는 동안 벡터 하나당 할당한 바이트 수</li>
+ *     <li>검색 지연 시간: 전체 벡터에 대한 top-k 완전 탐색의 쿼리당 중앙값</li>
+ *     <li>재현율: {@code float[]} 완전 탐색 결과 대비 top-k 재현율</li>
+ * </ul>
+ * Milvus 서버 내부의 검색 시간은 포함하지 않으며, 같은 프로세스 안에서 벡터 표현 방식의 차이만 측정합니다.
+ * {@code benchmark} 태그가 붙어 있어 기본 테스트에서는 제외되며, 다음과 같이 실행합니다.
+ * <pre>
+ * ./gradlew test -Pbenchmark --tests '*VectorPathBenchmark'
+ * </pre>
+ */
+@Tag("benchmark")
+class VectorPathBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorPathBenchmark.class);
+    private static final int[] DIMENSIONS = {3072, 768};
+    private static final int CORPUS_SIZE = 20_000;
+    private static final int QUERIES = 200;
+    private static final int TOP_K = 10;
+    private static final int CLUSTERS = 64;
+    private static final int CONVERSION_RUNS = 2_000;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // JIT가 측정 대상 연산을 제거하지 않도록 결과를 모읍니다.
+    private double sink;
+
+    @Test
+    void vectorPathsByDimension() {
+        log.info("벡터 경로 벤치마크 시작 (벡터 {}개, 쿼리 {}개, top-{})", CORPUS_SIZE, QUERIES, TOP_K);
+        log.info(String.format("%6s | %-22s | %16s | %14s | %8s", "dim", "path", "alloc/vector", "search (p50)", "recall"));
+        for (int dimension : DIMENSIONS) {
+            Random random = new Random(dimension);
+            float[][] centroids = new float[CLUSTERS][];
+            for (int c = 0; c < CLUSTERS; c++) {
+                centroids[c] = randomUnitVector(random, dimension, null, 0);
+            }
+            float[][] corpus = new float[CORPUS_SIZE][];
+            for (int i = 0; i < CORPUS_SIZE; i++) {
+                corpus[i] = randomUnitVector(random, dimension, centroids[random.nextInt(CLUSTERS)], 0.5);
+            }
+            float[][] queryVectors = new float[QUERIES][];
+            for (int q = 0; q < QUERIES; q++) {
+                queryVectors[q] = randomUnitVector(random, dimension, centroids[random.nextInt(CLUSTERS)], 0.5);
+            }
+            List<Float> sdkValues = boxed(corpus[0]);
+
+            int[][] exact = new int[QUERIES][];
+            double floatLatency = searchMillis(queryVectors, q -> exact[q] = topK(CORPUS_SIZE, i -> dot(queryVectors[q], corpus[i])));
+
+            // 기존 경로: SDK List<Float> -> float[] -> ArrayList<Float> -> List<List<Float>>
+            List<List<Float>> boxedCorpus = new ArrayList<>(CORPUS_SIZE);
+            for (float[] vector : corpus) {
+                boxedCorpus.add(boxed(vector));
+            }
+            List<List<Float>> boxedQueries = Arrays.stream(queryVectors).map(VectorPathBenchmark::boxed).toList();
+            double boxedAlloc = allocatedBytesPerRun(() -> consume(boxed(unbox(sdkValues))));
+            double boxedLatency = searchMillis(queryVectors, q -> topK(CORPUS_SIZE, i -> dot(boxedQueries.get(q), boxedCorpus.get(i))));
+            log.info(row(dimension, "List<Float> (before)", boxedAlloc, boxedLatency, 1.0));
+            boxedCorpus.clear();
+
+            double floatAlloc = allocatedBytesPerRun(() -> consume((List<?>) VectorStorage.FLOAT.encode(unbox(sdkValues))));
+            log.info(row(dimension, "float[] / FLOAT", floatAlloc, floatLatency, 1.0));
+
+            short[][] halfCorpus = new short[CORPUS_SIZE][];
+            for (int i = 0; i < CORPUS_SIZE; i++) {
+                halfCorpus[i] = toHalf(corpus[i]);
+            }
+            double halfAlloc = allocatedBytesPerRun(() -> sink += VectorStorage.FLOAT16.encode(unbox(sdkValues)).hashCode());
+            int[][] halfResults = new int[QUERIES][];
+            double halfLatency = searchMillis(queryVectors, q -> halfResults[q] = topK(CORPUS_SIZE, i -> dot(queryVectors[q], halfCorpus[i])));
+            log.info(row(dimension, "float[] / FLOAT16", halfAlloc, halfLatency, recall(exact, halfResults)));
+
+            long[][] bitCorpus = new long[CORPUS_SIZE][];
+            for (int i = 0; i < CORPUS_SIZE; i++) {
+                bitCorpus[i] = toBits(corpus[i]);
+            }
+            double bitAlloc = allocatedBytesPerRun(() -> sink += VectorStorage.BINARY.encode(unbox(sdkValues)).hashCode());
+            int[][] bitResults = new int[QUERIES][];
+            double bitLatency = searchMillis(queryVectors, q -> {
+                long[] queryBits = toBits(queryVectors[q]);
+                bitResults[q] = topK(CORPUS_SIZE, i -> -hamming(queryBits, bitCorpus[i]));
+            });
+            log.info(row(dimension, "float[] / BINARY", bitAlloc, bitLatency, recall(exact, bitResults)));
+        }
+        log.info("벡터 경로 벤치마크 완료 ({})", sink == 0 ? "-" : "ok");
+    }
+
+    private static String row(int dimension, String path, double allocBytes, double latencyMillis, double recall) {
+        return String.format("%6d | %-22s | %10.0f bytes | %11.3f ms | %8.3f", dimension, path, allocBytes, latencyMillis, recall);
+    }
+
+    // 중심 벡터 주변에 잡음을 더한 단위 벡터. 중심이 없으면 균일한 방향의 단위 벡터를 만듭니다.
+    private static float[] randomUnitVector(Random random, int dimension, float[] centroid, double noise) {
+        float[] vector = new float[dimension];
+        double norm = 0;
+        for (int i = 0; i < dimension; i++) {
+            double value = centroid == null ? random.nextGaussian() : centroid[i] + noise * random.nextGaussian() / Math.sqrt(dimension);
+            vector[i] = (float) value;
+            norm += value * value;
+        }
+        for (int i = 0; i < dimension; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+
+    private double allocatedBytesPerRun(Runnable conversion) {
+        for (int i = 0; i < CONVERSION_RUNS; i++) {
+            conversion.run(); // 워밍업
+        }
+        long threadId = Thread.currentThread().threadId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CONVERSION_RUNS; i++) {
+            conversion.run();
+        }
+        return (double) (threadMXBean.getThreadAllocatedBytes(threadId) - before) / CONVERSION_RUNS;
+    }
+
+    private double searchMillis(float[][] queryVectors, IntConsumer search) {
+        double[] samples = new double[queryVectors.length];
+        for (int q = 0; q < queryVectors.length; q++) {
+            long started = System.nanoTime();
+            search.accept(q);
+            samples[q] = (System.nanoTime() - started) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    // 점수가 높은 순서의 상위 k개 인덱스. k가 작으므로 정렬된 작은 배열에 삽입합니다.
+    private int[] topK(int size, IntToDoubleFunction score) {
+        int[] best = new int[TOP_K];
+        double[] bestScores = new double[TOP_K];
+        Arrays.fill(bestScores, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < size; i++) {
+            double s = score.applyAsDouble(i);
+            if (s <= bestScores[TOP_K - 1]) {
+                continue;
+            }
+            int position = TOP_K - 1;
+            while (position > 0 && bestScores[position - 1] < s) {
+                bestScores[position] = bestScores[position - 1];
+                best[position] = best[position - 1];
+                position--;
+            }
+            bestScores[position] = s;
+            best[position] = i;
+        }
+        return best;
+    }
+
+    private double recall(int[][] exact, int[][] approximate) {
+        long found = 0;
+        for (int q = 0; q < exact.length; q++) {
+            for (int id : approximate[q]) {
+                for (int expected : exact[q]) {
+                    if (id == expected) {
+                        found++;
+                        break;
+                    }
+                }
+            }
+        }
+        return (double) found / ((long) exact.length * TOP_K);
+    }
+
+    private void consume(List<?> list) {
+        for (Object value : list) {
+            sink += ((Float) value);
+        }
+    }
+
+    private static List<Float> boxed(float[] vector) {
+        List<Float> list = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static float[] unbox(List<Float> values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i);
+        }
+        return vector;
+    }
+
+    private static short[] toHalf(float[] vector) {
+        short[] half = new short[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            half[i] = Float.floatToFloat16(vector[i]);
+        }
+        return half;
+    }
+
+    private static long[] toBits(float[] vector) {
+        long[] bits = new long[(vector.length + 63) / 64];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0) {
+                bits[i >> 6] |= 1L << (i & 63);
+            }
+        }
+        return bits;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static double dot(List<Float> a, List<Float> b) {
+        double sum = 0;
+        for (int i = 0; i < a.size(); i++) {
+            sum += a.get(i) * b.get(i);
+        }
+        return sum;
+    }
+
+    private static double dot(float[] a, short[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * Float.float16ToFloat(b[i]);
+        }
+        return sum;
+    }
+
+    private static int hamming(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.gemini_report.event;
+
+import com.example.gemini_report.entity.CleaningData;
+import com.example.gemini_report.service.CleaningRollupService;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link CleaningDataEntityListener}가 Hibernate 이벤트의 변경 전 상태로 롤업 변경분을 계산하는지 검증합니다.
+ * <p>
+ * 애플리케이션 데이터베이스와 분리된 메모리 H2에 {@code schema.sql}로 롤업 테이블을 만들고 실제 {@link CleaningRollupService}로 반영합니다.
+ * 엔티티 상태 배열은 목(mock) {@link EntityPersister}의 속성 이름 순서({@link #PROPERTIES})로 만듭니다.
+ */
+class CleaningDataEntityListenerTest {
+
+    private static final String[] PROPERTIES =
+            {"areaCleaned", "duration", "endTime", "location", "powerUsage", "startTime", "waterUsage"};
+    private static final LocalDateTime NOV_5 = LocalDateTime.of(2025, 11, 5, 10, 0);
+    private static final LocalDateTime DEC_1 = LocalDateTime.of(2025, 12, 1, 9, 0);
+
+    private final List<CleaningDataChangedEvent> events = new ArrayList<>();
+    private final EntityPersister persister = mock(EntityPersister.class);
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CleaningDataEntityListener listener;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:entity-listener-test", "sa", "", true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        listener = new CleaningDataEntityListener(event -> events.add((CleaningDataChangedEvent) event),
+                new CleaningRollupService(jdbcTemplate), null);
+        when(persister.getPropertyNames()).thenReturn(PROPERTIES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void insertAddsRowToDayWeekAndMonthBuckets() {
+        CleaningData row = cleaningData(NOV_5, "A", 30L);
+
+        listener.onPostInsert(new PostInsertEvent(row, row.getCleaningId(), state(row), persister, null));
+
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), "A", 1, 30);
+        assertBucket(CleaningRollupService.WEEK, LocalDate.of(2025, 11, 3), "A", 1, 30);
+        assertBucket(CleaningRollupService.MONTH, LocalDate.of(2025, 11, 1), "A", 1, 30);
+    }
+
+    @Test
+    void updateMovesRowFromOldBucketsToNewBuckets() {
+        CleaningData row = cleaningData(NOV_5, "A", 30L);
+        listener.onPostInsert(new PostInsertEvent(row, row.getCleaningId(), state(row), persister, null));
+        Object[] oldState = state(row);
+
+        row.setStartTime(DEC_1);
+        row.setLocation("B");
+        row.setDuration(50L);
+        listener.onPostUpdate(new PostUpdateEvent(row, row.getCleaningId(), state(row), oldState, null, persister, null));
+
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), "A", 0, 0);
+        assertBucket(CleaningRollupService.MONTH, LocalDate.of(2025, 11, 1), "A", 0, 0);
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 12, 1), "B", 1, 50);
+        assertBucket(CleaningRollupService.WEEK, LocalDate.of(2025, 12, 1), "B", 1, 50);
+        assertBucket(CleaningRollupService.MONTH, LocalDate.of(2025, 12, 1), "B", 1, 50);
+
+        // 컬럼 저장소가 이전 시작 시간의 행을 찾아 지울 수 있도록 변경 전 행과 두 시작 시간을 포함하는 범위를 발행합니다.
+        CleaningDataChangedEvent updated = events.getLast();
+        assertThat(updated.from()).isEqualTo(NOV_5);
+        assertThat(updated.to()).isEqualTo(DEC_1);
+        assertThat(updated.removed()).singleElement().satisfies(previous -> {
+            assertThat(previous.getStartTime()).isEqualTo(NOV_5);
+            assertThat(previous.getLocation()).isEqualTo("A");
+        });
+        assertThat(updated.added()).singleElement().satisfies(current -> assertThat(current.getStartTime()).isEqualTo(DEC_1));
+    }
+
+    @Test
+    void updateWithinSameBucketAppliesOnlyTheDifference() {
+        CleaningData row = cleaningData(NOV_5, "A", 30L);
+        listener.onPostInsert(new PostInsertEvent(row, row.getCleaningId(), state(row), persister, null));
+        Object[] oldState = state(row);
+
+        row.setDuration(45L);
+        listener.onPostUpdate(new PostUpdateEvent(row, row.getCleaningId(), state(row), oldState, null, persister, null));
+
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), "A", 1, 45);
+    }
+
+    @Test
+    void deleteSubtractsTheDeletedStateEvenIfEntityWasModified() {
+        CleaningData row = cleaningData(NOV_5, "A", 30L);
+        listener.onPostInsert(new PostInsertEvent(row, row.getCleaningId(), state(row), persister, null));
+        Object[] deletedState = state(row);
+
+        // 삭제 직전에 엔티티가 바뀌어도 롤업에서는 데이터베이스에 있던 값을 뺍니다.
+        row.setDuration(999L);
+        listener.onPostDelete(new PostDeleteEvent(row, row.getCleaningId(), deletedState, persister, null));
+
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), "A", 0, 0);
+        assertBucket(CleaningRollupService.MONTH, LocalDate.of(2025, 11, 1), "A", 0, 0);
+        assertThat(events.getLast().removed()).singleElement()
+                .satisfies(previous -> assertThat(previous.getDuration()).isEqualTo(30L));
+    }
+
+    @Test
+    void rowsWithoutLocationShareTheNoLocationBucket() {
+        CleaningData first = cleaningData(NOV_5, null, 30L);
+        CleaningData second = cleaningData(NOV_5.plusHours(2), null, 20L);
+        second.setCleaningId(2L);
+        listener.onPostInsert(new PostInsertEvent(first, first.getCleaningId(), state(first), persister, null));
+        listener.onPostInsert(new PostInsertEvent(second, second.getCleaningId(), state(second), persister, null));
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), CleaningRollupService.NO_LOCATION, 2, 50);
+
+        listener.onPostDelete(new PostDeleteEvent(first, first.getCleaningId(), state(first), persister, null));
+
+        assertBucket(CleaningRollupService.DAY, LocalDate.of(2025, 11, 5), CleaningRollupService.NO_LOCATION, 1, 20);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM CLEANING_DATA_ROLLUP WHERE granularity = 'DAY'", Long.class)).isEqualTo(1);
+    }
+
+    private void assertBucket(String granularity, LocalDate bucketStart, String location, long sessions, long duration) {
+        Map<String, Object> bucket = jdbcTemplate.queryForMap(
+                "SELECT session_count, total_duration, duration_count FROM CLEANING_DATA_ROLLUP"
+                        + " WHERE granularity = ? AND bucket_start = ? AND location = ?",
+                granularity, Date.valueOf(bucketStart), location);
+        assertThat(bucket).as("%s %s %s", granularity, bucketStart, location)
+                .containsEntry("SESSION_COUNT", sessions)
+                .containsEntry("TOTAL_DURATION", duration)
+                .containsEntry("DURATION_COUNT", sessions);
+    }
+
+    private static CleaningData cleaningData(LocalDateTime startTime, String location, Long duration) {
+        CleaningData row = new CleaningData();
+        row.setCleaningId(1L);
+        row.setStartTime(startTime);
+        row.setEndTime(startTime.plusMinutes(duration));
+        row.setLocation(location);
+        row.setDuration(duration);
+        row.setAreaCleaned(100.0);
+        row.setWaterUsage(5.0);
+        row.setPowerUsage(1.5);
+        return row;
+    }
+
+    // Hibernate가 이벤트로 전달하는 것과 같은, 속성 이름 순서의 상태 배열
+    private static Object[] state(CleaningData row) {
+        return new Object[]{row.getAreaCleaned(), row.getDuration(), row.getEndTime(), row.getLocation(),
+                row.getPowerUsage(), row.getStartTime(), row.getWaterUsage()};
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.gemini_report.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link AgentExecutionGate}의 승인 한도, 거절, 작업 종료/취소 시 승인 반납을 검증합니다.
+ * 실행 슬롯 1개, 대기 1개로 설정하여 동시에 승인되는 작업은 최대 2개입니다.
+ */
+class AgentExecutionGateTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final Scheduler scheduler = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+    private final AgentExecutionGate gate = new AgentExecutionGate(scheduler, 1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        scheduler.dispose();
+    }
+
+    @Test
+    void runsTaskAndReleasesAdmissionWhenItFinishes() {
+        assertThat(gate.submit(() -> 42).block(TIMEOUT)).isEqualTo(42);
+
+        assertThat(gate.getInFlight()).isZero();
+        assertThat(gate.getQueued()).isZero();
+    }
+
+    @Test
+    void rejectsWith503WhenInFlightAndQueueAreFull() throws Exception {
+        gate.submit(this::blockUntilReleased).subscribe();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        gate.submit(() -> 2).subscribe();
+        awaitUntil(() -> gate.getQueued() == 1);
+
+        assertThatThrownBy(() -> gate.submit(() -> 3).block(TIMEOUT))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(gate.getRejected()).isEqualTo(1);
+
+        release.countDown();
+        awaitUntil(() -> gate.getInFlight() == 0 && gate.getQueued() == 0);
+        assertThat(gate.submit(() -> 4).block(TIMEOUT)).isEqualTo(4);
+    }
+
+    @Test
+    void cancelledRunningTaskKeepsItsAdmissionUntilItFinishes() throws Exception {
+        Disposable running = gate.submit(this::blockUninterruptiblyUntilReleased).subscribe();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 클라이언트가 끊겨도 인터럽트에 반응하지 않는 작업은 계속 실행 슬롯을 점유하므로 승인 수에서 빠지지 않습니다.
+        running.dispose();
+        gate.submit(() -> 2).subscribe();
+        awaitUntil(() -> gate.getQueued() == 1);
+        assertThatThrownBy(() -> gate.submit(() -> 3).block(TIMEOUT)).isInstanceOf(ResponseStatusException.class);
+
+        release.countDown();
+        awaitUntil(() -> gate.getInFlight() == 0 && gate.getQueued() == 0);
+        assertThat(gate.submit(() -> 4).block(TIMEOUT)).isEqualTo(4);
+    }
+
+    @Test
+    void taskCancelledBeforeItStartsReleasesAdmissionAtOnceAndNeverRuns() throws Exception {
+        // 스케줄러의 유일한 스레드를 점유해 두어, 승인된 작업이 시작되기 전에 취소되도록 합니다.
+        Scheduler single = Schedulers.newSingle("gate-test");
+        try {
+            CountDownLatch schedulerFree = new CountDownLatch(1);
+            single.schedule(() -> {
+                try {
+                    schedulerFree.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            AgentExecutionGate singleGate = new AgentExecutionGate(single, 1, 0);
+            AtomicInteger runs = new AtomicInteger();
+            Disposable pending = singleGate.submit(runs::incrementAndGet).subscribe();
+            assertThatThrownBy(() -> singleGate.submit(() -> 2).block(TIMEOUT)).isInstanceOf(ResponseStatusException.class);
+
+            pending.dispose();
+            assertThat(singleGate.getQueued()).isZero();
+            schedulerFree.countDown();
+
+            assertThat(singleGate.submit(() -> 3).block(TIMEOUT)).isEqualTo(3);
+            assertThat(runs).hasValue(0);
+        } finally {
+            single.dispose();
+        }
+    }
+
+    @Test
+    void streamEmitsEventsThenCompletesAndReleasesAdmission() {
+        List<String> events = gate.<String>submitStream(sink -> {
+            sink.next("a");
+            sink.next("b");
+        }).collectList().block(TIMEOUT);
+
+        assertThat(events).containsExactly("a", "b");
+        assertThat(gate.getInFlight()).isZero();
+        assertThat(gate.getQueued()).isZero();
+    }
+
+    @Test
+    void streamProducerFailureEndsStreamWithErrorAndReleasesAdmission() {
+        assertThatThrownBy(() -> gate.<String>submitStream(sink -> {
+            throw new IllegalStateException("boom");
+        }).blockLast(TIMEOUT)).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(gate.getInFlight()).isZero();
+        assertThat(gate.getQueued()).isZero();
+    }
+
+    private int blockUntilReleased() throws InterruptedException {
+        started.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return 1;
+    }
+
+    // 인터럽트에 바로 반응하지 않는 블로킹 호출(예: Gemini API 호출)을 흉내 냅니다.
+    private int blockUninterruptiblyUntilReleased() {
+        started.countDown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return 1;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건을 기다리는 시간 초과").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
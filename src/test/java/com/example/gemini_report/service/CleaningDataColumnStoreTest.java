@@ -0,0 +1,170 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.entity.CleaningData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CleaningDataColumnStore#apply(List, List)}가 변경 행을 반영하는 두 경로(여유 공간에 이어 쓰기, 새 스냅샷으로 다시 만들기)와
+ * 수정으로 시작 시간이 바뀐 행의 제거를 검증합니다.
+ * <p>
+ * 저장소는 애플리케이션 데이터베이스와 분리된 메모리 H2에서 {@link CleaningDataColumnStore#load()}로 채웁니다.
+ * 이어 쓰기 여부는 스냅샷의 배열이 그대로 공유되는지로 확인합니다.
+ */
+class CleaningDataColumnStoreTest {
+
+    private static final LocalDateTime BASE = LocalDate.now().minusDays(5).atTime(8, 0);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CleaningDataColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:column-store-test", "sa", "", true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        insert(1L, BASE, "A", 30L);
+        insert(2L, BASE.plusHours(1), "B", 40L);
+        insert(3L, BASE.plusHours(2), "A", 50L);
+        store = new CleaningDataColumnStore(jdbcTemplate, true, 30, 30);
+        store.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void appendsRowsAfterLastRowIntoSpareCapacity() {
+        Object before = snapshot();
+
+        store.apply(List.of(cleaningData(4L, BASE.plusHours(3), "C", 60L)), List.of());
+
+        Object after = snapshot();
+        assertThat(field(after, "starts")).isSameAs(field(before, "starts"));
+        assertThat(field(after, "size")).isEqualTo(4);
+        // 이전 스냅샷을 읽고 있는 쪽은 이어 쓴 행을 보지 않습니다.
+        assertThat(field(before, "size")).isEqualTo(3);
+        assertThat(ids()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(store.forEach(BASE.plusHours(3), BASE.plusHours(4), row -> assertThat(row.getLocation()).isEqualTo("C")))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rebuildsWhenRowIsInsertedBeforeLastRow() {
+        Object before = snapshot();
+
+        store.apply(List.of(cleaningData(4L, BASE.plusMinutes(30), "C", 60L)), List.of());
+
+        assertThat(field(snapshot(), "starts")).isNotSameAs(field(before, "starts"));
+        assertThat(field(before, "size")).isEqualTo(3);
+        assertThat(ids()).containsExactly(1L, 4L, 2L, 3L);
+    }
+
+    @Test
+    void rebuildsWhenSpareCapacityRunsOut() {
+        Object before = snapshot();
+        int spare = ((long[]) field(before, "starts")).length - 3;
+        List<CleaningData> rows = IntStream.rangeClosed(1, spare + 1)
+                .mapToObj(i -> cleaningData(100L + i, BASE.plusHours(3).plusMinutes(i), "C", 10L))
+                .toList();
+
+        store.apply(rows, List.of());
+
+        assertThat(field(snapshot(), "starts")).isNotSameAs(field(before, "starts"));
+        assertThat(ids()).hasSize(3 + spare + 1).startsWith(1L, 2L, 3L, 101L).endsWith(100L + spare + 1);
+    }
+
+    @Test
+    void updateThatMovesStartTimeRemovesRowFromItsOldPosition() {
+        CleaningData previous = cleaningData(1L, BASE, "A", 30L);
+        CleaningData updated = cleaningData(1L, BASE.plusHours(5), "A", 35L);
+
+        store.apply(List.of(updated), List.of(previous));
+
+        assertThat(ids()).containsExactly(2L, 3L, 1L);
+        assertThat(store.forEach(BASE, BASE.plusHours(1), row -> {
+        })).isZero();
+    }
+
+    @Test
+    void removedRowIsFoundByIdWhenItsStartTimeDoesNotMatch() {
+        // 변경 전 상태를 알 수 없어 수정 후 시작 시간을 가진 행으로 제거를 요청해도 청소 ID로 찾아 제거합니다.
+        CleaningData updated = cleaningData(2L, BASE.plusHours(4), "B", 45L);
+
+        store.apply(List.of(updated), List.of(updated));
+
+        assertThat(ids()).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void removesOnlyTheMatchingIdAmongRowsWithTheSameStartTime() {
+        store.apply(List.of(cleaningData(4L, BASE.plusHours(1), "C", 60L)), List.of());
+
+        store.apply(List.of(), List.of(cleaningData(2L, BASE.plusHours(1), "B", 40L)));
+
+        assertThat(ids()).containsExactly(1L, 4L, 3L);
+    }
+
+    @Test
+    void ignoresRowsBeforeWindowAndUnknownRemovals() {
+        Object before = snapshot();
+
+        store.apply(List.of(cleaningData(5L, LocalDate.now().minusDays(60).atStartOfDay(), "A", 10L)),
+                List.of(cleaningData(99L, BASE, "A", 10L)));
+
+        assertThat(snapshot()).isSameAs(before);
+        assertThat(ids()).containsExactly(1L, 2L, 3L);
+    }
+
+    private List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        store.forEach(BASE.minusDays(1), LocalDateTime.now().plusDays(1), row -> ids.add(row.getCleaningId()));
+        return ids;
+    }
+
+    private Object snapshot() {
+        return ReflectionTestUtils.getField(store, "columns");
+    }
+
+    private static Object field(Object columns, String name) {
+        return ReflectionTestUtils.getField(columns, name);
+    }
+
+    private void insert(long id, LocalDateTime start, String location, long duration) {
+        jdbcTemplate.update("INSERT INTO CLEANING_DATA (cleaning_id, start_time, end_time, location, duration, "
+                        + "area_cleaned, water_usage, power_usage) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusMinutes(duration)), location, duration,
+                100.0, 5.0, 1.5);
+    }
+
+    private static CleaningData cleaningData(long id, LocalDateTime start, String location, long duration) {
+        CleaningData row = new CleaningData();
+        row.setCleaningId(id);
+        row.setStartTime(start);
+        row.setEndTime(start.plusMinutes(duration));
+        row.setLocation(location);
+        row.setDuration(duration);
+        row.setAreaCleaned(100.0);
+        row.setWaterUsage(5.0);
+        row.setPowerUsage(1.5);
+        return row;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.repository.RollupQueryPlan;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link CleaningDataService#planRollupQuery(LocalDateTime, LocalDateTime, String)}가 집계 기간을
+ * 원본 행 / 일 롤업 / 주·월 롤업 구간으로 빈틈없이 나누는지 검증합니다.
+ * 계획 수립에는 서비스의 의존성이 쓰이지 않으므로 비워 둡니다.
+ */
+class CleaningDataServiceTest {
+
+    private final CleaningDataService service = new CleaningDataService(null, null, null, null, null);
+
+    @Test
+    void splitsPartialDaysDayRollupsAndFullMonths() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 15, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 4, 10, 8, 0);
+
+        RollupQueryPlan plan = service.planRollupQuery(start, end, "location");
+
+        assertThat(plan.rawFrom1()).isEqualTo(start);
+        assertThat(plan.rawTo1()).isEqualTo(LocalDateTime.of(2025, 1, 16, 0, 0));
+        assertThat(plan.dayFrom1()).isEqualTo(LocalDate.of(2025, 1, 16));
+        assertThat(plan.dayTo1()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(plan.coarseGranularity()).isEqualTo(CleaningRollupService.MONTH);
+        assertThat(plan.coarseFrom()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(plan.coarseTo()).isEqualTo(LocalDate.of(2025, 4, 1));
+        assertThat(plan.dayFrom2()).isEqualTo(LocalDate.of(2025, 4, 1));
+        assertThat(plan.dayTo2()).isEqualTo(LocalDate.of(2025, 4, 10));
+        assertThat(plan.rawFrom2()).isEqualTo(LocalDateTime.of(2025, 4, 10, 0, 0));
+        assertThat(plan.rawTo2()).isEqualTo(end);
+        assertContiguous(plan, start, end);
+    }
+
+    @Test
+    void weeklyGroupingUsesFullMondayWeeks() {
+        // 2025-11-05는 수요일, 2025-11-27은 목요일입니다.
+        LocalDateTime start = LocalDateTime.of(2025, 11, 5, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 11, 27, 0, 0);
+
+        RollupQueryPlan plan = service.planRollupQuery(start, end, "week");
+
+        assertThat(plan.coarseGranularity()).isEqualTo(CleaningRollupService.WEEK);
+        assertThat(plan.coarseFrom()).isEqualTo(LocalDate.of(2025, 11, 10));
+        assertThat(plan.coarseTo()).isEqualTo(LocalDate.of(2025, 11, 24));
+        assertThat(plan.dayFrom1()).isEqualTo(LocalDate.of(2025, 11, 5));
+        assertThat(plan.dayTo2()).isEqualTo(LocalDate.of(2025, 11, 27));
+        // 자정에 맞춰진 경계에는 원본 행 구간이 없습니다.
+        assertThat(plan.rawFrom1()).isEqualTo(plan.rawTo1());
+        assertThat(plan.rawFrom2()).isEqualTo(plan.rawTo2());
+        assertContiguous(plan, start, end);
+    }
+
+    @Test
+    void dailyGroupingReadsOnlyDayRollups() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+        RollupQueryPlan plan = service.planRollupQuery(start, end, "day");
+
+        assertThat(plan.coarseFrom()).isEqualTo(plan.coarseTo());
+        assertThat(plan.dayFrom1()).isEqualTo(plan.dayTo1());
+        assertThat(plan.dayFrom2()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(plan.dayTo2()).isEqualTo(LocalDate.of(2025, 3, 1));
+        assertContiguous(plan, start, end);
+    }
+
+    @Test
+    void fallsBackToDayRollupsWhenNoFullMonthFits() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 20, 12, 0);
+
+        RollupQueryPlan plan = service.planRollupQuery(start, end, "location");
+
+        assertThat(plan.coarseFrom()).isEqualTo(plan.coarseTo());
+        assertThat(plan.dayFrom2()).isEqualTo(LocalDate.of(2025, 1, 10));
+        assertThat(plan.dayTo2()).isEqualTo(LocalDate.of(2025, 1, 20));
+        assertThat(plan.rawFrom2()).isEqualTo(LocalDateTime.of(2025, 1, 20, 0, 0));
+        assertContiguous(plan, start, end);
+    }
+
+    @Test
+    void rangeWithoutFullDayReadsOnlyRawRows() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 10, 9, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 11, 6, 0);
+
+        RollupQueryPlan plan = service.planRollupQuery(start, end, "week");
+
+        assertThat(plan.rawFrom1()).isEqualTo(start);
+        assertThat(plan.rawTo1()).isEqualTo(end);
+        assertThat(plan.rawFrom2()).isEqualTo(plan.rawTo2());
+        assertThat(plan.dayFrom1()).isEqualTo(plan.dayTo1());
+        assertThat(plan.dayFrom2()).isEqualTo(plan.dayTo2());
+        assertThat(plan.coarseFrom()).isEqualTo(plan.coarseTo());
+    }
+
+    // 각 구간의 끝이 다음 구간의 시작과 맞물려 [start, end)를 겹침 없이 덮는지 확인합니다.
+    private static void assertContiguous(RollupQueryPlan plan, LocalDateTime start, LocalDateTime end) {
+        assertThat(plan.rawFrom1()).isEqualTo(start);
+        assertThat(plan.rawTo1()).isEqualTo(plan.dayFrom1().atStartOfDay());
+        assertThat(plan.dayTo1()).isEqualTo(plan.coarseFrom());
+        assertThat(plan.coarseTo()).isEqualTo(plan.dayFrom2());
+        assertThat(plan.dayTo2().atStartOfDay()).isEqualTo(plan.rawFrom2());
+        assertThat(plan.rawTo2()).isEqualTo(end);
+    }
+}
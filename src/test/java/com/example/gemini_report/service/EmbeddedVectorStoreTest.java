@@ -0,0 +1,155 @@
+package com.example.gemini_report.service;
+
+import com.example.gemini_report.event.VectorIndexChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link EmbeddedVectorStore}의 스냅숏 재로드와 압축을 검증합니다.
+ */
+class EmbeddedVectorStoreTest {
+
+    private static final int DIMENSION = 16;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(7);
+    private final List<Object> events = new ArrayList<>();
+    private EmbeddedVectorStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void reopenRestoresChunksFromSnapshot() {
+        store = open();
+        List<CompanyChunk> chunks = chunks("doc-a", 50);
+        store.upsert(chunks);
+        store.upsert(chunks("doc-b", 10));
+        store.delete(List.of("doc-a-3"));
+        List<Map<String, Object>> before = store.search(chunks.get(10).embedding(), 5);
+        store.close();
+
+        store = open();
+
+        assertThat(store.getIndexStatus()).containsEntry("rows", 59).containsEntry("deletedNodes", 1);
+        assertThat(store.findChunkHashes("doc-a")).hasSize(49).containsEntry("doc-a-10", "hash-10").doesNotContainKey("doc-a-3");
+        assertThat(store.findChunkHashes("doc-b")).hasSize(10);
+        List<Map<String, Object>> after = store.search(chunks.get(10).embedding(), 5);
+        assertThat(after).isEqualTo(before);
+        assertThat(after.get(0)).containsEntry("id", "doc-a-10").containsEntry("original_text", "text doc-a 10");
+        assertThat(after).allSatisfy(result -> assertThat((Float) result.get("score")).isBetween(0f, 1f));
+    }
+
+    @Test
+    void upsertReplacesExistingChunk() {
+        store = open();
+        store.upsert(chunks("doc", 5));
+        CompanyChunk replacement = new CompanyChunk("doc-2", "doc", "hash-new", "new text", randomUnitVector());
+        store.upsert(List.of(replacement));
+
+        assertThat(store.findChunkHashes("doc")).hasSize(5).containsEntry("doc-2", "hash-new");
+        assertThat(store.search(replacement.embedding(), 1).get(0)).containsEntry("id", "doc-2").containsEntry("original_text", "new text");
+    }
+
+    @Test
+    void compactionDropsDeletedNodesAndOldVectorFile() throws IOException {
+        store = open();
+        List<CompanyChunk> chunks = chunks("doc", 40);
+        store.upsert(chunks);
+        assertThat(store.rebuildIndexIfNeeded()).isFalse();
+
+        store.delete(IntStream.range(0, 30).mapToObj(i -> "doc-" + i).toList());
+        assertThat(store.getIndexStatus()).containsEntry("rows", 10).containsEntry("deletedNodes", 30);
+
+        assertThat(store.rebuildIndexIfNeeded()).isTrue();
+        assertThat(events).hasSize(1).allMatch(VectorIndexChangedEvent.class::isInstance);
+        assertThat(store.getIndexStatus()).containsEntry("rows", 10).containsEntry("deletedNodes", 0);
+        assertThat(vectorFiles()).hasSize(1);
+        assertThat(store.search(chunks.get(35).embedding(), 1).get(0)).containsEntry("id", "doc-35");
+        assertThat(store.rebuildIndexIfNeeded()).isFalse();
+        store.close();
+
+        store = open();
+        assertThat(store.getIndexStatus()).containsEntry("rows", 10).containsEntry("deletedNodes", 0);
+        assertThat(store.findChunkHashes("doc")).containsOnlyKeys(IntStream.range(30, 40).mapToObj(i -> "doc-" + i).toList());
+        assertThat(store.search(chunks.get(31).embedding(), 1).get(0)).containsEntry("id", "doc-31");
+    }
+
+    @Test
+    void consecutiveReindexesKeepTheirOwnVectorFiles() throws IOException {
+        store = open();
+        // 작은 재색인을 연달아 실행하면 같은 밀리초에 새 세대가 만들어질 수 있습니다.
+        List<CompanyChunk> chunks = chunks("doc", 3);
+        for (int i = 0; i < 20; i++) {
+            store.reindex(chunks);
+        }
+        store.close();
+
+        store = open();
+        assertThat(vectorFiles()).hasSize(1);
+        assertThat(store.getIndexStatus()).containsEntry("rows", 3);
+        assertThat(store.search(chunks.get(2).embedding(), 1).get(0)).containsEntry("id", "doc-2");
+    }
+
+    @Test
+    void snapshotWithDifferentDimensionStartsEmpty() {
+        store = open();
+        store.upsert(chunks("doc", 5));
+        store.close();
+
+        store = new EmbeddedVectorStore(events::add, directory.toString(), DIMENSION * 2, 8, 64, 32, 128, 0.5);
+
+        assertThat(store.getIndexStatus()).containsEntry("rows", 0);
+        assertThat(store.findChunkHashes("doc")).isEmpty();
+    }
+
+    private EmbeddedVectorStore open() {
+        return new EmbeddedVectorStore(events::add, directory.toString(), DIMENSION, 8, 64, 32, 128, 0.5);
+    }
+
+    private List<Path> vectorFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".bin")).toList();
+        }
+    }
+
+    private List<CompanyChunk> chunks(String docId, int count) {
+        List<CompanyChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chunks.add(new CompanyChunk(docId + "-" + i, docId, "hash-" + i, "text " + docId + " " + i, randomUnitVector()));
+        }
+        return chunks;
+    }
+
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSION];
+        double norm = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.gemini_report.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link EmbeddingCache}가 다시 열었을 때 저장된 임베딩을 그대로 돌려주는지 검증합니다.
+ */
+class EmbeddingCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedCacheReturnsPersistedVectors() {
+        EmbeddingCache cache = new EmbeddingCache(true, directory.toString(), 4, 100);
+        byte[] key = cache.key("model", "hello");
+        assertThat(cache.get(key)).isEmpty();
+        cache.put(key, new float[]{1, 2, 3, 4});
+        for (int i = 0; i < 50; i++) {
+            cache.put(cache.key("model", "text " + i), new float[]{i, i + 1, i + 2, i + 3});
+        }
+        cache.close();
+
+        EmbeddingCache reopened = new EmbeddingCache(true, directory.toString(), 4, 100);
+        try {
+            assertThat(reopened.getStats()).containsEntry("entries", 51);
+            assertThat(reopened.get(reopened.key("model", "hello"))).hasValueSatisfying(
+                    vector -> assertThat(vector).containsExactly(1, 2, 3, 4));
+            assertThat(reopened.get(reopened.key("model", "text 42"))).hasValueSatisfying(
+                    vector -> assertThat(vector).containsExactly(42, 43, 44, 45));
+            assertThat(reopened.get(reopened.key("other-model", "hello"))).isEmpty();
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void stopsAddingAtMaxEntriesAndIgnoresDuplicates() {
+        EmbeddingCache cache = new EmbeddingCache(true, directory.toString(), 2, 3);
+        try {
+            cache.put(cache.key("model", "a"), new float[]{1, 1});
+            cache.put(cache.key("model", "a"), new float[]{9, 9});
+            cache.put(cache.key("model", "b"), new float[]{2, 2});
+            cache.put(cache.key("model", "c"), new float[]{3, 3});
+            cache.put(cache.key("model", "d"), new float[]{4, 4});
+            cache.put(cache.key("model", "e"), new float[]{5, 5, 5});
+
+            assertThat(cache.getStats()).containsEntry("entries", 3);
+            assertThat(cache.get(cache.key("model", "a"))).hasValueSatisfying(vector -> assertThat(vector).containsExactly(1, 1));
+            assertThat(cache.get(cache.key("model", "d"))).isEmpty();
+        } finally {
+            cache.close();
+        }
+    }
+
+    @Test
+    void cacheWithDifferentDimensionDoesNotReuseEntries() {
+        EmbeddingCache cache = new EmbeddingCache(true, directory.toString(), 4, 10);
+        cache.put(cache.key("model", "hello"), new float[]{1, 2, 3, 4});
+        cache.close();
+
+        EmbeddingCache resized = new EmbeddingCache(true, directory.toString(), 8, 10);
+        try {
+            assertThat(resized.get(resized.key("model", "hello"))).isEmpty();
+        } finally {
+            resized.close();
+        }
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        EmbeddingCache cache = new EmbeddingCache(false, directory.resolve("unused").toString(), 4, 10);
+        byte[] key = cache.key("model", "hello");
+        cache.put(key, new float[]{1, 2, 3, 4});
+
+        assertThat(cache.get(key)).isEmpty();
+        assertThat(directory.resolve("unused")).doesNotExist();
+    }
+}
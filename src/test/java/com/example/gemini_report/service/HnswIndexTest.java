@@ -0,0 +1,160 @@
+package com.example.gemini_report.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * {@link HnswIndex}의 추가/검색/삭제와 그래프 저장/복원을 검증합니다.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+    private static final int NODES = 1000;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(42);
+    private float[][] vectors;
+    private HnswIndex index;
+
+    @BeforeEach
+    void setUp() {
+        vectors = new float[NODES][];
+        index = new HnswIndex(directory.resolve("vectors.bin"), DIMENSION, 16, 100);
+        for (int i = 0; i < NODES; i++) {
+            vectors[i] = randomUnitVector();
+            assertThat(index.add(vectors[i])).isEqualTo(i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void storedVectorFindsItselfFirst() {
+        for (int node = 0; node < NODES; node += 97) {
+            List<HnswIndex.Candidate> result = index.search(vectors[node], 5, 64);
+
+            assertThat(result).hasSize(5);
+            assertThat(result.get(0).node()).isEqualTo(node);
+            assertThat(result.get(0).distance()).isCloseTo(0f, within(1e-5f));
+            assertThat(index.vector(node)).containsExactly(vectors[node]);
+        }
+    }
+
+    @Test
+    void searchMatchesExactNeighbors() {
+        int topK = 10;
+        double recall = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector();
+            Set<Integer> expected = exactNeighbors(query, topK);
+            Set<Integer> found = nodes(index.search(query, topK, 128));
+            found.retainAll(expected);
+            recall += (double) found.size() / topK;
+        }
+
+        assertThat(recall / queries).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void removedNodesAreExcludedFromResults() {
+        Set<Integer> removed = new HashSet<>();
+        for (int node = 0; node < NODES; node += 3) {
+            index.remove(node);
+            removed.add(node);
+        }
+        index.remove(0);
+
+        assertThat(index.deletedCount()).isEqualTo(removed.size());
+        assertThat(index.size()).isEqualTo(NODES);
+        for (int q = 0; q < 20; q++) {
+            List<HnswIndex.Candidate> result = index.search(randomUnitVector(), 10, 128);
+            assertThat(result).hasSize(10);
+            assertThat(nodes(result)).doesNotContainAnyElementsOf(removed);
+        }
+        assertThat(nodes(index.search(vectors[3], 1, 64))).doesNotContain(3);
+    }
+
+    @Test
+    void graphRoundTripRestoresSearchResults() throws Exception {
+        index.remove(7);
+        index.remove(500);
+        List<float[]> queries = IntStream.range(0, 10).mapToObj(i -> randomUnitVector()).toList();
+        List<List<HnswIndex.Candidate>> before = queries.stream().map(query -> index.search(query, 10, 64)).toList();
+
+        ByteArrayOutputStream graph = new ByteArrayOutputStream();
+        index.writeGraph(new DataOutputStream(graph));
+        index.close();
+
+        index = new HnswIndex(directory.resolve("vectors.bin"), DIMENSION, 16, 100);
+        index.readGraph(new DataInputStream(new ByteArrayInputStream(graph.toByteArray())));
+
+        assertThat(index.size()).isEqualTo(NODES);
+        assertThat(index.deletedCount()).isEqualTo(2);
+        assertThat(index.isDeleted(7)).isTrue();
+        assertThat(index.isDeleted(8)).isFalse();
+        assertThat(index.vector(123)).containsExactly(vectors[123]);
+        for (int q = 0; q < queries.size(); q++) {
+            assertThat(index.search(queries.get(q), 10, 64)).isEqualTo(before.get(q));
+        }
+    }
+
+    private Set<Integer> exactNeighbors(float[] query, int topK) {
+        Set<Integer> nearest = new HashSet<>();
+        IntStream.range(0, NODES)
+                .boxed()
+                .sorted(Comparator.comparingDouble(node -> -dot(query, vectors[node])))
+                .limit(topK)
+                .forEach(nearest::add);
+        return nearest;
+    }
+
+    private static Set<Integer> nodes(List<HnswIndex.Candidate> candidates) {
+        Set<Integer> nodes = new HashSet<>();
+        candidates.forEach(candidate -> nodes.add(candidate.node()));
+        return nodes;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSION];
+        double norm = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gemini_report.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RequestCoalescer}의 리더/팔로워 결과 공유와 실행 종료 후 키 제거를 검증합니다.
+ * 작업 완료 시점을 테스트에서 정하도록 {@link Sinks.One}으로 만든 작업을 사용합니다.
+ * 반환된 {@link Mono}는 구독할 때마다 새 요청으로 취급되므로 요청마다 한 번만 구독합니다.
+ */
+class RequestCoalescerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final List<Sinks.One<String>> tasks = new ArrayList<>();
+
+    @Test
+    void followersShareTheLeadersExecutionAndResult() {
+        List<String> results = new ArrayList<>();
+        coalescer.execute("report", this::newTask).subscribe(results::add);
+        coalescer.execute("report", this::newTask).subscribe(results::add);
+        coalescer.execute("report", this::newTask).subscribe(results::add);
+
+        tasks.getFirst().tryEmitValue("done");
+
+        assertThat(executions).hasValue(1);
+        assertThat(results).containsExactly("done", "done", "done");
+        assertThat(coalescer.getLeaders()).isEqualTo(1);
+        assertThat(coalescer.getCoalesced()).isEqualTo(2);
+    }
+
+    @Test
+    void differentKeysRunSeparately() {
+        coalescer.execute("a", this::newTask).subscribe();
+        coalescer.execute("b", this::newTask).subscribe();
+
+        assertThat(executions).hasValue(2);
+        assertThat(coalescer.getCoalesced()).isZero();
+    }
+
+    @Test
+    void keyIsRemovedWhenExecutionCompletes() {
+        List<String> results = new ArrayList<>();
+        coalescer.execute("report", this::newTask).subscribe(results::add);
+        tasks.getFirst().tryEmitValue("first");
+
+        coalescer.execute("report", this::newTask).subscribe(results::add);
+        tasks.get(1).tryEmitValue("second");
+
+        assertThat(executions).hasValue(2);
+        assertThat(results).containsExactly("first", "second");
+        assertThat(coalescer.getLeaders()).isEqualTo(2);
+        assertThat(coalescer.getCoalesced()).isZero();
+    }
+
+    @Test
+    void followersReceiveTheLeadersErrorAndKeyIsRemoved() {
+        List<Throwable> errors = new ArrayList<>();
+        coalescer.execute("report", this::newTask).subscribe(value -> {
+        }, errors::add);
+        coalescer.execute("report", this::newTask).subscribe(value -> {
+        }, errors::add);
+
+        IllegalStateException failure = new IllegalStateException("gemini failed");
+        tasks.getFirst().tryEmitError(failure);
+
+        assertThat(executions).hasValue(1);
+        assertThat(errors).containsExactly(failure, failure);
+        // 실패한 실행도 키에서 제거되므로 재시도는 새 실행을 시작합니다.
+        assertThat(coalescer.execute("report", () -> Mono.just("retried")).block(TIMEOUT)).isEqualTo("retried");
+        assertThat(coalescer.getLeaders()).isEqualTo(2);
+    }
+
+    @Test
+    void leaderCancellationDoesNotCancelTheSharedExecution() {
+        Disposable leader = coalescer.execute("report", this::newTask).subscribe();
+        List<String> followerResults = new ArrayList<>();
+        coalescer.execute("report", this::newTask).subscribe(followerResults::add);
+
+        leader.dispose();
+        tasks.getFirst().tryEmitValue("done");
+
+        assertThat(executions).hasValue(1);
+        assertThat(followerResults).containsExactly("done");
+    }
+
+    @Test
+    void executionIsStartedLazilyOnSubscription() {
+        Mono<String> pending = coalescer.execute("report", this::newTask);
+        assertThat(executions).hasValue(0);
+
+        pending.subscribe();
+        assertThat(executions).hasValue(1);
+    }
+
+    private Mono<String> newTask() {
+        executions.incrementAndGet();
+        Sinks.One<String> task = Sinks.one();
+        tasks.add(task);
+        return task.asMono();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.gemini_report.service;
+
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * {@link VectorStorage}의 인코딩/디코딩 왕복을 검증합니다.
+ */
+class VectorStorageTest {
+
+    private static final float[] VECTOR = {0.5f, -0.25f, 0.125f, -1f, 0f, 0.333f, -0.0001f, 0.75f, 0.2f, -0.6f, 0.01f, 0.9f, -0.3f, 0.4f, -0.45f, 0.05f};
+
+    @Test
+    void floatRoundTripIsExact() {
+        Object encoded = VectorStorage.FLOAT.encode(VECTOR);
+
+        assertThat(encoded).asInstanceOf(InstanceOfAssertFactories.list(Float.class))
+                .hasSize(VECTOR.length)
+                .startsWith(0.5f, -0.25f);
+        assertThat(VectorStorage.FLOAT.decode(encoded)).containsExactly(VECTOR);
+    }
+
+    @Test
+    void float16RoundTripIsWithinHalfPrecision() {
+        ByteBuffer encoded = (ByteBuffer) VectorStorage.FLOAT16.encode(VECTOR);
+
+        assertThat(encoded.remaining()).isEqualTo(VECTOR.length * Short.BYTES);
+        float[] decoded = VectorStorage.FLOAT16.decode(encoded);
+        assertThat(decoded).hasSize(VECTOR.length);
+        for (int i = 0; i < VECTOR.length; i++) {
+            assertThat(decoded[i]).isCloseTo(VECTOR[i], within(Math.abs(VECTOR[i]) * 1e-3f + 1e-6f));
+        }
+        assertThat(encoded.position()).isZero();
+    }
+
+    @Test
+    void binaryKeepsSignsAndReencodesToSameBits() {
+        ByteBuffer encoded = (ByteBuffer) VectorStorage.BINARY.encode(VECTOR);
+
+        assertThat(encoded.remaining()).isEqualTo(VECTOR.length / 8);
+        assertThat(VectorStorage.signBits(VECTOR)).containsExactly((byte) 0b1010_0101, (byte) 0b1011_0101);
+        float[] decoded = VectorStorage.BINARY.decode(encoded);
+        float magnitude = (float) (1 / Math.sqrt(VECTOR.length));
+        for (int i = 0; i < VECTOR.length; i++) {
+            assertThat(decoded[i]).isEqualTo(VECTOR[i] > 0 ? magnitude : -magnitude);
+        }
+        assertThat(VectorStorage.signBits(decoded)).containsExactly(VectorStorage.signBits(VECTOR));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.gemini_report.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link DateRangeExtractor}의 날짜 표현 해석을 검증합니다. 기준일은 2025-11-12(수요일)입니다.
+ */
+class DateRangeExtractorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 11, 12);
+
+    @Test
+    void isoDates() {
+        assertRange("2025-11-01 ~ 2025-11-07 청소 리포트", "2025-11-01", "2025-11-07");
+        assertRange("2025-11-07부터 2025-11-01까지", "2025-11-01", "2025-11-07");
+        assertRange("2025-11-03 청소 기록", "2025-11-03", "2025-11-03");
+    }
+
+    @Test
+    void ambiguousOrInvalidDatesFallBackToModel() {
+        assertThat(DateRangeExtractor.extract("2025-11-01, 2025-11-02, 2025-11-03 비교", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("2025-13-40 리포트", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("최근 0일", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("청소 리포트 만들어줘", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract(null, TODAY)).isEmpty();
+    }
+
+    @Test
+    void severalPeriodExpressionsFallBackToModel() {
+        assertThat(DateRangeExtractor.extract("지난주와 이번주 청소 비교", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("compare last month with this month", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("2025-11-03부터 오늘까지", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("최근 7일과 지난달", TODAY)).isEmpty();
+        assertThat(DateRangeExtractor.extract("최근 7일과 최근 30일", TODAY)).isEmpty();
+    }
+
+    @Test
+    void recentDays() {
+        assertRange("최근 7일 청소 현황", "2025-11-06", "2025-11-12");
+        assertRange("지난 30일", "2025-10-14", "2025-11-12");
+        assertRange("Report for the last 3 days", "2025-11-10", "2025-11-12");
+    }
+
+    @Test
+    void weeks() {
+        assertRange("이번 주 리포트", "2025-11-10", "2025-11-12");
+        assertRange("지난주 청소", "2025-11-03", "2025-11-09");
+        assertRange("last week", "2025-11-03", "2025-11-09");
+    }
+
+    @Test
+    void months() {
+        assertRange("이번 달 리포트", "2025-11-01", "2025-11-12");
+        assertRange("지난달 청소 요약", "2025-10-01", "2025-10-31");
+        assertThat(DateRangeExtractor.extract("last month", LocalDate.of(2025, 3, 31)))
+                .hasValueSatisfying(range -> assertThat(range).containsExactly(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)));
+    }
+
+    @Test
+    void days() {
+        assertRange("오늘 청소 기록", "2025-11-12", "2025-11-12");
+        assertRange("어제 청소 기록", "2025-11-11", "2025-11-11");
+        assertRange("Yesterday", "2025-11-11", "2025-11-11");
+    }
+
+    private static void assertRange(String prompt, String start, String end) {
+        assertThat(DateRangeExtractor.extract(prompt, TODAY))
+                .as(prompt)
+                .hasValueSatisfying(range -> assertThat(range).containsExactly(LocalDate.parse(start), LocalDate.parse(end)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.gemini_report.tools;
+
+import com.google.genai.types.FunctionCall;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link IntentRouter}가 등록된 도구 중 하나로만 확신할 수 있을 때 라우팅하는지 검증합니다.
+ * 라우팅 판단에는 도구의 키워드와 인자 추출만 쓰이므로 도구의 서비스 의존성은 비워 둡니다.
+ */
+class IntentRouterTest {
+
+    private final IntentRouter router = newRouter();
+
+    private static IntentRouter newRouter() {
+        ToolRegistry registry = new ToolRegistry(List.of(
+                new CleaningReportToolExecutor(null, null, null, null, null),
+                new CleaningStatsToolExecutor(null, null, null),
+                new CompanyInfoToolExecutor(null, null)));
+        registry.init();
+        return new IntentRouter(registry, true, 1);
+    }
+
+    @Test
+    void routesEnglishCleaningReportPromptToReportTool() {
+        assertRoutedTo("cleaning report for last week", "get_cleaning_report");
+        assertRoutedTo("Show the cleaning summary for yesterday", "get_cleaning_report");
+    }
+
+    @Test
+    void routesKoreanCleaningReportPromptToReportTool() {
+        assertRoutedTo("지난주 청소 리포트 만들어줘", "get_cleaning_report");
+    }
+
+    @Test
+    void routesStatisticsPromptToStatsTool() {
+        Optional<List<FunctionCall>> calls = router.route("지난주 장소별 통계 알려줘");
+
+        assertThat(calls).hasValueSatisfying(list -> {
+            assertThat(list).singleElement().satisfies(call -> {
+                assertThat(call.name()).hasValue("aggregate_cleaning_stats");
+                assertThat(call.args()).hasValueSatisfying(args -> assertThat(args).containsEntry("groupBy", "location"));
+            });
+        });
+    }
+
+    @Test
+    void routesCompanyPromptToCompanyTool() {
+        assertRoutedTo("Tell me about the company information", "get_company_info");
+        assertRoutedTo("회사 설립 연도가 언제야?", "get_company_info");
+    }
+
+    @Test
+    void toolNameTokensDoNotMakePromptsAmbiguous() {
+        // "information"은 get_company_info의 이름 토큰 "info"를 포함하지만 회사 도구의 키워드는 아닙니다.
+        assertThat(router.route("cleaning information for last week"))
+                .hasValueSatisfying(calls -> assertThat(calls.getFirst().name()).hasValue("get_cleaning_report"));
+    }
+
+    @Test
+    void fallsBackWhenSeveralToolsMatch() {
+        assertThat(router.route("지난주 청소 통계")).isEmpty();
+        assertThat(router.route("회사 청소 보고서 지난주")).isEmpty();
+        assertThat(router.getFallback()).isEqualTo(2);
+    }
+
+    @Test
+    void fallsBackWhenPromptNamesSeveralPeriods() {
+        assertThat(router.route("지난주와 이번주 청소 리포트 비교")).isEmpty();
+        assertThat(router.route("cleaning report from 2025-11-03 to today")).isEmpty();
+    }
+
+    @Test
+    void fallsBackWhenNoToolMatchesOrArgumentsAreMissing() {
+        assertThat(router.route("안녕하세요")).isEmpty();
+        assertThat(router.route("청소 리포트 만들어줘")).isEmpty();
+        assertThat(router.getRouted()).isZero();
+    }
+
+    private void assertRoutedTo(String prompt, String toolName) {
+        assertThat(router.route(prompt))
+                .as(prompt)
+                .hasValueSatisfying(calls -> assertThat(calls).singleElement()
+                        .satisfies(call -> assertThat(call.name()).hasValue(toolName)));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.gemini_report.tools;
+
+import com.example.gemini_report.event.ToolDataChangedEvent;
+import com.google.genai.types.Content;
+import com.google.genai.types.FunctionDeclaration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link ToolRegistry}의 도구 결과 캐시와 이벤트 기반 무효화를 검증합니다.
+ */
+class ToolRegistryTest {
+
+    private final CountingExecutor executor = new CountingExecutor();
+    private final ToolRegistry registry = new ToolRegistry(List.of(executor));
+
+    ToolRegistryTest() {
+        registry.init();
+    }
+
+    @Test
+    void cachesResultsByCanonicalArguments() {
+        String first = registry.execute(executor, Map.of("a", "1", "b", "2"));
+        String second = registry.execute(executor, Map.of("b", "2", "a", "1"));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(executor.calls).hasValue(1);
+    }
+
+    @Test
+    void invalidationRemovesCachedEntries() {
+        registry.execute(executor, Map.of("a", "1"));
+        registry.onDataChanged(new ToolDataChangedEvent() {
+        });
+
+        registry.execute(executor, Map.of("a", "1"));
+
+        assertThat(executor.calls).hasValue(2);
+    }
+
+    @Test
+    void resultOfExecutionOverlappingInvalidationIsNotCached() throws Exception {
+        executor.block = new CountDownLatch(1);
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> registry.execute(executor, Map.of("a", "1")));
+        assertThat(executor.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 실행 도중 데이터가 바뀌고 무효화가 처리된 뒤에 실행이 끝납니다.
+        registry.onDataChanged(new ToolDataChangedEvent() {
+        });
+        executor.block.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("result-1");
+
+        executor.block = null;
+        assertThat(registry.execute(executor, Map.of("a", "1"))).isEqualTo("result-2");
+        assertThat(executor.calls).hasValue(2);
+    }
+
+    @Test
+    void reactiveResultOfExecutionOverlappingInvalidationIsNotCached() {
+        CountingReactiveExecutor reactive = new CountingReactiveExecutor();
+        ToolRegistry reactiveRegistry = new ToolRegistry(List.of(reactive));
+        reactiveRegistry.init();
+        reactive.onExecute = () -> reactiveRegistry.onDataChanged(new ToolDataChangedEvent() {
+        });
+
+        reactiveRegistry.executeReactive(reactive, Map.of("a", "1")).block();
+        reactive.onExecute = null;
+        reactiveRegistry.executeReactive(reactive, Map.of("a", "1")).block();
+        reactiveRegistry.executeReactive(reactive, Map.of("a", "1")).block();
+
+        assertThat(reactive.calls).hasValue(2);
+    }
+
+    private static class CountingExecutor implements ToolExecutor {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile CountDownLatch block;
+
+        @Override
+        public String getToolName() {
+            return "counting_tool";
+        }
+
+        @Override
+        public FunctionDeclaration getFunctionDeclaration() {
+            return FunctionDeclaration.builder().name(getToolName()).build();
+        }
+
+        @Override
+        public String execute(Map<String, Object> args) {
+            int call = calls.incrementAndGet();
+            started.countDown();
+            CountDownLatch latch = block;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "result-" + call;
+        }
+
+        @Override
+        public String getTemplatedPrompt(String originalPrompt) {
+            return originalPrompt;
+        }
+
+        @Override
+        public Content getSystemInstruction() {
+            return null;
+        }
+
+        @Override
+        public ToolCachePolicy getCachePolicy() {
+            return ToolCachePolicy.of(Duration.ofMinutes(10), 100);
+        }
+
+        @Override
+        public boolean isInvalidatedBy(ToolDataChangedEvent event, Map<String, Object> args) {
+            return true;
+        }
+    }
+
+    private static class CountingReactiveExecutor extends CountingExecutor implements ReactiveToolExecutor {
+        volatile Runnable onExecute;
+
+        @Override
+        public String getToolName() {
+            return "counting_reactive_tool";
+        }
+
+        @Override
+        public Mono<String> executeReactive(Map<String, Object> args) {
+            return Mono.fromSupplier(() -> {
+                String result = execute(args);
+                Runnable hook = onExecute;
+                if (hook != null) {
+                    hook.run();
+                }
+                return result;
+            });
+        }
+    }
+}